@@ -1,11 +1,14 @@
 package com.TP6.businessService;
 
+import com.TP6.businessService.config.HintsNativos;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
 @EnableFeignClients
+@ImportRuntimeHints(HintsNativos.class)
 public class BusinessServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,234 @@
+package com.TP6.businessService.client;
+
+import com.TP6.businessService.dto.AjusteInventarioDTO;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.EventoCambioDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// Variante asíncrona de DataServiceClient: cada método devuelve un CompletableFuture que se
+// resuelve en el executor del data-service, para lanzar en paralelo llamadas independientes.
+// Los errores llegan envueltos en CompletionException con la FeignException original como causa.
+@Component
+public class DataServiceAsyncClient {
+
+    private final DataServiceClient dataServiceClient;
+    private final Executor executor;
+
+    public DataServiceAsyncClient(DataServiceClient dataServiceClient,
+                                  @Qualifier("dataServiceExecutor") Executor executor) {
+        this.dataServiceClient = dataServiceClient;
+        this.executor = executor;
+    }
+
+    // Espera el resultado y relanza la excepción original (p. ej. FeignException.NotFound)
+    // para que los services la traduzcan igual que en las llamadas síncronas
+    public static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    // ---------- PRODUCTOS ----------
+
+    // Obtiene todos los productos
+    public CompletableFuture<List<ProductoDTO>> obtenerTodosLosProductos() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerTodosLosProductos, executor);
+    }
+
+    // Obtiene una página de productos ordenada por id, a partir del id indicado (exclusivo)
+    public CompletableFuture<List<ProductoDTO>> obtenerPaginaDeProductos(Long desdeId, int limite) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerPaginaDeProductos(desdeId, limite), executor);
+    }
+
+    // Obtiene un producto por su ID
+    public CompletableFuture<ProductoDTO> obtenerProductoPorId(Long id) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerProductoPorId(id), executor);
+    }
+
+    // Obtiene un producto por su nombre
+    public CompletableFuture<ProductoDTO> obtenerProductoPorNombre(String nombre) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerProductoPorNombre(nombre), executor);
+    }
+
+    // Obtiene productos con un precio exacto
+    public CompletableFuture<List<ProductoDTO>> obtenerProductosPorPrecio(BigDecimal precio) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerProductosPorPrecio(precio), executor);
+    }
+
+    // Obtiene productos filtrados por nombre de categoría
+    public CompletableFuture<List<ProductoDTO>> obtenerProductosPorCategoria(String nombre) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerProductosPorCategoria(nombre), executor);
+    }
+
+    // Crea un nuevo producto
+    public CompletableFuture<ProductoDTO> crearProducto(ProductoRequest request) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.crearProducto(request), executor);
+    }
+
+    // Actualiza un producto existente por ID
+    public CompletableFuture<ProductoDTO> actualizarProducto(Long id, ProductoRequest request) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.actualizarProducto(id, request), executor);
+    }
+
+    // Modifica sólo los campos enviados de un producto (JSON Merge Patch)
+    public CompletableFuture<ProductoDTO> modificarProducto(Long id, Map<String, Object> cambios) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.modificarProducto(id, cambios), executor);
+    }
+
+    // Elimina un producto por ID
+    public CompletableFuture<Void> eliminarProducto(Long id) {
+        return CompletableFuture.runAsync(() -> dataServiceClient.eliminarProducto(id), executor);
+    }
+
+    // Elimina varios productos por ID en un solo pedido
+    public CompletableFuture<ResultadoEliminacionDTO> eliminarProductos(List<Long> ids) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.eliminarProductos(ids), executor);
+    }
+
+    // Obtiene productos cuyo stock es menor o igual al mínimo
+    public CompletableFuture<List<ProductoDTO>> obtenerProductosConStockBajo() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerProductosConStockBajo, executor);
+    }
+
+
+    // ---------- CATEGORÍAS ----------
+
+    // Obtiene todas las categorías
+    public CompletableFuture<List<CategoriaDTO>> obtenerTodasLasCategorias() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerTodasLasCategorias, executor);
+    }
+
+    // Obtiene una categoría por su ID
+    public CompletableFuture<CategoriaDTO> obtenerCategoriaPorId(Long id) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerCategoriaPorId(id), executor);
+    }
+
+    // Obtiene una categoría por su nombre
+    public CompletableFuture<CategoriaDTO> obtenerCategoriaPorNombre(String nombre) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerCategoriaPorNombre(nombre), executor);
+    }
+
+    // Crea una nueva categoría
+    public CompletableFuture<CategoriaDTO> crearCategoria(CategoriaDTO categoriaDTO) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.crearCategoria(categoriaDTO), executor);
+    }
+
+    // Actualiza una categoría existente por ID
+    public CompletableFuture<CategoriaDTO> actualizarCategoria(Long id, CategoriaDTO categoriaDTO) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.actualizarCategoria(id, categoriaDTO), executor);
+    }
+
+    // Modifica sólo los campos enviados de una categoría (JSON Merge Patch)
+    public CompletableFuture<CategoriaDTO> modificarCategoria(Long id, Map<String, Object> cambios) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.modificarCategoria(id, cambios), executor);
+    }
+
+    // Elimina una categoría por ID
+    public CompletableFuture<Void> eliminarCategoria(Long id) {
+        return CompletableFuture.runAsync(() -> dataServiceClient.eliminarCategoria(id), executor);
+    }
+
+    // Elimina todos los productos de una categoría (la categoría se conserva)
+    public CompletableFuture<ResultadoEliminacionDTO> eliminarProductosDeCategoria(Long id) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.eliminarProductosDeCategoria(id), executor);
+    }
+
+    // Obtiene todas las categorías junto con sus productos
+    public CompletableFuture<List<CategoriaDTO>> obtenerCategoriasConProductos() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerCategoriasConProductos, executor);
+    }
+
+    public CompletableFuture<List<ResumenCategoriaDTO>> obtenerResumenCategorias() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerResumenCategorias, executor);
+    }
+
+
+    // ---------- INVENTARIOS ----------
+
+    // Obtiene inventarios cuyo stock es menor o igual al mínimo
+    public CompletableFuture<List<InventarioDTO>> obtenerInventariosConStockBajo() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerInventariosConStockBajo, executor);
+    }
+
+    // Obtiene inventarios cuyo stock es mayor al mínimo
+    public CompletableFuture<List<InventarioDTO>> obtenerInventariosConStockAlto() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerInventariosConStockAlto, executor);
+    }
+
+    // Obtiene un inventario por su ID
+    public CompletableFuture<InventarioDTO> obtenerInventarioPorId(Long id) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerInventarioPorId(id), executor);
+    }
+
+    // Obtiene el inventario asociado a un producto
+    public CompletableFuture<InventarioDTO> obtenerInventarioPorProducto(Long productoId) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerInventarioPorProducto(productoId), executor);
+    }
+
+    // Obtiene inventarios que tienen una cantidad exacta
+    public CompletableFuture<List<InventarioDTO>> obtenerInventariosPorCantidad(Integer cantidad) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerInventariosPorCantidad(cantidad), executor);
+    }
+
+    // Obtiene todos los inventarios registrados
+    public CompletableFuture<List<InventarioDTO>> obtenerTodosLosInventarios() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerTodosLosInventarios, executor);
+    }
+
+    // Crea un nuevo inventario
+    public CompletableFuture<InventarioDTO> crearInventario(InventarioDTO inventarioDTO) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.crearInventario(inventarioDTO), executor);
+    }
+
+    // Actualiza un inventario existente por ID
+    public CompletableFuture<InventarioDTO> actualizarInventario(Long id, InventarioDTO inventarioDTO) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.actualizarInventario(id, inventarioDTO), executor);
+    }
+
+    // Modifica sólo los campos enviados de un inventario (JSON Merge Patch)
+    public CompletableFuture<InventarioDTO> modificarInventario(Long id, Map<String, Object> cambios) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.modificarInventario(id, cambios), executor);
+    }
+
+    // Aplica un lote de ajustes de inventario en una sola transacción
+    public CompletableFuture<ResultadoAjustesDTO> aplicarAjustesInventario(String lote, List<AjusteInventarioDTO> ajustes) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.aplicarAjustesInventario(lote, ajustes), executor);
+    }
+
+    // Elimina un inventario por ID
+    public CompletableFuture<Void> eliminarInventario(Long id) {
+        return CompletableFuture.runAsync(() -> dataServiceClient.eliminarInventario(id), executor);
+    }
+
+
+    // ---------- CAMBIOS ----------
+
+    // Obtiene los eventos de cambio publicados después de la secuencia 'since' (long-poll)
+    public CompletableFuture<List<EventoCambioDTO>> obtenerCambios(Long since, Integer limite, Long esperaMs) {
+        return CompletableFuture.supplyAsync(() -> dataServiceClient.obtenerCambios(since, limite, esperaMs), executor);
+    }
+
+    // Obtiene la última secuencia publicada en el feed de cambios
+    public CompletableFuture<Long> obtenerUltimaSecuencia() {
+        return CompletableFuture.supplyAsync(dataServiceClient::obtenerUltimaSecuencia, executor);
+    }
+}
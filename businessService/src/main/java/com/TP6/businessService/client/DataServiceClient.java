@@ -1,24 +1,38 @@
 package com.TP6.businessService.client;
 
+import com.TP6.businessService.dto.AjusteInventarioDTO;
 import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.EventoCambioDTO;
 import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
 import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(name = "data-service", url = "${data.service.url}")
 public interface DataServiceClient {
 
+    // Tipo de contenido de los PATCH (RFC 7396): las claves ausentes no cambian y null borra el valor
+    String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     // ---------- PRODUCTOS ----------
 
     // Obtiene todos los productos
     @GetMapping("/data/productos")
     List<ProductoDTO> obtenerTodosLosProductos();
 
+    // Obtiene una página de productos ordenada por id, a partir del id indicado (exclusivo)
+    @GetMapping("/data/productos/pagina")
+    List<ProductoDTO> obtenerPaginaDeProductos(@RequestParam("desdeId") Long desdeId,
+                                               @RequestParam("limite") int limite);
+
     // Obtiene un producto por su ID
     @GetMapping("/data/productos/id/{id}")
     ProductoDTO obtenerProductoPorId(@PathVariable Long id);
@@ -43,10 +57,18 @@ public interface DataServiceClient {
     @PutMapping("/data/productos/{id}")
     ProductoDTO actualizarProducto(@PathVariable Long id, @RequestBody ProductoRequest request);
 
+    // Modifica sólo los campos enviados de un producto (JSON Merge Patch)
+    @PatchMapping(value = "/data/productos/{id}", consumes = MERGE_PATCH_JSON)
+    ProductoDTO modificarProducto(@PathVariable Long id, @RequestBody Map<String, Object> cambios);
+
     // Elimina un producto por ID
     @DeleteMapping("/data/productos/{id}")
     void eliminarProducto(@PathVariable Long id);
 
+    // Elimina varios productos por ID con sus inventarios, en bloque (los inexistentes se ignoran)
+    @DeleteMapping("/data/productos")
+    ResultadoEliminacionDTO eliminarProductos(@RequestParam("ids") List<Long> ids);
+
     // Obtiene productos cuyo stock es menor o igual al mínimo
     @GetMapping("/data/productos/stock-bajo")
     List<ProductoDTO> obtenerProductosConStockBajo();
@@ -74,14 +96,26 @@ public interface DataServiceClient {
     @PutMapping("/data/categorias/{id}")
     CategoriaDTO actualizarCategoria(@PathVariable Long id, @RequestBody CategoriaDTO categoriaDTO);
 
+    // Modifica sólo los campos enviados de una categoría (JSON Merge Patch)
+    @PatchMapping(value = "/data/categorias/{id}", consumes = MERGE_PATCH_JSON)
+    CategoriaDTO modificarCategoria(@PathVariable Long id, @RequestBody Map<String, Object> cambios);
+
     // Elimina una categoría por ID
     @DeleteMapping("/data/categorias/{id}")
     void eliminarCategoria(@PathVariable Long id);
 
+    // Elimina todos los productos de una categoría, en bloque (la categoría queda)
+    @DeleteMapping("/data/categorias/{id}/productos")
+    ResultadoEliminacionDTO eliminarProductosDeCategoria(@PathVariable Long id);
+
     // Obtiene todas las categorías junto con sus productos
     @GetMapping("/data/categorias/con-productos")
     List<CategoriaDTO> obtenerCategoriasConProductos();
 
+    // Obtiene el resumen precalculado por categoría (productos, unidades, valor y stock bajo)
+    @GetMapping("/data/categorias/resumen")
+    List<ResumenCategoriaDTO> obtenerResumenCategorias();
+
 
     // ---------- INVENTARIOS ----------
 
@@ -117,7 +151,30 @@ public interface DataServiceClient {
     @PutMapping("/data/inventario/{id}")
     InventarioDTO actualizarInventario(@PathVariable Long id, @RequestBody InventarioDTO inventarioDTO);
 
+    // Modifica sólo los campos enviados de un inventario (JSON Merge Patch)
+    @PatchMapping(value = "/data/inventario/{id}", consumes = MERGE_PATCH_JSON)
+    InventarioDTO modificarInventario(@PathVariable Long id, @RequestBody Map<String, Object> cambios);
+
+    // Aplica un lote de ajustes de inventario en una sola transacción. Con clave de lote
+    // (Idempotency-Key), un reintento de un lote ya aplicado no se vuelve a aplicar
+    @PostMapping("/data/inventario/ajustes")
+    ResultadoAjustesDTO aplicarAjustesInventario(@RequestHeader(value = "Idempotency-Key", required = false) String lote,
+                                                 @RequestBody List<AjusteInventarioDTO> ajustes);
+
     // Elimina un inventario por ID
     @DeleteMapping("/data/inventario/{id}")
     void eliminarInventario(@PathVariable Long id);
-}
\ No newline at end of file
+
+
+    // ---------- CAMBIOS ----------
+
+    // Obtiene los eventos de cambio publicados después de la secuencia 'since' (long-poll)
+    @GetMapping("/data/changes")
+    List<EventoCambioDTO> obtenerCambios(@RequestParam("since") Long since,
+                                         @RequestParam("limite") Integer limite,
+                                         @RequestParam("esperaMs") Long esperaMs);
+
+    // Obtiene la última secuencia publicada en el feed de cambios
+    @GetMapping("/data/changes/ultima-secuencia")
+    Long obtenerUltimaSecuencia();
+}
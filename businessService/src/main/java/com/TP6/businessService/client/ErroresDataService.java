@@ -0,0 +1,37 @@
+package com.TP6.businessService.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+
+// Lectura del cuerpo de error del data-service. Un 409 puede ser un nombre duplicado, stock
+// insuficiente o una versión vieja; el campo "codigo" del cuerpo dice cuál
+public final class ErroresDataService {
+
+    public static final String YA_EXISTE = "YA_EXISTE";
+    public static final String STOCK_INSUFICIENTE = "STOCK_INSUFICIENTE";
+    public static final String CONFLICTO_VERSION = "CONFLICTO_VERSION";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ErroresDataService() {
+    }
+
+    // Código del error, o null si el cuerpo no es JSON o no lo trae
+    public static String codigo(FeignException e) {
+        String cuerpo = e.contentUTF8();
+        if (cuerpo == null || cuerpo.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode codigo = MAPPER.readTree(cuerpo).get("codigo");
+            return codigo == null || !codigo.isTextual() ? null : codigo.asText();
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    public static boolean esYaExiste(FeignException e) {
+        return YA_EXISTE.equals(codigo(e));
+    }
+}
@@ -0,0 +1,85 @@
+package com.TP6.businessService.config;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+// Respuestas guardadas por clave de idempotencia, en memoria y acotadas: se descarta la menos
+// usada al superar el máximo y cada entrada vence a los ttl nanosegundos. Una entrada nace
+// "en curso" (la primera petición todavía se está procesando) y se completa con su respuesta.
+class AlmacenIdempotencia {
+
+    record RespuestaGuardada(int status, String contentType, String location, byte[] cuerpo) {
+    }
+
+    static final class Entrada {
+        private final byte[] huella;
+        private final long creadaNanos;
+        private final CompletableFuture<RespuestaGuardada> respuesta = new CompletableFuture<>();
+
+        private Entrada(byte[] huella, long creadaNanos) {
+            this.huella = huella;
+            this.creadaNanos = creadaNanos;
+        }
+
+        // Misma clave con otro cuerpo: no es un reintento sino otra petición
+        boolean coincide(byte[] otraHuella) {
+            return Arrays.equals(huella, otraHuella);
+        }
+
+        // Se completa con null si la petición original no dejó una respuesta reutilizable
+        CompletableFuture<RespuestaGuardada> respuesta() {
+            return respuesta;
+        }
+    }
+
+    // nueva = true: quien reservó procesa la petición y luego llama a completar o descartar
+    record Reserva(Entrada entrada, boolean nueva) {
+    }
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+    private final Map<String, Entrada> entradas;
+
+    AlmacenIdempotencia(int maxEntradas, long ttlNanos, LongSupplier reloj) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttlNanos;
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > AlmacenIdempotencia.this.maxEntradas;
+            }
+        };
+    }
+
+    synchronized Reserva reservar(String clave, byte[] huella) {
+        long ahora = reloj.getAsLong();
+        Entrada existente = entradas.get(clave);
+        if (existente != null && ahora - existente.creadaNanos < ttlNanos) {
+            return new Reserva(existente, false);
+        }
+        Entrada nueva = new Entrada(huella, ahora);
+        entradas.put(clave, nueva);
+        return new Reserva(nueva, true);
+    }
+
+    void completar(Entrada entrada, RespuestaGuardada respuesta) {
+        entrada.respuesta.complete(respuesta);
+    }
+
+    // La respuesta no se guarda (error del servidor o sobrecarga): el próximo reintento se procesa
+    void descartar(String clave, Entrada entrada) {
+        synchronized (this) {
+            entradas.remove(clave, entrada);
+        }
+        entrada.respuesta.complete(null);
+    }
+
+    synchronized int cantidad() {
+        return entradas.size();
+    }
+}
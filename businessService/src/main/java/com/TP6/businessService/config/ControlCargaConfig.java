@@ -0,0 +1,37 @@
+package com.TP6.businessService.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(ControlCargaProperties.class)
+public class ControlCargaConfig implements WebMvcConfigurer {
+
+    private final ControlCargaProperties propiedades;
+
+    public ControlCargaConfig(ControlCargaProperties propiedades) {
+        this.propiedades = propiedades;
+    }
+
+    @Bean
+    public LimitadorTasa limitadorTasa() {
+        return new LimitadorTasa(propiedades.getMaxClaves());
+    }
+
+    // Capability: Spring Cloud OpenFeign la aplica al cliente del data-service
+    @Bean
+    public LimitadorConcurrencia limitadorConcurrencia() {
+        return new LimitadorConcurrencia(propiedades);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (propiedades.isHabilitado()) {
+            registry.addInterceptor(new ControlCargaInterceptor(propiedades, limitadorTasa(), limitadorConcurrencia()))
+                    .addPathPatterns("/api/**");
+        }
+    }
+}
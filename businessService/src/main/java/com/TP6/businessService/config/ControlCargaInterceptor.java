@@ -0,0 +1,81 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.exception.LimiteTasaExcedidoException;
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Control de carga de /api antes de llegar al controlador:
+//  1. límite de tasa por endpoint (método + patrón) y cliente -> 429
+//  2. descarte por prioridad según el margen del límite de concurrencia hacia el data-service -> 503
+// Las excepciones las traduce GlobalExceptionHandler, con la cabecera Retry-After.
+public class ControlCargaInterceptor implements HandlerInterceptor {
+
+    private static final AntPathMatcher RUTAS = new AntPathMatcher();
+
+    private final ControlCargaProperties propiedades;
+    private final LimitadorTasa limitadorTasa;
+    private final LimitadorConcurrencia limitadorConcurrencia;
+
+    public ControlCargaInterceptor(ControlCargaProperties propiedades, LimitadorTasa limitadorTasa,
+                                   LimitadorConcurrencia limitadorConcurrencia) {
+        this.propiedades = propiedades;
+        this.limitadorTasa = limitadorTasa;
+        this.limitadorConcurrencia = limitadorConcurrencia;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String metodo = request.getMethod();
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = metodo + " " + (patron != null ? patron : ruta);
+
+        long capacidad = propiedades.getTasa().getCapacidad();
+        double porSegundo = propiedades.getTasa().getPorSegundo();
+        for (ControlCargaProperties.Regla regla : propiedades.getReglas()) {
+            if (RUTAS.match(regla.getPatron(), ruta)
+                    && (regla.getMetodos().isEmpty() || regla.getMetodos().contains(metodo))) {
+                capacidad = regla.getCapacidad();
+                porSegundo = regla.getPorSegundo();
+                break;
+            }
+        }
+        long esperaNanos = limitadorTasa.consumir(endpoint + "|" + cliente(request), capacidad, porSegundo);
+        if (esperaNanos > 0) {
+            long segundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new LimiteTasaExcedidoException("Límite de peticiones excedido para " + endpoint, segundos);
+        }
+
+        if (!limitadorConcurrencia.admite(prioridad(metodo, ruta))) {
+            throw new ServicioSobrecargadoException(
+                    "Servicio sobrecargado, reintente más tarde", propiedades.getReintentoSegundos());
+        }
+        return true;
+    }
+
+    Prioridad prioridad(String metodo, String ruta) {
+        boolean escritura = !"GET".equals(metodo) && !"HEAD".equals(metodo);
+        if (escritura && coincide(propiedades.getPrioridades().getAlta(), ruta)) {
+            return Prioridad.ALTA;
+        }
+        if (coincide(propiedades.getPrioridades().getBaja(), ruta)) {
+            return Prioridad.BAJA;
+        }
+        return Prioridad.NORMAL;
+    }
+
+    private String cliente(HttpServletRequest request) {
+        return IdentidadCliente.de(request, propiedades.getCabeceraCliente());
+    }
+
+    private static boolean coincide(List<String> patrones, String ruta) {
+        return patrones.stream().anyMatch(p -> RUTAS.match(p, ruta));
+    }
+}
@@ -0,0 +1,70 @@
+package com.TP6.businessService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Parámetros del control de carga de /api (prefijo control-carga en application.properties)
+@Data
+@ConfigurationProperties("control-carga")
+public class ControlCargaProperties {
+
+    private boolean habilitado = true;
+
+    // Cabecera que identifica al cliente, sólo si la fija un gateway de confianza (ver
+    // IdentidadCliente); vacía, o si falta en el pedido, se usa la dirección remota
+    private String cabeceraCliente = "";
+
+    // Máximo de baldes (endpoint + cliente) en memoria
+    private int maxClaves = 10_000;
+
+    // Retry-After de las respuestas 503
+    private long reintentoSegundos = 1;
+
+    // Límite por defecto de cada endpoint y cliente
+    private Tasa tasa = new Tasa();
+
+    // Reglas específicas; se aplica la primera que coincide
+    private List<Regla> reglas = new ArrayList<>();
+
+    private Concurrencia concurrencia = new Concurrencia();
+
+    private Prioridades prioridades = new Prioridades();
+
+    @Data
+    public static class Tasa {
+        private long capacidad = 200;    // Ráfaga máxima
+        private double porSegundo = 100; // Reposición sostenida
+    }
+
+    @Data
+    public static class Regla {
+        private String patron;                          // Patrón Ant sobre la ruta, p. ej. /api/reportes/**
+        private List<String> metodos = new ArrayList<>(); // Vacío = todos los métodos
+        private long capacidad;
+        private double porSegundo;
+    }
+
+    @Data
+    public static class Concurrencia {
+        private int inicial = 20;
+        private int minimo = 4;
+        private int maximo = 200;
+        private double tolerancia = 2.0; // Latencia admitida respecto de la mínima observada
+        private double reduccion = 0.9;  // Factor multiplicativo ante latencia alta o error
+        private int muestrasVentana = 500; // Cada cuántas muestras se renueva la latencia mínima
+    }
+
+    @Data
+    public static class Prioridades {
+        // Escrituras (POST/PUT/DELETE) de prioridad alta: se admiten hasta el límite completo
+        private List<String> alta = new ArrayList<>(List.of("/api/inventario/**"));
+        // Rutas que se descartan primero
+        private List<String> baja = new ArrayList<>(List.of("/api/reportes/**"));
+        // Fracción del límite de concurrencia a partir de la cual se descarta cada prioridad
+        private double fraccionNormal = 0.8;
+        private double fraccionBaja = 0.5;
+    }
+}
@@ -0,0 +1,18 @@
+package com.TP6.businessService.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class DataServiceClientConfig {
+
+    // Executor de las llamadas asíncronas al data-service: un hilo virtual por llamada,
+    // así las esperas de red del cliente Feign (bloqueante) no ocupan hilos de plataforma
+    @Bean(destroyMethod = "close")
+    public ExecutorService dataServiceExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("data-service-", 0).factory());
+    }
+}
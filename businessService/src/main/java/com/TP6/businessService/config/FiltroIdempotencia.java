@@ -0,0 +1,214 @@
+package com.TP6.businessService.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Cabecera Idempotency-Key en POST/PUT/PATCH de /api: la primera petición con una clave se procesa
+// y su respuesta (2xx o 4xx) se guarda; los reintentos con la misma clave, cliente, método y ruta
+// reciben la respuesta guardada (con Idempotent-Replayed: true) sin volver a llamar al data-service.
+//  - misma clave con otro cuerpo -> 422
+//  - reintento mientras la original sigue en curso -> espera hasta espera-ms y, si no terminó, 409
+// Las respuestas 5xx y 429 no se guardan: el reintento se procesa de nuevo.
+@Component
+public class FiltroIdempotencia extends OncePerRequestFilter {
+
+    static final String CABECERA = "Idempotency-Key";
+    static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+    private static final Set<String> METODOS = Set.of("POST", "PUT", "PATCH");
+    private static final int MAX_LARGO_CLAVE = 255;
+
+    private final ObjectMapper objectMapper;
+    private final AlmacenIdempotencia almacen;
+    private final long esperaMs;
+    private final String cabeceraCliente;
+
+    public FiltroIdempotencia(ObjectMapper objectMapper,
+                              @Value("${idempotencia.max-entradas:10000}") int maxEntradas,
+                              @Value("${idempotencia.ttl-segundos:86400}") long ttlSegundos,
+                              @Value("${idempotencia.espera-ms:5000}") long esperaMs,
+                              @Value("${control-carga.cabecera-cliente:}") String cabeceraCliente) {
+        this.objectMapper = objectMapper;
+        this.almacen = new AlmacenIdempotencia(maxEntradas, TimeUnit.SECONDS.toNanos(ttlSegundos), System::nanoTime);
+        this.esperaMs = esperaMs;
+        this.cabeceraCliente = cabeceraCliente;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !METODOS.contains(request.getMethod())
+                || request.getHeader(CABECERA) == null
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(CABECERA);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_LARGO_CLAVE) {
+            escribirError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+            return;
+        }
+        PeticionReleible peticion = new PeticionReleible(request);
+        String clave = cliente(request) + " " + request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+
+        byte[] huella = huella(peticion.cuerpo);
+        AlmacenIdempotencia.Reserva reserva = almacen.reservar(clave, huella);
+        AlmacenIdempotencia.Entrada entrada = reserva.entrada();
+        if (!reserva.nueva()) {
+            if (!entrada.coincide(huella)) {
+                escribirError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key ya usada con otro cuerpo de petición");
+                return;
+            }
+            AlmacenIdempotencia.RespuestaGuardada guardada = esperar(entrada);
+            if (guardada == null) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                escribirError(response, HttpStatus.CONFLICT, "Petición con la misma Idempotency-Key en curso");
+                return;
+            }
+            repetir(guardada, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        boolean guardada = false;
+        try {
+            chain.doFilter(peticion, respuesta);
+            int status = respuesta.getStatus();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                almacen.completar(entrada, new AlmacenIdempotencia.RespuestaGuardada(status,
+                        respuesta.getContentType(), respuesta.getHeader(HttpHeaders.LOCATION),
+                        respuesta.getContentAsByteArray()));
+                guardada = true;
+            }
+        } finally {
+            if (!guardada) {
+                almacen.descartar(clave, entrada);
+            }
+            respuesta.copyBodyToResponse();
+        }
+    }
+
+    private AlmacenIdempotencia.RespuestaGuardada esperar(AlmacenIdempotencia.Entrada entrada) throws IOException {
+        try {
+            return entrada.respuesta().get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void repetir(AlmacenIdempotencia.RespuestaGuardada guardada, HttpServletResponse response) throws IOException {
+        response.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        if (guardada.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, guardada.location());
+        }
+        response.setHeader(CABECERA_REPETIDA, "true");
+        response.setContentLength(guardada.cuerpo().length);
+        response.getOutputStream().write(guardada.cuerpo());
+    }
+
+    // Mismo formato que GlobalExceptionHandler (el filtro corre fuera del DispatcherServlet)
+    private void escribirError(HttpServletResponse response, HttpStatus status, String mensaje) throws IOException {
+        Map<String, Object> cuerpo = new LinkedHashMap<>();
+        cuerpo.put("status", status.value());
+        cuerpo.put("message", mensaje);
+        cuerpo.put("timestamp", LocalDateTime.now());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), cuerpo);
+    }
+
+    private String cliente(HttpServletRequest request) {
+        return IdentidadCliente.de(request, cabeceraCliente);
+    }
+
+    private static byte[] huella(byte[] cuerpo) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(cuerpo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Lee el cuerpo una vez (para la huella) y lo vuelve a ofrecer al controlador
+    private static final class PeticionReleible extends HttpServletRequestWrapper {
+        private final byte[] cuerpo;
+
+        PeticionReleible(HttpServletRequest request) throws IOException {
+            super(request);
+            this.cuerpo = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.AjusteInventarioDTO;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.EventoCambioDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoDetalleDTO;
+import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ProductoResponse;
+import com.TP6.businessService.dto.ProductoValorDTO;
+import com.TP6.businessService.dto.RangoPrecioDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
+import com.TP6.businessService.exception.CategoriaNoEncontradaException;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
+import com.TP6.businessService.exception.GlobalExceptionHandler;
+import com.TP6.businessService.exception.InventarioNoEncontradoException;
+import com.TP6.businessService.exception.LimiteTasaExcedidoException;
+import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import com.TP6.businessService.exception.ProductoNoEncontradoException;
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import com.TP6.businessService.exception.ValidacionNegocioException;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+// Hints para la imagen nativa (perfil native). Spring AOT deduce la mayoría a partir de los
+// beans, pero no ve lo que se usa sólo por reflexión en tiempo de ejecución:
+// - el proxy JDK que Feign crea para DataServiceClient,
+// - los DTO (Lombok) que Jackson arma desde las respuestas del data-service, incluidos los
+//   anidados que no aparecen en ninguna firma de BusinessController,
+// - las excepciones de dominio y la respuesta de error de GlobalExceptionHandler.
+public class HintsNativos implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] DTOS = {
+            AjusteInventarioDTO.class, CategoriaDTO.class, EventoCambioDTO.class, InventarioDTO.class,
+            ProductoDTO.class, ProductoDetalleDTO.class, ProductoRequest.class, ProductoResponse.class,
+            ProductoValorDTO.class, RangoPrecioDTO.class, ReporteCatalogoDTO.class, ResultadoAjustesDTO.class,
+            ResumenCategoriaDTO.class
+    };
+
+    private static final Class<?>[] EXCEPCIONES = {
+            CategoriaNoEncontradaException.class, InventarioNoEncontradoException.class,
+            MicroserviceCommunicationException.class, ProductoNoEncontradoException.class,
+            ValidacionNegocioException.class, LimiteTasaExcedidoException.class,
+            ServicioSobrecargadoException.class, ConflictoDeVersionException.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.proxies().registerJdkProxy(DataServiceClient.class);
+
+        // Constructores, getters/setters y campos de cada DTO y de los tipos que contiene
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+
+        for (Class<?> excepcion : EXCEPCIONES) {
+            hints.reflection().registerType(excepcion, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.reflection().registerType(
+                TypeReference.of(GlobalExceptionHandler.class.getName() + "$ErrorResponse"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,24 @@
+package com.TP6.businessService.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Clave del cliente para el límite de tasa y la idempotencia. Por defecto es la dirección remota
+// (detrás del balancer, la de X-Forwarded-For que resuelve server.forward-headers-strategy).
+// La cabecera de cliente no está autenticada: sólo se usa si se configura, cuando un gateway
+// de confianza la fija y descarta la que envía el cliente. Si no, cualquiera podría cambiarla en
+// cada pedido para esquivar el límite o caer en las respuestas guardadas de otro cliente
+final class IdentidadCliente {
+
+    private IdentidadCliente() {
+    }
+
+    static String de(HttpServletRequest request, String cabeceraCliente) {
+        if (cabeceraCliente != null && !cabeceraCliente.isBlank()) {
+            String cliente = request.getHeader(cabeceraCliente);
+            if (cliente != null && !cliente.isBlank()) {
+                return cliente;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
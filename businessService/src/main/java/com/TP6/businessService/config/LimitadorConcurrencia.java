@@ -0,0 +1,145 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Límite adaptativo de llamadas concurrentes al data-service (AIMD sobre la latencia observada).
+// Se engancha al cliente Feign como Capability, así cubre tanto las llamadas síncronas como las
+// del cliente asíncrono. Cada respuesta ajusta el límite:
+//  - latencia dentro de la tolerancia respecto de la mínima del método: +1/límite (suma 1 por ventana)
+//  - latencia por encima, error de red o 5xx/429: límite * reducción
+// La latencia mínima se lleva por método Feign (un listado no tarda lo mismo que un getById) y
+// se renueva cada cierta cantidad de muestras para seguir al data-service si se vuelve más lento.
+// Además de rechazar al llegar al límite, expone admite(prioridad) para que el control de carga
+// de /api descarte primero las peticiones menos importantes.
+@Slf4j
+public class LimitadorConcurrencia implements Capability {
+
+    private final boolean habilitado;
+    private final ControlCargaProperties.Concurrencia config;
+    private final long reintentoSegundos;
+    private final ControlCargaProperties.Prioridades prioridades;
+    private final LongSupplier reloj;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private final Map<String, Referencia> referencias = new ConcurrentHashMap<>();
+    private volatile double limite;
+
+    public LimitadorConcurrencia(ControlCargaProperties propiedades) {
+        this(propiedades, System::nanoTime);
+    }
+
+    LimitadorConcurrencia(ControlCargaProperties propiedades, LongSupplier reloj) {
+        this.habilitado = propiedades.isHabilitado();
+        this.config = propiedades.getConcurrencia();
+        this.reintentoSegundos = propiedades.getReintentoSegundos();
+        this.prioridades = propiedades.getPrioridades();
+        this.reloj = reloj;
+        this.limite = config.getInicial();
+    }
+
+    @Override
+    public Client enrich(Client cliente) {
+        if (!habilitado) {
+            return cliente;
+        }
+        return (request, options) -> {
+            // Las esperas largas del feed de cambios no son carga: no ocupan cupo ni miden latencia
+            if (request.requestTemplate() != null && request.requestTemplate().queries().containsKey("esperaMs")) {
+                return cliente.execute(request, options);
+            }
+            adquirir();
+            long inicio = reloj.getAsLong();
+            boolean error = true;
+            try {
+                Response response = cliente.execute(request, options);
+                error = response.status() >= 500 || response.status() == 429;
+                return response;
+            } finally {
+                liberar(claveMetodo(request), reloj.getAsLong() - inicio, error);
+            }
+        };
+    }
+
+    // Indica si hay margen para una petición de la prioridad dada
+    public boolean admite(Prioridad prioridad) {
+        double fraccion = switch (prioridad) {
+            case ALTA -> 1.0;
+            case NORMAL -> prioridades.getFraccionNormal();
+            case BAJA -> prioridades.getFraccionBaja();
+        };
+        return enVuelo.get() < limite * fraccion;
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnVuelo() {
+        return enVuelo.get();
+    }
+
+    void adquirir() {
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= (int) limite) {
+                throw new ServicioSobrecargadoException(
+                        "Servicio sobrecargado, reintente más tarde", reintentoSegundos);
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return;
+            }
+        }
+    }
+
+    void liberar(String metodo, long latenciaNanos, boolean error) {
+        int ocupados = enVuelo.getAndDecrement();
+        Referencia referencia = referencias.computeIfAbsent(metodo, k -> new Referencia());
+        boolean lenta = referencia.registrar(latenciaNanos, config.getMuestrasVentana(), config.getTolerancia());
+        synchronized (this) {
+            double anterior = limite;
+            if (error || lenta) {
+                limite = Math.max(config.getMinimo(), limite * config.getReduccion());
+            } else if (ocupados * 2 >= limite) {
+                // Sólo crece si el límite se está usando; si no, no hay evidencia de que aguante más
+                limite = Math.min(config.getMaximo(), limite + 1 / limite);
+            }
+            if ((int) anterior != (int) limite) {
+                log.debug("Límite de concurrencia hacia el data-service: {} -> {}", (int) anterior, (int) limite);
+            }
+        }
+    }
+
+    private static String claveMetodo(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().methodMetadata() != null) {
+            return request.requestTemplate().methodMetadata().configKey();
+        }
+        return request.httpMethod() + " " + request.url();
+    }
+
+    // Latencia mínima de un método en la ventana anterior y en la actual
+    private static final class Referencia {
+        private long minimaAnterior = Long.MAX_VALUE;
+        private long minimaActual = Long.MAX_VALUE;
+        private int muestras;
+
+        synchronized boolean registrar(long latenciaNanos, int muestrasVentana, double tolerancia) {
+            minimaActual = Math.min(minimaActual, latenciaNanos);
+            if (++muestras >= muestrasVentana) {
+                minimaAnterior = minimaActual;
+                minimaActual = Long.MAX_VALUE;
+                muestras = 0;
+            }
+            long referencia = Math.min(minimaAnterior, minimaActual);
+            return latenciaNanos > referencia * tolerancia;
+        }
+    }
+}
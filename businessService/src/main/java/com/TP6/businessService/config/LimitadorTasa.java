@@ -0,0 +1,99 @@
+package com.TP6.businessService.config;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Límite de tasa por clave (endpoint + cliente) con un balde de fichas por clave. Los baldes
+// viven en un mapa acotado: al superar el máximo se descartan los que ya están llenos (clientes
+// inactivos), que no pierden nada al recrearse.
+public class LimitadorTasa {
+
+    private final int maxClaves;
+    private final LongSupplier reloj;
+    private final Map<String, Balde> baldes = new ConcurrentHashMap<>();
+    private final ReentrantLock limpieza = new ReentrantLock();
+
+    public LimitadorTasa(int maxClaves) {
+        this(maxClaves, System::nanoTime);
+    }
+
+    LimitadorTasa(int maxClaves, LongSupplier reloj) {
+        this.maxClaves = maxClaves;
+        this.reloj = reloj;
+    }
+
+    // Consume una ficha; devuelve 0 si se admite o los nanosegundos hasta la próxima ficha
+    public long consumir(String clave, long capacidad, double porSegundo) {
+        long ahora = reloj.getAsLong();
+        Balde balde = baldes.get(clave);
+        if (balde == null) {
+            if (baldes.size() >= maxClaves) {
+                liberarEspacio(ahora);
+            }
+            balde = baldes.computeIfAbsent(clave, k -> new Balde(capacidad, ahora));
+        }
+        return balde.consumir(ahora, capacidad, porSegundo);
+    }
+
+    int cantidadClaves() {
+        return baldes.size();
+    }
+
+    private void liberarEspacio(long ahora) {
+        if (!limpieza.tryLock()) {
+            return; // Otro hilo ya está limpiando
+        }
+        try {
+            baldes.values().removeIf(balde -> balde.estaLleno(ahora));
+            // Si todos están en uso se descartan arbitrariamente hasta dejar lugar
+            Iterator<Balde> it = baldes.values().iterator();
+            while (baldes.size() >= maxClaves && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            limpieza.unlock();
+        }
+    }
+
+    private static final class Balde {
+        private double fichas;
+        private long ultimaReposicion;
+        private double porSegundo;
+        private long capacidad;
+
+        Balde(long capacidad, long ahora) {
+            this.fichas = capacidad;
+            this.capacidad = capacidad;
+            this.ultimaReposicion = ahora;
+        }
+
+        synchronized long consumir(long ahora, long capacidad, double porSegundo) {
+            this.capacidad = capacidad;
+            this.porSegundo = porSegundo;
+            reponer(ahora);
+            if (fichas >= 1) {
+                fichas -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - fichas) / porSegundo * TimeUnit.SECONDS.toNanos(1));
+        }
+
+        synchronized boolean estaLleno(long ahora) {
+            reponer(ahora);
+            return fichas >= capacidad;
+        }
+
+        private void reponer(long ahora) {
+            long transcurrido = ahora - ultimaReposicion;
+            if (transcurrido > 0) {
+                fichas = Math.min(capacidad, fichas + transcurrido * porSegundo / TimeUnit.SECONDS.toNanos(1));
+                ultimaReposicion = ahora;
+            }
+        }
+    }
+}
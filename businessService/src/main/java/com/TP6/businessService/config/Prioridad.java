@@ -0,0 +1,6 @@
+package com.TP6.businessService.config;
+
+// Prioridad de una petición frente a la sobrecarga: BAJA se descarta primero, ALTA al final
+public enum Prioridad {
+    ALTA, NORMAL, BAJA
+}
@@ -3,17 +3,30 @@ package com.TP6.businessService.controller;
 import com.TP6.businessService.dto.CategoriaDTO;
 import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoDetalleDTO;
 import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
+import com.TP6.businessService.service.AlertasStockBajo;
 import com.TP6.businessService.service.CategoriaBusinessService;
 import com.TP6.businessService.service.InventarioBusinessService;
+import com.TP6.businessService.service.MotorReportes;
 import com.TP6.businessService.service.ProductoBusinessService;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+
+import static com.TP6.businessService.client.DataServiceClient.MERGE_PATCH_JSON;
 
 @RestController
 @RequestMapping("/api")
@@ -23,13 +36,19 @@ public class BusinessController {
     private final ProductoBusinessService productoBusinessService;
     private final CategoriaBusinessService categoriaBusinessService;
     private final InventarioBusinessService inventarioBusinessService;
+    private final AlertasStockBajo alertasStockBajo;
+    private final MotorReportes motorReportes;
 
     public BusinessController(ProductoBusinessService productoBusinessService,
                               CategoriaBusinessService categoriaBusinessService,
-                              InventarioBusinessService inventarioBusinessService) {
+                              InventarioBusinessService inventarioBusinessService,
+                              @Lazy AlertasStockBajo alertasStockBajo,
+                              @Lazy MotorReportes motorReportes) {
         this.productoBusinessService = productoBusinessService;
         this.categoriaBusinessService = categoriaBusinessService;
         this.inventarioBusinessService = inventarioBusinessService;
+        this.alertasStockBajo = alertasStockBajo;
+        this.motorReportes = motorReportes;
     }
 
     // ------------------- PRODUCTOS -------------------
@@ -46,6 +65,12 @@ public class BusinessController {
         return productoBusinessService.obtenerProductoPorId(id);
     }
 
+    // Obtener el detalle de un producto (producto + categoría + inventario) en una sola llamada
+    @GetMapping("/productos/{id}/detalle")
+    public ProductoDetalleDTO obtenerDetalleProducto(@PathVariable Long id) {
+        return productoBusinessService.obtenerDetalleProducto(id);
+    }
+
     // Obtener producto por nombre
     @GetMapping("/productos/nombre/{nombre}")
     public ProductoDTO obtenerProductoPorNombre(@PathVariable String nombre) {
@@ -71,6 +96,12 @@ public class BusinessController {
         return productoBusinessService.actualizarProducto(id, request);
     }
 
+    // Modificar sólo algunos campos de un producto (JSON Merge Patch: los ausentes no cambian)
+    @PatchMapping(value = "/productos/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ProductoDTO modificarProducto(@PathVariable Long id, @RequestBody Map<String, Object> cambios) {
+        return productoBusinessService.modificarProducto(id, cambios);
+    }
+
     // Eliminar producto por ID
     @DeleteMapping("/productos/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -78,6 +109,12 @@ public class BusinessController {
         productoBusinessService.eliminarProducto(id);
     }
 
+    // Eliminar varios productos por ID (ids=1,2,3) en una sola operación
+    @DeleteMapping(value = "/productos", params = "ids")
+    public ResultadoEliminacionDTO eliminarProductos(@RequestParam List<Long> ids) {
+        return productoBusinessService.eliminarProductos(ids);
+    }
+
     // Obtener productos por categoría
     @GetMapping("/productos/categoria/{nombre}")
     public List<ProductoDTO> obtenerProductosPorCategoria(@PathVariable String nombre) {
@@ -123,6 +160,12 @@ public class BusinessController {
         return categoriaBusinessService.actualizarCategoria(id, categoriaDTO);
     }
 
+    // Modificar sólo algunos campos de una categoría
+    @PatchMapping(value = "/categorias/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public CategoriaDTO modificarCategoria(@PathVariable Long id, @RequestBody Map<String, Object> cambios) {
+        return categoriaBusinessService.modificarCategoria(id, cambios);
+    }
+
     // Eliminar categoría por ID
     @DeleteMapping("/categorias/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -130,6 +173,12 @@ public class BusinessController {
         categoriaBusinessService.eliminarCategoria(id);
     }
 
+    // Eliminar todos los productos de una categoría (la categoría queda)
+    @DeleteMapping("/categorias/{id}/productos")
+    public ResultadoEliminacionDTO eliminarProductosDeCategoria(@PathVariable Long id) {
+        return categoriaBusinessService.eliminarProductosDeCategoria(id);
+    }
+
     // ------------------- INVENTARIO -------------------
 
     // Obtener todos los inventarios
@@ -175,10 +224,33 @@ public class BusinessController {
         return inventarioBusinessService.crearInventario(inventarioDTO);
     }
 
-    // Actualizar inventario
+    // Actualizar inventario (202 si quedó encolado por la escritura diferida)
     @PutMapping("/inventario/{id}")
-    public InventarioDTO actualizarInventario(@PathVariable Long id, @Valid @RequestBody InventarioDTO inventarioDTO) {
-        return inventarioBusinessService.actualizarInventario(id, inventarioDTO);
+    public ResponseEntity<InventarioDTO> actualizarInventario(@PathVariable Long id,
+                                                              @Valid @RequestBody InventarioDTO inventarioDTO) {
+        InventarioDTO actualizado = inventarioBusinessService.actualizarInventario(id, inventarioDTO);
+        return inventarioBusinessService.esEscrituraDiferida()
+                ? ResponseEntity.accepted().body(actualizado)
+                : ResponseEntity.ok(actualizado);
+    }
+
+    // Modificar sólo algunos campos de un inventario (por ejemplo, sólo la cantidad)
+    @PatchMapping(value = "/inventario/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<InventarioDTO> modificarInventario(@PathVariable Long id,
+                                                             @RequestBody Map<String, Object> cambios) {
+        InventarioDTO modificado = inventarioBusinessService.modificarInventario(id, cambios);
+        return inventarioBusinessService.esEscrituraDiferida()
+                ? ResponseEntity.accepted().body(modificado)
+                : ResponseEntity.ok(modificado);
+    }
+
+    // Ajustar la cantidad de un inventario en 'delta' unidades (202 si quedó encolado)
+    @PostMapping("/inventario/{id}/ajuste")
+    public ResponseEntity<Void> ajustarInventario(@PathVariable Long id, @RequestParam long delta) {
+        inventarioBusinessService.ajustarInventario(id, delta);
+        return inventarioBusinessService.esEscrituraDiferida()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.noContent().build();
     }
 
     // Eliminar inventario
@@ -196,9 +268,29 @@ public class BusinessController {
         return productoBusinessService.obtenerProductosConStockBajo();
     }
 
+    // Suscribirse a las alertas de stock bajo en vivo (Server-Sent Events): un evento
+    // "stock-bajo" cada vez que un producto entra o sale del reporte
+    @GetMapping(value = "/reportes/stock-bajo/alertas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirAlertasStockBajo() {
+        return alertasStockBajo.suscribir();
+    }
+
     // Obtener valor total del inventario
     @GetMapping("/reportes/valor-inventario")
     public BigDecimal obtenerValorTotalInventario() {
         return productoBusinessService.calcularValorTotalInventario();
     }
+
+    // Obtener el reporte por categoría: productos, unidades, valor del inventario y stock bajo
+    @GetMapping("/reportes/categorias")
+    public List<ResumenCategoriaDTO> obtenerReporteCategorias() {
+        return categoriaBusinessService.obtenerResumenCategorias();
+    }
+
+    // Obtener el reporte del catálogo completo: valor total y por categoría, histograma de
+    // precios, percentiles de stock y los "top" productos de mayor valor en inventario
+    @GetMapping("/reportes/catalogo")
+    public ReporteCatalogoDTO obtenerReporteCatalogo(@RequestParam(defaultValue = "10") int top) {
+        return motorReportes.generarReporteCatalogo(top);
+    }
 }
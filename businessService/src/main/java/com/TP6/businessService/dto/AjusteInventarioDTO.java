@@ -0,0 +1,17 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cambio de un inventario en un lote: valores absolutos opcionales (null = sin cambio) y luego
+// una variación de la cantidad
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AjusteInventarioDTO {
+    private Long inventarioId;
+    private Integer cantidad;
+    private Integer stockMinimo;
+    private long delta;
+}
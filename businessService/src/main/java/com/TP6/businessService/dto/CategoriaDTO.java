@@ -11,4 +11,5 @@ public class CategoriaDTO {
     private Long id;
     private String nombre;
     private String descripcion;
+    private Long version; // Versión leída; al actualizar, el data-service responde 409 si cambió
 }
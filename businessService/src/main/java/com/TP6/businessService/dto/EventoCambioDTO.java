@@ -0,0 +1,20 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCambioDTO {
+    private Long id;
+    private String entidad;      // PRODUCTO, CATEGORIA o INVENTARIO
+    private Long entidadId;      // ID de la entidad modificada
+    private String operacion;    // CREAR, ACTUALIZAR o ELIMINAR
+    private LocalDateTime fechaCreacion;
+    private Long secuencia;      // orden de publicación, consecutivo y sin huecos
+    private LocalDateTime fechaPublicacion;
+}
@@ -15,4 +15,5 @@ public class InventarioDTO {
     private Integer cantidad;
     private Integer stockMinimo;
     private LocalDateTime fechaActualizacion;
+    private Long version; // Versión leída; al actualizar, el data-service responde 409 si cambió
 }
@@ -1,5 +1,6 @@
 package com.TP6.businessService.dto;
 
+import com.fasterxml.jackson.annotation.JsonSetter;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +18,18 @@ public class ProductoDTO {
     private String categoriaNombre;
     private Integer stock;
     private Boolean stockBajo;
+    private Long version; // Se devuelve en ProductoRequest.version al actualizar
+
+    // El data-service envía la categoría anidada: se conserva sólo su nombre (la réplica del
+    // catálogo indexa por él)
+    @JsonSetter("categoria")
+    public void setCategoria(CategoriaDTO categoria) {
+        this.categoriaNombre = categoria != null ? categoria.getNombre() : null;
+    }
+
+    // El data-service envía el inventario anidado: el stock es su cantidad
+    @JsonSetter("inventario")
+    public void setInventario(InventarioDTO inventario) {
+        this.stock = inventario != null ? inventario.getCantidad() : null;
+    }
 }
@@ -0,0 +1,14 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoDetalleDTO {
+    private ProductoDTO producto;
+    private CategoriaDTO categoria;   // null si el producto no tiene categoría
+    private InventarioDTO inventario; // null si el producto no tiene inventario
+}
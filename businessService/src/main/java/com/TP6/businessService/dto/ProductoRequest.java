@@ -16,4 +16,5 @@ public class ProductoRequest {
     private Long categoriaId;
     private Integer stock; // stock inicial del producto
     private Integer stockMinimo; // mínimo permitido antes de considerarse bajo
+    private Long version; // al actualizar: versión leída (opcional); si cambió, 409
 }
\ No newline at end of file
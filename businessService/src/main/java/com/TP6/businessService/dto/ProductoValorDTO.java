@@ -0,0 +1,18 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Producto con su valor en inventario (precio * stock), para el top-N del reporte de catálogo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoValorDTO {
+    private Long id;
+    private String nombre;
+    private String categoriaNombre;
+    private BigDecimal valor;
+}
@@ -0,0 +1,17 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Rango del histograma de precios: [desde, hasta); null indica rango abierto
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangoPrecioDTO {
+    private BigDecimal desde;
+    private BigDecimal hasta;
+    private long cantidad;
+}
@@ -0,0 +1,25 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Reporte de catálogo calculado en una sola pasada por MotorReportes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteCatalogoDTO {
+    private long totalProductos;
+    private BigDecimal valorTotal;
+    private Map<String, BigDecimal> valorPorCategoria;
+    private List<RangoPrecioDTO> histogramaPrecios;
+    // p50, p90, p99 y max del stock por producto
+    private Map<String, Integer> percentilesStock;
+    private List<ProductoValorDTO> topPorValor;
+    private int paginas;
+    private long duracionMs;
+}
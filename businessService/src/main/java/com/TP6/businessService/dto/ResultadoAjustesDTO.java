@@ -0,0 +1,18 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Resultado de un lote de ajustes: cuántos se aplicaron, qué inventarios no existen y cuáles
+// se rechazaron porque su cantidad quedaría negativa
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoAjustesDTO {
+    private int aplicados;
+    private List<Long> noEncontrados;
+    private List<Long> sinStock;
+}
@@ -0,0 +1,13 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de una baja en bloque: cuántos productos se eliminaron
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoEliminacionDTO {
+    private int eliminados;
+}
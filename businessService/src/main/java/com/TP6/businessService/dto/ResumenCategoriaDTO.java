@@ -0,0 +1,20 @@
+package com.TP6.businessService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Agregados por categoría calculados por el data-service (/data/categorias/resumen)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCategoriaDTO {
+    private Long categoriaId;
+    private String nombre;
+    private long cantidadProductos;
+    private long unidades;
+    private BigDecimal valorInventario;
+    private long productosStockBajo;
+}
@@ -0,0 +1,7 @@
+package com.TP6.businessService.exception;
+
+public class CategoriaYaExisteException extends RuntimeException {
+    public CategoriaYaExisteException(String message) {
+        super(message);
+    }
+}
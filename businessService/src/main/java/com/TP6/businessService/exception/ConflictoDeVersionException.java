@@ -0,0 +1,7 @@
+package com.TP6.businessService.exception;
+
+public class ConflictoDeVersionException extends RuntimeException {
+    public ConflictoDeVersionException(String message) {
+        super(message);
+    }
+}
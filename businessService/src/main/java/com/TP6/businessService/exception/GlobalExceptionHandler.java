@@ -1,5 +1,6 @@
 package com.TP6.businessService.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -39,12 +40,42 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    // Manejo de error: el recurso cambió desde que el cliente lo leyó (versión vieja)
+    @ExceptionHandler(ConflictoDeVersionException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoDeVersion(ConflictoDeVersionException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Manejo de error: ya existe un producto o una categoría con ese nombre
+    @ExceptionHandler({ProductoYaExisteException.class, CategoriaYaExisteException.class})
+    public ResponseEntity<ErrorResponse> handleYaExiste(RuntimeException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Manejo de error: el ajuste dejaría la cantidad del inventario en negativo
+    @ExceptionHandler(StockInsuficienteException.class)
+    public ResponseEntity<ErrorResponse> handleStockInsuficiente(StockInsuficienteException ex) {
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     // Manejo de error: fallo en comunicación con microservicio externo
     @ExceptionHandler(MicroserviceCommunicationException.class)
     public ResponseEntity<ErrorResponse> handleComunicacion(MicroserviceCommunicationException ex) {
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
     }
 
+    // Manejo de error: el cliente superó el límite de tasa del endpoint
+    @ExceptionHandler(LimiteTasaExcedidoException.class)
+    public ResponseEntity<ErrorResponse> handleLimiteTasa(LimiteTasaExcedidoException ex) {
+        return buildResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), ex.getReintentarEnSegundos());
+    }
+
+    // Manejo de error: petición descartada por sobrecarga del data-service
+    @ExceptionHandler(ServicioSobrecargadoException.class)
+    public ResponseEntity<ErrorResponse> handleSobrecarga(ServicioSobrecargadoException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), ex.getReintentarEnSegundos());
+    }
+
     // Manejo de error genérico (cualquier excepción no controlada)
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenerico(Exception ex) {
@@ -59,6 +90,13 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Igual que el anterior, con la cabecera Retry-After (en segundos)
+    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message, long reintentarEnSegundos) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEnSegundos))
+                .body(new ErrorResponse(status.value(), message, LocalDateTime.now()));
+    }
+
     // Manejo de error: producto no encontrado
     @ExceptionHandler(ProductoNoEncontradoException.class)
     public ResponseEntity<ErrorResponse> handleProductoNoEncontrado(ProductoNoEncontradoException ex) {
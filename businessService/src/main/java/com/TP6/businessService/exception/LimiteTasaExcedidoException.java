@@ -0,0 +1,15 @@
+package com.TP6.businessService.exception;
+
+// El cliente superó el límite de tasa de un endpoint (429); indica cuándo vuelve a haber cupo
+public class LimiteTasaExcedidoException extends RuntimeException {
+    private final long reintentarEnSegundos;
+
+    public LimiteTasaExcedidoException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,7 @@
+package com.TP6.businessService.exception;
+
+public class ProductoYaExisteException extends RuntimeException {
+    public ProductoYaExisteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.TP6.businessService.exception;
+
+// Se descartó la petición para no saturar al data-service (503); indica cuándo reintentar
+public class ServicioSobrecargadoException extends RuntimeException {
+    private final long reintentarEnSegundos;
+
+    public ServicioSobrecargadoException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,7 @@
+package com.TP6.businessService.exception;
+
+public class StockInsuficienteException extends RuntimeException {
+    public StockInsuficienteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,184 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoValorDTO;
+import com.TP6.businessService.dto.RangoPrecioDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+// Estado parcial del reporte de catálogo para un tramo de productos. Cada tarea del motor
+// llena el suyo sin compartir nada y los parciales se combinan al final (reducción): el
+// resultado no depende de cómo se haya dividido el catálogo.
+final class AcumuladorReporte {
+
+    static final String SIN_CATEGORIA = "Sin categoría";
+
+    // Orden del top: primero el de mayor valor; a igual valor, el de menor id
+    private static final Comparator<Candidato> MEJOR_PRIMERO = (a, b) -> {
+        int porValor = a.compararValor(b.centavos, b.valor);
+        return porValor != 0 ? -porValor : Long.compare(a.id, b.id);
+    };
+
+    private final BigDecimal[] limitesPrecio;
+    private final long[] limitesEnCentavos;
+    private final int tamanioTop;
+
+    private long cantidad;
+    private final AcumuladorValor valorTotal = new AcumuladorValor();
+    private final Map<String, AcumuladorValor> valorPorCategoria = new HashMap<>();
+    private final long[] rangosPrecio;
+    private final HistogramaStock stock = new HistogramaStock();
+    // Montículo con el peor del top en la cabeza, para descartar candidatos en O(1)
+    private final PriorityQueue<Candidato> top;
+
+    AcumuladorReporte(BigDecimal[] limitesPrecio, long[] limitesEnCentavos, int tamanioTop) {
+        this.limitesPrecio = limitesPrecio;
+        this.limitesEnCentavos = limitesEnCentavos;
+        this.tamanioTop = tamanioTop;
+        this.rangosPrecio = new long[limitesPrecio.length + 1];
+        this.top = new PriorityQueue<>(Math.max(1, tamanioTop + 1), MEJOR_PRIMERO.reversed());
+    }
+
+    void agregar(ProductoDTO producto) {
+        cantidad++;
+        BigDecimal precio = producto.getPrecio();
+        int unidades = producto.getStock() != null ? producto.getStock() : 0;
+        stock.registrar(unidades);
+        if (precio == null) {
+            return;
+        }
+        valorTotal.sumar(precio, unidades);
+        String categoria = producto.getCategoriaNombre() != null ? producto.getCategoriaNombre() : SIN_CATEGORIA;
+        valorPorCategoria.computeIfAbsent(categoria, c -> new AcumuladorValor()).sumar(precio, unidades);
+
+        long precioEnCentavos = AcumuladorValor.centavos(precio);
+        rangosPrecio[rangoPrecio(precio, precioEnCentavos)]++;
+        ofrecerAlTop(producto, precio, precioEnCentavos, unidades);
+    }
+
+    void combinar(AcumuladorReporte otro) {
+        cantidad += otro.cantidad;
+        valorTotal.combinar(otro.valorTotal);
+        otro.valorPorCategoria.forEach((categoria, valor) ->
+                valorPorCategoria.computeIfAbsent(categoria, c -> new AcumuladorValor()).combinar(valor));
+        for (int i = 0; i < rangosPrecio.length; i++) {
+            rangosPrecio[i] += otro.rangosPrecio[i];
+        }
+        stock.combinar(otro.stock);
+        for (Candidato candidato : otro.top) {
+            admitir(candidato);
+        }
+    }
+
+    ReporteCatalogoDTO aReporte(int paginas, long duracionMs) {
+        Map<String, BigDecimal> porCategoria = new TreeMap<>();
+        valorPorCategoria.forEach((categoria, valor) -> porCategoria.put(categoria, valor.total()));
+
+        List<RangoPrecioDTO> histograma = new ArrayList<>(rangosPrecio.length);
+        for (int i = 0; i < rangosPrecio.length; i++) {
+            histograma.add(new RangoPrecioDTO(i == 0 ? null : limitesPrecio[i - 1],
+                    i < limitesPrecio.length ? limitesPrecio[i] : null, rangosPrecio[i]));
+        }
+
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", stock.percentil(50));
+        percentiles.put("p90", stock.percentil(90));
+        percentiles.put("p99", stock.percentil(99));
+        percentiles.put("max", stock.maximo());
+
+        List<ProductoValorDTO> mejores = top.stream()
+                .sorted(MEJOR_PRIMERO)
+                .map(c -> new ProductoValorDTO(c.id, c.nombre, c.categoriaNombre, c.valorExacto()))
+                .toList();
+
+        return new ReporteCatalogoDTO(cantidad, valorTotal.total(), porCategoria, histograma,
+                percentiles, mejores, paginas, duracionMs);
+    }
+
+    // Índice del rango [limite[i-1], limite[i]): búsqueda binaria sobre los límites en centavos,
+    // con BigDecimal sólo para precios que no se representan en centavos
+    private int rangoPrecio(BigDecimal precio, long precioEnCentavos) {
+        if (precioEnCentavos != AcumuladorValor.SIN_CENTAVOS) {
+            int posicion = Arrays.binarySearch(limitesEnCentavos, precioEnCentavos);
+            return posicion >= 0 ? posicion + 1 : -posicion - 1;
+        }
+        int rango = 0;
+        while (rango < limitesPrecio.length && precio.compareTo(limitesPrecio[rango]) >= 0) {
+            rango++;
+        }
+        return rango;
+    }
+
+    // Sólo se crea un Candidato (y el valor exacto si hace falta) cuando entra al top
+    private void ofrecerAlTop(ProductoDTO producto, BigDecimal precio, long precioEnCentavos, int unidades) {
+        if (tamanioTop <= 0) {
+            return;
+        }
+        long valorEnCentavos = AcumuladorValor.SIN_CENTAVOS;
+        if (precioEnCentavos != AcumuladorValor.SIN_CENTAVOS) {
+            long valor = precioEnCentavos * unidades;
+            if (Math.multiplyHigh(precioEnCentavos, unidades) == (valor >> 63)) {
+                valorEnCentavos = valor;
+            }
+        }
+        BigDecimal valorExacto = valorEnCentavos == AcumuladorValor.SIN_CENTAVOS
+                ? precio.multiply(BigDecimal.valueOf(unidades)) : null;
+        Candidato peor = top.peek();
+        if (top.size() >= tamanioTop) {
+            int porValor = peor.compararValor(valorEnCentavos, valorExacto);
+            if (porValor > 0 || (porValor == 0 && peor.id < producto.getId())) {
+                return; // No supera al peor del top
+            }
+        }
+        admitir(new Candidato(producto.getId(), producto.getNombre(), producto.getCategoriaNombre(),
+                valorEnCentavos, valorExacto));
+    }
+
+    private void admitir(Candidato candidato) {
+        top.add(candidato);
+        if (top.size() > tamanioTop) {
+            top.poll();
+        }
+    }
+
+    // Entrada del top: el valor va en centavos o, si no entra en un long, como BigDecimal
+    private static final class Candidato {
+        private final Long id;
+        private final String nombre;
+        private final String categoriaNombre;
+        private final long centavos;
+        private final BigDecimal valor;
+
+        private Candidato(Long id, String nombre, String categoriaNombre, long centavos, BigDecimal valor) {
+            this.id = id;
+            this.nombre = nombre;
+            this.categoriaNombre = categoriaNombre;
+            this.centavos = centavos;
+            this.valor = valor;
+        }
+
+        // Compara este valor con otro dado en centavos o, si centavos == SIN_CENTAVOS, exacto
+        private int compararValor(long otrosCentavos, BigDecimal otroValor) {
+            if (centavos != AcumuladorValor.SIN_CENTAVOS && otrosCentavos != AcumuladorValor.SIN_CENTAVOS) {
+                return Long.compare(centavos, otrosCentavos);
+            }
+            BigDecimal otro = otrosCentavos != AcumuladorValor.SIN_CENTAVOS
+                    ? BigDecimal.valueOf(otrosCentavos, 2) : otroValor;
+            return valorExacto().compareTo(otro);
+        }
+
+        private BigDecimal valorExacto() {
+            return valor != null ? valor : BigDecimal.valueOf(centavos, 2);
+        }
+    }
+}
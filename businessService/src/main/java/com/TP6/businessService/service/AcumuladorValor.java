@@ -0,0 +1,94 @@
+package com.TP6.businessService.service;
+
+import java.math.BigDecimal;
+
+// Acumula precio * cantidad sin crear objetos por fila. Los precios tienen escala <= 2
+// (precision 10, scale 2 en el data-service), así que la suma se lleva en centavos en un long.
+// Si aparece un precio con otra escala o la suma desborda, continúa con BigDecimal a partir
+// de lo acumulado: el resultado es siempre exacto e igual (valor y escala) al de sumar
+// precio.multiply(BigDecimal.valueOf(cantidad)) con BigDecimal.
+public final class AcumuladorValor {
+
+    // Valor de centavos(precio) cuando el precio no se puede representar en centavos
+    public static final long SIN_CENTAVOS = Long.MIN_VALUE;
+
+    private static final double[] POTENCIAS_DOUBLE = {1d, 10d, 100d};
+    private static final long[] POTENCIAS_LONG = {1L, 10L, 100L};
+    // Cota del valor sin escala para recuperarlo exacto desde el double (ver centavos)
+    private static final double LIMITE_SIN_ESCALA = 0x1p50;
+
+    private long centavos;
+    private int escala;           // Mayor escala sumada, para devolver la misma escala que BigDecimal
+    private BigDecimal exacto;    // Distinto de null una vez que se pasó al camino exacto
+
+    // Suma precio * cantidad; un precio nulo no aporta
+    public void sumar(BigDecimal precio, long cantidad) {
+        if (precio == null) {
+            return;
+        }
+        if (exacto == null && sumarEnCentavos(precio, cantidad)) {
+            return;
+        }
+        if (exacto == null) {
+            exacto = total();
+        }
+        exacto = exacto.add(precio.multiply(BigDecimal.valueOf(cantidad)));
+    }
+
+    // Camino rápido: devuelve false (sin modificar el estado) si no puede sumar en centavos
+    private boolean sumarEnCentavos(BigDecimal precio, long cantidad) {
+        long precioEnCentavos = centavos(precio);
+        if (precioEnCentavos == SIN_CENTAVOS) {
+            return false;
+        }
+        long producto = precioEnCentavos * cantidad;
+        long suma = centavos + producto;
+        // Desbordes sin excepciones: la parte alta de la multiplicación debe ser sólo el signo,
+        // y la suma desborda si cambia de signo respecto de ambos sumandos (como en addExact)
+        if (Math.multiplyHigh(precioEnCentavos, cantidad) != (producto >> 63)
+                || ((centavos ^ suma) & (producto ^ suma)) < 0) {
+            return false;
+        }
+        centavos = suma;
+        escala = Math.max(escala, precio.scale());
+        return true;
+    }
+
+    // Precio expresado en centavos, o SIN_CENTAVOS si su escala no es 0..2 o es demasiado grande.
+    // doubleValue() no crea objetos para valores compactos y redondea una sola vez, así que
+    // el error relativo es <= 2^-53; por debajo de 2^50 el redondeo recupera el valor sin
+    // escala exacto (unscaledValue() crearía un BigInteger por fila)
+    public static long centavos(BigDecimal precio) {
+        int escalaPrecio = precio.scale();
+        if (escalaPrecio < 0 || escalaPrecio > 2) {
+            return SIN_CENTAVOS;
+        }
+        double d = precio.doubleValue() * POTENCIAS_DOUBLE[escalaPrecio];
+        if (!(Math.abs(d) < LIMITE_SIN_ESCALA)) {
+            return SIN_CENTAVOS;
+        }
+        return Math.round(d) * POTENCIAS_LONG[2 - escalaPrecio];
+    }
+
+    // Suma lo acumulado por otro acumulador (reducciones en paralelo)
+    public void combinar(AcumuladorValor otro) {
+        if (exacto == null && otro.exacto == null) {
+            long suma = centavos + otro.centavos;
+            if (((centavos ^ suma) & (otro.centavos ^ suma)) >= 0) {
+                centavos = suma;
+                escala = Math.max(escala, otro.escala);
+                return;
+            }
+        }
+        exacto = total().add(otro.total());
+    }
+
+    // Total acumulado, con la escala que tendría la suma hecha con BigDecimal
+    public BigDecimal total() {
+        if (exacto != null) {
+            return exacto;
+        }
+        // Exacto: si la escala máxima es < 2 todos los sumandos son múltiplos de 10^(2 - escala)
+        return BigDecimal.valueOf(centavos, 2).setScale(escala);
+    }
+}
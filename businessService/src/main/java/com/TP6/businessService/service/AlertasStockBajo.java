@@ -0,0 +1,222 @@
+package com.TP6.businessService.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+// Reenvía las alertas de stock bajo del data-service (/data/inventario/stock-bajo/alertas)
+// a los clientes del business-service. Mantiene una única suscripción aguas arriba, abierta
+// mientras haya al menos un cliente (se corta al irse el último y se reabre con el siguiente),
+// y difunde cada evento recibido a todos ellos: la cantidad de clientes no multiplica
+// conexiones ni consultas contra el data-service.
+// Si la conexión se corta se reintenta; las alertas emitidas mientras tanto no se recuperan
+// (los clientes deben volver a consultar /api/reportes/stock-bajo al reconectarse).
+// Es @Lazy: el HttpClient se crea con la primera suscripción y no durante el arranque.
+@Component
+@Lazy
+@Slf4j
+public class AlertasStockBajo {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final URI origen;
+    private final long reintentoMs;
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+
+    private volatile boolean activo = true;
+    private Thread hilo;
+    private Thread hiloAnterior;
+
+    // Evento en armado (las líneas llegan una por una hasta la línea en blanco)
+    private String id;
+    private String evento;
+    private StringBuilder datos = new StringBuilder();
+
+    public AlertasStockBajo(@Value("${data.service.url}") String dataServiceUrl,
+                            @Value("${alertas.stock-bajo.reintento-ms:2000}") long reintentoMs) {
+        this.origen = URI.create(dataServiceUrl + "/data/inventario/stock-bajo/alertas");
+        this.reintentoMs = reintentoMs;
+    }
+
+    // Alta de un suscriptor; arranca la suscripción aguas arriba con el primero
+    public SseEmitter suscribir() {
+        SseEmitter emitter = new SseEmitter(0L);
+        agregar(emitter);
+        iniciarSiHaceFalta();
+        return emitter;
+    }
+
+    void agregar(SseEmitter emitter) {
+        emitter.onCompletion(() -> quitar(emitter));
+        emitter.onTimeout(() -> quitar(emitter));
+        emitter.onError(e -> quitar(emitter));
+        suscriptores.add(emitter);
+    }
+
+    // Baja de un suscriptor; con el último se corta la suscripción aguas arriba
+    void quitar(SseEmitter emitter) {
+        suscriptores.remove(emitter);
+        detenerSiNoQuedan();
+    }
+
+    int cantidadSuscriptores() {
+        return suscriptores.size();
+    }
+
+    synchronized boolean escuchando() {
+        return hilo != null;
+    }
+
+    synchronized void iniciarSiHaceFalta() {
+        if (hilo == null && activo && !suscriptores.isEmpty()) {
+            // El hilo anterior, si se está cerrando, termina antes de abrir la nueva conexión:
+            // los dos no comparten el evento en armado
+            Thread anterior = hiloAnterior;
+            hilo = new Thread(() -> {
+                if (esperarFin(anterior)) {
+                    ejecutar();
+                }
+            }, "alertas-stock-bajo");
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+    }
+
+    private synchronized void detenerSiNoQuedan() {
+        if (suscriptores.isEmpty() && hilo != null) {
+            hilo.interrupt();
+            hiloAnterior = hilo;
+            hilo = null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        activo = false;
+        if (hilo != null) {
+            hilo.interrupt();
+        }
+    }
+
+    // Escucha hasta que se detenga el servicio o se interrumpa el hilo (no quedan suscriptores)
+    private void ejecutar() {
+        while (activo && !Thread.currentThread().isInterrupted()) {
+            try {
+                escuchar();
+            } catch (IOException | UncheckedIOException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                log.warn("Se cortó la suscripción a las alertas de stock bajo del data-service: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                return;
+            }
+            esperarReintento();
+        }
+    }
+
+    private static boolean esperarFin(Thread anterior) {
+        if (anterior == null) {
+            return true;
+        }
+        try {
+            anterior.join();
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    // Abre la conexión SSE con el data-service y procesa las líneas hasta que se cierre
+    private void escuchar() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(origen)
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("El data-service respondió " + response.statusCode());
+        }
+        reiniciarEvento();
+        try (Stream<String> lineas = response.body()) {
+            lineas.forEach(this::procesarLinea);
+        }
+    }
+
+    // Interpreta una línea del protocolo SSE: los campos se acumulan y la línea en blanco
+    // despacha el evento. Los comentarios (":ping") se reenvían como heartbeat propio.
+    void procesarLinea(String linea) {
+        if (linea.isEmpty()) {
+            if (datos.length() > 0) {
+                reenviar(id, evento, datos.toString());
+            }
+            reiniciarEvento();
+        } else if (linea.startsWith(":")) {
+            difundir(SseEmitter.event().comment(linea.substring(1).trim()));
+        } else if (linea.startsWith("id:")) {
+            id = valor(linea, 3);
+        } else if (linea.startsWith("event:")) {
+            evento = valor(linea, 6);
+        } else if (linea.startsWith("data:")) {
+            if (datos.length() > 0) {
+                datos.append('\n');
+            }
+            datos.append(valor(linea, 5));
+        }
+    }
+
+    private void reenviar(String id, String evento, String json) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().data(json, MediaType.APPLICATION_JSON);
+        if (id != null) {
+            builder.id(id);
+        }
+        if (evento != null) {
+            builder.name(evento);
+        }
+        difundir(builder);
+    }
+
+    private void difundir(SseEmitter.SseEventBuilder builder) {
+        for (SseEmitter emitter : suscriptores) {
+            try {
+                emitter.send(builder);
+            } catch (IOException | IllegalStateException e) {
+                quitar(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void reiniciarEvento() {
+        id = null;
+        evento = null;
+        datos = new StringBuilder();
+    }
+
+    // Valor de un campo SSE: lo que sigue a "campo:", sin el espacio inicial opcional
+    private static String valor(String linea, int desde) {
+        return linea.startsWith(" ", desde) ? linea.substring(desde + 1) : linea.substring(desde);
+    }
+
+    private void esperarReintento() {
+        try {
+            Thread.sleep(reintentoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+// Vista materializada en memoria del catálogo (productos, categorías e inventarios).
+// La alimenta SincronizadorReplica con un snapshot inicial y el feed de cambios del data-service.
+// Las lecturas sólo deben usarla mientras estaVigente() sea true.
+@Component
+public class CatalogoReplica {
+
+    private final long maxStalenessNanos;
+
+    // Índices de la réplica; se reemplazan completos al cargar un snapshot
+    private volatile Vista vista = new Vista();
+
+    // Momento (System.nanoTime) hasta el cual se sabe que la réplica estaba al día
+    private volatile long ultimaConfirmacion;
+    private volatile boolean cargada = false;
+
+    public CatalogoReplica(@Value("${catalogo.replica.max-staleness-ms:5000}") long maxStalenessMs) {
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    // Conjunto de mapas primarios e índices secundarios
+    private static final class Vista {
+        final Map<Long, ProductoDTO> productos = new ConcurrentHashMap<>();
+        final Map<String, Long> productoPorNombre = new ConcurrentHashMap<>();
+        final Map<String, Set<Long>> productosPorCategoria = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<BigDecimal, Set<Long>> productosPorPrecio = new ConcurrentSkipListMap<>();
+        final Map<Long, CategoriaDTO> categorias = new ConcurrentHashMap<>();
+        final Map<String, Long> categoriaPorNombre = new ConcurrentHashMap<>();
+        final Map<Long, InventarioDTO> inventarios = new ConcurrentHashMap<>();
+        final Map<Long, Long> inventarioPorProducto = new ConcurrentHashMap<>();
+    }
+
+    // ------------------- VIGENCIA -------------------
+
+    // Indica si la réplica está cargada y confirmada dentro del máximo de desactualización
+    public boolean estaVigente() {
+        return cargada && System.nanoTime() - ultimaConfirmacion <= maxStalenessNanos;
+    }
+
+    // Registra que la réplica estaba al día en el instante indicado (System.nanoTime)
+    public void confirmarVigencia(long instante) {
+        ultimaConfirmacion = instante;
+    }
+
+    // Deja de servir lecturas locales hasta la próxima carga completa
+    public void invalidar() {
+        cargada = false;
+    }
+
+    // ------------------- CARGA Y ACTUALIZACIÓN -------------------
+
+    // Reemplaza todo el contenido con un snapshot completo
+    public synchronized void cargar(Collection<ProductoDTO> productos,
+                                    Collection<CategoriaDTO> categorias,
+                                    Collection<InventarioDTO> inventarios,
+                                    long instante) {
+        Vista nueva = new Vista();
+        productos.forEach(p -> indexarProducto(nueva, p));
+        categorias.forEach(c -> indexarCategoria(nueva, c));
+        inventarios.forEach(i -> indexarInventario(nueva, i));
+        vista = nueva;
+        ultimaConfirmacion = instante;
+        cargada = true;
+    }
+
+    // Agrega o reemplaza un producto
+    public synchronized void guardarProducto(ProductoDTO producto) {
+        desindexarProducto(vista, producto.getId());
+        indexarProducto(vista, producto);
+    }
+
+    // Elimina un producto
+    public synchronized void eliminarProducto(Long id) {
+        desindexarProducto(vista, id);
+    }
+
+    // Agrega o reemplaza una categoría
+    public synchronized void guardarCategoria(CategoriaDTO categoria) {
+        desindexarCategoria(vista, categoria.getId());
+        indexarCategoria(vista, categoria);
+    }
+
+    // Elimina una categoría y devuelve la que estaba registrada (si existía)
+    public synchronized Optional<CategoriaDTO> eliminarCategoria(Long id) {
+        return Optional.ofNullable(desindexarCategoria(vista, id));
+    }
+
+    // Agrega o reemplaza un inventario
+    public synchronized void guardarInventario(InventarioDTO inventario) {
+        desindexarInventario(vista, inventario.getId());
+        indexarInventario(vista, inventario);
+    }
+
+    // Elimina un inventario
+    public synchronized void eliminarInventario(Long id) {
+        desindexarInventario(vista, id);
+    }
+
+    // ------------------- LECTURAS -------------------
+
+    public List<ProductoDTO> obtenerProductos() {
+        return new ArrayList<>(vista.productos.values());
+    }
+
+    public Optional<ProductoDTO> buscarProducto(Long id) {
+        return Optional.ofNullable(vista.productos.get(id));
+    }
+
+    public Optional<ProductoDTO> buscarProductoPorNombre(String nombre) {
+        Vista actual = vista;
+        Long id = actual.productoPorNombre.get(nombre);
+        return id == null ? Optional.empty() : Optional.ofNullable(actual.productos.get(id));
+    }
+
+    public List<ProductoDTO> buscarProductosPorPrecio(BigDecimal precio) {
+        Vista actual = vista;
+        return resolverProductos(actual, actual.productosPorPrecio.get(precio));
+    }
+
+    public List<ProductoDTO> buscarProductosPorCategoria(String nombreCategoria) {
+        Vista actual = vista;
+        return resolverProductos(actual, actual.productosPorCategoria.get(nombreCategoria));
+    }
+
+    // IDs de los productos indexados bajo una categoría
+    public Set<Long> idsProductosPorCategoria(String nombreCategoria) {
+        Set<Long> ids = vista.productosPorCategoria.get(nombreCategoria);
+        return ids == null ? Set.of() : Set.copyOf(ids);
+    }
+
+    public List<CategoriaDTO> obtenerCategorias() {
+        return new ArrayList<>(vista.categorias.values());
+    }
+
+    public Optional<CategoriaDTO> buscarCategoria(Long id) {
+        return Optional.ofNullable(vista.categorias.get(id));
+    }
+
+    public Optional<CategoriaDTO> buscarCategoriaPorNombre(String nombre) {
+        Vista actual = vista;
+        Long id = actual.categoriaPorNombre.get(nombre);
+        return id == null ? Optional.empty() : Optional.ofNullable(actual.categorias.get(id));
+    }
+
+    public List<InventarioDTO> obtenerInventarios() {
+        return new ArrayList<>(vista.inventarios.values());
+    }
+
+    public Optional<InventarioDTO> buscarInventario(Long id) {
+        return Optional.ofNullable(vista.inventarios.get(id));
+    }
+
+    public Optional<InventarioDTO> buscarInventarioPorProducto(Long productoId) {
+        Vista actual = vista;
+        Long id = actual.inventarioPorProducto.get(productoId);
+        return id == null ? Optional.empty() : Optional.ofNullable(actual.inventarios.get(id));
+    }
+
+    // ------------------- ÍNDICES -------------------
+
+    private static List<ProductoDTO> resolverProductos(Vista vista, Set<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<ProductoDTO> resultado = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductoDTO producto = vista.productos.get(id);
+            if (producto != null) {
+                resultado.add(producto);
+            }
+        }
+        return resultado;
+    }
+
+    private static void indexarProducto(Vista vista, ProductoDTO producto) {
+        vista.productos.put(producto.getId(), producto);
+        if (producto.getNombre() != null) {
+            vista.productoPorNombre.put(producto.getNombre(), producto.getId());
+        }
+        if (producto.getCategoriaNombre() != null) {
+            vista.productosPorCategoria
+                    .computeIfAbsent(producto.getCategoriaNombre(), k -> ConcurrentHashMap.newKeySet())
+                    .add(producto.getId());
+        }
+        if (producto.getPrecio() != null) {
+            vista.productosPorPrecio
+                    .computeIfAbsent(producto.getPrecio(), k -> ConcurrentHashMap.newKeySet())
+                    .add(producto.getId());
+        }
+    }
+
+    private static void desindexarProducto(Vista vista, Long id) {
+        ProductoDTO anterior = vista.productos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        if (anterior.getNombre() != null) {
+            vista.productoPorNombre.remove(anterior.getNombre(), id);
+        }
+        if (anterior.getCategoriaNombre() != null) {
+            quitarDeIndice(vista.productosPorCategoria, anterior.getCategoriaNombre(), id);
+        }
+        if (anterior.getPrecio() != null) {
+            quitarDeIndice(vista.productosPorPrecio, anterior.getPrecio(), id);
+        }
+    }
+
+    private static void indexarCategoria(Vista vista, CategoriaDTO categoria) {
+        vista.categorias.put(categoria.getId(), categoria);
+        if (categoria.getNombre() != null) {
+            vista.categoriaPorNombre.put(categoria.getNombre(), categoria.getId());
+        }
+    }
+
+    private static CategoriaDTO desindexarCategoria(Vista vista, Long id) {
+        CategoriaDTO anterior = vista.categorias.remove(id);
+        if (anterior != null && anterior.getNombre() != null) {
+            vista.categoriaPorNombre.remove(anterior.getNombre(), id);
+        }
+        return anterior;
+    }
+
+    private static void indexarInventario(Vista vista, InventarioDTO inventario) {
+        vista.inventarios.put(inventario.getId(), inventario);
+        if (inventario.getProducto() != null && inventario.getProducto().getId() != null) {
+            vista.inventarioPorProducto.put(inventario.getProducto().getId(), inventario.getId());
+        }
+    }
+
+    private static void desindexarInventario(Vista vista, Long id) {
+        InventarioDTO anterior = vista.inventarios.remove(id);
+        if (anterior != null && anterior.getProducto() != null && anterior.getProducto().getId() != null) {
+            vista.inventarioPorProducto.remove(anterior.getProducto().getId(), id);
+        }
+    }
+
+    private static <K> void quitarDeIndice(Map<K, Set<Long>> indice, K clave, Long id) {
+        indice.computeIfPresent(clave, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -1,8 +1,13 @@
 package com.TP6.businessService.service;
 
 import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.client.ErroresDataService;
 import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
 import com.TP6.businessService.exception.CategoriaNoEncontradaException;
+import com.TP6.businessService.exception.CategoriaYaExisteException;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
 import feign.FeignException;
@@ -10,19 +15,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 public class CategoriaBusinessService {
 
     private final DataServiceClient dataServiceClient;
+    private final CatalogoReplica catalogoReplica;
 
-    public CategoriaBusinessService(DataServiceClient dataServiceClient) {
+    public CategoriaBusinessService(DataServiceClient dataServiceClient, CatalogoReplica catalogoReplica) {
         this.dataServiceClient = dataServiceClient;
+        this.catalogoReplica = catalogoReplica;
     }
 
     // Obtener todas las categorías
     public List<CategoriaDTO> obtenerTodasLasCategorias() {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.obtenerCategorias();
+        }
         try {
             return dataServiceClient.obtenerTodasLasCategorias();
         } catch (FeignException e) {
@@ -33,6 +44,10 @@ public class CategoriaBusinessService {
 
     // Obtener una categoría por su ID
     public CategoriaDTO obtenerCategoriaPorId(Long id) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarCategoria(id)
+                    .orElseThrow(() -> new CategoriaNoEncontradaException("Categoría no encontrada con ID: " + id));
+        }
         try {
             return dataServiceClient.obtenerCategoriaPorId(id);
         } catch (FeignException.NotFound e) {
@@ -49,6 +64,8 @@ public class CategoriaBusinessService {
 
         try {
             return dataServiceClient.crearCategoria(categoriaDTO);
+        } catch (FeignException.Conflict e) {
+            throw new CategoriaYaExisteException("La categoría " + categoriaDTO.getNombre() + " ya existe");
         } catch (FeignException e) {
             log.error("Error al crear categoría en el data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
@@ -63,12 +80,34 @@ public class CategoriaBusinessService {
             return dataServiceClient.actualizarCategoria(id, categoriaDTO);
         } catch (FeignException.NotFound e) {
             throw new CategoriaNoEncontradaException("Categoría no encontrada con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
         } catch (FeignException e) {
             log.error("Error al actualizar categoría en el data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
         }
     }
 
+    // Modificar sólo algunos campos de una categoría (JSON Merge Patch)
+    public CategoriaDTO modificarCategoria(Long id, Map<String, Object> cambios) {
+        if (cambios.containsKey("nombre")
+                && (!(cambios.get("nombre") instanceof String nombre) || nombre.isBlank())) {
+            throw new ValidacionNegocioException("El nombre de la categoría no puede estar vacío");
+        }
+        try {
+            return dataServiceClient.modificarCategoria(id, cambios);
+        } catch (FeignException.NotFound e) {
+            throw new CategoriaNoEncontradaException("Categoría no encontrada con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Cambios inválidos para la categoría con ID: " + id);
+        } catch (FeignException e) {
+            log.error("Error al modificar categoría en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     // Eliminar una categoría por su ID
     public void eliminarCategoria(Long id) {
         try {
@@ -81,6 +120,18 @@ public class CategoriaBusinessService {
         }
     }
 
+    // Eliminar todos los productos de una categoría (la categoría queda)
+    public ResultadoEliminacionDTO eliminarProductosDeCategoria(Long id) {
+        try {
+            return dataServiceClient.eliminarProductosDeCategoria(id);
+        } catch (FeignException.NotFound e) {
+            throw new CategoriaNoEncontradaException("Categoría no encontrada con ID: " + id);
+        } catch (FeignException e) {
+            log.error("Error al eliminar los productos de la categoría en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     // Obtener categorías que tengan al menos un producto
     public List<CategoriaDTO> obtenerCategoriasConProductos() {
         try {
@@ -91,8 +142,22 @@ public class CategoriaBusinessService {
         }
     }
 
+    // Obtener el reporte por categoría (agregados precalculados en el data-service)
+    public List<ResumenCategoriaDTO> obtenerResumenCategorias() {
+        try {
+            return dataServiceClient.obtenerResumenCategorias();
+        } catch (FeignException e) {
+            log.error("Error al obtener el resumen por categoría del data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     // Obtener una categoría por su nombre
     public CategoriaDTO obtenerCategoriaPorNombre(String nombre) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarCategoriaPorNombre(nombre)
+                    .orElseThrow(() -> new CategoriaNoEncontradaException("Categoría no encontrada con nombre: " + nombre));
+        }
         try {
             return dataServiceClient.obtenerCategoriaPorNombre(nombre);
         } catch (FeignException.NotFound e) {
@@ -103,6 +168,15 @@ public class CategoriaBusinessService {
         }
     }
 
+    // Un 409 del data-service es un nombre duplicado o una versión vieja; el cuerpo dice cuál
+    private RuntimeException conflicto(Long id, FeignException.Conflict e) {
+        if (ErroresDataService.esYaExiste(e)) {
+            return new CategoriaYaExisteException("Ya existe otra categoría con ese nombre");
+        }
+        return new ConflictoDeVersionException("La categoría con ID: " + id
+                + " fue modificada por otra operación; vuelva a leerla");
+    }
+
     // Validaciones de negocio para categorías
     private void validarCategoria(CategoriaDTO categoriaDTO) {
         if (categoriaDTO.getNombre() == null || categoriaDTO.getNombre().isBlank()) {
@@ -0,0 +1,334 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.AjusteInventarioDTO;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Escritura diferida (write-behind) de inventario, opcional (inventario.escritura-diferida.habilitada).
+// Los PUT y ajustes de cantidad se acumulan por inventario en un buffer dividido en franjas (cada
+// una con su lock, así los inventarios distintos no compiten) y se envían al data-service en lote
+// (POST /data/inventario/ajustes) cada intervalo-ms o al juntar 'lote' inventarios distintos.
+//  - Varias escrituras del mismo inventario se combinan: un PUT fija valores absolutos y descarta
+//    las variaciones anteriores; los ajustes se suman.
+//  - Cada operación se anota en RegistroEscrituras antes de aceptarla; si el proceso se corta,
+//    al arrancar se relee y se vuelve a enviar.
+//  - Cada volcado se reparte en lotes con un id (cabecera Idempotency-Key) que se guardan en el
+//    registro antes de enviarlos: un reintento (timeout después del commit, corte a mitad de
+//    volcado) reenvía el mismo lote con el mismo id y el data-service no lo aplica dos veces.
+//  - Contrapresión: con max-pendientes inventarios en el buffer o en lotes sin confirmar, una
+//    escritura de un inventario nuevo espera hasta espera-ms a que un volcado libere lugar y si no
+//    responde 503.
+//  - Si el data-service falla, el lote se reintenta tal cual en el próximo volcado; hasta que no se
+//    confirmen los lotes anteriores no se arman lotes nuevos, así se aplican en orden.
+@Component
+@Slf4j
+public class EscrituraDiferidaInventario {
+
+    private final DataServiceClient dataServiceClient;
+    private final boolean habilitada;
+    private final int lote;
+    private final long intervaloMs;
+    private final int maxPendientes;
+    private final long esperaMs;
+    private final Path directorio;
+    private final boolean sincronizar;
+    private final Franja[] franjas;
+    private final AtomicInteger pendientes = new AtomicInteger();
+    // Inventarios en lotes ya armados que el data-service todavía no confirmó
+    private final AtomicInteger enLotes = new AtomicInteger();
+    private final Deque<RegistroEscrituras.Lote> lotesSinConfirmar = new ArrayDeque<>();
+    private final AtomicBoolean volcadoSolicitado = new AtomicBoolean();
+    // Lectura: registrar una escritura; escritura: rotar el registro y vaciar las franjas a la vez
+    private final ReentrantReadWriteLock rotacion = new ReentrantReadWriteLock();
+    private Semaphore cupo;
+    private RegistroEscrituras registro;
+    private ScheduledExecutorService planificador;
+
+    public EscrituraDiferidaInventario(DataServiceClient dataServiceClient,
+                                       @Value("${inventario.escritura-diferida.habilitada:false}") boolean habilitada,
+                                       @Value("${inventario.escritura-diferida.lote:500}") int lote,
+                                       @Value("${inventario.escritura-diferida.intervalo-ms:200}") long intervaloMs,
+                                       @Value("${inventario.escritura-diferida.max-pendientes:10000}") int maxPendientes,
+                                       @Value("${inventario.escritura-diferida.espera-ms:200}") long esperaMs,
+                                       @Value("${inventario.escritura-diferida.franjas:16}") int franjas,
+                                       @Value("${inventario.escritura-diferida.directorio:escritura-diferida}") String directorio,
+                                       @Value("${inventario.escritura-diferida.sincronizar:true}") boolean sincronizar) {
+        this.dataServiceClient = dataServiceClient;
+        this.habilitada = habilitada;
+        this.lote = Math.max(1, lote);
+        this.intervaloMs = intervaloMs;
+        this.maxPendientes = maxPendientes;
+        this.esperaMs = esperaMs;
+        this.directorio = Path.of(directorio);
+        this.sincronizar = sincronizar;
+        // Potencia de dos para elegir la franja con una máscara
+        this.franjas = new Franja[Integer.highestOneBit(Math.max(1, franjas - 1)) << 1];
+        for (int i = 0; i < this.franjas.length; i++) {
+            this.franjas[i] = new Franja();
+        }
+    }
+
+    // Relee el registro de una ejecución anterior y arranca los volcados periódicos
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!habilitada) {
+            return;
+        }
+        registro = new RegistroEscrituras(directorio, sincronizar);
+        for (RegistroEscrituras.Lote recuperado : registro.recuperarLotes()) {
+            lotesSinConfirmar.add(recuperado);
+            enLotes.addAndGet(recuperado.operaciones().size());
+        }
+        List<RegistroEscrituras.Operacion> recuperadas = registro.recuperar();
+        for (RegistroEscrituras.Operacion operacion : recuperadas) {
+            Franja franja = franja(operacion.inventarioId());
+            if (franja.combinar(operacion.inventarioId(), Pendiente.de(operacion))) {
+                pendientes.incrementAndGet();
+            }
+        }
+        cupo = new Semaphore(maxPendientes - pendientes.get() - enLotes.get());
+        planificador = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("escritura-diferida-inventario").daemon().factory());
+        planificador.scheduleWithFixedDelay(this::volcarSinFallar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        if (!recuperadas.isEmpty() || !lotesSinConfirmar.isEmpty()) {
+            log.info("Escritura diferida: {} lotes y {} operaciones recuperadas del registro ({} inventarios)",
+                    lotesSinConfirmar.size(), recuperadas.size(), pendientes.get() + enLotes.get());
+            solicitarVolcado();
+        }
+    }
+
+    // Vuelca lo pendiente antes de cerrar
+    @PreDestroy
+    public void detener() throws IOException, InterruptedException {
+        if (!habilitada) {
+            return;
+        }
+        planificador.shutdown();
+        planificador.awaitTermination(5, TimeUnit.SECONDS);
+        volcar();
+        registro.close();
+    }
+
+    public boolean estaHabilitada() {
+        return habilitada;
+    }
+
+    // Inventarios en el buffer o en lotes que el data-service todavía no confirmó
+    public int cantidadPendientes() {
+        return pendientes.get() + enLotes.get();
+    }
+
+    // Acepta una escritura: valores absolutos opcionales (null = sin cambio) y una variación.
+    // La anotación se encola bajo los locks (así queda antes de cualquier rotación que vacíe la
+    // operación del buffer) y se espera fuera de ellos, mientras el registro la sincroniza en tanda
+    // con las demás. Si la escritura del registro falla se responde error, pero la operación ya
+    // está en el buffer y se enviará igual (resultado incierto, como un timeout)
+    public void registrar(long inventarioId, Integer cantidad, Integer stockMinimo, long delta) {
+        RegistroEscrituras.Operacion operacion =
+                new RegistroEscrituras.Operacion(inventarioId, cantidad, stockMinimo, delta);
+        Franja franja = franja(inventarioId);
+        boolean conCupo = false;
+        while (true) {
+            int nuevas = -1;
+            CompletableFuture<Long> anotada = null;
+            rotacion.readLock().lock();
+            franja.lock.lock();
+            try {
+                boolean existe = franja.pendientes.containsKey(inventarioId);
+                if (!existe && !conCupo) {
+                    conCupo = cupo.tryAcquire();
+                }
+                if (existe || conCupo) {
+                    anotada = registro.anotar(operacion);
+                    franja.combinar(inventarioId, Pendiente.de(operacion));
+                    if (existe && conCupo) {
+                        cupo.release(); // Mientras esperaba otra escritura creó la entrada: el cupo sobra
+                    }
+                    conCupo = false;
+                    nuevas = existe ? 0 : pendientes.incrementAndGet();
+                }
+            } finally {
+                franja.lock.unlock();
+                rotacion.readLock().unlock();
+            }
+            if (anotada != null) {
+                try {
+                    RegistroEscrituras.esperar(anotada);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("No se pudo anotar la escritura de inventario", e);
+                }
+            }
+            if (nuevas >= 0) {
+                if (nuevas >= lote) {
+                    solicitarVolcado();
+                }
+                return;
+            }
+            // Buffer lleno: se pide un volcado y se espera a que libere lugar
+            solicitarVolcado();
+            try {
+                conCupo = cupo.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!conCupo) {
+                throw new ServicioSobrecargadoException(
+                        "Buffer de escritura de inventario lleno, reintente más tarde", 1);
+            }
+        }
+    }
+
+    // Envía al data-service los lotes sin confirmar y después todo lo acumulado, en lotes nuevos
+    synchronized void volcar() {
+        volcadoSolicitado.set(false);
+        if (enviarLotes()) {
+            lotesSinConfirmar.addAll(armarLotes());
+            enviarLotes();
+        }
+    }
+
+    // Vacía el buffer en lotes guardados en el registro; si no se pueden guardar, el buffer queda como estaba
+    private List<RegistroEscrituras.Lote> armarLotes() {
+        long segmento;
+        List<RegistroEscrituras.Lote> lotes;
+        rotacion.writeLock().lock();
+        try {
+            if (pendientes.get() == 0) {
+                return List.of();
+            }
+            segmento = registro.rotar();
+            List<RegistroEscrituras.Operacion> operaciones = new ArrayList<>();
+            for (Franja franja : franjas) {
+                franja.pendientes.forEach((id, p) ->
+                        operaciones.add(new RegistroEscrituras.Operacion(id, p.cantidad, p.stockMinimo, p.delta)));
+            }
+            List<List<RegistroEscrituras.Operacion>> partes = new ArrayList<>();
+            for (int desde = 0; desde < operaciones.size(); desde += lote) {
+                partes.add(operaciones.subList(desde, Math.min(operaciones.size(), desde + lote)));
+            }
+            lotes = registro.guardarLotes(segmento, partes);
+            for (Franja franja : franjas) {
+                franja.pendientes.clear();
+            }
+            enLotes.addAndGet(operaciones.size());
+            pendientes.set(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron guardar los lotes de escrituras", e);
+        } finally {
+            rotacion.writeLock().unlock();
+        }
+        try {
+            registro.confirmarHasta(segmento);
+        } catch (IOException e) {
+            // Al arrancar se ignoran igual: el archivo de lotes ya los cubre
+            log.error("Escritura diferida: no se pudieron borrar los segmentos volcados", e);
+        }
+        return lotes;
+    }
+
+    // Envía en orden los lotes sin confirmar; devuelve false si alguno falló (queda para el próximo volcado)
+    private boolean enviarLotes() {
+        while (!lotesSinConfirmar.isEmpty()) {
+            RegistroEscrituras.Lote pendiente = lotesSinConfirmar.peekFirst();
+            List<AjusteInventarioDTO> ajustes = pendiente.operaciones().stream()
+                    .map(o -> new AjusteInventarioDTO(o.inventarioId(), o.cantidad(), o.stockMinimo(), o.delta()))
+                    .toList();
+            ResultadoAjustesDTO resultado;
+            try {
+                resultado = dataServiceClient.aplicarAjustesInventario(pendiente.id(), ajustes);
+            } catch (RuntimeException e) {
+                log.error("Escritura diferida: no se pudo enviar el lote {} al data-service, se reintentará",
+                        pendiente.id(), e);
+                return false;
+            }
+            if (resultado.getNoEncontrados() != null && !resultado.getNoEncontrados().isEmpty()) {
+                log.warn("Escritura diferida: inventarios inexistentes descartados {}", resultado.getNoEncontrados());
+            }
+            if (resultado.getSinStock() != null && !resultado.getSinStock().isEmpty()) {
+                log.warn("Escritura diferida: ajustes descartados por dejar stock negativo {}", resultado.getSinStock());
+            }
+            lotesSinConfirmar.pollFirst();
+            enLotes.addAndGet(-ajustes.size());
+            cupo.release(ajustes.size());
+            try {
+                registro.confirmarLote(pendiente);
+            } catch (IOException e) {
+                // Si se reenvía al arrancar, el data-service reconoce el id y no lo aplica de nuevo
+                log.error("Escritura diferida: no se pudo marcar el lote {} como aplicado", pendiente.id(), e);
+            }
+        }
+        return true;
+    }
+
+    private void volcarSinFallar() {
+        try {
+            volcar();
+        } catch (RuntimeException e) {
+            log.error("Escritura diferida: error en el volcado", e);
+        }
+    }
+
+    private void solicitarVolcado() {
+        if (planificador != null && !planificador.isShutdown() && volcadoSolicitado.compareAndSet(false, true)) {
+            planificador.execute(this::volcarSinFallar);
+        }
+    }
+
+    private Franja franja(long inventarioId) {
+        int h = Long.hashCode(inventarioId);
+        return franjas[(h ^ (h >>> 16)) & (franjas.length - 1)];
+    }
+
+    private static final class Franja {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, Pendiente> pendientes = new HashMap<>();
+
+        // Devuelve true si el inventario no tenía nada pendiente
+        boolean combinar(long inventarioId, Pendiente posterior) {
+            Pendiente anterior = pendientes.get(inventarioId);
+            pendientes.put(inventarioId, anterior == null ? posterior : Pendiente.combinar(anterior, posterior));
+            return anterior == null;
+        }
+    }
+
+    // Cambio acumulado de un inventario: valores absolutos (null = sin cambio) y variación posterior
+    private record Pendiente(Integer cantidad, Integer stockMinimo, long delta) {
+
+        static Pendiente de(RegistroEscrituras.Operacion operacion) {
+            return new Pendiente(operacion.cantidad(), operacion.stockMinimo(), operacion.delta());
+        }
+
+        static Pendiente combinar(Pendiente anterior, Pendiente posterior) {
+            Integer stockMinimo = posterior.stockMinimo != null ? posterior.stockMinimo : anterior.stockMinimo;
+            if (posterior.cantidad != null) {
+                return new Pendiente(posterior.cantidad, stockMinimo, posterior.delta);
+            }
+            return new Pendiente(anterior.cantidad, stockMinimo, anterior.delta + posterior.delta);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.TP6.businessService.service;
+
+// Histograma de cantidades de stock con memoria fija, combinable entre hilos. Los valores
+// 0..1023 se cuentan exactos; desde 1024 cada potencia de dos se divide en 64 sub-rangos,
+// así el percentil informado tiene un error relativo menor a 1/64 (el máximo es exacto).
+final class HistogramaStock {
+
+    private static final int EXACTOS = 1024;
+    private static final int BITS_SUB_RANGO = 6;
+    private static final int SUB_RANGOS = 1 << BITS_SUB_RANGO;
+    // 1024 exactos + 64 sub-rangos por cada potencia de dos entre 2^10 y 2^30
+    private static final int CANTIDAD_CUBETAS = EXACTOS + (31 - 10) * SUB_RANGOS;
+
+    private final long[] cubetas = new long[CANTIDAD_CUBETAS];
+    private long total;
+    private int maximo;
+
+    // Registra una cantidad; los valores negativos o nulos cuentan como 0
+    void registrar(Integer cantidad) {
+        int valor = cantidad == null || cantidad < 0 ? 0 : cantidad;
+        cubetas[indice(valor)]++;
+        total++;
+        if (valor > maximo) {
+            maximo = valor;
+        }
+    }
+
+    void combinar(HistogramaStock otro) {
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            cubetas[i] += otro.cubetas[i];
+        }
+        total += otro.total;
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    // Percentil (0 < p <= 100) por rango más cercano: el menor valor con al menos p% de los
+    // registros menores o iguales. Devuelve 0 si no hay registros
+    int percentil(double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long rango = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long acumulado = 0;
+        int cubetaMaximo = indice(maximo);
+        for (int i = 0; i < cubetaMaximo; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= rango) {
+                return limiteInferior(i);
+            }
+        }
+        return maximo; // La cubeta del máximo se informa con el máximo exacto
+    }
+
+    int maximo() {
+        return maximo;
+    }
+
+    private static int indice(int valor) {
+        if (valor < EXACTOS) {
+            return valor;
+        }
+        int exponente = 31 - Integer.numberOfLeadingZeros(valor);
+        int subRango = (valor >>> (exponente - BITS_SUB_RANGO)) & (SUB_RANGOS - 1);
+        return EXACTOS + (exponente - 10) * SUB_RANGOS + subRango;
+    }
+
+    private static int limiteInferior(int indice) {
+        if (indice < EXACTOS) {
+            return indice;
+        }
+        int exponente = (indice - EXACTOS) / SUB_RANGOS + 10;
+        int subRango = (indice - EXACTOS) % SUB_RANGOS;
+        return (SUB_RANGOS + subRango) << (exponente - BITS_SUB_RANGO);
+    }
+}
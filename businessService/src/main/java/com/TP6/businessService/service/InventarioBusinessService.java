@@ -1,28 +1,49 @@
 package com.TP6.businessService.service;
 
 import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.client.ErroresDataService;
+import com.TP6.businessService.dto.AjusteInventarioDTO;
 import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
 import com.TP6.businessService.exception.InventarioNoEncontradoException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import com.TP6.businessService.exception.StockInsuficienteException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class InventarioBusinessService {
 
     private final DataServiceClient dataServiceClient;
+    private final CatalogoReplica catalogoReplica;
+    private final EscrituraDiferidaInventario escrituraDiferida;
 
-    public InventarioBusinessService(DataServiceClient dataServiceClient) {
+    public InventarioBusinessService(DataServiceClient dataServiceClient, CatalogoReplica catalogoReplica,
+                                     EscrituraDiferidaInventario escrituraDiferida) {
         this.dataServiceClient = dataServiceClient;
+        this.catalogoReplica = catalogoReplica;
+        this.escrituraDiferida = escrituraDiferida;
+    }
+
+    // Indica si las escrituras de inventario se encolan (escritura diferida) en lugar de aplicarse ya
+    public boolean esEscrituraDiferida() {
+        return escrituraDiferida.estaHabilitada();
     }
 
     // Obtener todos los inventarios
     public List<InventarioDTO> obtenerTodosLosInventarios() {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.obtenerInventarios();
+        }
         try {
             return dataServiceClient.obtenerTodosLosInventarios();
         } catch (FeignException e) {
@@ -33,6 +54,10 @@ public class InventarioBusinessService {
 
     // Obtener inventario por ID
     public InventarioDTO obtenerInventarioPorId(Long id) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarInventario(id)
+                    .orElseThrow(() -> new InventarioNoEncontradoException("Inventario no encontrado con ID: " + id));
+        }
         try {
             return dataServiceClient.obtenerInventarioPorId(id);
         } catch (FeignException.NotFound e) {
@@ -45,6 +70,10 @@ public class InventarioBusinessService {
 
     // Obtener inventario por producto
     public InventarioDTO obtenerInventarioPorProducto(Long productoId) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarInventarioPorProducto(productoId)
+                    .orElseThrow(() -> new InventarioNoEncontradoException("Inventario no encontrado para producto ID: " + productoId));
+        }
         try {
             return dataServiceClient.obtenerInventarioPorProducto(productoId);
         } catch (FeignException.NotFound e) {
@@ -96,19 +125,98 @@ public class InventarioBusinessService {
         }
     }
 
-    // Actualizar inventario
+    // Actualizar inventario. Con escritura diferida el cambio se encola y se devuelve lo aceptado
+    // (sin producto ni fecha: todavía no está en el data-service). El lote no verifica versiones,
+    // así que un PUT con versión se rechaza en lugar de aceptarlo sin control
     public InventarioDTO actualizarInventario(Long id, InventarioDTO inventarioDTO) {
         validarInventario(inventarioDTO);
+        if (escrituraDiferida.estaHabilitada()) {
+            if (inventarioDTO.getVersion() != null) {
+                throw new ValidacionNegocioException(
+                        "Con escritura diferida no se verifica la versión: envíe el inventario sin 'version'");
+            }
+            escrituraDiferida.registrar(id, inventarioDTO.getCantidad(), inventarioDTO.getStockMinimo(), 0);
+            return new InventarioDTO(id, null, inventarioDTO.getCantidad(), inventarioDTO.getStockMinimo(), null, null);
+        }
         try {
             return dataServiceClient.actualizarInventario(id, inventarioDTO);
         } catch (FeignException.NotFound e) {
             throw new InventarioNoEncontradoException("Inventario no encontrado con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
         } catch (FeignException e) {
             log.error("Error al actualizar inventario en el data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
         }
     }
 
+    // Modificar sólo algunos campos de un inventario (JSON Merge Patch). Con escritura diferida
+    // se encola como una actualización de cantidad y/o mínimo, así que sólo se admiten esos
+    // campos con valor (un null o el producto no tienen equivalente en el registro)
+    public InventarioDTO modificarInventario(Long id, Map<String, Object> cambios) {
+        Integer cantidad = entero(cambios, "cantidad");
+        Integer stockMinimo = entero(cambios, "stockMinimo");
+        validarInventario(new InventarioDTO(id, null, cantidad, stockMinimo, null, null));
+        if (escrituraDiferida.estaHabilitada()) {
+            if (!Set.of("cantidad", "stockMinimo").containsAll(cambios.keySet())
+                    || cambios.values().stream().anyMatch(Objects::isNull)) {
+                throw new ValidacionNegocioException(
+                        "Con escritura diferida sólo se pueden modificar la cantidad y el stock mínimo");
+            }
+            escrituraDiferida.registrar(id, cantidad, stockMinimo, 0);
+            return new InventarioDTO(id, null, cantidad, stockMinimo, null, null);
+        }
+        try {
+            return dataServiceClient.modificarInventario(id, cambios);
+        } catch (FeignException.NotFound e) {
+            throw new InventarioNoEncontradoException("Inventario no encontrado con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Cambios inválidos para el inventario con ID: " + id);
+        } catch (FeignException e) {
+            log.error("Error al modificar inventario en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
+    // Valor entero de un campo del PATCH (null si no viene o se borra)
+    private static Integer entero(Map<String, Object> cambios, String campo) {
+        Object valor = cambios.get(campo);
+        if (valor == null) {
+            return null;
+        }
+        if (!(valor instanceof Integer entero)) {
+            throw new ValidacionNegocioException("El campo '" + campo + "' debe ser un número entero");
+        }
+        return entero;
+    }
+
+    // Ajustar la cantidad de un inventario en 'delta' unidades (positivo repone, negativo descuenta).
+    // Con escritura diferida se acumula con los demás ajustes del mismo inventario
+    public void ajustarInventario(Long id, long delta) {
+        if (delta == 0) {
+            throw new ValidacionNegocioException("La variación de cantidad no puede ser 0");
+        }
+        if (escrituraDiferida.estaHabilitada()) {
+            escrituraDiferida.registrar(id, null, null, delta);
+            return;
+        }
+        ResultadoAjustesDTO resultado;
+        try {
+            resultado = dataServiceClient.aplicarAjustesInventario(null, List.of(new AjusteInventarioDTO(id, null, null, delta)));
+        } catch (FeignException e) {
+            log.error("Error al ajustar inventario en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+        if (resultado.getNoEncontrados() != null && resultado.getNoEncontrados().contains(id)) {
+            throw new InventarioNoEncontradoException("Inventario no encontrado con ID: " + id);
+        }
+        if (resultado.getSinStock() != null && resultado.getSinStock().contains(id)) {
+            throw new StockInsuficienteException("Stock insuficiente en el inventario con ID: " + id);
+        }
+    }
+
     // Eliminar inventario
     public void eliminarInventario(Long id) {
         try {
@@ -121,6 +229,15 @@ public class InventarioBusinessService {
         }
     }
 
+    // Un 409 del data-service al escribir un inventario es stock insuficiente o una versión vieja
+    private RuntimeException conflicto(Long id, FeignException.Conflict e) {
+        if (ErroresDataService.STOCK_INSUFICIENTE.equals(ErroresDataService.codigo(e))) {
+            return new StockInsuficienteException("Stock insuficiente en el inventario con ID: " + id);
+        }
+        return new ConflictoDeVersionException("El inventario con ID: " + id
+                + " fue modificado por otra operación; vuelva a leerlo");
+    }
+
     // Validaciones de negocio
     private void validarInventario(InventarioDTO inventarioDTO) {
         if (inventarioDTO.getCantidad() != null && inventarioDTO.getCantidad() < 0) {
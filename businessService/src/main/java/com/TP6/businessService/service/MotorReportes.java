@@ -0,0 +1,136 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceAsyncClient;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+import static com.TP6.businessService.client.DataServiceAsyncClient.esperar;
+
+// Motor del reporte de catálogo. Recorre el catálogo por páginas (paginado por id) y cada
+// página se divide en un ForkJoinPool propio hasta tramos de "reportes.umbral-tarea"
+// productos; los parciales se combinan con AcumuladorReporte. Mientras se calcula una página
+// ya se está pidiendo la siguiente, así que en memoria hay a lo sumo dos páginas y la red
+// se superpone con el cálculo. El pool propio evita competir con el common pool (usado por
+// los parallel streams y CompletableFuture sin executor).
+// Es @Lazy (igual que su inyección en BusinessController): el pool se crea con el primer reporte
+// y no durante el arranque.
+@Service
+@Lazy
+@Slf4j
+public class MotorReportes {
+
+    // Tamaño máximo de página que acepta el data-service (ProductoService.MAX_PAGINA)
+    static final int MAX_PAGINA = 5000;
+    static final int MAX_TOP = 100;
+
+    private final DataServiceAsyncClient dataServiceAsyncClient;
+    private final ForkJoinPool pool;
+    private final int tamanioPagina;
+    private final int umbralTarea;
+    private final BigDecimal[] limitesPrecio;
+    private final long[] limitesEnCentavos;
+
+    public MotorReportes(DataServiceAsyncClient dataServiceAsyncClient,
+                         @Value("${reportes.paralelismo:0}") int paralelismo,
+                         @Value("${reportes.pagina:1000}") int tamanioPagina,
+                         @Value("${reportes.umbral-tarea:2048}") int umbralTarea,
+                         @Value("${reportes.limites-precio:10,50,100,500,1000,5000}") List<BigDecimal> limitesPrecio) {
+        this.dataServiceAsyncClient = dataServiceAsyncClient;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.tamanioPagina = Math.max(1, Math.min(tamanioPagina, MAX_PAGINA));
+        this.umbralTarea = Math.max(1, umbralTarea);
+        this.limitesPrecio = limitesPrecio.stream().sorted().toArray(BigDecimal[]::new);
+        this.limitesEnCentavos = Arrays.stream(this.limitesPrecio).mapToLong(limite -> {
+            long centavos = AcumuladorValor.centavos(limite);
+            if (centavos == AcumuladorValor.SIN_CENTAVOS) {
+                throw new IllegalArgumentException("Límite de precio inválido para el reporte: " + limite);
+            }
+            return centavos;
+        }).toArray();
+    }
+
+    // Genera el reporte completo del catálogo con el top-N de productos por valor en inventario
+    public ReporteCatalogoDTO generarReporteCatalogo(int top) {
+        long inicio = System.nanoTime();
+        int tamanioTop = Math.max(0, Math.min(top, MAX_TOP));
+        AcumuladorReporte reporte = nuevoAcumulador(tamanioTop);
+        int paginas = 0;
+        try {
+            CompletableFuture<List<ProductoDTO>> siguiente =
+                    dataServiceAsyncClient.obtenerPaginaDeProductos(0L, tamanioPagina);
+            while (siguiente != null) {
+                List<ProductoDTO> pagina = esperar(siguiente);
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                paginas++;
+                // Una página incompleta es la última; si no, se pide la próxima antes de calcular
+                siguiente = pagina.size() < tamanioPagina ? null
+                        : dataServiceAsyncClient.obtenerPaginaDeProductos(
+                                pagina.get(pagina.size() - 1).getId(), tamanioPagina);
+                reporte.combinar(pool.invoke(new TareaReporte(pagina, 0, pagina.size(), tamanioTop)));
+            }
+        } catch (FeignException e) {
+            log.error("Error al obtener productos del data-service para el reporte de catálogo", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+        return reporte.aReporte(paginas, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    @PreDestroy
+    public void detener() {
+        pool.shutdownNow();
+    }
+
+    private AcumuladorReporte nuevoAcumulador(int tamanioTop) {
+        return new AcumuladorReporte(limitesPrecio, limitesEnCentavos, tamanioTop);
+    }
+
+    // Divide el tramo [desde, hasta) a la mitad hasta llegar al umbral y combina los parciales
+    private final class TareaReporte extends RecursiveTask<AcumuladorReporte> {
+        private final List<ProductoDTO> productos;
+        private final int desde;
+        private final int hasta;
+        private final int tamanioTop;
+
+        private TareaReporte(List<ProductoDTO> productos, int desde, int hasta, int tamanioTop) {
+            this.productos = productos;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tamanioTop = tamanioTop;
+        }
+
+        @Override
+        protected AcumuladorReporte compute() {
+            if (hasta - desde <= umbralTarea) {
+                AcumuladorReporte parcial = nuevoAcumulador(tamanioTop);
+                for (int i = desde; i < hasta; i++) {
+                    parcial.agregar(productos.get(i));
+                }
+                return parcial;
+            }
+            int medio = (desde + hasta) >>> 1;
+            TareaReporte izquierda = new TareaReporte(productos, desde, medio, tamanioTop);
+            izquierda.fork();
+            AcumuladorReporte derecha = new TareaReporte(productos, medio, hasta, tamanioTop).compute();
+            AcumuladorReporte resultado = izquierda.join();
+            resultado.combinar(derecha);
+            return resultado;
+        }
+    }
+}
@@ -1,30 +1,55 @@
 package com.TP6.businessService.service;
 
+import com.TP6.businessService.client.DataServiceAsyncClient;
 import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.client.ErroresDataService;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoDetalleDTO;
 import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
 import com.TP6.businessService.exception.ProductoNoEncontradoException;
+import com.TP6.businessService.exception.ProductoYaExisteException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.TP6.businessService.client.DataServiceAsyncClient.esperar;
 
 @Service
 @Slf4j
 public class ProductoBusinessService {
 
+    // Máximo de ids por baja en bloque (viajan en la URL del DELETE)
+    static final int MAX_IDS_ELIMINACION = 1000;
+
     private final DataServiceClient dataServiceClient;
+    private final CatalogoReplica catalogoReplica;
+    private final DataServiceAsyncClient dataServiceAsyncClient;
 
-    public ProductoBusinessService(DataServiceClient dataServiceClient) {
+    public ProductoBusinessService(DataServiceClient dataServiceClient, CatalogoReplica catalogoReplica,
+                                   DataServiceAsyncClient dataServiceAsyncClient) {
         this.dataServiceClient = dataServiceClient;
+        this.catalogoReplica = catalogoReplica;
+        this.dataServiceAsyncClient = dataServiceAsyncClient;
     }
 
     // Obtener todos los productos
     public List<ProductoDTO> obtenerTodosLosProductos() {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.obtenerProductos();
+        }
         try {
             return dataServiceClient.obtenerTodosLosProductos();
         } catch (FeignException e) {
@@ -35,6 +60,10 @@ public class ProductoBusinessService {
 
     // Obtener un producto por su ID
     public ProductoDTO obtenerProductoPorId(Long id) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarProducto(id)
+                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + id));
+        }
         try {
             return dataServiceClient.obtenerProductoPorId(id);
         } catch (FeignException.NotFound e) {
@@ -45,8 +74,42 @@ public class ProductoBusinessService {
         }
     }
 
+    // Obtener el detalle de un producto: producto, categoría e inventario.
+    // Producto e inventario se piden en paralelo; la categoría se busca por nombre, así que se
+    // encadena al producto. La latencia total es la de la cadena más lenta, no la suma.
+    public ProductoDetalleDTO obtenerDetalleProducto(Long id) {
+        if (catalogoReplica.estaVigente()) {
+            ProductoDTO producto = catalogoReplica.buscarProducto(id)
+                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con ID: " + id));
+            CategoriaDTO categoria = producto.getCategoriaNombre() == null ? null
+                    : catalogoReplica.buscarCategoriaPorNombre(producto.getCategoriaNombre()).orElse(null);
+            InventarioDTO inventario = catalogoReplica.buscarInventarioPorProducto(id).orElse(null);
+            return new ProductoDetalleDTO(producto, categoria, sinProducto(inventario));
+        }
+        CompletableFuture<ProductoDTO> producto = dataServiceAsyncClient.obtenerProductoPorId(id);
+        CompletableFuture<InventarioDTO> inventario = dataServiceAsyncClient.obtenerInventarioPorProducto(id)
+                .exceptionally(ProductoBusinessService::nuloSiNoExiste);
+        CompletableFuture<CategoriaDTO> categoria = producto.thenCompose(p -> p.getCategoriaNombre() == null
+                ? CompletableFuture.completedFuture(null)
+                : dataServiceAsyncClient.obtenerCategoriaPorNombre(p.getCategoriaNombre())
+                        .exceptionally(ProductoBusinessService::nuloSiNoExiste));
+        try {
+            // El producto se espera primero: si falla, su error es el que se informa
+            return new ProductoDetalleDTO(esperar(producto), esperar(categoria), sinProducto(esperar(inventario)));
+        } catch (FeignException.NotFound e) {
+            throw new ProductoNoEncontradoException("Producto no encontrado con ID: " + id);
+        } catch (FeignException e) {
+            log.error("Error al obtener detalle de producto del data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     // Obtener un producto por su nombre
     public ProductoDTO obtenerProductoPorNombre(String nombre) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarProductoPorNombre(nombre)
+                    .orElseThrow(() -> new ProductoNoEncontradoException("Producto no encontrado con nombre: " + nombre));
+        }
         try {
             return dataServiceClient.obtenerProductoPorNombre(nombre);
         } catch (FeignException.NotFound e) {
@@ -59,6 +122,9 @@ public class ProductoBusinessService {
 
     // Obtener productos por precio exacto
     public List<ProductoDTO> obtenerProductosPorPrecio(BigDecimal precio) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarProductosPorPrecio(precio);
+        }
         try {
             return dataServiceClient.obtenerProductosPorPrecio(precio);
         } catch (FeignException e) {
@@ -69,6 +135,9 @@ public class ProductoBusinessService {
 
     // Obtener productos por nombre de categoría
     public List<ProductoDTO> obtenerProductosPorCategoria(String nombreCategoria) {
+        if (catalogoReplica.estaVigente()) {
+            return catalogoReplica.buscarProductosPorCategoria(nombreCategoria);
+        }
         try {
             return dataServiceClient.obtenerProductosPorCategoria(nombreCategoria);
         } catch (FeignException e) {
@@ -82,6 +151,8 @@ public class ProductoBusinessService {
         validarProducto(request);
         try {
             return dataServiceClient.crearProducto(request);
+        } catch (FeignException.Conflict e) {
+            throw new ProductoYaExisteException("El producto " + request.getNombre() + " ya existe");
         } catch (FeignException e) {
             log.error("Error al crear producto en el data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
@@ -95,12 +166,45 @@ public class ProductoBusinessService {
             return dataServiceClient.actualizarProducto(id, request);
         } catch (FeignException.NotFound e) {
             throw new ProductoNoEncontradoException("Producto no encontrado con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
         } catch (FeignException e) {
             log.error("Error al actualizar producto en el data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
         }
     }
 
+    // Modificar sólo algunos campos de un producto (JSON Merge Patch): se aceptan los campos de
+    // ProductoRequest salvo el stock, que se modifica en el inventario. categoriaId se envía al
+    // data-service como la referencia {"id": n} (o null para quitar la categoría)
+    public ProductoDTO modificarProducto(Long id, Map<String, Object> cambios) {
+        Map<String, Object> parche = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+            switch (cambio.getKey()) {
+                case "stock", "stockMinimo" -> throw new ValidacionNegocioException(
+                        "El stock se modifica en el inventario del producto");
+                case "categoriaId" -> parche.put("categoria",
+                        cambio.getValue() == null ? null : Map.of("id", cambio.getValue()));
+                default -> parche.put(cambio.getKey(), cambio.getValue());
+            }
+        }
+        if (parche.containsKey("precio")) {
+            validarPrecio(parche.get("precio"));
+        }
+        try {
+            return dataServiceClient.modificarProducto(id, parche);
+        } catch (FeignException.NotFound e) {
+            throw new ProductoNoEncontradoException("Producto no encontrado con ID: " + id);
+        } catch (FeignException.Conflict e) {
+            throw conflicto(id, e);
+        } catch (FeignException.BadRequest e) {
+            throw new ValidacionNegocioException("Cambios inválidos para el producto con ID: " + id);
+        } catch (FeignException e) {
+            log.error("Error al modificar producto en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
     // Eliminar un producto existente por su ID
     public void eliminarProducto(Long id) {
         try {
@@ -113,7 +217,63 @@ public class ProductoBusinessService {
         }
     }
 
+    // Eliminar varios productos por ID en una sola operación del data-service
+    public ResultadoEliminacionDTO eliminarProductos(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidacionNegocioException("Debe indicar al menos un ID de producto");
+        }
+        if (ids.size() > MAX_IDS_ELIMINACION) {
+            throw new ValidacionNegocioException(
+                    "No se pueden eliminar más de " + MAX_IDS_ELIMINACION + " productos por solicitud");
+        }
+        try {
+            return dataServiceClient.eliminarProductos(ids);
+        } catch (FeignException e) {
+            log.error("Error al eliminar productos en el data-service", e);
+            throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
+        }
+    }
+
+    // Un 404 en una parte opcional del detalle (categoría o inventario) se toma como ausente
+    private static <T> T nuloSiNoExiste(Throwable e) {
+        Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (causa instanceof FeignException.NotFound) {
+            return null;
+        }
+        throw e instanceof CompletionException completionException ? completionException : new CompletionException(causa);
+    }
+
+    // El producto ya viaja en el detalle: se quita del inventario para no repetirlo
+    private static InventarioDTO sinProducto(InventarioDTO inventario) {
+        if (inventario == null) {
+            return null;
+        }
+        return new InventarioDTO(inventario.getId(), null, inventario.getCantidad(),
+                inventario.getStockMinimo(), inventario.getFechaActualizacion(), inventario.getVersion());
+    }
+
+    // Un 409 del data-service es un nombre duplicado o una versión vieja; el cuerpo dice cuál
+    private RuntimeException conflicto(Long id, FeignException.Conflict e) {
+        if (ErroresDataService.esYaExiste(e)) {
+            return new ProductoYaExisteException("Ya existe otro producto con ese nombre");
+        }
+        return new ConflictoDeVersionException("El producto con ID: " + id
+                + " fue modificado por otra operación; vuelva a leerlo");
+    }
+
     // Validaciones de negocio para productos
+    // El precio de un PATCH llega sin tipar (número o texto)
+    private void validarPrecio(Object precio) {
+        try {
+            if (precio != null && new BigDecimal(precio.toString()).compareTo(BigDecimal.ZERO) > 0) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa igual que un precio no positivo
+        }
+        throw new ValidacionNegocioException("El precio debe ser mayor a cero");
+    }
+
     private void validarProducto(ProductoRequest request) {
         if (request.getPrecio() == null || request.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
             throw new ValidacionNegocioException("El precio debe ser mayor a cero");
@@ -133,13 +293,17 @@ public class ProductoBusinessService {
         }
     }
 
-    // Calcular el valor total del inventario
+    // Calcular el valor total del inventario (precio * stock de cada producto, sin stock cuenta 0)
     public BigDecimal calcularValorTotalInventario() {
         try {
             List<ProductoDTO> productos = dataServiceClient.obtenerTodosLosProductos();
-            return productos.stream()
-                    .map(p -> p.getPrecio().multiply(BigDecimal.valueOf(p.getStock())))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            AcumuladorValor acumulador = new AcumuladorValor();
+            for (int i = 0; i < productos.size(); i++) {
+                ProductoDTO producto = productos.get(i);
+                Integer stock = producto.getStock();
+                acumulador.sumar(producto.getPrecio(), stock == null ? 0 : stock);
+            }
+            return acumulador.total();
         } catch (FeignException e) {
             log.error("Error al calcular valor total del inventario desde data-service", e);
             throw new MicroserviceCommunicationException("Error de comunicación con el servicio de datos");
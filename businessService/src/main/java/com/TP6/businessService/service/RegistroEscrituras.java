@@ -0,0 +1,358 @@
+package com.TP6.businessService.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Registro local de solo-anexado de la escritura diferida de inventario. Cada operación aceptada
+// se anota (y opcionalmente se sincroniza a disco) antes de responder; el registro se divide en
+// segmentos que se rotan en cada volcado. Las anotaciones las escribe un único hilo (group commit):
+// junta las que se encolaron mientras sincronizaba la tanda anterior, las escribe, sincroniza una
+// vez y completa el futuro de cada una; las rotaciones pasan por la misma cola para mantener el orden. Lo volcado se reparte en lotes con id propio que se
+// guardan juntos en lotes-<n>.log (n = último segmento que cubren) antes de borrar esos segmentos;
+// cada lote aplicado por el data-service se marca en ese archivo y, con todos marcados, se borra.
+// Al arrancar se releen los lotes sin marcar (se reenvían con el mismo id, que el data-service
+// reconoce) y los segmentos posteriores, así un corte no pierde ni duplica cambios aceptados.
+// Formato de línea de segmento: inventarioId;cantidad;stockMinimo;delta (vacío = null).
+// Archivo de lotes: "@id" abre un lote seguido de sus operaciones; "+id" lo marca como aplicado.
+@Slf4j
+class RegistroEscrituras implements Closeable {
+
+    record Operacion(long inventarioId, Integer cantidad, Integer stockMinimo, long delta) {
+    }
+
+    // Parte de un volcado que se envía al data-service en una petición; numero es su archivo de lotes
+    record Lote(String id, long numero, List<Operacion> operaciones) {
+    }
+
+    private static final String PREFIJO = "inventario-";
+    private static final String PREFIJO_LOTES = "lotes-";
+    private static final String SUFIJO = ".log";
+    private static final String TEMPORAL = ".tmp";
+    private static final Pedido FIN = new Pedido(null, false, null);
+
+    // Línea a anotar o rotación; el futuro recibe el número de segmento en que quedó o el cerrado
+    private record Pedido(String linea, boolean rotar, CompletableFuture<Long> hecho) {
+    }
+
+    private final Path directorio;
+    private final boolean sincronizar;
+    // Lotes sin aplicar de cada archivo de lotes
+    private final Map<Long, Integer> lotesSinAplicar = new HashMap<>();
+    private final BlockingQueue<Pedido> pedidos = new LinkedBlockingQueue<>();
+    private final Thread escritor;
+    private volatile boolean cerrado;
+    // Sólo los usa el hilo escritor una vez arrancado
+    private FileChannel canal;
+    private volatile long segmento;
+    // Los segmentos hasta este número ya están guardados en un archivo de lotes
+    private long cubiertoHasta;
+
+    RegistroEscrituras(Path directorio, boolean sincronizar) throws IOException {
+        this.directorio = directorio;
+        this.sincronizar = sincronizar;
+        Files.createDirectories(directorio);
+        // Un archivo de lotes a medio escribir no llegó a reemplazar a sus segmentos
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path temporal : archivos.filter(p -> p.getFileName().toString().endsWith(TEMPORAL)).toList()) {
+                Files.deleteIfExists(temporal);
+            }
+        }
+        this.cubiertoHasta = numeros(PREFIJO_LOTES).stream().mapToLong(Long::longValue).max().orElse(0);
+        this.segmento = LongStream.concat(numeros(PREFIJO).stream().mapToLong(Long::longValue),
+                LongStream.of(cubiertoHasta)).max().orElse(0) + 1;
+        abrir();
+        this.escritor = Thread.ofPlatform().name("registro-escrituras-inventario").daemon().start(this::escribirPedidos);
+    }
+
+    // Lotes guardados que el data-service todavía no confirmó, en el orden en que se armaron
+    synchronized List<Lote> recuperarLotes() throws IOException {
+        List<Lote> lotes = new ArrayList<>();
+        for (long numero : numeros(PREFIJO_LOTES)) {
+            Map<String, Lote> delArchivo = new LinkedHashMap<>();
+            Lote actual = null;
+            for (String linea : Files.readAllLines(archivo(PREFIJO_LOTES, numero), StandardCharsets.UTF_8)) {
+                if (linea.startsWith("@")) {
+                    actual = new Lote(linea.substring(1), numero, new ArrayList<>());
+                    delArchivo.put(actual.id(), actual);
+                } else if (linea.startsWith("+")) {
+                    delArchivo.remove(linea.substring(1)); // Una marca cortada no coincide con ningún id
+                } else if (actual != null) {
+                    Operacion operacion = leer(linea);
+                    if (operacion != null) {
+                        actual.operaciones().add(operacion);
+                    }
+                }
+            }
+            if (delArchivo.isEmpty()) {
+                descartarLotes(numero);
+            } else {
+                lotesSinAplicar.put(numero, delArchivo.size());
+                lotes.addAll(delArchivo.values());
+            }
+        }
+        return lotes;
+    }
+
+    // Operaciones de los segmentos anteriores al actual que no están en un archivo de lotes, en orden
+    synchronized List<Operacion> recuperar() throws IOException {
+        List<Operacion> operaciones = new ArrayList<>();
+        for (long numero : segmentos()) {
+            if (numero >= segmento || numero <= cubiertoHasta) {
+                continue;
+            }
+            for (String linea : Files.readAllLines(archivo(PREFIJO, numero), StandardCharsets.UTF_8)) {
+                Operacion operacion = leer(linea);
+                if (operacion != null) {
+                    operaciones.add(operacion);
+                }
+            }
+        }
+        return operaciones;
+    }
+
+    // Encola la operación; el futuro se completa cuando quedó escrita (y sincronizada) en el segmento actual
+    CompletableFuture<Long> anotar(Operacion operacion) {
+        return encolar(new Pedido(linea(operacion), false, new CompletableFuture<>()));
+    }
+
+    // Cierra el segmento actual, después de todo lo anotado antes, y abre el siguiente; devuelve
+    // el número del segmento cerrado
+    long rotar() throws IOException {
+        return esperar(encolar(new Pedido(null, true, new CompletableFuture<>())));
+    }
+
+    // Guarda de una vez (archivo temporal + rename) los lotes que cubren los segmentos hasta el
+    // indicado, con un id nuevo por parte. Si falla, los segmentos siguen valiendo como antes
+    synchronized List<Lote> guardarLotes(long hasta, List<List<Operacion>> partes) throws IOException {
+        List<Lote> lotes = new ArrayList<>();
+        StringBuilder contenido = new StringBuilder();
+        for (List<Operacion> parte : partes) {
+            Lote lote = new Lote(UUID.randomUUID().toString(), hasta, List.copyOf(parte));
+            lotes.add(lote);
+            contenido.append('@').append(lote.id()).append('\n');
+            parte.forEach(operacion -> contenido.append(linea(operacion)));
+        }
+        Path temporal = directorio.resolve(PREFIJO_LOTES + hasta + SUFIJO + TEMPORAL);
+        try (FileChannel salida = FileChannel.open(temporal,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            escribir(salida, contenido.toString());
+            if (sincronizar) {
+                salida.force(false);
+            }
+        }
+        Files.move(temporal, archivo(PREFIJO_LOTES, hasta), StandardCopyOption.ATOMIC_MOVE);
+        lotesSinAplicar.put(hasta, lotes.size());
+        cubiertoHasta = Math.max(cubiertoHasta, hasta);
+        return lotes;
+    }
+
+    // Marca un lote como aplicado por el data-service; con todos los de su archivo aplicados, lo borra
+    synchronized void confirmarLote(Lote lote) throws IOException {
+        int restantes = lotesSinAplicar.merge(lote.numero(), -1, Integer::sum);
+        if (restantes <= 0) {
+            descartarLotes(lote.numero());
+            return;
+        }
+        try (FileChannel salida = FileChannel.open(archivo(PREFIJO_LOTES, lote.numero()),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            escribir(salida, "+" + lote.id() + "\n");
+            if (sincronizar) {
+                salida.force(false);
+            }
+        }
+    }
+
+    // Borra los segmentos hasta el indicado (inclusive): sus operaciones ya están en un archivo de lotes
+    synchronized void confirmarHasta(long numero) throws IOException {
+        for (long existente : segmentos()) {
+            if (existente <= numero) {
+                Files.deleteIfExists(archivo(PREFIJO, existente));
+            }
+        }
+    }
+
+    // Termina de escribir lo encolado y cierra el segmento actual
+    @Override
+    public void close() throws IOException {
+        cerrado = true;
+        pedidos.add(FIN);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pedido> restantes = new ArrayList<>();
+        pedidos.drainTo(restantes);
+        restantes.forEach(p -> p.hecho().completeExceptionally(new IOException("Registro de escrituras cerrado")));
+        canal.close();
+    }
+
+    private CompletableFuture<Long> encolar(Pedido pedido) {
+        pedidos.add(pedido);
+        if (cerrado) {
+            // Llegó después del cierre: si el escritor no lo tomó, nadie lo va a completar
+            pedido.hecho().completeExceptionally(new IOException("Registro de escrituras cerrado"));
+        }
+        return pedido.hecho();
+    }
+
+    // Espera un pedido encolado; un fallo de escritura llega como la IOException original
+    static long esperar(CompletableFuture<Long> hecho) throws IOException {
+        try {
+            return hecho.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    // Hilo escritor: toma todo lo encolado, lo escribe en orden y sincroniza una vez por tanda
+    private void escribirPedidos() {
+        List<Pedido> tanda = new ArrayList<>();
+        List<Pedido> escritos = new ArrayList<>();
+        boolean fin = false;
+        while (!fin) {
+            try {
+                tanda.add(pedidos.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pedidos.drainTo(tanda);
+            for (Pedido pedido : tanda) {
+                if (pedido == FIN) {
+                    fin = true;
+                    continue; // Lo que quedó detrás lo rechaza close()
+                }
+                if (fin) {
+                    pedido.hecho().completeExceptionally(new IOException("Registro de escrituras cerrado"));
+                    continue;
+                }
+                try {
+                    if (pedido.rotar()) {
+                        confirmarTanda(escritos);
+                        canal.close();
+                        long anterior = segmento++;
+                        abrir();
+                        pedido.hecho().complete(anterior);
+                    } else {
+                        escribir(canal, pedido.linea());
+                        escritos.add(pedido);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    escritos.forEach(p -> p.hecho().completeExceptionally(e));
+                    escritos.clear();
+                    pedido.hecho().completeExceptionally(e);
+                }
+            }
+            confirmarTanda(escritos);
+            tanda.clear();
+        }
+    }
+
+    // Una sola sincronización para todas las líneas escritas desde la anterior
+    private void confirmarTanda(List<Pedido> escritos) {
+        if (escritos.isEmpty()) {
+            return;
+        }
+        try {
+            if (sincronizar) {
+                canal.force(false);
+            }
+            escritos.forEach(p -> p.hecho().complete(segmento));
+        } catch (IOException e) {
+            escritos.forEach(p -> p.hecho().completeExceptionally(e));
+        }
+        escritos.clear();
+    }
+
+    // Los segmentos que cubre se borran antes: sin el archivo de lotes volverían a valer al arrancar
+    private void descartarLotes(long numero) throws IOException {
+        confirmarHasta(numero);
+        Files.deleteIfExists(archivo(PREFIJO_LOTES, numero));
+        lotesSinAplicar.remove(numero);
+    }
+
+    private void abrir() throws IOException {
+        canal = FileChannel.open(archivo(PREFIJO, segmento),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path archivo(String prefijo, long numero) {
+        return directorio.resolve(prefijo + numero + SUFIJO);
+    }
+
+    private List<Long> segmentos() throws IOException {
+        return numeros(PREFIJO);
+    }
+
+    private List<Long> numeros(String prefijo) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(prefijo) && n.endsWith(SUFIJO))
+                    .map(n -> n.substring(prefijo.length(), n.length() - SUFIJO.length()))
+                    .filter(n -> !n.isEmpty() && n.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Una última línea incompleta (corte durante la escritura) se descarta
+    private static Operacion leer(String linea) {
+        String[] campos = linea.split(";", -1);
+        if (campos.length != 4) {
+            log.warn("Línea incompleta en el registro de escrituras descartada: {}", linea);
+            return null;
+        }
+        try {
+            return new Operacion(Long.parseLong(campos[0]), entero(campos[1]), entero(campos[2]),
+                    Long.parseLong(campos[3]));
+        } catch (NumberFormatException e) {
+            log.warn("Línea inválida en el registro de escrituras descartada: {}", linea);
+            return null;
+        }
+    }
+
+    private static String linea(Operacion operacion) {
+        return operacion.inventarioId() + ";" + texto(operacion.cantidad()) + ";"
+                + texto(operacion.stockMinimo()) + ";" + operacion.delta() + "\n";
+    }
+
+    private static void escribir(FileChannel salida, String texto) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static String texto(Integer valor) {
+        return valor == null ? "" : valor.toString();
+    }
+
+    private static Integer entero(String campo) {
+        return campo.isEmpty() ? null : Integer.valueOf(campo);
+    }
+}
@@ -0,0 +1,228 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.EventoCambioDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Mantiene CatalogoReplica al día: carga un snapshot completo y luego sigue el feed
+// /data/changes del data-service aplicando cada evento en orden de secuencia.
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "catalogo.replica.habilitada", havingValue = "true")
+public class SincronizadorReplica {
+
+    private final DataServiceClient dataServiceClient;
+    private final CatalogoReplica catalogoReplica;
+
+    @Value("${catalogo.replica.lote:500}")
+    private int lote;
+
+    @Value("${catalogo.replica.max-staleness-ms:5000}")
+    private long maxStalenessMs;
+
+    @Value("${catalogo.replica.reintento-ms:1000}")
+    private long reintentoMs;
+
+    private volatile boolean activo;
+    private Thread hilo;
+
+    // Última secuencia aplicada (-1 = requiere snapshot)
+    private long secuencia = -1;
+
+    public SincronizadorReplica(DataServiceClient dataServiceClient, CatalogoReplica catalogoReplica) {
+        this.dataServiceClient = dataServiceClient;
+        this.catalogoReplica = catalogoReplica;
+    }
+
+    // Arranca el seguimiento del feed cuando la aplicación ya está lista
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        activo = true;
+        hilo = new Thread(this::ejecutar, "replica-catalogo");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (hilo != null) {
+            hilo.interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        while (activo) {
+            try {
+                sincronizar();
+            } catch (FeignException e) {
+                log.warn("Error de comunicación con el data-service al sincronizar la réplica: {}", e.getMessage());
+                esperarReintento();
+            } catch (RuntimeException e) {
+                log.error("Error inesperado al sincronizar la réplica del catálogo", e);
+                esperarReintento();
+            }
+        }
+    }
+
+    // Un ciclo de sincronización: snapshot si hace falta y luego un long-poll del feed
+    void sincronizar() {
+        if (secuencia < 0) {
+            cargarSnapshot();
+        }
+        // La espera se acota a la mitad del máximo de desactualización para confirmar vigencia a tiempo
+        long enviado = System.nanoTime();
+        List<EventoCambioDTO> cambios = dataServiceClient.obtenerCambios(secuencia, lote, maxStalenessMs / 2);
+        if (!cambios.isEmpty() && cambios.get(0).getSecuencia() != secuencia + 1) {
+            // Hueco en el feed (eventos purgados): la réplica ya no es confiable
+            log.warn("Hueco en el feed de cambios (esperada {}, recibida {}), se recarga el snapshot",
+                    secuencia + 1, cambios.get(0).getSecuencia());
+            recargar();
+            return;
+        }
+        if (cambios.isEmpty()) {
+            // Sin cambios puede ser también que el feed retrocedió (base del data-service reiniciada):
+            // los eventos nuevos tienen secuencias menores a la aplicada y nunca llegarían
+            long ultima = dataServiceClient.obtenerUltimaSecuencia();
+            if (ultima < secuencia) {
+                log.warn("El feed de cambios retrocedió (última {}, aplicada {}), se recarga el snapshot",
+                        ultima, secuencia);
+                recargar();
+                return;
+            }
+        }
+        for (EventoCambioDTO cambio : cambios) {
+            aplicar(cambio);
+            secuencia = cambio.getSecuencia();
+        }
+        // Un lote completo indica que quedan eventos pendientes: la réplica todavía no está al día
+        if (cambios.size() < lote) {
+            catalogoReplica.confirmarVigencia(enviado);
+        }
+    }
+
+    // Descarta la réplica: el próximo ciclo carga un snapshot nuevo
+    private void recargar() {
+        catalogoReplica.invalidar();
+        secuencia = -1;
+    }
+
+    // Carga el catálogo completo; la secuencia se toma antes para no perder cambios concurrentes
+    private void cargarSnapshot() {
+        long inicio = System.nanoTime();
+        long desde = dataServiceClient.obtenerUltimaSecuencia();
+        List<ProductoDTO> productos = dataServiceClient.obtenerTodosLosProductos();
+        List<CategoriaDTO> categorias = dataServiceClient.obtenerTodasLasCategorias();
+        List<InventarioDTO> inventarios = dataServiceClient.obtenerTodosLosInventarios();
+        catalogoReplica.cargar(productos, categorias, inventarios, inicio);
+        secuencia = desde;
+        log.info("Réplica del catálogo cargada: {} productos, {} categorías, {} inventarios (secuencia {})",
+                productos.size(), categorias.size(), inventarios.size(), desde);
+    }
+
+    // Aplica un evento volviendo a leer la entidad afectada
+    void aplicar(EventoCambioDTO cambio) {
+        Long id = cambio.getEntidadId();
+        boolean eliminado = "ELIMINAR".equals(cambio.getOperacion());
+        switch (cambio.getEntidad()) {
+            case "PRODUCTO" -> {
+                if (eliminado) {
+                    eliminarProducto(id);
+                } else {
+                    refrescarProducto(id);
+                }
+            }
+            case "CATEGORIA" -> {
+                if (eliminado) {
+                    // Los productos de la categoría se eliminan en cascada en el data-service
+                    catalogoReplica.eliminarCategoria(id).ifPresent(categoria ->
+                            catalogoReplica.idsProductosPorCategoria(categoria.getNombre())
+                                    .forEach(this::eliminarProducto));
+                } else {
+                    refrescarCategoria(id);
+                }
+            }
+            case "INVENTARIO" -> {
+                if (eliminado) {
+                    catalogoReplica.buscarInventario(id).ifPresent(inventario -> {
+                        catalogoReplica.eliminarInventario(id);
+                        refrescarProductoDeInventario(inventario);
+                    });
+                } else {
+                    refrescarInventario(id);
+                }
+            }
+            default -> log.warn("Evento de cambio con entidad desconocida: {}", cambio.getEntidad());
+        }
+    }
+
+    private void refrescarProducto(Long id) {
+        try {
+            catalogoReplica.guardarProducto(dataServiceClient.obtenerProductoPorId(id));
+        } catch (FeignException.NotFound e) {
+            catalogoReplica.eliminarProducto(id);
+        }
+    }
+
+    private void eliminarProducto(Long id) {
+        catalogoReplica.buscarInventarioPorProducto(id)
+                .ifPresent(inventario -> catalogoReplica.eliminarInventario(inventario.getId()));
+        catalogoReplica.eliminarProducto(id);
+    }
+
+    private void refrescarCategoria(Long id) {
+        CategoriaDTO anterior = catalogoReplica.buscarCategoria(id).orElse(null);
+        CategoriaDTO actual;
+        try {
+            actual = dataServiceClient.obtenerCategoriaPorId(id);
+        } catch (FeignException.NotFound e) {
+            catalogoReplica.eliminarCategoria(id);
+            return;
+        }
+        catalogoReplica.guardarCategoria(actual);
+        // Si cambió el nombre, los productos indexados con el nombre anterior quedan desactualizados
+        if (anterior != null && anterior.getNombre() != null && !anterior.getNombre().equals(actual.getNombre())) {
+            catalogoReplica.idsProductosPorCategoria(anterior.getNombre()).forEach(this::refrescarProducto);
+        }
+    }
+
+    private void refrescarInventario(Long id) {
+        InventarioDTO inventario;
+        try {
+            inventario = dataServiceClient.obtenerInventarioPorId(id);
+        } catch (FeignException.NotFound e) {
+            catalogoReplica.eliminarInventario(id);
+            return;
+        }
+        catalogoReplica.guardarInventario(inventario);
+        // El stock forma parte de ProductoDTO: se refresca también el producto asociado
+        refrescarProductoDeInventario(inventario);
+    }
+
+    private void refrescarProductoDeInventario(InventarioDTO inventario) {
+        if (inventario.getProducto() != null && inventario.getProducto().getId() != null) {
+            refrescarProducto(inventario.getProducto().getId());
+        }
+    }
+
+    private void esperarReintento() {
+        try {
+            Thread.sleep(reintentoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activo = false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.TP6.businessService.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Tiempo de arranque de cada servicio en una JVM nueva, desde el lanzamiento hasta que el
+// contexto termina de refrescarse (-Dspring.context.exit=onRefresh). Compara las variantes que
+// haya en <modulo>/target/: jar sin optimizar, con Spring AOT (perfil aot) y AOT + CDS (perfil cds).
+// Sólo lanza los jars, así que un único arnés mide los dos servicios; cada corrida se agrega a
+// <modulo>/target/arranque-benchmark.txt para comparar entre builds.
+// Ejecutar con: mvn package -Paot,cds -DskipTests (en cada servicio) y, desde businessService,
+// mvn test -Pbenchmark -Dtest=ArranqueBenchmarkTest
+@Tag("benchmark")
+class ArranqueBenchmarkTest {
+
+    private static final int CORRIDAS = 3;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"businessService", "dataService"})
+    void arranqueSegunOptimizaciones(String modulo) throws Exception {
+        Path target = Paths.get("..", modulo, "target");
+        Path cds = target.resolve("cds");
+        Path jar = Files.isDirectory(target) ? buscarJar(Files.isDirectory(cds) ? cds : target) : null;
+        assumeTrue(jar != null, "Falta el jar de " + modulo + ": ejecutar antes mvn package -Paot,cds -DskipTests");
+
+        String aplicacion = clasePrincipal(jar);
+        boolean conAot = contieneInicializadorAot(jar, aplicacion);
+        Path archivoCds = jar.resolveSibling(jar.getFileName().toString().replace(".jar", ".jsa"));
+
+        List<String> resultados = new ArrayList<>();
+        resultados.add(medir("Sin optimizar", jar));
+        if (conAot) {
+            resultados.add(medir("Spring AOT", jar, "-Dspring.aot.enabled=true"));
+        }
+        if (Files.exists(archivoCds)) {
+            resultados.add(conAot
+                    ? medir("Spring AOT + CDS", jar, "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archivoCds)
+                    : medir("CDS", jar, "-XX:SharedArchiveFile=" + archivoCds));
+        }
+
+        StringBuilder informe = new StringBuilder()
+                .append(String.format("%n%s — %s (%s, mediana de %d corridas)%n",
+                        LocalDateTime.now(), aplicacion.substring(aplicacion.lastIndexOf('.') + 1), jar, CORRIDAS));
+        resultados.forEach(linea -> informe.append(linea).append(System.lineSeparator()));
+        System.out.print(informe);
+        Files.writeString(target.resolve("arranque-benchmark.txt"), informe,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String medir(String variante, Path jar, String... opciones) throws Exception {
+        long[] milisegundos = new long[CORRIDAS];
+        for (int i = 0; i < CORRIDAS; i++) {
+            milisegundos[i] = arrancar(jar, opciones);
+        }
+        Arrays.sort(milisegundos);
+        return String.format("  %-18s: %,7d ms", variante, milisegundos[CORRIDAS / 2]);
+    }
+
+    private static long arrancar(Path jar, String... opciones) throws IOException, InterruptedException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(Arrays.asList(opciones));
+        comando.add("-Dspring.context.exit=onRefresh");
+        comando.add("-jar");
+        comando.add(jar.getFileName().toString());
+        // Desde el directorio del jar: el archivo CDS guarda las rutas relativas de la extracción
+        Process proceso = new ProcessBuilder(comando)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        long inicio = System.nanoTime();
+        assertEquals(0, proceso.waitFor(), "La aplicación no arrancó: " + comando);
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+
+    private static Path buscarJar(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .map(p -> p.toAbsolutePath().normalize())
+                    .findFirst().orElse(null);
+        }
+    }
+
+    // Clase de la aplicación: Start-Class en el jar de Spring Boot, Main-Class en el extraído por cds
+    private static String clasePrincipal(Path jar) throws IOException {
+        try (JarFile archivo = new JarFile(jar.toFile())) {
+            String inicio = archivo.getManifest().getMainAttributes().getValue("Start-Class");
+            return inicio != null ? inicio : archivo.getManifest().getMainAttributes().getValue("Main-Class");
+        }
+    }
+
+    // El perfil aot genera <Aplicacion>__ApplicationContextInitializer junto a la clase principal
+    private static boolean contieneInicializadorAot(Path jar, String aplicacion) throws IOException {
+        String clase = aplicacion.replace('.', '/') + "__ApplicationContextInitializer.class";
+        try (JarFile archivo = new JarFile(jar.toFile())) {
+            return archivo.getEntry(clase) != null || archivo.getEntry("BOOT-INF/classes/" + clase) != null;
+        }
+    }
+}
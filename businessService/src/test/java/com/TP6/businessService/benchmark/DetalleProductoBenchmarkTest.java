@@ -0,0 +1,87 @@
+package com.TP6.businessService.benchmark;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Arrays;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Latencia de una página de producto: tres llamadas separadas al business-service
+// (producto, inventario y categoría) contra una sola llamada a /api/productos/{id}/detalle.
+// El data-service se simula con WireMock y una demora fija por respuesta.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=DetalleProductoBenchmarkTest
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWireMock(port = 0)
+@TestPropertySource(properties = "data.service.url=http://localhost:${wiremock.server.port}")
+class DetalleProductoBenchmarkTest {
+
+    private static final int DEMORA_DATA_SERVICE_MS = 40;
+    private static final int CALENTAMIENTO = 20;
+    private static final int ITERACIONES = 100;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void stubDataService() {
+        stubFor(get(urlPathEqualTo("/data/productos/id/1")).willReturn(okJson("""
+                {"id":1,"nombre":"Coca Cola","descripcion":"Bebida","precio":100.00,
+                 "categoria":{"id":5,"nombre":"Bebidas","descripcion":"Gaseosas"}}
+                """).withFixedDelay(DEMORA_DATA_SERVICE_MS)));
+        stubFor(get(urlPathEqualTo("/data/inventario/producto/1")).willReturn(okJson("""
+                {"id":7,"producto":{"id":1},"cantidad":10,"stockMinimo":2}
+                """).withFixedDelay(DEMORA_DATA_SERVICE_MS)));
+        stubFor(get(urlPathEqualTo("/data/categorias/nombre/Bebidas")).willReturn(okJson("""
+                {"id":5,"nombre":"Bebidas","descripcion":"Gaseosas"}
+                """).withFixedDelay(DEMORA_DATA_SERVICE_MS)));
+    }
+
+    @Test
+    void detalleCompuestoVsTresLlamadas() {
+        double tresLlamadas = medir(() -> {
+            obtener("/api/productos/id/1");
+            obtener("/api/inventario/producto/1");
+            obtener("/api/categorias/nombre/Bebidas");
+        });
+        double detalle = medir(() -> obtener("/api/productos/1/detalle"));
+
+        System.out.printf("%n[benchmark] página de producto, demora del data-service %d ms por llamada%n",
+                DEMORA_DATA_SERVICE_MS);
+        System.out.printf("[benchmark] tres llamadas:   p50 %.1f ms%n", tresLlamadas);
+        System.out.printf("[benchmark] /detalle:        p50 %.1f ms%n", detalle);
+
+        assertTrue(detalle < tresLlamadas);
+    }
+
+    private void obtener(String url) {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(url, String.class).getStatusCode());
+    }
+
+    // Devuelve la mediana en milisegundos
+    private double medir(Runnable pagina) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            pagina.run();
+        }
+        long[] muestras = new long[ITERACIONES];
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            pagina.run();
+            muestras[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(muestras);
+        return muestras[ITERACIONES / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.TP6.businessService.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Prueba de humo de la imagen nativa: arranca el ejecutable (perfil native) y el jar contra un
+// data-service simulado, espera hasta que GET /api/productos responde con los datos del simulador
+// e informa el tiempo hasta la primera respuesta y la memoria residente (VmRSS) de cada uno.
+// Ejecutar con: mvn -Pnative native:compile -DskipTests && mvn package -DskipTests
+//               && mvn test -Pbenchmark -Dtest=ImagenNativaBenchmarkTest
+@Tag("benchmark")
+class ImagenNativaBenchmarkTest {
+
+    private static final String PRODUCTOS_JSON = "[{\"id\":1,\"nombre\":\"Coca Cola\",\"precio\":100.00,"
+            + "\"categoria\":{\"id\":5,\"nombre\":\"Bebidas\"},\"inventario\":{\"id\":9,\"cantidad\":12}}]";
+    private static final Duration ESPERA_MAXIMA = Duration.ofSeconds(90);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private HttpServer dataServiceSimulado;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataServiceSimulado = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        dataServiceSimulado.createContext("/data/productos", intercambio -> {
+            byte[] cuerpo = PRODUCTOS_JSON.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            intercambio.getResponseBody().write(cuerpo);
+            intercambio.close();
+        });
+        dataServiceSimulado.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataServiceSimulado.stop(0);
+    }
+
+    @Test
+    void imagenNativaVsJvm() throws Exception {
+        Path ejecutable = Paths.get("target", "businessService");
+        assumeTrue(Files.isExecutable(ejecutable), "Falta el ejecutable: mvn -Pnative native:compile -DskipTests");
+        Path jar = buscarJar();
+        assumeTrue(jar != null, "Falta el jar: mvn package -DskipTests");
+
+        Medicion nativa = arrancar(List.of(ejecutable.toAbsolutePath().toString()));
+        Medicion jvm = arrancar(List.of(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toAbsolutePath().toString()));
+
+        System.out.printf("%nbusiness-service: primera respuesta de GET /api/productos y memoria residente%n");
+        System.out.printf("  Imagen nativa: %,7d ms | %,9d KB%n", nativa.milisegundos(), nativa.rssKb());
+        System.out.printf("  JVM          : %,7d ms | %,9d KB%n", jvm.milisegundos(), jvm.rssKb());
+    }
+
+    private record Medicion(long milisegundos, long rssKb) {
+    }
+
+    private Medicion arrancar(List<String> comandoBase) throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        List<String> comando = new ArrayList<>(comandoBase);
+        comando.add("--server.port=" + puerto);
+        comando.add("--data.service.url=http://localhost:" + dataServiceSimulado.getAddress().getPort());
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpResponse<String> respuesta = esperarRespuesta(proceso, puerto, inicio);
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            assertEquals(200, respuesta.statusCode());
+            assertTrue(respuesta.body().contains("\"categoriaNombre\":\"Bebidas\""), respuesta.body());
+            assertTrue(respuesta.body().contains("\"stock\":12"), respuesta.body());
+            return new Medicion(milisegundos, rssKb(proceso.pid()));
+        } finally {
+            proceso.destroy();
+            proceso.waitFor();
+        }
+    }
+
+    private HttpResponse<String> esperarRespuesta(Process proceso, int puerto, long inicio) throws Exception {
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/productos")).build();
+        while (System.nanoTime() - inicio < ESPERA_MAXIMA.toNanos()) {
+            assertTrue(proceso.isAlive(), "El proceso terminó antes de responder");
+            try {
+                return httpClient.send(pedido, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                Thread.sleep(10); // Todavía no escucha en el puerto
+            }
+        }
+        return fail("Sin respuesta en " + ESPERA_MAXIMA);
+    }
+
+    // Memoria residente del proceso según /proc (Linux); -1 en otros sistemas
+    private static long rssKb(long pid) throws IOException {
+        Path estado = Paths.get("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(estado)) {
+            return -1;
+        }
+        try (Stream<String> lineas = Files.lines(estado)) {
+            return lineas.filter(linea -> linea.startsWith("VmRSS:"))
+                    .map(linea -> Long.parseLong(linea.replaceAll("\\D", "")))
+                    .findFirst().orElse(-1L);
+        }
+    }
+
+    private static Path buscarJar() throws IOException {
+        try (Stream<Path> archivos = Files.list(Paths.get("target"))) {
+            return archivos.filter(p -> p.getFileName().toString().endsWith(".jar")).findFirst().orElse(null);
+        }
+    }
+}
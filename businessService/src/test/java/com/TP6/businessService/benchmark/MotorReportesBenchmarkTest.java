@@ -0,0 +1,96 @@
+package com.TP6.businessService.benchmark;
+
+import com.TP6.businessService.client.DataServiceAsyncClient;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.service.MotorReportes;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Reporte de catálogo sobre 1.000.000 de productos servidos desde memoria por un cliente
+// simulado: motor con un solo hilo contra motor con un hilo por CPU. Verifica que ambos
+// reportes coincidan e informa el tiempo promedio por reporte.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=MotorReportesBenchmarkTest
+@Tag("benchmark")
+class MotorReportesBenchmarkTest {
+
+    private static final int PRODUCTOS = 1_000_000;
+    private static final int PAGINA = 5000;
+    private static final int CALENTAMIENTO = 5;
+    private static final int ITERACIONES = 10;
+    private static final List<BigDecimal> LIMITES = List.of(new BigDecimal("10"), new BigDecimal("50"),
+            new BigDecimal("100"), new BigDecimal("500"), new BigDecimal("1000"), new BigDecimal("5000"));
+
+    @Test
+    void unHiloVsForkJoin() {
+        DataServiceAsyncClient cliente = clienteSimulado(generarProductos());
+        int cpus = Runtime.getRuntime().availableProcessors();
+        MotorReportes secuencial = new MotorReportes(cliente, 1, PAGINA, PAGINA, LIMITES);
+        MotorReportes paralelo = new MotorReportes(cliente, cpus, PAGINA, 2048, LIMITES);
+        try {
+            ReporteCatalogoDTO esperado = secuencial.generarReporteCatalogo(10);
+            ReporteCatalogoDTO obtenido = paralelo.generarReporteCatalogo(10);
+            esperado.setDuracionMs(0);
+            obtenido.setDuracionMs(0);
+            assertEquals(esperado, obtenido);
+
+            double msSecuencial = medir(secuencial);
+            double msParalelo = medir(paralelo);
+
+            System.out.printf("%nReporte de catálogo (%,d productos, páginas de %d)%n", PRODUCTOS, PAGINA);
+            System.out.printf("  1 hilo           : %8.1f ms/reporte%n", msSecuencial);
+            System.out.printf("  ForkJoin (%2d CPU): %8.1f ms/reporte (x%.2f)%n",
+                    cpus, msParalelo, msSecuencial / msParalelo);
+        } finally {
+            secuencial.detener();
+            paralelo.detener();
+        }
+    }
+
+    private static double medir(MotorReportes motor) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            motor.generarReporteCatalogo(10);
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            motor.generarReporteCatalogo(10);
+        }
+        return (System.nanoTime() - inicio) / 1e6 / ITERACIONES;
+    }
+
+    // Responde cada página a partir del id pedido (los ids son 1..PRODUCTOS, en orden)
+    private static DataServiceAsyncClient clienteSimulado(List<ProductoDTO> productos) {
+        DataServiceAsyncClient cliente = mock(DataServiceAsyncClient.class);
+        when(cliente.obtenerPaginaDeProductos(anyLong(), anyInt())).thenAnswer(invocacion -> {
+            int desde = (int) Math.min((long) invocacion.getArgument(0), productos.size());
+            int limite = invocacion.getArgument(1);
+            return CompletableFuture.completedFuture(
+                    productos.subList(desde, Math.min(desde + limite, productos.size())));
+        });
+        return cliente;
+    }
+
+    private static List<ProductoDTO> generarProductos() {
+        Random random = new Random(11);
+        String[] categorias = {"Bebidas", "Snacks", "Limpieza", "Lácteos", "Panadería", null};
+        List<ProductoDTO> productos = new ArrayList<>(PRODUCTOS);
+        for (long id = 1; id <= PRODUCTOS; id++) {
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(100, 1_000_000), 2);
+            productos.add(new ProductoDTO(id, null, null, precio,
+                    categorias[random.nextInt(categorias.length)], random.nextInt(5000), false, null));
+        }
+        return productos;
+    }
+}
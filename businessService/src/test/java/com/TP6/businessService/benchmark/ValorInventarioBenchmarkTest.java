@@ -0,0 +1,91 @@
+package com.TP6.businessService.benchmark;
+
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.service.AcumuladorValor;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Valor total del inventario sobre 100.000 productos: stream con BigDecimal por fila
+// (implementación anterior) contra AcumuladorValor (centavos en un long).
+// Mide throughput y bytes asignados por pasada en el hilo actual.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=ValorInventarioBenchmarkTest
+@Tag("benchmark")
+class ValorInventarioBenchmarkTest {
+
+    private static final int PRODUCTOS = 100_000;
+    private static final int CALENTAMIENTO = 200;
+    private static final int ITERACIONES = 300;
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile BigDecimal sumidero;
+
+    @Test
+    void streamBigDecimalVsAcumuladorEnCentavos() {
+        List<ProductoDTO> productos = generarProductos();
+
+        Function<List<ProductoDTO>, BigDecimal> stream = lista -> lista.stream()
+                .map(p -> p.getPrecio().multiply(BigDecimal.valueOf(p.getStock())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Function<List<ProductoDTO>, BigDecimal> acumulador = lista -> {
+            AcumuladorValor valor = new AcumuladorValor();
+            for (int i = 0; i < lista.size(); i++) {
+                ProductoDTO producto = lista.get(i);
+                valor.sumar(producto.getPrecio(), producto.getStock());
+            }
+            return valor.total();
+        };
+        assertEquals(stream.apply(productos), acumulador.apply(productos));
+
+        Resultado antes = medir(stream, productos);
+        Resultado despues = medir(acumulador, productos);
+
+        System.out.printf("%nValor de inventario (%d productos)%n", PRODUCTOS);
+        System.out.printf("  Stream BigDecimal : %,8.0f pasadas/s | %,12.0f bytes/pasada%n",
+                antes.pasadasPorSegundo(), antes.bytesPorPasada());
+        System.out.printf("  AcumuladorValor   : %,8.0f pasadas/s | %,12.0f bytes/pasada%n",
+                despues.pasadasPorSegundo(), despues.bytesPorPasada());
+
+        assertTrue(despues.bytesPorPasada() < antes.bytesPorPasada() / 100,
+                "El acumulador no debería asignar memoria por fila");
+    }
+
+    private record Resultado(double pasadasPorSegundo, double bytesPorPasada) {
+    }
+
+    private Resultado medir(Function<List<ProductoDTO>, BigDecimal> calculo, List<ProductoDTO> productos) {
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            sumidero = calculo.apply(productos);
+        }
+        long hilo = Thread.currentThread().getId();
+        long bytesInicio = threadMXBean.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            sumidero = calculo.apply(productos);
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = threadMXBean.getThreadAllocatedBytes(hilo) - bytesInicio;
+        return new Resultado(ITERACIONES * 1e9 / nanos, (double) bytes / ITERACIONES);
+    }
+
+    private static List<ProductoDTO> generarProductos() {
+        Random random = new Random(7);
+        List<ProductoDTO> productos = new ArrayList<>(PRODUCTOS);
+        for (long id = 1; id <= PRODUCTOS; id++) {
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(100, 10_000_000), 2);
+            productos.add(new ProductoDTO(id, "Producto " + id, null, precio, "Bebidas", random.nextInt(500), false, null));
+        }
+        return productos;
+    }
+}
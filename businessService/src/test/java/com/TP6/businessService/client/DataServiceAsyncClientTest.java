@@ -0,0 +1,78 @@
+package com.TP6.businessService.client;
+
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import feign.FeignException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataServiceAsyncClientTest {
+
+    @Mock
+    private DataServiceClient dataServiceClient; // Cliente Feign síncrono simulado
+
+    private ExecutorService executor;
+    private DataServiceAsyncClient dataServiceAsyncClient;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        dataServiceAsyncClient = new DataServiceAsyncClient(dataServiceClient, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    // Caso exitoso: llamadas independientes se ejecutan en paralelo
+    @Test
+    void cuandoLanzarLlamadasIndependientes_entoncesSeEjecutanEnParalelo() {
+        // Arrange → cada llamada sólo termina si la otra está en curso al mismo tiempo
+        CyclicBarrier ambasEnCurso = new CyclicBarrier(2);
+        ProductoDTO producto = new ProductoDTO(1L, "Producto 1", null, BigDecimal.TEN, null, null, null, null);
+        InventarioDTO inventario = new InventarioDTO(2L, null, 3, 1, null, null);
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenAnswer(invocation -> {
+            ambasEnCurso.await(5, TimeUnit.SECONDS);
+            return producto;
+        });
+        when(dataServiceClient.obtenerInventarioPorProducto(1L)).thenAnswer(invocation -> {
+            ambasEnCurso.await(5, TimeUnit.SECONDS);
+            return inventario;
+        });
+
+        // Act
+        CompletableFuture<ProductoDTO> productoFuturo = dataServiceAsyncClient.obtenerProductoPorId(1L);
+        CompletableFuture<InventarioDTO> inventarioFuturo = dataServiceAsyncClient.obtenerInventarioPorProducto(1L);
+
+        // Assert
+        assertSame(producto, DataServiceAsyncClient.esperar(productoFuturo));
+        assertSame(inventario, DataServiceAsyncClient.esperar(inventarioFuturo));
+    }
+
+    // Caso error: esperar relanza la FeignException original, no la CompletionException
+    @Test
+    void cuandoLlamadaFalla_entoncesEsperarRelanzaFeignException() {
+        // Arrange → simulamos 404 NotFound
+        when(dataServiceClient.obtenerProductoPorId(99L)).thenThrow(FeignException.NotFound.class);
+
+        // Act & Assert
+        CompletableFuture<ProductoDTO> futuro = dataServiceAsyncClient.obtenerProductoPorId(99L);
+        assertThrows(FeignException.NotFound.class, () -> DataServiceAsyncClient.esperar(futuro));
+    }
+}
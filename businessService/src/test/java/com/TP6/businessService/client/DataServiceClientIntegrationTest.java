@@ -17,6 +17,7 @@ import org.springframework.test.context.TestPropertySource;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,7 +42,7 @@ class DataServiceClientIntegrationTest {
     @Test
     void obtenerProductoPorId_cuando200_devuelveDTO() throws Exception {
         var dto = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
         var json = objectMapper.writeValueAsString(dto);
 
         // Simula respuesta del data-service
@@ -55,6 +56,42 @@ class DataServiceClientIntegrationTest {
         verify(getRequestedFor(urlPathEqualTo("/data/productos/id/1")));
     }
 
+    // Caso exitoso: la categoría y el inventario anidados del data-service se mapean al DTO
+    @Test
+    void obtenerTodosLosProductos_conInventarioAnidado_mapeaStock() {
+        stubFor(get(urlPathEqualTo("/data/productos")).willReturn(okJson("""
+                [{"id":1,"nombre":"Coca Cola","precio":100.00,
+                  "categoria":{"id":5,"nombre":"Bebidas"},
+                  "inventario":{"id":7,"cantidad":12,"stockMinimo":2}}]
+                """)));
+
+        var res = dataServiceClient.obtenerTodosLosProductos();
+
+        assertEquals(1, res.size());
+        assertEquals("Bebidas", res.get(0).getCategoriaNombre());
+        assertEquals(12, res.get(0).getStock());
+    }
+
+    // Caso exitoso: la página que carga la réplica trae la categoría y el stock mapeados
+    // (CatalogoReplica indexa por categoriaNombre)
+    @Test
+    void obtenerPaginaDeProductos_conRelacionesAnidadas_mapeaCategoriaYStock() {
+        stubFor(get(urlEqualTo("/data/productos/pagina?desdeId=0&limite=2")).willReturn(okJson("""
+                [{"id":1,"nombre":"Coca Cola","precio":100.00,"version":3,
+                  "categoria":{"id":5,"nombre":"Bebidas"},
+                  "inventario":{"id":7,"cantidad":12,"stockMinimo":2}},
+                 {"id":2,"nombre":"Sin datos","precio":5.00,"categoria":null,"inventario":null}]
+                """)));
+
+        var res = dataServiceClient.obtenerPaginaDeProductos(0L, 2);
+
+        assertEquals("Bebidas", res.get(0).getCategoriaNombre());
+        assertEquals(12, res.get(0).getStock());
+        assertEquals(3L, res.get(0).getVersion());
+        assertNull(res.get(1).getCategoriaNombre());
+        assertNull(res.get(1).getStock());
+    }
+
     // Caso de error: producto no encontrado (404)
     @Test
     void obtenerProductoPorId_cuando404_lanzaFeignNotFound() {
@@ -72,9 +109,9 @@ class DataServiceClientIntegrationTest {
     @Test
     void crearProducto_enviaJsonYDevuelveDTO() throws Exception {
         var req = new ProductoRequest("Notebook", "14 pulgadas",
-                BigDecimal.valueOf(999.99), 5L, 20, 3);
+                BigDecimal.valueOf(999.99), 5L, 20, 3, null);
         var resp = new ProductoDTO(100L, req.getNombre(), req.getDescripcion(),
-                req.getPrecio(), "Computación", req.getStock(), false);
+                req.getPrecio(), "Computación", req.getStock(), false, null);
 
         var reqJson = objectMapper.writeValueAsString(req);
         var respJson = objectMapper.writeValueAsString(resp);
@@ -90,12 +127,24 @@ class DataServiceClientIntegrationTest {
         assertEquals("Computación", creado.getCategoriaNombre());
     }
 
+    // Caso exitoso: la baja en bloque envía los ids en la query de un único DELETE
+    @Test
+    void eliminarProductos_enviaIdsEnUnSoloDelete() {
+        stubFor(delete(urlPathEqualTo("/data/productos"))
+                .willReturn(okJson("{\"eliminados\": 2}")));
+
+        var resultado = dataServiceClient.eliminarProductos(List.of(1L, 2L));
+
+        assertEquals(2, resultado.getEliminados());
+        verify(1, deleteRequestedFor(urlEqualTo("/data/productos?ids=1&ids=2")));
+    }
+
     // ------------------- CATEGORÍAS -------------------
 
     // Caso exitoso: obtiene categoría por ID
     @Test
     void obtenerCategoriaPorId_cuando200_devuelveDTO() throws Exception {
-        var dto = new CategoriaDTO(1L, "Bebidas", "Líquidos");
+        var dto = new CategoriaDTO(1L, "Bebidas", "Líquidos", null);
         var json = objectMapper.writeValueAsString(dto);
 
         stubFor(get(urlPathEqualTo("/data/categorias/id/1"))
@@ -111,8 +160,8 @@ class DataServiceClientIntegrationTest {
     // Caso exitoso: crear categoría
     @Test
     void crearCategoria_enviaJsonYDevuelveDTO() throws Exception {
-        var req = new CategoriaDTO(null, "Snacks", "Productos secos");
-        var resp = new CategoriaDTO(2L, "Snacks", "Productos secos");
+        var req = new CategoriaDTO(null, "Snacks", "Productos secos", null);
+        var resp = new CategoriaDTO(2L, "Snacks", "Productos secos", null);
 
         var reqJson = objectMapper.writeValueAsString(req);
         var respJson = objectMapper.writeValueAsString(resp);
@@ -127,14 +176,42 @@ class DataServiceClientIntegrationTest {
         assertEquals("Snacks", creado.getNombre());
     }
 
+    // Caso error: el 409 por versión vieja llega como FeignException.Conflict
+    @Test
+    void actualizarCategoria_cuando409_lanzaFeignConflict() {
+        stubFor(put(urlPathEqualTo("/data/categorias/2"))
+                .withRequestBody(matchingJsonPath("$.version", equalTo("3")))
+                .willReturn(aResponse().withStatus(409).withBody("La Categoría con ID: 2 fue modificada")));
+
+        var ex = assertThrows(FeignException.Conflict.class,
+                () -> dataServiceClient.actualizarCategoria(2L, new CategoriaDTO(2L, "Snacks", null, 3L)));
+
+        assertTrue(ex.contentUTF8().contains("fue modificada"));
+    }
+
+    // Caso exitoso: el PATCH viaja como application/merge-patch+json con sólo los campos enviados
+    @Test
+    void modificarCategoria_enviaMergePatch() throws Exception {
+        var json = objectMapper.writeValueAsString(new CategoriaDTO(2L, "Snacks", "Nueva", 4L));
+        stubFor(patch(urlPathEqualTo("/data/categorias/2"))
+                .withHeader("Content-Type", containing("application/merge-patch+json"))
+                .withRequestBody(equalToJson("{\"descripcion\": \"Nueva\"}"))
+                .willReturn(okJson(json)));
+
+        var modificada = dataServiceClient.modificarCategoria(2L, Map.of("descripcion", "Nueva"));
+
+        assertEquals("Nueva", modificada.getDescripcion());
+        assertEquals(4L, modificada.getVersion());
+    }
+
     // ------------------- INVENTARIO -------------------
 
     // Caso exitoso: obtiene inventario por ID
     @Test
     void obtenerInventarioPorId_cuando200_devuelveDTO() throws Exception {
         var producto = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
-        var dto = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now());
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
+        var dto = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now(), null);
         var json = objectMapper.writeValueAsString(dto);
 
         stubFor(get(urlPathEqualTo("/data/inventario/1"))
@@ -151,9 +228,9 @@ class DataServiceClientIntegrationTest {
     @Test
     void crearInventario_enviaJsonYDevuelveDTO() throws Exception {
         var producto = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
-        var req = new InventarioDTO(null, producto, 5, 1, null);
-        var resp = new InventarioDTO(99L, producto, 5, 1, LocalDateTime.now());
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
+        var req = new InventarioDTO(null, producto, 5, 1, null, null);
+        var resp = new InventarioDTO(99L, producto, 5, 1, LocalDateTime.now(), null);
 
         var reqJson = objectMapper.writeValueAsString(req);
         var respJson = objectMapper.writeValueAsString(resp);
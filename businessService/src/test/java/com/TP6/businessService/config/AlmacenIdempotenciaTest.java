@@ -0,0 +1,60 @@
+package com.TP6.businessService.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlmacenIdempotenciaTest {
+
+    private static final byte[] HUELLA = {1, 2, 3};
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    // Caso exitoso: la segunda reserva de una clave devuelve la entrada original y su respuesta
+    @Test
+    void cuandoSeReservaDosVeces_entoncesLaSegundaReutilizaLaEntrada() {
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 1_000, reloj::get);
+        AlmacenIdempotencia.Reserva primera = almacen.reservar("k", HUELLA);
+        AlmacenIdempotencia.RespuestaGuardada respuesta =
+                new AlmacenIdempotencia.RespuestaGuardada(201, "application/json", null, new byte[]{'{', '}'});
+        almacen.completar(primera.entrada(), respuesta);
+
+        AlmacenIdempotencia.Reserva segunda = almacen.reservar("k", HUELLA);
+
+        assertTrue(primera.nueva());
+        assertFalse(segunda.nueva());
+        assertTrue(segunda.entrada().coincide(new byte[]{1, 2, 3}));
+        assertSame(respuesta, segunda.entrada().respuesta().join());
+    }
+
+    // Caso límite: vencido el ttl o descartada la respuesta, la clave se vuelve a procesar
+    @Test
+    void cuandoVenceODescarta_entoncesSeReservaDeNuevo() {
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(10, 1_000, reloj::get);
+        almacen.reservar("k", HUELLA);
+        reloj.addAndGet(1_000);
+        assertTrue(almacen.reservar("k", HUELLA).nueva());
+
+        AlmacenIdempotencia.Reserva reserva = almacen.reservar("otra", HUELLA);
+        almacen.descartar("otra", reserva.entrada());
+
+        assertNull(reserva.entrada().respuesta().join());
+        assertTrue(almacen.reservar("otra", HUELLA).nueva());
+    }
+
+    // Caso límite: al superar el máximo se descarta la entrada menos usada
+    @Test
+    void cuandoSeSuperaElMaximo_entoncesDescartaLaMenosUsada() {
+        AlmacenIdempotencia almacen = new AlmacenIdempotencia(2, 1_000, reloj::get);
+        almacen.reservar("a", HUELLA);
+        almacen.reservar("b", HUELLA);
+        almacen.reservar("a", HUELLA); // a pasa a ser la más reciente
+        almacen.reservar("c", HUELLA);
+
+        assertEquals(2, almacen.cantidad());
+        assertFalse(almacen.reservar("a", HUELLA).nueva());
+        assertTrue(almacen.reservar("b", HUELLA).nueva());
+    }
+}
@@ -0,0 +1,130 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.controller.BusinessController;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.service.AlertasStockBajo;
+import com.TP6.businessService.service.CategoriaBusinessService;
+import com.TP6.businessService.service.InventarioBusinessService;
+import com.TP6.businessService.service.MotorReportes;
+import com.TP6.businessService.service.ProductoBusinessService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = BusinessController.class, properties = {
+        "control-carga.reglas[0].patron=/api/reportes/**",
+        "control-carga.reglas[0].capacidad=2",
+        "control-carga.reglas[0].por-segundo=0.1",
+        "control-carga.reintento-segundos=3"
+})
+@ActiveProfiles("test")
+class ControlCargaInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private LimitadorConcurrencia limitadorConcurrencia;
+
+    @MockBean
+    private ProductoBusinessService productoBusinessService;
+
+    @MockBean
+    private CategoriaBusinessService categoriaBusinessService;
+
+    @MockBean
+    private InventarioBusinessService inventarioBusinessService;
+
+    @MockBean
+    private AlertasStockBajo alertasStockBajo;
+
+    @MockBean
+    private MotorReportes motorReportes;
+
+    // Caso error: agotada la ráfaga del endpoint responde 429 con Retry-After; otro cliente sigue
+    // pasando, pero cambiar la cabecera X-Cliente-Id (no autenticada) no esquiva el límite
+    @Test
+    void cuandoClienteSuperaElLimite_entoncesResponde429ConRetryAfter() throws Exception {
+        when(limitadorConcurrencia.admite(any())).thenReturn(true);
+        when(productoBusinessService.calcularValorTotalInventario()).thenReturn(BigDecimal.TEN);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/reportes/valor-inventario").with(desde("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/reportes/valor-inventario").with(desde("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.status").value(429));
+        mockMvc.perform(get("/api/reportes/valor-inventario").with(desde("10.0.0.1")).header("X-Cliente-Id", "otro"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/api/reportes/valor-inventario").with(desde("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    // Caso exitoso: la cabecera de cliente sólo identifica al cliente si se configura
+    @Test
+    void cuandoSeConfiguraLaCabeceraDeCliente_entoncesLaUsaComoClave() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+        request.addHeader("X-Cliente-Id", "tablero");
+
+        MockHttpServletRequest sinCabecera = new MockHttpServletRequest();
+        sinCabecera.setRemoteAddr("10.0.0.1");
+
+        assertEquals("10.0.0.1", IdentidadCliente.de(request, ""));
+        assertEquals("tablero", IdentidadCliente.de(request, "X-Cliente-Id"));
+        assertEquals("10.0.0.1", IdentidadCliente.de(sinCabecera, "X-Cliente-Id"));
+    }
+
+    private static RequestPostProcessor desde(String direccion) {
+        return request -> {
+            request.setRemoteAddr(direccion);
+            return request;
+        };
+    }
+
+    // Caso error: bajo sobrecarga se descartan los reportes (503) pero las escrituras de inventario pasan
+    @Test
+    void cuandoHaySobrecarga_entoncesDescartaReportesYMantieneEscriturasDeInventario() throws Exception {
+        when(limitadorConcurrencia.admite(Prioridad.BAJA)).thenReturn(false);
+        when(limitadorConcurrencia.admite(Prioridad.NORMAL)).thenReturn(false);
+        when(limitadorConcurrencia.admite(Prioridad.ALTA)).thenReturn(true);
+        InventarioDTO inventario = new InventarioDTO(1L,
+                new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.TEN, "Bebidas", 10, false, null),
+                10, 2, LocalDateTime.now(), null);
+        when(inventarioBusinessService.crearInventario(any(InventarioDTO.class))).thenReturn(inventario);
+
+        mockMvc.perform(get("/api/reportes/catalogo").with(desde("10.0.0.3")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "3"));
+        mockMvc.perform(get("/api/inventario"))
+                .andExpect(status().isServiceUnavailable());
+
+        mockMvc.perform(post("/api/inventario")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inventario)))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,112 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.controller.BusinessController;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import com.TP6.businessService.service.AlertasStockBajo;
+import com.TP6.businessService.service.CategoriaBusinessService;
+import com.TP6.businessService.service.InventarioBusinessService;
+import com.TP6.businessService.service.MotorReportes;
+import com.TP6.businessService.service.ProductoBusinessService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BusinessController.class)
+@ActiveProfiles("test")
+class FiltroIdempotenciaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ProductoBusinessService productoBusinessService;
+
+    @MockBean
+    private CategoriaBusinessService categoriaBusinessService;
+
+    @MockBean
+    private InventarioBusinessService inventarioBusinessService;
+
+    @MockBean
+    private AlertasStockBajo alertasStockBajo;
+
+    @MockBean
+    private MotorReportes motorReportes;
+
+    // Caso exitoso: el reintento con la misma clave repite la respuesta sin volver a crear el producto
+    @Test
+    void cuandoSeReintentaConLaMismaClave_entoncesRepiteLaRespuesta() throws Exception {
+        ProductoRequest request = new ProductoRequest("Coca Cola", "Bebida", BigDecimal.valueOf(100), 1L, 10, 2, null);
+        when(productoBusinessService.crearProducto(any(ProductoRequest.class))).thenReturn(
+                new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(100), "Bebidas", 10, false, null));
+        String cuerpo = objectMapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.nombre").value("Coca Cola"));
+
+        verify(productoBusinessService, times(1)).crearProducto(any(ProductoRequest.class));
+    }
+
+    // Caso error: la misma clave con otro cuerpo se rechaza con 422
+    @Test
+    void cuandoLaClaveSeReusaConOtroCuerpo_entoncesRetorna422() throws Exception {
+        ProductoRequest request = new ProductoRequest("Pepsi", "Bebida", BigDecimal.valueOf(90), 1L, 10, 2, null);
+        when(productoBusinessService.crearProducto(any(ProductoRequest.class))).thenReturn(
+                new ProductoDTO(2L, "Pepsi", "Bebida", BigDecimal.valueOf(90), "Bebidas", 10, false, null));
+
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        request.setPrecio(BigDecimal.valueOf(95));
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-2")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.status").value(422));
+    }
+
+    // Caso error: una respuesta 5xx no se guarda y el reintento vuelve a procesarse
+    @Test
+    void cuandoLaOriginalFallaConErrorDelServidor_entoncesElReintentoSeProcesa() throws Exception {
+        ProductoRequest request = new ProductoRequest("Fanta", "Bebida", BigDecimal.valueOf(80), 1L, 10, 2, null);
+        when(productoBusinessService.crearProducto(any(ProductoRequest.class)))
+                .thenThrow(new MicroserviceCommunicationException("Error de comunicación con el servicio de datos"))
+                .thenReturn(new ProductoDTO(3L, "Fanta", "Bebida", BigDecimal.valueOf(80), "Bebidas", 10, false, null));
+        String cuerpo = objectMapper.writeValueAsString(request);
+
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isInternalServerError());
+        mockMvc.perform(post("/api/productos").header("Idempotency-Key", "alta-3")
+                        .contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        verify(productoBusinessService, times(2)).crearProducto(any(ProductoRequest.class));
+    }
+}
@@ -0,0 +1,54 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.exception.ProductoNoEncontradoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HintsNativosTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new HintsNativos().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // Caso exitoso: proxy JDK del cliente Feign
+    @Test
+    void cuandoRegistrarHints_entoncesIncluyeProxyDelClienteFeign() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(DataServiceClient.class).test(hints));
+    }
+
+    // Caso exitoso: los DTO y los tipos anidados se pueden (de)serializar por reflexión
+    @Test
+    void cuandoRegistrarHints_entoncesIncluyeDtosYAnidados() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ProductoDTO.class.getMethod("setStock", Integer.class))
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ProductoDTO.class.getMethod("getPrecio"))
+                .test(hints));
+        // ProductoValorDTO sólo aparece dentro de ReporteCatalogoDTO
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ReporteCatalogoDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.TP6.businessService.dto.ProductoValorDTO")).test(hints));
+    }
+
+    // Caso exitoso: excepciones de dominio y respuesta de error del handler global
+    @Test
+    void cuandoRegistrarHints_entoncesIncluyeExcepcionesYRespuestaDeError() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ProductoNoEncontradoException.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("com.TP6.businessService.exception.GlobalExceptionHandler$ErrorResponse"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+    }
+}
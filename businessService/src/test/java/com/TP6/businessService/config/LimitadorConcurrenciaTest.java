@@ -0,0 +1,128 @@
+package com.TP6.businessService.config;
+
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorConcurrenciaTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong reloj = new AtomicLong();
+    private ControlCargaProperties propiedades;
+
+    @BeforeEach
+    void setUp() {
+        propiedades = new ControlCargaProperties();
+        propiedades.getConcurrencia().setInicial(10);
+        propiedades.getConcurrencia().setMinimo(2);
+        propiedades.getConcurrencia().setMaximo(20);
+    }
+
+    // Caso exitoso: con latencia estable y el límite en uso, el límite crece de a uno por ventana
+    @Test
+    void cuandoLatenciaEstable_entoncesElLimiteCrece() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(propiedades, reloj::get);
+
+        for (int i = 0; i < 10; i++) {
+            limitador.adquirir();
+        }
+        for (int i = 0; i < 10; i++) {
+            limitador.liberar("m", 5 * MS, false);
+        }
+
+        assertEquals(10, limitador.getLimite()); // Las últimas liberaciones ya no usaban la mitad
+        for (int i = 0; i < 30; i++) {
+            for (int j = 0; j < 10; j++) {
+                limitador.adquirir();
+            }
+            for (int j = 0; j < 10; j++) {
+                limitador.liberar("m", 5 * MS, false);
+            }
+        }
+        assertTrue(limitador.getLimite() > 10);
+        assertEquals(0, limitador.getEnVuelo());
+    }
+
+    // Caso error: latencia muy superior a la mínima o errores reducen el límite hasta el mínimo
+    @Test
+    void cuandoLatenciaSeDisparaOHayErrores_entoncesElLimiteBaja() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(propiedades, reloj::get);
+        limitador.adquirir();
+        limitador.liberar("m", 5 * MS, false);
+
+        limitador.adquirir();
+        limitador.liberar("m", 50 * MS, false);
+        assertEquals(9, limitador.getLimite());
+
+        for (int i = 0; i < 50; i++) {
+            limitador.adquirir();
+            limitador.liberar("m", 5 * MS, true);
+        }
+        assertEquals(2, limitador.getLimite());
+    }
+
+    // Caso límite: la latencia de referencia es por método, un listado lento no frena a los demás
+    @Test
+    void cuandoMetodosConLatenciasDistintas_entoncesCadaUnoTieneSuReferencia() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(propiedades, reloj::get);
+        limitador.adquirir();
+        limitador.liberar("rapido", 2 * MS, false);
+        limitador.adquirir();
+        limitador.liberar("lento", 200 * MS, false);
+        limitador.adquirir();
+        limitador.liberar("lento", 210 * MS, false);
+
+        assertEquals(10, limitador.getLimite());
+    }
+
+    // Caso error: al llegar al límite se rechaza con 503 y, por prioridad, los reportes se descartan antes
+    @Test
+    void cuandoSeAcercaAlLimite_entoncesDescartaPorPrioridadYLuegoRechaza() {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(propiedades, reloj::get);
+        for (int i = 0; i < 5; i++) {
+            limitador.adquirir();
+        }
+        assertFalse(limitador.admite(Prioridad.BAJA));
+        assertTrue(limitador.admite(Prioridad.NORMAL));
+        assertTrue(limitador.admite(Prioridad.ALTA));
+
+        for (int i = 0; i < 4; i++) {
+            limitador.adquirir();
+        }
+        assertFalse(limitador.admite(Prioridad.NORMAL));
+        assertTrue(limitador.admite(Prioridad.ALTA));
+
+        limitador.adquirir();
+        assertFalse(limitador.admite(Prioridad.ALTA));
+        ServicioSobrecargadoException ex = assertThrows(ServicioSobrecargadoException.class, limitador::adquirir);
+        assertEquals(1, ex.getReintentarEnSegundos());
+    }
+
+    // Caso exitoso: el cliente Feign enriquecido libera el cupo y cuenta los 5xx como error
+    @Test
+    void cuandoClienteFeignResponde5xx_entoncesLiberaYReduce() throws IOException {
+        LimitadorConcurrencia limitador = new LimitadorConcurrencia(propiedades, reloj::get);
+        Client caido = (request, options) -> Response.builder()
+                .request(request).status(503).headers(Map.of()).build();
+        Client cliente = limitador.enrich(caido);
+        Request request = Request.create(Request.HttpMethod.GET, "http://data/productos", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+
+        cliente.execute(request, new Request.Options());
+
+        assertEquals(0, limitador.getEnVuelo());
+        assertEquals(9, limitador.getLimite());
+    }
+}
@@ -0,0 +1,51 @@
+package com.TP6.businessService.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorTasaTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    // Caso exitoso: se admite la ráfaga completa y luego se repone a la tasa configurada
+    @Test
+    void cuandoSeAgotaLaRafaga_entoncesEsperaHastaLaReposicion() {
+        LimitadorTasa limitador = new LimitadorTasa(100, reloj::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumir("GET /api/x|a", 3, 2));
+        }
+        long espera = limitador.consumir("GET /api/x|a", 3, 2);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), espera);
+
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(0, limitador.consumir("GET /api/x|a", 3, 2));
+    }
+
+    // Caso exitoso: cada cliente tiene su propio balde
+    @Test
+    void cuandoOtroClienteUsaElEndpoint_entoncesNoComparteElLimite() {
+        LimitadorTasa limitador = new LimitadorTasa(100, reloj::get);
+
+        assertEquals(0, limitador.consumir("GET /api/x|a", 1, 1));
+        assertTrue(limitador.consumir("GET /api/x|a", 1, 1) > 0);
+        assertEquals(0, limitador.consumir("GET /api/x|b", 1, 1));
+    }
+
+    // Caso límite: al superar el máximo de claves se descartan los baldes inactivos
+    @Test
+    void cuandoSeSuperaElMaximoDeClaves_entoncesSeDescartanLosBaldesLlenos() {
+        LimitadorTasa limitador = new LimitadorTasa(2, reloj::get);
+        limitador.consumir("a", 5, 10);
+        limitador.consumir("b", 5, 10);
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1)); // a y b vuelven a estar llenos
+        limitador.consumir("c", 5, 10);
+
+        assertEquals(1, limitador.cantidadClaves());
+    }
+}
@@ -3,11 +3,19 @@ package com.TP6.businessService.controller;
 import com.TP6.businessService.dto.CategoriaDTO;
 import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoDetalleDTO;
 import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ProductoValorDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
 import com.TP6.businessService.exception.ProductoNoEncontradoException;
+import com.TP6.businessService.service.AlertasStockBajo;
 import com.TP6.businessService.service.CategoriaBusinessService;
 import com.TP6.businessService.service.InventarioBusinessService;
+import com.TP6.businessService.service.MotorReportes;
 import com.TP6.businessService.service.ProductoBusinessService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -17,13 +25,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -47,14 +58,20 @@ class BusinessControllerTest {
     @MockBean
     private InventarioBusinessService inventarioBusinessService;
 
+    @MockBean
+    private AlertasStockBajo alertasStockBajo;
+
+    @MockBean
+    private MotorReportes motorReportes;
+
     // ------------------- TESTS PRODUCTOS -------------------
 
     // Caso exitoso: obtiene lista de productos
     @Test
     void cuandoObtenerTodosLosProductos_entoncesRetornaLista() throws Exception {
         List<ProductoDTO> productos = Arrays.asList(
-                new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(100), "Bebidas", 10, false),
-                new ProductoDTO(2L, "Pepsi", "Bebida", BigDecimal.valueOf(90), "Bebidas", 5, true)
+                new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(100), "Bebidas", 10, false, null),
+                new ProductoDTO(2L, "Pepsi", "Bebida", BigDecimal.valueOf(90), "Bebidas", 5, true, null)
         );
 
         when(productoBusinessService.obtenerTodosLosProductos()).thenReturn(productos);
@@ -65,14 +82,41 @@ class BusinessControllerTest {
                 .andExpect(jsonPath("$[0].nombre").value("Coca Cola"));
     }
 
+    // Caso exitoso: obtiene el detalle compuesto de un producto
+    @Test
+    void cuandoObtenerDetalleProducto_entoncesRetornaProductoCategoriaEInventario() throws Exception {
+        ProductoDetalleDTO detalle = new ProductoDetalleDTO(
+                new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(100), "Bebidas", null, null, null),
+                new CategoriaDTO(5L, "Bebidas", "Gaseosas", null),
+                new InventarioDTO(7L, null, 10, 2, null, null));
+
+        when(productoBusinessService.obtenerDetalleProducto(1L)).thenReturn(detalle);
+
+        mockMvc.perform(get("/api/productos/1/detalle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producto.nombre").value("Coca Cola"))
+                .andExpect(jsonPath("$.categoria.nombre").value("Bebidas"))
+                .andExpect(jsonPath("$.inventario.cantidad").value(10));
+    }
+
+    // Caso error: detalle de un producto inexistente devuelve 404
+    @Test
+    void cuandoObtenerDetalleProductoInexistente_entoncesRetorna404() throws Exception {
+        when(productoBusinessService.obtenerDetalleProducto(99L))
+                .thenThrow(new ProductoNoEncontradoException("Producto no encontrado con ID: 99"));
+
+        mockMvc.perform(get("/api/productos/99/detalle"))
+                .andExpect(status().isNotFound());
+    }
+
     // Caso exitoso: crear un producto
     @Test
     void cuandoCrearProducto_entoncesRetorna201() throws Exception {
         ProductoRequest request = new ProductoRequest("Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), 1L, 10, 2);
+                BigDecimal.valueOf(100), 1L, 10, 2, null);
 
         ProductoDTO response = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
 
         when(productoBusinessService.crearProducto(any(ProductoRequest.class))).thenReturn(response);
 
@@ -104,14 +148,24 @@ class BusinessControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    // Caso exitoso: eliminar varios productos por ids en la query
+    @Test
+    void cuandoEliminarVariosProductos_entoncesRetornaCantidad() throws Exception {
+        when(productoBusinessService.eliminarProductos(List.of(1L, 2L, 3L))).thenReturn(new ResultadoEliminacionDTO(2));
+
+        mockMvc.perform(delete("/api/productos").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminados").value(2));
+    }
+
     // ------------------- TESTS CATEGORÍAS -------------------
 
     // Caso exitoso: obtiene lista de categorías
     @Test
     void cuandoObtenerTodasLasCategorias_entoncesRetornaLista() throws Exception {
         List<CategoriaDTO> categorias = Arrays.asList(
-                new CategoriaDTO(1L, "Bebidas", "Productos líquidos"),
-                new CategoriaDTO(2L, "Snacks", "Productos secos")
+                new CategoriaDTO(1L, "Bebidas", "Productos líquidos", null),
+                new CategoriaDTO(2L, "Snacks", "Productos secos", null)
         );
 
         when(categoriaBusinessService.obtenerTodasLasCategorias()).thenReturn(categorias);
@@ -125,7 +179,7 @@ class BusinessControllerTest {
     // Caso exitoso: crear categoría
     @Test
     void cuandoCrearCategoria_entoncesRetorna201() throws Exception {
-        CategoriaDTO categoria = new CategoriaDTO(1L, "Bebidas", "Productos líquidos");
+        CategoriaDTO categoria = new CategoriaDTO(1L, "Bebidas", "Productos líquidos", null);
 
         when(categoriaBusinessService.crearCategoria(any(CategoriaDTO.class))).thenReturn(categoria);
 
@@ -136,15 +190,25 @@ class BusinessControllerTest {
                 .andExpect(jsonPath("$.nombre").value("Bebidas"));
     }
 
+    // Caso exitoso: vaciar una categoría devuelve cuántos productos se eliminaron
+    @Test
+    void cuandoEliminarProductosDeCategoria_entoncesRetornaCantidad() throws Exception {
+        when(categoriaBusinessService.eliminarProductosDeCategoria(1L)).thenReturn(new ResultadoEliminacionDTO(3));
+
+        mockMvc.perform(delete("/api/categorias/1/productos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eliminados").value(3));
+    }
+
     // ------------------- TESTS INVENTARIOS -------------------
 
     // Caso exitoso: obtiene lista de inventarios
     @Test
     void cuandoObtenerTodosLosInventarios_entoncesRetornaLista() throws Exception {
         ProductoDTO producto = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
 
-        InventarioDTO inventario = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now());
+        InventarioDTO inventario = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now(), null);
         List<InventarioDTO> inventarios = List.of(inventario);
 
         when(inventarioBusinessService.obtenerTodosLosInventarios()).thenReturn(inventarios);
@@ -159,9 +223,9 @@ class BusinessControllerTest {
     @Test
     void cuandoCrearInventario_entoncesRetorna201() throws Exception {
         ProductoDTO producto = new ProductoDTO(1L, "Coca Cola", "Bebida",
-                BigDecimal.valueOf(100), "Bebidas", 10, false);
+                BigDecimal.valueOf(100), "Bebidas", 10, false, null);
 
-        InventarioDTO inventario = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now());
+        InventarioDTO inventario = new InventarioDTO(1L, producto, 10, 2, LocalDateTime.now(), null);
 
         when(inventarioBusinessService.crearInventario(any(InventarioDTO.class)))
                 .thenReturn(inventario);
@@ -174,13 +238,64 @@ class BusinessControllerTest {
                 .andExpect(jsonPath("$.producto.nombre").value("Coca Cola"));
     }
 
+    // Caso error: actualizar un producto con una versión vieja responde 409
+    @Test
+    void cuandoActualizarProductoConVersionVieja_entoncesRetorna409() throws Exception {
+        ProductoRequest request = new ProductoRequest("Coca Cola", "Bebida", BigDecimal.TEN, 1L, 10, 2, 3L);
+        when(productoBusinessService.actualizarProducto(any(Long.class), any(ProductoRequest.class)))
+                .thenThrow(new ConflictoDeVersionException("El producto con ID: 1 fue modificado por otra operación"));
+
+        mockMvc.perform(put("/api/productos/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    // Caso exitoso: con escritura diferida el PUT de inventario responde 202 (encolado)
+    @Test
+    void cuandoActualizarInventarioConEscrituraDiferida_entoncesRetorna202() throws Exception {
+        InventarioDTO inventario = new InventarioDTO(1L, null, 10, 2, null, null);
+        when(inventarioBusinessService.actualizarInventario(any(Long.class), any(InventarioDTO.class))).thenReturn(inventario);
+        when(inventarioBusinessService.esEscrituraDiferida()).thenReturn(true);
+
+        mockMvc.perform(put("/api/inventario/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inventario)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.cantidad").value(10));
+    }
+
+    // Caso exitoso: un PATCH (JSON Merge Patch) de inventario se reenvía con sólo los campos enviados
+    @Test
+    void cuandoModificarInventarioConPatch_entoncesRetorna200() throws Exception {
+        when(inventarioBusinessService.modificarInventario(1L, Map.of("cantidad", 4)))
+                .thenReturn(new InventarioDTO(1L, null, 4, 2, null, 6L));
+
+        mockMvc.perform(patch("/api/inventario/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"cantidad\": 4}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidad").value(4))
+                .andExpect(jsonPath("$.stockMinimo").value(2));
+    }
+
+    // Caso exitoso: ajustar la cantidad de un inventario sin escritura diferida responde 204
+    @Test
+    void cuandoAjustarInventario_entoncesRetorna204() throws Exception {
+        mockMvc.perform(post("/api/inventario/1/ajuste").param("delta", "-3"))
+                .andExpect(status().isNoContent());
+
+        verify(inventarioBusinessService).ajustarInventario(1L, -3);
+    }
+
     // ------------------- TESTS REPORTES -------------------
 
     // Caso exitoso: obtiene lista de productos con stock bajo
     @Test
     void cuandoObtenerProductosConStockBajo_entoncesRetornaLista() throws Exception {
         List<ProductoDTO> productosBajos = List.of(
-                new ProductoDTO(2L, "Pepsi", "Bebida", BigDecimal.valueOf(90), "Bebidas", 5, true)
+                new ProductoDTO(2L, "Pepsi", "Bebida", BigDecimal.valueOf(90), "Bebidas", 5, true, null)
         );
 
         when(productoBusinessService.obtenerProductosConStockBajo()).thenReturn(productosBajos);
@@ -200,4 +315,42 @@ class BusinessControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("1500"));
     }
+
+    // Caso exitoso: obtiene el reporte por categoría
+    @Test
+    void cuandoObtenerReporteCategorias_entoncesRetornaResumen() throws Exception {
+        when(categoriaBusinessService.obtenerResumenCategorias()).thenReturn(List.of(
+                new ResumenCategoriaDTO(1L, "Bebidas", 2, 30, new BigDecimal("250.00"), 1)));
+
+        mockMvc.perform(get("/api/reportes/categorias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value("Bebidas"))
+                .andExpect(jsonPath("$[0].unidades").value(30))
+                .andExpect(jsonPath("$[0].productosStockBajo").value(1));
+    }
+
+    // Caso exitoso: la suscripción a alertas abre un stream de Server-Sent Events
+    @Test
+    void cuandoSuscribirAlertasStockBajo_entoncesAbreStreamSse() throws Exception {
+        when(alertasStockBajo.suscribir()).thenReturn(new SseEmitter(0L));
+
+        mockMvc.perform(get("/api/reportes/stock-bajo/alertas").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+    }
+
+    // Caso exitoso: obtiene el reporte de catálogo con el top pedido
+    @Test
+    void cuandoObtenerReporteCatalogo_entoncesRetornaReporte() throws Exception {
+        ReporteCatalogoDTO reporte = new ReporteCatalogoDTO(2, new BigDecimal("1500.00"),
+                Map.of("Bebidas", new BigDecimal("1500.00")), List.of(), Map.of("p50", 5),
+                List.of(new ProductoValorDTO(1L, "Coca Cola", "Bebidas", new BigDecimal("1000.00"))), 1, 3);
+        when(motorReportes.generarReporteCatalogo(1)).thenReturn(reporte);
+
+        mockMvc.perform(get("/api/reportes/catalogo").param("top", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProductos").value(2))
+                .andExpect(jsonPath("$.valorPorCategoria.Bebidas").value(1500.00))
+                .andExpect(jsonPath("$.topPorValor[0].nombre").value("Coca Cola"));
+    }
 }
@@ -0,0 +1,94 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoValorDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcumuladorReporteTest {
+
+    private static final BigDecimal[] LIMITES = {new BigDecimal("10"), new BigDecimal("100")};
+    private static final long[] LIMITES_EN_CENTAVOS = {1000, 10000};
+
+    // Caso exitoso: valores, rangos de precio, percentiles y top de un tramo chico
+    @Test
+    void cuandoAgregarProductos_entoncesCalculaTodasLasMetricas() {
+        AcumuladorReporte acumulador = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 2);
+        acumulador.agregar(producto(1L, "5.00", "Bebidas", 10));     // 50.00, rango [, 10)
+        acumulador.agregar(producto(2L, "10.00", "Bebidas", 20));    // 200.00, rango [10, 100)
+        acumulador.agregar(producto(3L, "150.50", null, 2));         // 301.00, rango [100, )
+        acumulador.agregar(producto(4L, "20.00", "Snacks", null));   // sin stock: 0.00
+
+        ReporteCatalogoDTO reporte = acumulador.aReporte(1, 0);
+
+        assertEquals(4, reporte.getTotalProductos());
+        assertEquals(new BigDecimal("551.00"), reporte.getValorTotal());
+        assertEquals(new BigDecimal("250.00"), reporte.getValorPorCategoria().get("Bebidas"));
+        assertEquals(new BigDecimal("301.00"), reporte.getValorPorCategoria().get(AcumuladorReporte.SIN_CATEGORIA));
+        assertEquals(List.of(1L, 2L, 1L), reporte.getHistogramaPrecios().stream().map(r -> r.getCantidad()).toList());
+        assertNull(reporte.getHistogramaPrecios().get(0).getDesde());
+        assertEquals(2, reporte.getPercentilesStock().get("p50")); // Stocks 0, 2, 10, 20
+        assertEquals(20, reporte.getPercentilesStock().get("max"));
+        assertEquals(List.of(3L, 2L), reporte.getTopPorValor().stream().map(ProductoValorDTO::getId).toList());
+        assertEquals(0, new BigDecimal("301.00").compareTo(reporte.getTopPorValor().get(0).getValor()));
+    }
+
+    // Caso exitoso: combinar parciales da lo mismo que recorrer todo en orden
+    @Test
+    void cuandoCombinarParciales_entoncesIgualAlRecorridoSecuencial() {
+        Random random = new Random(3);
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(1, 50_000), 2);
+            productos.add(producto(id, precio.toPlainString(), "Cat " + random.nextInt(5), random.nextInt(3000)));
+        }
+
+        AcumuladorReporte secuencial = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 10);
+        productos.forEach(secuencial::agregar);
+
+        AcumuladorReporte combinado = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 10);
+        for (int desde = 0; desde < productos.size(); desde += 777) {
+            AcumuladorReporte parcial = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 10);
+            productos.subList(desde, Math.min(desde + 777, productos.size())).forEach(parcial::agregar);
+            combinado.combinar(parcial);
+        }
+
+        assertEquals(secuencial.aReporte(1, 0), combinado.aReporte(1, 0));
+    }
+
+    // Caso límite: a igual valor el top prefiere el menor id
+    @Test
+    void cuandoHayEmpateDeValor_entoncesTopPrefiereMenorId() {
+        AcumuladorReporte acumulador = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 1);
+        acumulador.agregar(producto(9L, "10.00", "Bebidas", 1));
+        acumulador.agregar(producto(4L, "5.00", "Bebidas", 2));
+        acumulador.agregar(producto(7L, "1.00", "Bebidas", 10));
+
+        assertEquals(4L, acumulador.aReporte(1, 0).getTopPorValor().get(0).getId());
+    }
+
+    // Caso límite: precios con más de dos decimales siguen siendo exactos
+    @Test
+    void cuandoPrecioTieneMasDecimales_entoncesUsaCaminoExacto() {
+        AcumuladorReporte acumulador = new AcumuladorReporte(LIMITES, LIMITES_EN_CENTAVOS, 1);
+        acumulador.agregar(producto(1L, "9.999", "Bebidas", 3));
+        acumulador.agregar(producto(2L, "10.00", "Bebidas", 1));
+
+        ReporteCatalogoDTO reporte = acumulador.aReporte(1, 0);
+
+        assertEquals(0, new BigDecimal("39.997").compareTo(reporte.getValorTotal()));
+        assertEquals(List.of(1L, 1L, 0L), reporte.getHistogramaPrecios().stream().map(r -> r.getCantidad()).toList());
+        assertEquals(1L, reporte.getTopPorValor().get(0).getId());
+    }
+
+    private static ProductoDTO producto(Long id, String precio, String categoria, Integer stock) {
+        return new ProductoDTO(id, "Producto " + id, null, new BigDecimal(precio), categoria, stock, false, null);
+    }
+}
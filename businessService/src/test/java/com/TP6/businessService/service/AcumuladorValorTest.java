@@ -0,0 +1,71 @@
+package com.TP6.businessService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcumuladorValorTest {
+
+    // Caso exitoso: el resultado coincide en valor y escala con la suma hecha con BigDecimal
+    @Test
+    void cuandoSumarPreciosConEscala2_entoncesIgualQueBigDecimal() {
+        Random random = new Random(42);
+        AcumuladorValor acumulador = new AcumuladorValor();
+        BigDecimal esperado = BigDecimal.ZERO;
+        for (int i = 0; i < 100_000; i++) {
+            // Hasta precision 10, scale 2 (máximo 99.999.999,99) y cantidades hasta 10.000
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(10_000_000_000L), 2);
+            int cantidad = random.nextInt(10_000);
+            acumulador.sumar(precio, cantidad);
+            esperado = esperado.add(precio.multiply(BigDecimal.valueOf(cantidad)));
+        }
+
+        assertEquals(esperado, acumulador.total());
+    }
+
+    // Caso exitoso: con precios sin decimales la escala del resultado es 0, como con BigDecimal
+    @Test
+    void cuandoPreciosSinDecimales_entoncesEscalaCero() {
+        AcumuladorValor acumulador = new AcumuladorValor();
+        acumulador.sumar(BigDecimal.valueOf(100), 2);
+        acumulador.sumar(BigDecimal.valueOf(50), 3);
+
+        assertEquals(BigDecimal.valueOf(350), acumulador.total());
+    }
+
+    // Caso límite: sin filas el total es cero
+    @Test
+    void cuandoNoHayFilas_entoncesCero() {
+        assertEquals(BigDecimal.ZERO, new AcumuladorValor().total());
+    }
+
+    // Caso límite: un precio con más de 2 decimales pasa al camino exacto sin perder lo acumulado
+    @Test
+    void cuandoPrecioConMasDecimales_entoncesContinuaExacto() {
+        AcumuladorValor acumulador = new AcumuladorValor();
+        acumulador.sumar(new BigDecimal("1.25"), 4);
+        acumulador.sumar(new BigDecimal("0.001"), 3);
+        acumulador.sumar(new BigDecimal("2.10"), 1);
+
+        assertEquals(new BigDecimal("7.103"), acumulador.total());
+    }
+
+    // Caso límite: si la suma en centavos desborda un long se continúa con BigDecimal
+    @Test
+    void cuandoLaSumaDesborda_entoncesContinuaExacto() {
+        AcumuladorValor acumulador = new AcumuladorValor();
+        BigDecimal precio = new BigDecimal("99999999.99");
+        BigDecimal esperado = BigDecimal.ZERO;
+        for (int i = 0; i < 3; i++) {
+            acumulador.sumar(precio, Long.MAX_VALUE / 300);
+            esperado = esperado.add(precio.multiply(BigDecimal.valueOf(Long.MAX_VALUE / 300)));
+        }
+        acumulador.sumar(new BigDecimal("-5.50"), 2);
+        esperado = esperado.add(new BigDecimal("-11.00"));
+
+        assertEquals(esperado, acumulador.total());
+    }
+}
@@ -0,0 +1,107 @@
+package com.TP6.businessService.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertasStockBajoTest {
+
+    private AlertasStockBajo alertasStockBajo;
+    private EmitterCapturador emitter;
+
+    @BeforeEach
+    void setUp() {
+        alertasStockBajo = new AlertasStockBajo("http://localhost:0", 2000);
+        emitter = new EmitterCapturador();
+        alertasStockBajo.agregar(emitter);
+    }
+
+    // Caso exitoso: un evento completo del data-service se reenvía con su id, nombre y datos
+    @Test
+    void cuandoLlegaEventoCompleto_entoncesSeReenviaASuscriptores() {
+        alertasStockBajo.procesarLinea("id:7");
+        alertasStockBajo.procesarLinea("event:stock-bajo");
+        alertasStockBajo.procesarLinea("data:{\"tipo\":\"ENTRA\",\"inventarioId\":3}");
+        assertTrue(emitter.eventos.isEmpty()); // Aún no terminó el evento
+
+        alertasStockBajo.procesarLinea("");
+
+        assertEquals(1, emitter.eventos.size());
+        String evento = emitter.eventos.get(0);
+        assertTrue(evento.contains("id:7"));
+        assertTrue(evento.contains("event:stock-bajo"));
+        assertTrue(evento.contains("data:{\"tipo\":\"ENTRA\",\"inventarioId\":3}"));
+    }
+
+    // Caso exitoso: los heartbeats se reenvían como comentarios
+    @Test
+    void cuandoLlegaHeartbeat_entoncesSeReenviaComoComentario() {
+        alertasStockBajo.procesarLinea(":ping");
+
+        assertEquals(1, emitter.eventos.size());
+        assertTrue(emitter.eventos.get(0).startsWith(":ping"));
+    }
+
+    // Caso límite: una línea en blanco sin datos no genera evento
+    @Test
+    void cuandoLlegaLineaEnBlancoSinDatos_entoncesNoSeReenvia() {
+        alertasStockBajo.procesarLinea("event:stock-bajo");
+        alertasStockBajo.procesarLinea("");
+
+        assertTrue(emitter.eventos.isEmpty());
+    }
+
+    // Caso error: un suscriptor desconectado se da de baja sin afectar al resto
+    @Test
+    void cuandoSuscriptorFalla_entoncesSeDaDeBaja() {
+        EmitterCapturador otro = new EmitterCapturador();
+        alertasStockBajo.agregar(otro);
+        emitter.cerrado = true;
+
+        alertasStockBajo.procesarLinea(":ping");
+
+        assertEquals(1, alertasStockBajo.cantidadSuscriptores());
+        assertEquals(1, otro.eventos.size());
+    }
+
+    // Caso límite: la suscripción aguas arriba se corta con el último suscriptor y se reabre con el siguiente
+    @Test
+    void cuandoSeVaElUltimoSuscriptor_entoncesSeCortaLaSuscripcionAguasArriba() {
+        EmitterCapturador otro = new EmitterCapturador();
+        alertasStockBajo.agregar(otro);
+        alertasStockBajo.iniciarSiHaceFalta();
+        assertTrue(alertasStockBajo.escuchando());
+
+        alertasStockBajo.quitar(emitter);
+        assertTrue(alertasStockBajo.escuchando());
+
+        alertasStockBajo.quitar(otro);
+        assertFalse(alertasStockBajo.escuchando());
+
+        alertasStockBajo.suscribir();
+        assertTrue(alertasStockBajo.escuchando());
+        alertasStockBajo.detener();
+    }
+
+    // Emitter que, en lugar de escribir en una respuesta HTTP, acumula el texto de cada evento
+    private static class EmitterCapturador extends SseEmitter {
+        private final List<String> eventos = new ArrayList<>();
+        private boolean cerrado;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (cerrado) {
+                throw new IOException("Conexión cerrada");
+            }
+            StringBuilder texto = new StringBuilder();
+            builder.build().forEach(parte -> texto.append(parte.getData()));
+            eventos.add(texto.toString());
+        }
+    }
+}
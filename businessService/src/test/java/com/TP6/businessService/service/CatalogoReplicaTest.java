@@ -0,0 +1,89 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoReplicaTest {
+
+    private CatalogoReplica catalogoReplica;
+
+    private ProductoDTO cocaCola;
+    private ProductoDTO pepsi;
+
+    @BeforeEach
+    void setUp() {
+        catalogoReplica = new CatalogoReplica(5000);
+        cocaCola = new ProductoDTO(1L, "Coca Cola", "Bebida", new BigDecimal("100.00"), "Bebidas", 10, false, null);
+        pepsi = new ProductoDTO(2L, "Pepsi", "Bebida", new BigDecimal("90.00"), "Bebidas", 2, true, null);
+        catalogoReplica.cargar(
+                List.of(cocaCola, pepsi),
+                List.of(new CategoriaDTO(1L, "Bebidas", "Líquidos", null)),
+                List.of(new InventarioDTO(5L, cocaCola, 10, 2, LocalDateTime.now(), null)),
+                System.nanoTime());
+    }
+
+    // ------------------- VIGENCIA -------------------
+
+    // Caso exitoso: recién cargada la réplica está vigente
+    @Test
+    void cuandoSeCargaSnapshot_entoncesEstaVigente() {
+        assertTrue(catalogoReplica.estaVigente());
+    }
+
+    // Caso límite: sin confirmación dentro del máximo de desactualización deja de estar vigente
+    @Test
+    void cuandoConfirmacionVencida_entoncesNoEstaVigente() {
+        catalogoReplica.confirmarVigencia(System.nanoTime() - 6_000_000_000L);
+
+        assertFalse(catalogoReplica.estaVigente());
+    }
+
+    // Caso límite: una réplica nunca cargada no está vigente
+    @Test
+    void cuandoNoSeCargo_entoncesNoEstaVigente() {
+        assertFalse(new CatalogoReplica(5000).estaVigente());
+    }
+
+    // ------------------- ÍNDICES -------------------
+
+    // Caso exitoso: los índices secundarios resuelven por categoría, precio y nombre
+    @Test
+    void cuandoBuscarPorIndices_entoncesRetornaProductos() {
+        assertEquals(2, catalogoReplica.buscarProductosPorCategoria("Bebidas").size());
+        // El índice de precio compara por valor numérico (100 == 100.00)
+        assertEquals(List.of(cocaCola), catalogoReplica.buscarProductosPorPrecio(BigDecimal.valueOf(100)));
+        assertEquals(pepsi, catalogoReplica.buscarProductoPorNombre("Pepsi").orElseThrow());
+        assertEquals(5L, catalogoReplica.buscarInventarioPorProducto(1L).orElseThrow().getId());
+    }
+
+    // Caso exitoso: al actualizar un producto se quitan sus entradas de índice anteriores
+    @Test
+    void cuandoActualizarProducto_entoncesReindexa() {
+        catalogoReplica.guardarProducto(new ProductoDTO(1L, "Coca Cola Zero", "Bebida",
+                new BigDecimal("120.00"), "Sin azúcar", 10, false, null));
+
+        assertTrue(catalogoReplica.buscarProductoPorNombre("Coca Cola").isEmpty());
+        assertTrue(catalogoReplica.buscarProductosPorPrecio(new BigDecimal("100.00")).isEmpty());
+        assertEquals(List.of(pepsi), catalogoReplica.buscarProductosPorCategoria("Bebidas"));
+        assertEquals(1, catalogoReplica.buscarProductosPorCategoria("Sin azúcar").size());
+    }
+
+    // Caso exitoso: eliminar un producto lo quita de todos los índices
+    @Test
+    void cuandoEliminarProducto_entoncesDesapareceDeIndices() {
+        catalogoReplica.eliminarProducto(2L);
+
+        assertTrue(catalogoReplica.buscarProducto(2L).isEmpty());
+        assertTrue(catalogoReplica.buscarProductoPorNombre("Pepsi").isEmpty());
+        assertEquals(List.of(cocaCola), catalogoReplica.buscarProductosPorCategoria("Bebidas"));
+    }
+}
@@ -2,18 +2,25 @@ package com.TP6.businessService.service;
 
 import com.TP6.businessService.client.DataServiceClient;
 import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.ResumenCategoriaDTO;
 import com.TP6.businessService.exception.CategoriaNoEncontradaException;
+import com.TP6.businessService.exception.CategoriaYaExisteException;
+import com.TP6.businessService.exception.ConflictoDeVersionException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
 import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +31,9 @@ class CategoriaBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient; // Mock del cliente Feign
 
+    @Mock
+    private CatalogoReplica catalogoReplica; // Réplica local (no vigente por defecto)
+
     @InjectMocks
     private CategoriaBusinessService categoriaBusinessService; // Service que probamos
 
@@ -34,8 +44,8 @@ class CategoriaBusinessServiceTest {
     void cuandoObtenerTodasLasCategorias_entoncesRetornaLista() {
         // Arrange → simulamos lista de categorías
         List<CategoriaDTO> categoriasEsperadas = Arrays.asList(
-                new CategoriaDTO(1L, "Categoría 1", "Descripción 1"),
-                new CategoriaDTO(2L, "Categoría 2", "Descripción 2")
+                new CategoriaDTO(1L, "Categoría 1", "Descripción 1", null),
+                new CategoriaDTO(2L, "Categoría 2", "Descripción 2", null)
         );
         when(dataServiceClient.obtenerTodasLasCategorias()).thenReturn(categoriasEsperadas);
 
@@ -54,8 +64,8 @@ class CategoriaBusinessServiceTest {
     @Test
     void cuandoCrearCategoriaValida_entoncesSeCreaCorrectamente() {
         // Arrange
-        CategoriaDTO nueva = new CategoriaDTO(null, "Nueva Categoría", "Descripción nueva");
-        CategoriaDTO creada = new CategoriaDTO(10L, "Nueva Categoría", "Descripción nueva");
+        CategoriaDTO nueva = new CategoriaDTO(null, "Nueva Categoría", "Descripción nueva", null);
+        CategoriaDTO creada = new CategoriaDTO(10L, "Nueva Categoría", "Descripción nueva", null);
         when(dataServiceClient.crearCategoria(nueva)).thenReturn(creada);
 
         // Act
@@ -71,7 +81,7 @@ class CategoriaBusinessServiceTest {
     @Test
     void cuandoCrearCategoriaConNombreVacio_entoncesLanzaExcepcion() {
         // Arrange → nombre vacío
-        CategoriaDTO categoria = new CategoriaDTO(null, "   ", "Descripción");
+        CategoriaDTO categoria = new CategoriaDTO(null, "   ", "Descripción", null);
 
         // Act & Assert
         assertThrows(ValidacionNegocioException.class, () -> {
@@ -110,6 +120,88 @@ class CategoriaBusinessServiceTest {
         });
     }
 
+    // ------------------- TESTS ACTUALIZAR -------------------
+
+    // Caso error: un 409 del data-service (versión vieja) se informa como conflicto, no como falla de comunicación
+    @Test
+    void cuandoActualizarCategoriaConVersionVieja_entoncesLanzaConflictoDeVersion() {
+        CategoriaDTO categoria = new CategoriaDTO(1L, "Bebidas", null, 3L);
+        when(dataServiceClient.actualizarCategoria(1L, categoria)).thenThrow(FeignException.Conflict.class);
+
+        assertThrows(ConflictoDeVersionException.class,
+                () -> categoriaBusinessService.actualizarCategoria(1L, categoria));
+    }
+
+    // Caso error: un 409 por nombre duplicado no se confunde con una versión vieja
+    @Test
+    void cuandoActualizarCategoriaConNombreDuplicado_entoncesLanzaCategoriaYaExiste() {
+        CategoriaDTO categoria = new CategoriaDTO(1L, "Bebidas", null, 3L);
+        when(dataServiceClient.actualizarCategoria(1L, categoria)).thenThrow(conflicto("YA_EXISTE"));
+        when(dataServiceClient.crearCategoria(categoria)).thenThrow(conflicto("YA_EXISTE"));
+
+        assertThrows(CategoriaYaExisteException.class,
+                () -> categoriaBusinessService.actualizarCategoria(1L, categoria));
+        assertThrows(CategoriaYaExisteException.class,
+                () -> categoriaBusinessService.crearCategoria(categoria));
+    }
+
+    // Caso error: el código del cuerpo decide el tipo de conflicto
+    @Test
+    void cuandoActualizarCategoriaConCodigoDeVersion_entoncesLanzaConflictoDeVersion() {
+        CategoriaDTO categoria = new CategoriaDTO(1L, "Bebidas", null, 3L);
+        when(dataServiceClient.actualizarCategoria(1L, categoria)).thenThrow(conflicto("CONFLICTO_VERSION"));
+
+        assertThrows(ConflictoDeVersionException.class,
+                () -> categoriaBusinessService.actualizarCategoria(1L, categoria));
+    }
+
+    private static FeignException.Conflict conflicto(String codigo) {
+        Request request = Request.create(Request.HttpMethod.PUT, "http://data/categorias/1", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        byte[] cuerpo = ("{\"status\":409,\"codigo\":\"" + codigo + "\",\"message\":\"conflicto\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        return new FeignException.Conflict("409 Conflict", request, cuerpo, Map.of());
+    }
+
+    // ------------------- TESTS ELIMINAR PRODUCTOS -------------------
+
+    // Caso error: vaciar una categoría inexistente informa categoría no encontrada
+    @Test
+    void cuandoEliminarProductosDeCategoriaInexistente_entoncesLanzaCategoriaNoEncontradaException() {
+        when(dataServiceClient.eliminarProductosDeCategoria(99L)).thenThrow(FeignException.NotFound.class);
+
+        assertThrows(CategoriaNoEncontradaException.class,
+                () -> categoriaBusinessService.eliminarProductosDeCategoria(99L));
+    }
+
+    // ------------------- TESTS REPORTE POR CATEGORÍA -------------------
+
+    // Caso exitoso: el reporte por categoría devuelve el resumen del data-service
+    @Test
+    void cuandoObtenerResumenCategorias_entoncesRetornaResumen() {
+        // Arrange
+        List<ResumenCategoriaDTO> resumen = List.of(
+                new ResumenCategoriaDTO(1L, "Bebidas", 2, 30, new BigDecimal("250.00"), 1));
+        when(dataServiceClient.obtenerResumenCategorias()).thenReturn(resumen);
+
+        // Act
+        List<ResumenCategoriaDTO> resultado = categoriaBusinessService.obtenerResumenCategorias();
+
+        // Assert
+        assertEquals(resumen, resultado);
+    }
+
+    // Caso error: fallo del data-service al pedir el resumen
+    @Test
+    void cuandoObtenerResumenCategorias_yDataServiceFalla_entoncesLanzaMicroserviceCommunicationException() {
+        // Arrange
+        when(dataServiceClient.obtenerResumenCategorias()).thenThrow(FeignException.class);
+
+        // Act & Assert
+        assertThrows(MicroserviceCommunicationException.class,
+                () -> categoriaBusinessService.obtenerResumenCategorias());
+    }
+
     // ------------------- TESTS ERRORES GENERALES -------------------
 
     // Caso error: fallo en comunicación con data-service
@@ -0,0 +1,199 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.AjusteInventarioDTO;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
+import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import com.TP6.businessService.exception.ServicioSobrecargadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EscrituraDiferidaInventarioTest {
+
+    @TempDir
+    Path directorio;
+
+    private final DataServiceClient dataServiceClient = mock(DataServiceClient.class);
+    private final List<EscrituraDiferidaInventario> creadas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        doReturn(new ResultadoAjustesDTO(0, List.of(), List.of()))
+                .when(dataServiceClient).aplicarAjustesInventario(any(), anyList());
+        for (EscrituraDiferidaInventario escritura : creadas) {
+            escritura.detener();
+        }
+    }
+
+    // Caso exitoso: varias escrituras del mismo inventario se combinan en un único ajuste
+    @Test
+    void cuandoVariasEscriturasDelMismoInventario_entoncesSeEnviaUnAjusteCombinado() throws Exception {
+        EscrituraDiferidaInventario escritura = crear(100);
+        escritura.registrar(1L, null, null, -2);
+        escritura.registrar(1L, 50, 5, 0);   // El PUT descarta la variación anterior
+        escritura.registrar(1L, null, null, -3);
+        escritura.registrar(2L, null, null, 4);
+        when(dataServiceClient.aplicarAjustesInventario(any(), anyList())).thenReturn(new ResultadoAjustesDTO(2, List.of(), List.of()));
+
+        escritura.volcar();
+
+        List<AjusteInventarioDTO> enviados = capturarEnviados(1).get(0);
+        enviados.sort(Comparator.comparing(AjusteInventarioDTO::getInventarioId));
+        assertEquals(List.of(new AjusteInventarioDTO(1L, 50, 5, -3), new AjusteInventarioDTO(2L, null, null, 4)),
+                enviados);
+        assertEquals(0, escritura.cantidadPendientes());
+        assertEquals(List.of(), segmentosConDatos());
+    }
+
+    // Caso error: si el data-service falla (o no responde después de aplicarlo) el mismo lote se
+    // reenvía con el mismo id antes que lo que llegó mientras tanto
+    @Test
+    void cuandoDataServiceFalla_entoncesElLoteSeReintentaConElMismoId() throws Exception {
+        EscrituraDiferidaInventario escritura = crear(100);
+        escritura.registrar(1L, null, null, -2);
+        when(dataServiceClient.aplicarAjustesInventario(any(), anyList()))
+                .thenThrow(new MicroserviceCommunicationException("caído"))
+                .thenReturn(new ResultadoAjustesDTO(1, List.of(), List.of()));
+
+        escritura.volcar();
+        assertEquals(1, escritura.cantidadPendientes());
+        escritura.registrar(1L, null, null, -1);
+        escritura.volcar();
+
+        List<List<AjusteInventarioDTO>> enviados = capturarEnviados(3);
+        List<String> ids = capturarIds(3);
+        assertEquals(List.of(new AjusteInventarioDTO(1L, null, null, -2)), enviados.get(0));
+        assertEquals(enviados.get(0), enviados.get(1));
+        assertEquals(ids.get(0), ids.get(1));
+        assertEquals(List.of(new AjusteInventarioDTO(1L, null, null, -1)), enviados.get(2));
+        assertNotEquals(ids.get(0), ids.get(2));
+        assertEquals(0, escritura.cantidadPendientes());
+        assertEquals(List.of(), segmentosConDatos());
+    }
+
+    // Caso límite: tras un corte a mitad de volcado sólo se reenvían, con su id, los lotes sin confirmar
+    @Test
+    void cuandoSeReiniciaConUnLoteSinConfirmar_entoncesSoloReenviaEseLote() throws Exception {
+        List<RegistroEscrituras.Lote> lotes;
+        try (RegistroEscrituras registro = new RegistroEscrituras(directorio, false)) {
+            registro.anotar(new RegistroEscrituras.Operacion(1L, null, null, -2));
+            registro.anotar(new RegistroEscrituras.Operacion(2L, null, null, 3));
+            long segmento = registro.rotar();
+            lotes = registro.guardarLotes(segmento, List.of(
+                    List.of(new RegistroEscrituras.Operacion(1L, null, null, -2)),
+                    List.of(new RegistroEscrituras.Operacion(2L, null, null, 3))));
+            registro.confirmarHasta(segmento);
+            registro.confirmarLote(lotes.get(0)); // Corte después de aplicar sólo el primer lote
+        }
+        when(dataServiceClient.aplicarAjustesInventario(any(), anyList())).thenReturn(new ResultadoAjustesDTO(1, List.of(), List.of()));
+
+        EscrituraDiferidaInventario escritura = crear(100);
+
+        verify(dataServiceClient, timeout(2_000)).aplicarAjustesInventario(
+                lotes.get(1).id(), List.of(new AjusteInventarioDTO(2L, null, null, 3)));
+        escritura.volcar();
+        verify(dataServiceClient, times(1)).aplicarAjustesInventario(any(), anyList());
+        assertEquals(0, escritura.cantidadPendientes());
+        assertEquals(List.of(), segmentosConDatos());
+    }
+
+    // Caso límite: tras un corte las escrituras aceptadas se recuperan del registro local
+    @Test
+    void cuandoSeReiniciaSinVolcar_entoncesRecuperaLasEscriturasDelRegistro() throws Exception {
+        EscrituraDiferidaInventario antes = new EscrituraDiferidaInventario(dataServiceClient, true, 100,
+                3_600_000, 100, 50, 4, directorio.toString(), false);
+        antes.iniciar();
+        antes.registrar(7L, 10, null, 0);
+        antes.registrar(7L, null, null, 5);
+        // Corte: no se llama a detener(), lo aceptado sólo está en el registro
+
+        when(dataServiceClient.aplicarAjustesInventario(any(), anyList())).thenReturn(new ResultadoAjustesDTO(1, List.of(), List.of()));
+        crear(100); // Al arrancar encuentra el registro y lo vuelca sin esperar al intervalo
+
+        verify(dataServiceClient, timeout(2_000)).aplicarAjustesInventario(
+                notNull(), eq(List.of(new AjusteInventarioDTO(7L, 10, null, 5))));
+    }
+
+    // Caso exitoso: las escrituras concurrentes se sincronizan en tandas y todas quedan en el registro
+    @Test
+    void cuandoEscriturasConcurrentes_entoncesTodasQuedanAnotadas() throws Exception {
+        EscrituraDiferidaInventario escritura = new EscrituraDiferidaInventario(dataServiceClient, true, 1_000,
+                3_600_000, 100, 50, 4, directorio.toString(), true);
+        escritura.iniciar();
+        try (ExecutorService hilos = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 400; i++) {
+                long inventarioId = i % 10;
+                hilos.submit(() -> escritura.registrar(inventarioId, null, null, 1));
+            }
+        }
+        // Corte: lo aceptado sólo está en el registro
+
+        List<RegistroEscrituras.Operacion> anotadas;
+        try (RegistroEscrituras registro = new RegistroEscrituras(directorio, false)) {
+            anotadas = registro.recuperar();
+        }
+        assertEquals(400, anotadas.size());
+        assertEquals(10, escritura.cantidadPendientes());
+    }
+
+    // Caso error: con el buffer lleno una escritura de otro inventario responde 503 (contrapresión)
+    @Test
+    void cuandoBufferLleno_entoncesRechazaInventariosNuevos() throws Exception {
+        EscrituraDiferidaInventario escritura = crear(2);
+        escritura.registrar(1L, null, null, 1);
+        escritura.registrar(2L, null, null, 1);
+        escritura.registrar(1L, null, null, 1); // Un inventario ya pendiente no ocupa lugar nuevo
+
+        assertThrows(ServicioSobrecargadoException.class, () -> escritura.registrar(3L, null, null, 1));
+        assertEquals(2, escritura.cantidadPendientes());
+    }
+
+    // El volcado periódico queda fuera del test (intervalo de una hora); se invoca volcar() a mano
+    private EscrituraDiferidaInventario crear(int maxPendientes) throws Exception {
+        EscrituraDiferidaInventario escritura = new EscrituraDiferidaInventario(dataServiceClient, true, 1_000,
+                3_600_000, maxPendientes, 20, 4, directorio.toString(), false);
+        escritura.iniciar();
+        creadas.add(escritura);
+        return escritura;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<AjusteInventarioDTO>> capturarEnviados(int veces) {
+        ArgumentCaptor<List<AjusteInventarioDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(dataServiceClient, times(veces)).aplicarAjustesInventario(any(), captor.capture());
+        List<List<AjusteInventarioDTO>> enviados = new ArrayList<>();
+        captor.getAllValues().forEach(lote -> enviados.add(new ArrayList<>(lote)));
+        return enviados;
+    }
+
+    private List<String> capturarIds(int veces) {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(dataServiceClient, times(veces)).aplicarAjustesInventario(captor.capture(), anyList());
+        return captor.getAllValues();
+    }
+
+    private List<Path> segmentosConDatos() throws Exception {
+        try (var archivos = Files.list(directorio)) {
+            return archivos.filter(p -> {
+                try {
+                    return Files.size(p) > 0;
+                } catch (Exception e) {
+                    return false;
+                }
+            }).toList();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.TP6.businessService.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaStockTest {
+
+    // Caso exitoso: por debajo de 1024 los percentiles son exactos
+    @Test
+    void cuandoValoresChicos_entoncesPercentilesExactos() {
+        HistogramaStock histograma = new HistogramaStock();
+        for (int i = 1; i <= 100; i++) {
+            histograma.registrar(i);
+        }
+
+        assertEquals(50, histograma.percentil(50));
+        assertEquals(90, histograma.percentil(90));
+        assertEquals(100, histograma.percentil(100));
+        assertEquals(100, histograma.maximo());
+    }
+
+    // Caso límite: valores grandes con error relativo acotado y máximo exacto
+    @Test
+    void cuandoValoresGrandes_entoncesErrorRelativoAcotado() {
+        HistogramaStock histograma = new HistogramaStock();
+        HistogramaStock otro = new HistogramaStock();
+        histograma.registrar(1_000_000);
+        otro.registrar(Integer.MAX_VALUE);
+        histograma.combinar(otro);
+
+        int p50 = histograma.percentil(50);
+        assertTrue(p50 <= 1_000_000 && p50 > 1_000_000 * (1 - 1.0 / 64), "p50 = " + p50);
+        assertEquals(Integer.MAX_VALUE, histograma.percentil(100));
+        assertEquals(Integer.MAX_VALUE, histograma.maximo());
+    }
+}
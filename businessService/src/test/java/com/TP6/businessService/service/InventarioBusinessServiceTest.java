@@ -1,10 +1,13 @@
 package com.TP6.businessService.service;
 
 import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.AjusteInventarioDTO;
 import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ResultadoAjustesDTO;
 import com.TP6.businessService.exception.InventarioNoEncontradoException;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import com.TP6.businessService.exception.StockInsuficienteException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
 import feign.FeignException;
 import org.junit.jupiter.api.Test;
@@ -16,7 +19,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +32,12 @@ class InventarioBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient; // Mock del cliente Feign
 
+    @Mock
+    private CatalogoReplica catalogoReplica; // Réplica local (no vigente por defecto)
+
+    @Mock
+    private EscrituraDiferidaInventario escrituraDiferida; // Deshabilitada por defecto
+
     @InjectMocks
     private InventarioBusinessService inventarioBusinessService; // Service bajo prueba
 
@@ -34,8 +45,8 @@ class InventarioBusinessServiceTest {
     private InventarioDTO crearInventario(Long id, int cantidad, int stockMinimo) {
         ProductoDTO producto = new ProductoDTO(
                 1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), "Categoría", 10, false
-        );
-        return new InventarioDTO(id, producto, cantidad, stockMinimo, LocalDateTime.now());
+        , null);
+        return new InventarioDTO(id, producto, cantidad, stockMinimo, LocalDateTime.now(), null);
     }
 
     // ------------------- TESTS OBTENER -------------------
@@ -135,6 +146,92 @@ class InventarioBusinessServiceTest {
         });
     }
 
+    // ------------------- TESTS ESCRITURA DIFERIDA Y AJUSTES -------------------
+
+    // Caso exitoso: con escritura diferida el PUT se encola sin llamar al data-service
+    @Test
+    void cuandoActualizarConEscrituraDiferida_entoncesSeEncola() {
+        when(escrituraDiferida.estaHabilitada()).thenReturn(true);
+
+        InventarioDTO resultado = inventarioBusinessService.actualizarInventario(5L, crearInventario(null, 8, 2));
+
+        assertEquals(5L, resultado.getId());
+        assertEquals(8, resultado.getCantidad());
+        verify(escrituraDiferida).registrar(5L, 8, 2, 0);
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    // Caso error: con escritura diferida un PUT con versión se rechaza (el lote no la verifica)
+    @Test
+    void cuandoActualizarConVersionYEscrituraDiferida_entoncesLanzaExcepcion() {
+        when(escrituraDiferida.estaHabilitada()).thenReturn(true);
+        InventarioDTO inventario = crearInventario(null, 8, 2);
+        inventario.setVersion(3L);
+
+        assertThrows(ValidacionNegocioException.class, () -> inventarioBusinessService.actualizarInventario(5L, inventario));
+        verify(escrituraDiferida, never()).registrar(anyLong(), any(), any(), anyLong());
+    }
+
+    // Caso exitoso: con escritura diferida un PATCH de cantidad se encola sin tocar el mínimo
+    @Test
+    void cuandoModificarCantidadConEscrituraDiferida_entoncesSeEncola() {
+        when(escrituraDiferida.estaHabilitada()).thenReturn(true);
+
+        inventarioBusinessService.modificarInventario(5L, Map.of("cantidad", 8));
+
+        verify(escrituraDiferida).registrar(5L, 8, null, 0);
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    // Caso error: con escritura diferida un PATCH que borra el mínimo no tiene equivalente en el registro
+    @Test
+    void cuandoModificarConNullYEscrituraDiferida_entoncesLanzaExcepcion() {
+        when(escrituraDiferida.estaHabilitada()).thenReturn(true);
+        Map<String, Object> cambios = new HashMap<>();
+        cambios.put("stockMinimo", null);
+
+        assertThrows(ValidacionNegocioException.class, () -> inventarioBusinessService.modificarInventario(5L, cambios));
+        verify(escrituraDiferida, never()).registrar(anyLong(), any(), any(), anyLong());
+    }
+
+    // Caso error: el 400 del data-service (campo no modificable) se informa como validación
+    @Test
+    void cuandoModificarYDataServiceResponde400_entoncesLanzaValidacion() {
+        when(dataServiceClient.modificarInventario(5L, Map.of("id", 9)))
+                .thenThrow(FeignException.BadRequest.class);
+
+        assertThrows(ValidacionNegocioException.class,
+                () -> inventarioBusinessService.modificarInventario(5L, Map.of("id", 9)));
+    }
+
+    // Caso exitoso: sin escritura diferida el ajuste se envía como lote de un elemento
+    @Test
+    void cuandoAjustarSinEscrituraDiferida_entoncesEnviaElAjuste() {
+        when(dataServiceClient.aplicarAjustesInventario(null, List.of(new AjusteInventarioDTO(5L, null, null, -3))))
+                .thenReturn(new ResultadoAjustesDTO(1, List.of(), List.of()));
+
+        inventarioBusinessService.ajustarInventario(5L, -3);
+
+        verify(dataServiceClient).aplicarAjustesInventario(null, List.of(new AjusteInventarioDTO(5L, null, null, -3)));
+    }
+
+    // Caso error: ajustar un inventario inexistente o con variación 0
+    @Test
+    void cuandoAjustarInventarioInexistenteOSinVariacion_entoncesLanzaExcepcion() {
+        when(dataServiceClient.aplicarAjustesInventario(isNull(), anyList())).thenReturn(new ResultadoAjustesDTO(0, List.of(99L), List.of()));
+
+        assertThrows(InventarioNoEncontradoException.class, () -> inventarioBusinessService.ajustarInventario(99L, 1));
+        assertThrows(ValidacionNegocioException.class, () -> inventarioBusinessService.ajustarInventario(1L, 0));
+    }
+
+    // Caso error: el ajuste dejaría la cantidad negativa y el data-service lo rechaza
+    @Test
+    void cuandoAjustarSinStockSuficiente_entoncesLanzaStockInsuficiente() {
+        when(dataServiceClient.aplicarAjustesInventario(isNull(), anyList())).thenReturn(new ResultadoAjustesDTO(0, List.of(), List.of(5L)));
+
+        assertThrows(StockInsuficienteException.class, () -> inventarioBusinessService.ajustarInventario(5L, -100));
+    }
+
     // ------------------- TESTS ERRORES GENERALES -------------------
 
     // Caso error: fallo en comunicación con data-service
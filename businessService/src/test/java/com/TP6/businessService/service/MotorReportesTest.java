@@ -0,0 +1,112 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceAsyncClient;
+import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ReporteCatalogoDTO;
+import com.TP6.businessService.exception.MicroserviceCommunicationException;
+import feign.FeignException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MotorReportesTest {
+
+    @Mock
+    private DataServiceAsyncClient dataServiceAsyncClient;
+
+    private MotorReportes motorReportes;
+
+    @BeforeEach
+    void setUp() {
+        // Páginas de 3 productos y tramos de 1 para forzar la división en tareas
+        motorReportes = new MotorReportes(dataServiceAsyncClient, 4, 3, 1,
+                List.of(new BigDecimal("100"), new BigDecimal("10")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        motorReportes.detener();
+    }
+
+    // Caso exitoso: recorre las páginas por id hasta una incompleta y combina los resultados
+    @Test
+    void cuandoGenerarReporte_entoncesRecorreTodasLasPaginas() {
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(0L, 3)).thenReturn(pagina(1, 3));
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(3L, 3)).thenReturn(pagina(4, 5));
+
+        ReporteCatalogoDTO reporte = motorReportes.generarReporteCatalogo(2);
+
+        // Productos 1..5 con precio id * 10 y stock id: valor 10 + 40 + 90 + 160 + 250
+        assertEquals(5, reporte.getTotalProductos());
+        assertEquals(0, new BigDecimal("550").compareTo(reporte.getValorTotal()));
+        assertEquals(2, reporte.getPaginas());
+        assertEquals(List.of(5L, 4L), reporte.getTopPorValor().stream().map(p -> p.getId()).toList());
+        // Los límites se ordenan: [, 10) [10, 100) [100, )
+        assertEquals(List.of(0L, 5L, 0L), reporte.getHistogramaPrecios().stream().map(r -> r.getCantidad()).toList());
+        verify(dataServiceAsyncClient, times(2)).obtenerPaginaDeProductos(anyLong(), anyInt());
+    }
+
+    // Caso exitoso: la página siguiente se pide antes de procesar la actual
+    @Test
+    void cuandoPaginaCompleta_entoncesPideLaSiguienteAntesDeProcesar() {
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(0L, 3)).thenReturn(pagina(1, 3));
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(3L, 3)).thenReturn(pagina(4, 6));
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(6L, 3))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        ReporteCatalogoDTO reporte = motorReportes.generarReporteCatalogo(10);
+
+        assertEquals(6, reporte.getTotalProductos());
+        assertEquals(2, reporte.getPaginas());
+        InOrder orden = inOrder(dataServiceAsyncClient);
+        orden.verify(dataServiceAsyncClient).obtenerPaginaDeProductos(0L, 3);
+        orden.verify(dataServiceAsyncClient).obtenerPaginaDeProductos(3L, 3);
+        orden.verify(dataServiceAsyncClient).obtenerPaginaDeProductos(6L, 3);
+    }
+
+    // Caso límite: catálogo vacío
+    @Test
+    void cuandoCatalogoVacio_entoncesReporteEnCero() {
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(0L, 3))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        ReporteCatalogoDTO reporte = motorReportes.generarReporteCatalogo(10);
+
+        assertEquals(0, reporte.getTotalProductos());
+        assertEquals(0, BigDecimal.ZERO.compareTo(reporte.getValorTotal()));
+        assertTrue(reporte.getTopPorValor().isEmpty());
+        assertEquals(0, reporte.getPercentilesStock().get("p99"));
+    }
+
+    // Caso error: falla de comunicación con el data-service
+    @Test
+    void cuandoFallaDataService_entoncesLanzaMicroserviceCommunicationException() {
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(0L, 3)).thenReturn(pagina(1, 3));
+        when(dataServiceAsyncClient.obtenerPaginaDeProductos(3L, 3))
+                .thenReturn(CompletableFuture.failedFuture(mock(FeignException.class)));
+
+        assertThrows(MicroserviceCommunicationException.class, () -> motorReportes.generarReporteCatalogo(10));
+    }
+
+    private static CompletableFuture<List<ProductoDTO>> pagina(long desde, long hasta) {
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (long id = desde; id <= hasta; id++) {
+            productos.add(new ProductoDTO(id, "Producto " + id, null, BigDecimal.valueOf(id * 10),
+                    "Bebidas", (int) id, false, null));
+        }
+        return CompletableFuture.completedFuture(productos);
+    }
+}
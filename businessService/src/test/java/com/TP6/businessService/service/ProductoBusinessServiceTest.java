@@ -1,8 +1,13 @@
 package com.TP6.businessService.service;
 
+import com.TP6.businessService.client.DataServiceAsyncClient;
 import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.InventarioDTO;
 import com.TP6.businessService.dto.ProductoDTO;
+import com.TP6.businessService.dto.ProductoDetalleDTO;
 import com.TP6.businessService.dto.ProductoRequest;
+import com.TP6.businessService.dto.ResultadoEliminacionDTO;
 import com.TP6.businessService.exception.MicroserviceCommunicationException;
 import com.TP6.businessService.exception.ProductoNoEncontradoException;
 import com.TP6.businessService.exception.ValidacionNegocioException;
@@ -15,7 +20,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +35,12 @@ class ProductoBusinessServiceTest {
     @Mock
     private DataServiceClient dataServiceClient; // Simulamos el cliente Feign (data-service)
 
+    @Mock
+    private CatalogoReplica catalogoReplica; // Réplica local (no vigente por defecto)
+
+    @Mock
+    private DataServiceAsyncClient dataServiceAsyncClient; // Variante asíncrona del cliente
+
     @InjectMocks
     private ProductoBusinessService productoBusinessService; // Inyectamos el mock en el service
 
@@ -36,8 +51,8 @@ class ProductoBusinessServiceTest {
     void cuandoObtenerTodosLosProductos_entoncesRetornaLista() {
         // Arrange → simulamos lista de productos
         List<ProductoDTO> productosEsperados = Arrays.asList(
-                new ProductoDTO(1L, "Producto 1", "Descripción 1", BigDecimal.valueOf(100), "Categoría 1", 10, false),
-                new ProductoDTO(2L, "Producto 2", "Descripción 2", BigDecimal.valueOf(200), "Categoría 2", 5, true)
+                new ProductoDTO(1L, "Producto 1", "Descripción 1", BigDecimal.valueOf(100), "Categoría 1", 10, false, null),
+                new ProductoDTO(2L, "Producto 2", "Descripción 2", BigDecimal.valueOf(200), "Categoría 2", 5, true, null)
         );
         when(dataServiceClient.obtenerTodosLosProductos()).thenReturn(productosEsperados);
 
@@ -51,13 +66,36 @@ class ProductoBusinessServiceTest {
         verify(dataServiceClient).obtenerTodosLosProductos();
     }
 
+    // Caso exitoso: con la réplica vigente la lectura se resuelve localmente sin llamar al data-service
+    @Test
+    void cuandoReplicaVigente_entoncesObtieneProductoLocalmente() {
+        ProductoDTO producto = new ProductoDTO(1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), "Categoría 1", 10, false, null);
+        when(catalogoReplica.estaVigente()).thenReturn(true);
+        when(catalogoReplica.buscarProducto(1L)).thenReturn(Optional.of(producto));
+
+        ProductoDTO resultado = productoBusinessService.obtenerProductoPorId(1L);
+
+        assertEquals("Producto 1", resultado.getNombre());
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    // Caso error: con la réplica vigente un producto ausente lanza ProductoNoEncontradoException
+    @Test
+    void cuandoReplicaVigenteSinProducto_entoncesLanzaExcepcion() {
+        when(catalogoReplica.estaVigente()).thenReturn(true);
+        when(catalogoReplica.buscarProducto(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProductoNoEncontradoException.class, () -> productoBusinessService.obtenerProductoPorId(99L));
+        verifyNoInteractions(dataServiceClient);
+    }
+
     // Caso exitoso: calcular valor total del inventario
     @Test
     void cuandoCalcularValorTotalInventario_entoncesRetornaSumaCorrecta() {
         // Arrange → dos productos con precio y stock
         List<ProductoDTO> productos = Arrays.asList(
-                new ProductoDTO(1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), "Categoría 1", 2, false), // 200
-                new ProductoDTO(2L, "Producto 2", "Descripción", BigDecimal.valueOf(50), "Categoría 2", 3, false)   // 150
+                new ProductoDTO(1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), "Categoría 1", 2, false, null), // 200
+                new ProductoDTO(2L, "Producto 2", "Descripción", BigDecimal.valueOf(50), "Categoría 2", 3, false, null)   // 150
         );
         when(dataServiceClient.obtenerTodosLosProductos()).thenReturn(productos);
 
@@ -121,6 +159,60 @@ class ProductoBusinessServiceTest {
         });
     }
 
+    // Caso exitoso: el detalle compone producto, categoría e inventario
+    @Test
+    void cuandoObtenerDetalleProducto_entoncesComponeProductoCategoriaEInventario() {
+        // Arrange → las tres llamadas asíncronas responden
+        ProductoDTO producto = new ProductoDTO(1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), "Bebidas", null, null, null);
+        CategoriaDTO categoria = new CategoriaDTO(5L, "Bebidas", "Gaseosas y jugos", null);
+        InventarioDTO inventario = new InventarioDTO(7L, producto, 3, 5, null, null);
+        when(dataServiceAsyncClient.obtenerProductoPorId(1L)).thenReturn(CompletableFuture.completedFuture(producto));
+        when(dataServiceAsyncClient.obtenerInventarioPorProducto(1L)).thenReturn(CompletableFuture.completedFuture(inventario));
+        when(dataServiceAsyncClient.obtenerCategoriaPorNombre("Bebidas")).thenReturn(CompletableFuture.completedFuture(categoria));
+
+        // Act
+        ProductoDetalleDTO detalle = productoBusinessService.obtenerDetalleProducto(1L);
+
+        // Assert → el inventario no repite el producto
+        assertEquals("Producto 1", detalle.getProducto().getNombre());
+        assertEquals("Gaseosas y jugos", detalle.getCategoria().getDescripcion());
+        assertEquals(3, detalle.getInventario().getCantidad());
+        assertNull(detalle.getInventario().getProducto());
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    // Caso exitoso: un producto sin inventario devuelve el detalle con inventario nulo
+    @Test
+    void cuandoObtenerDetalleProductoSinInventario_entoncesInventarioNulo() {
+        // Arrange → el inventario responde 404 y el producto no tiene categoría
+        ProductoDTO producto = new ProductoDTO(1L, "Producto 1", "Descripción", BigDecimal.valueOf(100), null, null, null, null);
+        when(dataServiceAsyncClient.obtenerProductoPorId(1L)).thenReturn(CompletableFuture.completedFuture(producto));
+        when(dataServiceAsyncClient.obtenerInventarioPorProducto(1L))
+                .thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+
+        // Act
+        ProductoDetalleDTO detalle = productoBusinessService.obtenerDetalleProducto(1L);
+
+        // Assert
+        assertEquals(1L, detalle.getProducto().getId());
+        assertNull(detalle.getCategoria());
+        assertNull(detalle.getInventario());
+        verify(dataServiceAsyncClient, never()).obtenerCategoriaPorNombre(any());
+    }
+
+    // Caso error: detalle de un producto inexistente lanza ProductoNoEncontradoException
+    @Test
+    void cuandoObtenerDetalleProductoInexistente_entoncesLanzaProductoNoEncontradoException() {
+        // Arrange → producto e inventario responden 404
+        when(dataServiceAsyncClient.obtenerProductoPorId(99L))
+                .thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+        when(dataServiceAsyncClient.obtenerInventarioPorProducto(99L))
+                .thenReturn(CompletableFuture.failedFuture(mock(FeignException.NotFound.class)));
+
+        // Act & Assert
+        assertThrows(ProductoNoEncontradoException.class, () -> productoBusinessService.obtenerDetalleProducto(99L));
+    }
+
     // ------------------- TESTS ERRORES GENERALES -------------------
 
     // Caso error: fallo de comunicación con data-service
@@ -135,4 +227,52 @@ class ProductoBusinessServiceTest {
             productoBusinessService.obtenerTodosLosProductos();
         });
     }
+
+    // ------------------- TESTS MODIFICAR (PATCH) -------------------
+
+    // Caso exitoso: categoriaId se envía como referencia {"id": n}; el resto de los campos, sin cambios
+    @Test
+    void cuandoModificarProducto_entoncesTraduceCategoriaIdAReferencia() {
+        ProductoDTO modificado = new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(120), "Bebidas", 10, false, 4L);
+        when(dataServiceClient.modificarProducto(1L, Map.of("precio", 120, "categoria", Map.of("id", 3))))
+                .thenReturn(modificado);
+
+        ProductoDTO resultado = productoBusinessService.modificarProducto(1L, Map.of("precio", 120, "categoriaId", 3));
+
+        assertEquals(4L, resultado.getVersion());
+    }
+
+    // Caso error: el stock no se modifica desde el PATCH de producto y el precio debe ser positivo
+    @Test
+    void cuandoModificarStockOPrecioInvalido_entoncesLanzaValidacion() {
+        assertThrows(ValidacionNegocioException.class,
+                () -> productoBusinessService.modificarProducto(1L, Map.of("stock", 3)));
+        assertThrows(ValidacionNegocioException.class,
+                () -> productoBusinessService.modificarProducto(1L, Map.of("precio", 0)));
+
+        verifyNoInteractions(dataServiceClient);
+    }
+
+    // ------------------- TESTS ELIMINAR EN BLOQUE -------------------
+
+    // Caso exitoso: los ids se envían en una sola llamada al data-service
+    @Test
+    void cuandoEliminarVariosProductos_entoncesDelegaEnUnaLlamada() {
+        when(dataServiceClient.eliminarProductos(List.of(1L, 2L))).thenReturn(new ResultadoEliminacionDTO(2));
+
+        ResultadoEliminacionDTO resultado = productoBusinessService.eliminarProductos(List.of(1L, 2L));
+
+        assertEquals(2, resultado.getEliminados());
+    }
+
+    // Caso error: sin ids o con más ids que el máximo no se llama al data-service
+    @Test
+    void cuandoEliminarSinIdsODemasiados_entoncesLanzaValidacion() {
+        List<Long> demasiados = Collections.nCopies(ProductoBusinessService.MAX_IDS_ELIMINACION + 1, 1L);
+
+        assertThrows(ValidacionNegocioException.class, () -> productoBusinessService.eliminarProductos(List.of()));
+        assertThrows(ValidacionNegocioException.class, () -> productoBusinessService.eliminarProductos(demasiados));
+
+        verifyNoInteractions(dataServiceClient);
+    }
 }
@@ -0,0 +1,139 @@
+package com.TP6.businessService.service;
+
+import com.TP6.businessService.client.DataServiceClient;
+import com.TP6.businessService.dto.CategoriaDTO;
+import com.TP6.businessService.dto.EventoCambioDTO;
+import com.TP6.businessService.dto.InventarioDTO;
+import com.TP6.businessService.dto.ProductoDTO;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SincronizadorReplicaTest {
+
+    @Mock
+    private DataServiceClient dataServiceClient; // Simulamos el cliente Feign (data-service)
+
+    private CatalogoReplica catalogoReplica;
+    private SincronizadorReplica sincronizador;
+
+    private final ProductoDTO producto =
+            new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(100), "Bebidas", 10, false, null);
+
+    @BeforeEach
+    void setUp() {
+        catalogoReplica = new CatalogoReplica(5000);
+        sincronizador = new SincronizadorReplica(dataServiceClient, catalogoReplica);
+        ReflectionTestUtils.setField(sincronizador, "lote", 500);
+        ReflectionTestUtils.setField(sincronizador, "maxStalenessMs", 5000L);
+
+        // Snapshot inicial tomado en la secuencia 10
+        when(dataServiceClient.obtenerUltimaSecuencia()).thenReturn(10L);
+        when(dataServiceClient.obtenerTodosLosProductos()).thenReturn(List.of(producto));
+        when(dataServiceClient.obtenerTodasLasCategorias()).thenReturn(List.of(new CategoriaDTO(1L, "Bebidas", null, null)));
+        when(dataServiceClient.obtenerTodosLosInventarios()).thenReturn(List.<InventarioDTO>of());
+    }
+
+    private static EventoCambioDTO evento(long secuencia, String entidad, long id, String operacion) {
+        return new EventoCambioDTO(secuencia, entidad, id, operacion, null, secuencia, null);
+    }
+
+    // Caso exitoso: carga el snapshot y sigue el feed desde la secuencia tomada antes del snapshot
+    @Test
+    void cuandoSincronizar_entoncesCargaSnapshotYSigueElFeed() {
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong())).thenReturn(List.of());
+
+        sincronizador.sincronizar();
+
+        assertTrue(catalogoReplica.estaVigente());
+        assertEquals("Coca Cola", catalogoReplica.buscarProducto(1L).orElseThrow().getNombre());
+    }
+
+    // Caso exitoso: un evento de actualización vuelve a leer la entidad
+    @Test
+    void cuandoLlegaEventoDeActualizacion_entoncesRefrescaProducto() {
+        ProductoDTO actualizado = new ProductoDTO(1L, "Coca Cola", "Bebida", BigDecimal.valueOf(150), "Bebidas", 10, false, null);
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong()))
+                .thenReturn(List.of(evento(11, "PRODUCTO", 1L, "ACTUALIZAR")));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(actualizado);
+
+        sincronizador.sincronizar();
+
+        assertEquals(BigDecimal.valueOf(150), catalogoReplica.buscarProducto(1L).orElseThrow().getPrecio());
+    }
+
+    // Caso exitoso: eliminar una categoría elimina sus productos (cascada del data-service)
+    @Test
+    void cuandoSeEliminaCategoria_entoncesEliminaSusProductos() {
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong()))
+                .thenReturn(List.of(evento(11, "CATEGORIA", 1L, "ELIMINAR")));
+
+        sincronizador.sincronizar();
+
+        assertTrue(catalogoReplica.buscarCategoria(1L).isEmpty());
+        assertTrue(catalogoReplica.buscarProducto(1L).isEmpty());
+    }
+
+    // Caso límite: un producto que ya no existe se quita de la réplica
+    @Test
+    void cuandoProductoYaNoExiste_entoncesLoQuita() {
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong()))
+                .thenReturn(List.of(evento(11, "PRODUCTO", 1L, "ACTUALIZAR")));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenThrow(FeignException.NotFound.class);
+
+        sincronizador.sincronizar();
+
+        assertTrue(catalogoReplica.buscarProducto(1L).isEmpty());
+    }
+
+    // Caso error: un hueco en el feed invalida la réplica para forzar un nuevo snapshot
+    @Test
+    void cuandoHayHuecoEnElFeed_entoncesInvalidaReplica() {
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong()))
+                .thenReturn(List.of(evento(15, "PRODUCTO", 1L, "ACTUALIZAR")));
+
+        sincronizador.sincronizar();
+
+        assertFalse(catalogoReplica.estaVigente());
+        verify(dataServiceClient, never()).obtenerProductoPorId(anyLong());
+    }
+
+    // Caso error: si el feed retrocedió (base reiniciada o purgada) se invalida la réplica
+    @Test
+    void cuandoElFeedRetrocede_entoncesInvalidaReplica() {
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong())).thenReturn(List.of());
+        when(dataServiceClient.obtenerUltimaSecuencia()).thenReturn(10L, 3L);
+
+        sincronizador.sincronizar();
+
+        assertFalse(catalogoReplica.estaVigente());
+    }
+
+    // Caso límite: un lote completo deja eventos pendientes, así que no confirma la vigencia
+    @Test
+    void cuandoLlegaUnLoteCompleto_entoncesNoConfirmaVigencia() {
+        CatalogoReplica replica = spy(new CatalogoReplica(5000));
+        SincronizadorReplica conLoteDeUno = new SincronizadorReplica(dataServiceClient, replica);
+        ReflectionTestUtils.setField(conLoteDeUno, "lote", 1);
+        ReflectionTestUtils.setField(conLoteDeUno, "maxStalenessMs", 5000L);
+        when(dataServiceClient.obtenerCambios(eq(10L), anyInt(), anyLong()))
+                .thenReturn(List.of(evento(11, "PRODUCTO", 1L, "ACTUALIZAR")));
+        when(dataServiceClient.obtenerProductoPorId(1L)).thenReturn(producto);
+
+        conLoteDeUno.sincronizar();
+
+        verify(replica, never()).confirmarVigencia(anyLong());
+    }
+}
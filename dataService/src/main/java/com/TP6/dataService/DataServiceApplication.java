@@ -2,9 +2,11 @@ package com.TP6.dataService;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 //import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
+@EnableScheduling
 //@EnableFeignClients
 public class DataServiceApplication {
 
@@ -0,0 +1,36 @@
+package com.TP6.dataService.config;
+
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/consultas?top=10 → formas de consulta más lentas (por p99) desde el arranque
+// DELETE /actuator/consultas → reinicia las estadísticas. Sin seguridad en el actuator el
+// endpoint es de sólo lectura: el DELETE requiere management.endpoint.consultas.access=unrestricted
+@Component
+@Endpoint(id = "consultas", defaultAccess = Access.READ_ONLY)
+public class ConsultasEndpoint {
+
+    private static final int TOP_POR_DEFECTO = 10;
+
+    private final MonitorConsultas monitorConsultas;
+
+    public ConsultasEndpoint(MonitorConsultas monitorConsultas) {
+        this.monitorConsultas = monitorConsultas;
+    }
+
+    @ReadOperation
+    public List<MonitorConsultas.ResumenConsulta> masLentas(@Nullable Integer top) {
+        return monitorConsultas.masLentas(top != null ? top : TOP_POR_DEFECTO);
+    }
+
+    @DeleteOperation
+    public void reiniciar() {
+        monitorConsultas.reiniciar();
+    }
+}
@@ -0,0 +1,123 @@
+package com.TP6.dataService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Ajusta el tamaño máximo de cada pool Hikari (primaria y, si existe, réplica) según la espera
+// para obtener una conexión. En cada intervalo toma la espera media del timer
+// hikaricp.connections.acquire y los hilos en espera:
+// - si hay hilos esperando o la espera media supera el objetivo, crece "paso" conexiones;
+// - si durante "intervalos-para-reducir" intervalos seguidos la espera es despreciable y se usa
+//   a lo sumo la mitad del pool, achica "paso" conexiones.
+// Siempre dentro de [minimo, maximo]. Hikari no cierra de inmediato las conexiones sobrantes al
+// achicar: las retira el housekeeper a medida que quedan ociosas (idle-timeout).
+@Component
+@ConditionalOnProperty(name = "datasource.pool.adaptativo.habilitado", havingValue = "true")
+@Slf4j
+public class ControladorPoolAdaptativo {
+
+    private final List<HikariDataSource> pools;
+    private final MeterRegistry meterRegistry;
+    private final int minimo;
+    private final int maximo;
+    private final int paso;
+    private final double esperaObjetivoMs;
+    private final int intervalosParaReducir;
+    private final Map<String, Estado> estados = new ConcurrentHashMap<>();
+
+    public ControladorPoolAdaptativo(List<HikariDataSource> pools,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${datasource.pool.adaptativo.minimo:5}") int minimo,
+                                     @Value("${datasource.pool.adaptativo.maximo:30}") int maximo,
+                                     @Value("${datasource.pool.adaptativo.paso:2}") int paso,
+                                     @Value("${datasource.pool.adaptativo.espera-objetivo-ms:5}") double esperaObjetivoMs,
+                                     @Value("${datasource.pool.adaptativo.intervalos-para-reducir:10}") int intervalosParaReducir) {
+        if (minimo < 1 || maximo < minimo || paso < 1) {
+            throw new IllegalArgumentException("Límites del pool adaptativo inválidos: minimo=" + minimo
+                    + ", maximo=" + maximo + ", paso=" + paso);
+        }
+        this.pools = pools;
+        this.meterRegistry = meterRegistry;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.paso = paso;
+        this.esperaObjetivoMs = esperaObjetivoMs;
+        this.intervalosParaReducir = intervalosParaReducir;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.pool.adaptativo.intervalo-ms:1000}")
+    public void ajustar() {
+        for (HikariDataSource pool : pools) {
+            ajustar(pool);
+        }
+    }
+
+    void ajustar(HikariDataSource pool) {
+        HikariPoolMXBean estadoPool = pool.getHikariPoolMXBean();
+        if (estadoPool == null) {
+            return; // El pool todavía no se inició (se inicia con la primera conexión)
+        }
+        Estado estado = estados.computeIfAbsent(pool.getPoolName(), nombre -> new Estado());
+        double esperaMs = estado.esperaMediaMs(meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", pool.getPoolName()).timer());
+        int pendientes = estadoPool.getThreadsAwaitingConnection();
+        int activas = estadoPool.getActiveConnections();
+        int actual = pool.getHikariConfigMXBean().getMaximumPoolSize();
+
+        int nuevo = actual;
+        if (pendientes > 0 || esperaMs > esperaObjetivoMs) {
+            estado.intervalosEnCalma = 0;
+            nuevo = Math.min(maximo, actual + paso);
+        } else if (esperaMs < esperaObjetivoMs / 4 && activas * 2 <= actual) {
+            if (++estado.intervalosEnCalma >= intervalosParaReducir) {
+                estado.intervalosEnCalma = 0;
+                nuevo = Math.max(minimo, actual - paso);
+            }
+        } else {
+            estado.intervalosEnCalma = 0;
+        }
+        nuevo = Math.max(minimo, Math.min(maximo, nuevo));
+
+        if (nuevo != actual) {
+            // minimumIdle no puede superar al máximo
+            if (pool.getHikariConfigMXBean().getMinimumIdle() > nuevo) {
+                pool.getHikariConfigMXBean().setMinimumIdle(nuevo);
+            }
+            pool.getHikariConfigMXBean().setMaximumPoolSize(nuevo);
+            log.info("Pool {}: máximo {} -> {} (espera media {} ms, {} hilos esperando, {} activas)",
+                    pool.getPoolName(), actual, nuevo, String.format("%.2f", esperaMs), pendientes, activas);
+        }
+    }
+
+    // Estado por pool: totales del timer en el intervalo anterior e intervalos seguidos en calma
+    private static final class Estado {
+        private long conteoAnterior;
+        private double totalAnteriorMs;
+        private int intervalosEnCalma;
+
+        // Espera media de las conexiones obtenidas desde el intervalo anterior (0 si no hubo)
+        private double esperaMediaMs(Timer timer) {
+            if (timer == null) {
+                return 0;
+            }
+            long conteo = timer.count();
+            double totalMs = timer.totalTime(TimeUnit.MILLISECONDS);
+            double media = conteo > conteoAnterior ? (totalMs - totalAnteriorMs) / (conteo - conteoAnterior) : 0;
+            conteoAnterior = conteo;
+            totalAnteriorMs = totalMs;
+            return media;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.TP6.dataService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Separación lectura/escritura: sólo se activa si se configura datasource.replica.jdbc-url.
+// Sin réplica se usa el DataSource autoconfigurado de Spring Boot.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.jdbc-url")
+public class DataSourceConfig {
+
+    // Pool de la base primaria (spring.datasource.*)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Pool de la réplica de solo lectura (datasource.replica.*, propiedades de Hikari)
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    // DataSource usado por JPA. El proxy lazy demora la obtención de la conexión hasta la
+    // primera sentencia, cuando ya se conoce si la transacción es de solo lectura.
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${datasource.enrutamiento.ventana-lectura-propia-ms:1000}") long ventanaMs) {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(ventanaMs);
+        enrutador.setTargetDataSources(Map.of(
+                EnrutadorDataSource.Destino.PRIMARIA, primaria,
+                EnrutadorDataSource.Destino.REPLICA, replica));
+        enrutador.setDefaultTargetDataSource(primaria);
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+}
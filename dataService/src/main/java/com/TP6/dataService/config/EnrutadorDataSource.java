@@ -0,0 +1,131 @@
+package com.TP6.dataService.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// DataSource que enruta las transacciones de solo lectura a la réplica y el resto a la primaria.
+// Después de confirmar una escritura, las lecturas vuelven a la primaria durante una ventana
+// configurable para no leer datos que la réplica todavía no recibió (read-your-writes).
+// Sólo cuenta como escritura una transacción que ejecutó DML: las de lectura-escritura que no
+// modificaron nada (el publicador del outbox sin eventos, la sincronización del conjunto de
+// stock bajo, el long-poll de /changes) no abren la ventana.
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIA,
+        REPLICA
+    }
+
+    private final long ventanaLecturaPropiaNanos;
+
+    // Momento (System.nanoTime) de la última escritura confirmada
+    private volatile long ultimaEscritura;
+
+    public EnrutadorDataSource(long ventanaLecturaPropiaMs) {
+        this.ventanaLecturaPropiaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaLecturaPropiaMs);
+        this.ultimaEscritura = System.nanoTime() - ventanaLecturaPropiaNanos - 1;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Destino.PRIMARIA;
+        }
+        if (System.nanoTime() - ultimaEscritura <= ventanaLecturaPropiaNanos) {
+            return Destino.PRIMARIA;
+        }
+        return Destino.REPLICA;
+    }
+
+    // La conexión de una transacción de escritura se envuelve para saber si ejecutó DML
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection conexion = super.getConnection();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return conexion;
+        }
+        Escritura escritura = new Escritura();
+        TransactionSynchronizationManager.registerSynchronization(escritura);
+        return proxy(Connection.class, conexion, (objetivo, metodo, args) -> {
+            Object creado = delegar(objetivo, metodo, args);
+            if (creado instanceof Statement sentencia) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                return proxy(tipo(sentencia), sentencia, (s, m, a) -> {
+                    if (esDml(m, a, sql)) {
+                        escritura.ejecutada = true;
+                    }
+                    return delegar(s, m, a);
+                });
+            }
+            return creado;
+        });
+    }
+
+    // executeUpdate/executeBatch son DML; execute, salvo que la sentencia sea un SELECT
+    private static boolean esDml(Method metodo, Object[] args, String sqlPreparado) {
+        String nombre = metodo.getName();
+        if (!nombre.startsWith("execute") || nombre.equals("executeQuery")) {
+            return false;
+        }
+        if (!nombre.equals("execute")) {
+            return true; // executeUpdate, executeLargeUpdate, executeBatch, executeLargeBatch
+        }
+        String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+        return sql == null || !sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    // Marca el fin de la escritura cuando la transacción confirma, si ejecutó DML
+    private final class Escritura implements TransactionSynchronization {
+        private boolean ejecutada;
+
+        @Override
+        public void afterCommit() {
+            if (ejecutada) {
+                ultimaEscritura = System.nanoTime();
+            }
+        }
+    }
+
+    private static Class<? extends Statement> tipo(Statement sentencia) {
+        return sentencia instanceof CallableStatement ? CallableStatement.class
+                : sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> tipo, T objetivo, Manejador manejador) {
+        return (T) Proxy.newProxyInstance(EnrutadorDataSource.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, args) -> {
+                    // unwrap/isWrapperFor llegan al objeto real (p. ej. Hibernate pidiendo el driver)
+                    if (metodo.getName().equals("unwrap") || metodo.getName().equals("isWrapperFor")) {
+                        return delegar(objetivo, metodo, args);
+                    }
+                    return manejador.invocar(objetivo, metodo, args);
+                });
+    }
+
+    private static Object delegar(Object objetivo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(objetivo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Manejador {
+        Object invocar(Object objetivo, Method metodo, Object[] args) throws Throwable;
+    }
+}
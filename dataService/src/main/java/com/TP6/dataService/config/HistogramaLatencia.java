@@ -0,0 +1,79 @@
+package com.TP6.dataService.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma concurrente de latencias en microsegundos, de tamaño fijo: cada potencia de dos se
+// divide en 4 sub-rangos (error relativo del percentil < 25%). Registrar es un incremento
+// atómico sin bloqueos ni objetos nuevos, apto para el camino de cada sentencia.
+final class HistogramaLatencia {
+
+    private static final int SUB_RANGOS = 4;
+    private static final int CUBETAS = 64 * SUB_RANGOS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maximoMicros = new LongAccumulator(Math::max, 0);
+
+    void registrar(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        cubetas.incrementAndGet(indice(micros));
+        cantidad.increment();
+        totalMicros.add(micros);
+        maximoMicros.accumulate(micros);
+    }
+
+    long cantidad() {
+        return cantidad.sum();
+    }
+
+    long totalMicros() {
+        return totalMicros.sum();
+    }
+
+    long maximoMicros() {
+        return maximoMicros.get();
+    }
+
+    // Percentil aproximado (límite superior del sub-rango, acotado por el máximo observado)
+    long percentilMicros(double p) {
+        long total = 0;
+        long[] copia = new long[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rango = Math.max(1, (long) Math.ceil(p / 100 * total));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= rango) {
+                return Math.min(limiteSuperior(i), maximoMicros());
+            }
+        }
+        return maximoMicros();
+    }
+
+    private static int indice(long micros) {
+        if (micros < SUB_RANGOS) {
+            return (int) micros;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(micros);
+        int subRango = (int) (micros >>> (exponente - 2)) & (SUB_RANGOS - 1);
+        return (exponente - 1) * SUB_RANGOS + subRango;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUB_RANGOS) {
+            return indice;
+        }
+        int exponente = indice / SUB_RANGOS + 1;
+        int subRango = indice % SUB_RANGOS;
+        return ((long) (SUB_RANGOS + subRango + 1) << (exponente - 2)) - 1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.TP6.dataService.config;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Proxies JDK sobre DataSource → Connection → Statement que miden cada execute* e informan
+// SQL, duración y parámetros a MonitorConsultas. Sin dependencias externas: los métodos que no
+// ejecutan ni fijan parámetros se delegan tal cual.
+final class JdbcMonitoreado {
+
+    private JdbcMonitoreado() {
+    }
+
+    static DataSource envolver(DataSource dataSource, MonitorConsultas monitor) {
+        return proxy(DataSource.class, dataSource, (objetivo, metodo, args) -> envolverResultado(
+                delegar(objetivo, metodo, args), monitor, null));
+    }
+
+    // Connection y Statement creados desde un objeto envuelto también se envuelven
+    private static Object envolverResultado(Object resultado, MonitorConsultas monitor, String sql) {
+        if (resultado instanceof Connection conexion) {
+            return proxy(Connection.class, conexion, (objetivo, metodo, args) -> {
+                Object creado = delegar(objetivo, metodo, args);
+                boolean conSql = args != null && args.length > 0 && args[0] instanceof String;
+                return envolverResultado(creado, monitor, conSql ? (String) args[0] : null);
+            });
+        }
+        if (resultado instanceof Statement sentencia) {
+            Class<? extends Statement> tipo = resultado instanceof CallableStatement ? CallableStatement.class
+                    : resultado instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return proxy(tipo, sentencia, new Sentencia(monitor, sql));
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> tipo, T objetivo, Manejador manejador) {
+        return (T) Proxy.newProxyInstance(JdbcMonitoreado.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, args) -> {
+                    // unwrap/isWrapperFor llegan al objeto real (p. ej. Hibernate pidiendo el driver)
+                    if (metodo.getName().equals("unwrap") || metodo.getName().equals("isWrapperFor")) {
+                        return delegar(objetivo, metodo, args);
+                    }
+                    return manejador.invocar(objetivo, metodo, args);
+                });
+    }
+
+    private static Object delegar(Object objetivo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(objetivo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Manejador {
+        Object invocar(Object objetivo, Method metodo, Object[] args) throws Throwable;
+    }
+
+    // Estado de una sentencia: su SQL (preparada) y los parámetros fijados hasta el execute
+    private static final class Sentencia implements Manejador {
+        private final MonitorConsultas monitor;
+        private final String sqlPreparado;
+        private Object[] parametros;
+        private int cantidadParametros;
+
+        private Sentencia(MonitorConsultas monitor, String sqlPreparado) {
+            this.monitor = monitor;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invocar(Object objetivo, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sqlPreparado;
+                long inicio = System.nanoTime();
+                try {
+                    return delegar(objetivo, metodo, args);
+                } finally {
+                    if (sql != null) {
+                        monitor.registrar(sql, System.nanoTime() - inicio,
+                                parametros != null ? Arrays.copyOf(parametros, cantidadParametros) : null);
+                    }
+                }
+            }
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                fijarParametro(indice, nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters")) {
+                parametros = null;
+                cantidadParametros = 0;
+            }
+            return delegar(objetivo, metodo, args);
+        }
+
+        private void fijarParametro(int indice, Object valor) {
+            if (indice < 1) {
+                return;
+            }
+            if (parametros == null) {
+                parametros = new Object[Math.max(indice, 8)];
+            } else if (indice > parametros.length) {
+                parametros = Arrays.copyOf(parametros, Math.max(indice, parametros.length * 2));
+            }
+            parametros[indice - 1] = valor;
+            cantidadParametros = Math.max(cantidadParametros, indice);
+        }
+    }
+}
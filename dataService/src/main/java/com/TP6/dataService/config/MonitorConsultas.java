@@ -0,0 +1,148 @@
+package com.TP6.dataService.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Reemplaza show-sql/format_sql: en lugar de imprimir cada sentencia, JdbcMonitoreado informa
+// aquí su duración. Se lleva un histograma de latencia por forma de consulta (SQL normalizado)
+// y un timer de Micrometer por tipo (jdbc.sentencias), y sólo se registran en el log
+// "consultas.lentas", con sus parámetros, las sentencias que superan el umbral y una fracción
+// muestreada del resto. Las formas más lentas se consultan en /actuator/consultas.
+@Component
+public class MonitorConsultas {
+
+    private static final Logger LOG_CONSULTAS = LoggerFactory.getLogger("consultas.lentas");
+    private static final String OTRAS = "(otras formas)";
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern LITERALES = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTAS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final MeterRegistry meterRegistry;
+    private final long umbralNanos;
+    private final double muestreo;
+    private final int maxFormas;
+
+    // SQL tal como lo ejecuta Hibernate (pocos textos distintos) → estadística de su forma
+    private final Map<String, EstadisticaConsulta> porSql = new ConcurrentHashMap<>();
+    private final Map<String, EstadisticaConsulta> porForma = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timersPorTipo = new ConcurrentHashMap<>();
+
+    public MonitorConsultas(MeterRegistry meterRegistry,
+                            @Value("${consultas.monitor.umbral-lenta-ms:200}") long umbralLentaMs,
+                            @Value("${consultas.monitor.muestreo:0}") double muestreo,
+                            @Value("${consultas.monitor.max-formas:500}") int maxFormas) {
+        this.meterRegistry = meterRegistry;
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralLentaMs);
+        this.muestreo = muestreo;
+        this.maxFormas = maxFormas;
+    }
+
+    // Registra una ejecución; parametros puede ser null (Statement sin parámetros)
+    public void registrar(String sql, long nanos, Object[] parametros) {
+        EstadisticaConsulta estadistica = porSql.get(sql);
+        if (estadistica == null) {
+            estadistica = estadisticaDe(sql);
+        }
+        estadistica.histograma.registrar(nanos);
+        estadistica.timer.record(nanos, TimeUnit.NANOSECONDS);
+
+        boolean lenta = nanos >= umbralNanos;
+        if (lenta || (muestreo > 0 && ThreadLocalRandom.current().nextDouble() < muestreo)) {
+            String mensaje = String.format("%.1f ms | %s | parámetros %s", nanos / 1e6, sql,
+                    parametros != null ? Arrays.toString(parametros) : "[]");
+            if (lenta) {
+                LOG_CONSULTAS.warn(mensaje);
+            } else {
+                LOG_CONSULTAS.info(mensaje);
+            }
+        }
+    }
+
+    // Formas de consulta ordenadas de la más lenta (p99) a la más rápida
+    public List<ResumenConsulta> masLentas(int top) {
+        return porForma.entrySet().stream()
+                .map(entrada -> resumir(entrada.getKey(), entrada.getValue().histograma))
+                .filter(resumen -> resumen.ejecuciones() > 0)
+                .sorted(Comparator.comparingDouble(ResumenConsulta::p99Ms)
+                        .thenComparingDouble(ResumenConsulta::totalMs).reversed())
+                .limit(Math.max(0, top))
+                .toList();
+    }
+
+    public void reiniciar() {
+        porSql.clear();
+        porForma.clear();
+    }
+
+    private EstadisticaConsulta estadisticaDe(String sql) {
+        String forma = normalizar(sql);
+        if (porForma.size() >= maxFormas && !porForma.containsKey(forma)) {
+            forma = OTRAS; // Acota la memoria ante SQL dinámico con muchas variantes
+        }
+        String tipo = tipo(forma);
+        EstadisticaConsulta estadistica = porForma.computeIfAbsent(forma, f -> new EstadisticaConsulta(timerDe(tipo)));
+        if (porSql.size() < maxFormas * 4) {
+            porSql.putIfAbsent(sql, estadistica);
+        }
+        return estadistica;
+    }
+
+    private Timer timerDe(String tipo) {
+        return timersPorTipo.computeIfAbsent(tipo, t -> Timer.builder("jdbc.sentencias")
+                .description("Duración de las sentencias JDBC del data-service")
+                .tag("tipo", t)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // Forma de la consulta: espacios colapsados, literales y listas IN reemplazados por '?'
+    static String normalizar(String sql) {
+        String forma = ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+        forma = LITERALES.matcher(forma).replaceAll("?");
+        return LISTAS.matcher(forma).replaceAll("(?...)");
+    }
+
+    private static String tipo(String forma) {
+        int fin = forma.indexOf(' ');
+        String verbo = (fin < 0 ? forma : forma.substring(0, fin)).toLowerCase(Locale.ROOT);
+        return switch (verbo) {
+            case "select", "insert", "update", "delete", "with" -> verbo;
+            default -> "otro";
+        };
+    }
+
+    private static ResumenConsulta resumir(String forma, HistogramaLatencia histograma) {
+        long ejecuciones = histograma.cantidad();
+        double totalMs = histograma.totalMicros() / 1000.0;
+        return new ResumenConsulta(forma, ejecuciones, totalMs,
+                ejecuciones > 0 ? totalMs / ejecuciones : 0,
+                histograma.percentilMicros(50) / 1000.0,
+                histograma.percentilMicros(99) / 1000.0,
+                histograma.maximoMicros() / 1000.0);
+    }
+
+    private record EstadisticaConsulta(Timer timer, HistogramaLatencia histograma) {
+        private EstadisticaConsulta(Timer timer) {
+            this(timer, new HistogramaLatencia());
+        }
+    }
+
+    // Resumen expuesto por /actuator/consultas (tiempos en milisegundos)
+    public record ResumenConsulta(String consulta, long ejecuciones, double totalMs, double mediaMs,
+                                  double p50Ms, double p99Ms, double maximoMs) {
+    }
+}
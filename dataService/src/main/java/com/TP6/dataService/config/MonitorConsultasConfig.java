@@ -0,0 +1,23 @@
+package com.TP6.dataService.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Hibernate obtiene sus conexiones de un DataSource monitoreado (ver JdbcMonitoreado). El bean
+// DataSource no se reemplaza: el pool Hikari sigue expuesto con su tipo para las métricas y
+// para ControladorPoolAdaptativo.
+@Configuration
+@ConditionalOnProperty(name = "consultas.monitor.habilitado", havingValue = "true", matchIfMissing = true)
+public class MonitorConsultasConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer dataSourceMonitoreado(DataSource dataSource, MonitorConsultas monitor) {
+        DataSource monitoreado = JdbcMonitoreado.envolver(dataSource, monitor);
+        return propiedades -> propiedades.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, monitoreado);
+    }
+}
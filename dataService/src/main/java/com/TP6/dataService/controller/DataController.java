@@ -1,15 +1,28 @@
 package com.TP6.dataService.controller;
 
 import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.EventoCambio;
 import com.TP6.dataService.entity.Inventario;
 import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.ResumenCategoria;
+import com.TP6.dataService.service.AjusteInventario;
+import com.TP6.dataService.service.AlertasStockBajo;
 import com.TP6.dataService.service.CategoriaService;
+import com.TP6.dataService.service.DescuentoStock;
 import com.TP6.dataService.service.InventarioService;
 import com.TP6.dataService.service.ProductoService;
+import com.TP6.dataService.service.PublicadorCambios;
+import com.TP6.dataService.service.ResultadoAjustes;
+import com.TP6.dataService.service.ResultadoEliminacion;
+import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,16 +32,28 @@ import java.util.List;
 @Validated
 public class DataController {
 
+    // JSON Merge Patch (RFC 7396). También se acepta application/json con el mismo contenido
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final ProductoService productoService;
     private final CategoriaService categoriaService;
     private final InventarioService inventarioService;
+    private final PublicadorCambios publicadorCambios;
+    private final AlertasStockBajo alertasStockBajo;
+    private final DescuentoStock descuentoStock;
 
     public DataController(ProductoService productoService,
                           CategoriaService categoriaService,
-                          InventarioService inventarioService) {
+                          InventarioService inventarioService,
+                          PublicadorCambios publicadorCambios,
+                          AlertasStockBajo alertasStockBajo,
+                          DescuentoStock descuentoStock) {
         this.productoService = productoService;
         this.categoriaService = categoriaService;
         this.inventarioService = inventarioService;
+        this.publicadorCambios = publicadorCambios;
+        this.alertasStockBajo = alertasStockBajo;
+        this.descuentoStock = descuentoStock;
     }
 
     // ------------------- PRODUCTOS -------------------
@@ -39,6 +64,14 @@ public class DataController {
         return productoService.obtenerTodos();
     }
 
+    // Obtener una página de productos ordenada por id (paginado por clave: 'desdeId' es el id
+    // del último producto de la página anterior; máximo 5000 por página)
+    @GetMapping("/productos/pagina")
+    public List<Producto> obtenerPaginaDeProductos(@RequestParam(defaultValue = "0") Long desdeId,
+                                                  @RequestParam(defaultValue = "1000") Integer limite) {
+        return productoService.buscarPagina(desdeId, limite);
+    }
+
     // Obtener producto por ID
     @GetMapping("/productos/id/{id}")
     public Producto obtenerProductoPorId(@PathVariable Long id) {
@@ -76,6 +109,12 @@ public class DataController {
         return productoService.actualizar(id, producto);
     }
 
+    // Modificar sólo algunos campos de un producto (los ausentes no cambian, null los borra)
+    @PatchMapping(value = "/productos/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public Producto modificarProducto(@PathVariable Long id, @RequestBody JsonNode cambios) {
+        return productoService.modificar(id, cambios);
+    }
+
     // Eliminar un producto por ID
     @DeleteMapping("/productos/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -83,14 +122,17 @@ public class DataController {
         productoService.eliminar(id);
     }
 
+    // Eliminar varios productos por ID (ids=1,2,3) con sus inventarios, en una transacción y
+    // sin cargarlos. Los ids que no existen se ignoran
+    @DeleteMapping(value = "/productos", params = "ids")
+    public ResultadoEliminacion eliminarProductos(@RequestParam List<Long> ids) {
+        return productoService.eliminarVarios(ids);
+    }
+
     // Obtener productos con stock bajo (comparación contra stock mínimo)
     @GetMapping("/productos/stock-bajo")
     public List<Producto> obtenerProductosConStockBajo() {
-        return productoService.obtenerTodos()
-                .stream()
-                .filter(p -> p.getInventario() != null
-                        && p.getInventario().getCantidad() <= p.getInventario().getStockMinimo())
-                .toList();
+        return productoService.buscarConStockBajo();
     }
 
     // ------------------- CATEGORÍAS -------------------
@@ -119,6 +161,20 @@ public class DataController {
         return categoriaService.buscarCategoriasConProductos();
     }
 
+    // Obtener el resumen por categoría: cantidad de productos, unidades, valor del inventario
+    // y productos con stock bajo (agregados precalculados)
+    @GetMapping("/categorias/resumen")
+    public List<ResumenCategoria> obtenerResumenCategorias() {
+        return categoriaService.obtenerResumen();
+    }
+
+    // Recalcular el resumen por categoría desde las tablas (datos cargados por fuera de la
+    // aplicación); al arrancar sólo se calcula si el resumen está vacío
+    @PostMapping("/categorias/resumen/reconstruir")
+    public List<ResumenCategoria> reconstruirResumenCategorias() {
+        return categoriaService.reconstruirResumen();
+    }
+
     // Crear una nueva categoría
     @PostMapping("/categorias")
     @ResponseStatus(HttpStatus.CREATED)
@@ -132,6 +188,12 @@ public class DataController {
         return categoriaService.actualizar(id, categoria);
     }
 
+    // Modificar sólo algunos campos de una categoría
+    @PatchMapping(value = "/categorias/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public Categoria modificarCategoria(@PathVariable Long id, @RequestBody JsonNode cambios) {
+        return categoriaService.modificar(id, cambios);
+    }
+
     // Eliminar una categoría por ID
     @DeleteMapping("/categorias/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -139,6 +201,12 @@ public class DataController {
         categoriaService.eliminar(id);
     }
 
+    // Eliminar todos los productos de una categoría (la categoría queda)
+    @DeleteMapping("/categorias/{id}/productos")
+    public ResultadoEliminacion eliminarProductosDeCategoria(@PathVariable Long id) {
+        return productoService.eliminarPorCategoria(id);
+    }
+
     // ------------------- INVENTARIO -------------------
 
     // Obtener todos los inventarios
@@ -171,6 +239,13 @@ public class DataController {
         return inventarioService.buscarConStockBajo();
     }
 
+    // Suscribirse a las alertas de stock bajo en vivo (Server-Sent Events): un evento
+    // "stock-bajo" cada vez que un inventario entra o sale del reporte
+    @GetMapping(value = "/inventario/stock-bajo/alertas", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirAlertasStockBajo() {
+        return alertasStockBajo.suscribir();
+    }
+
     // Obtener inventarios con stock alto
     @GetMapping("/inventario/stock-alto")
     public List<Inventario> obtenerInventariosConStockAlto() {
@@ -190,10 +265,51 @@ public class DataController {
         return inventarioService.actualizar(id, inventario);
     }
 
+    // Modificar sólo algunos campos de un inventario (por ejemplo, sólo la cantidad)
+    @PatchMapping(value = "/inventario/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public Inventario modificarInventario(@PathVariable Long id, @RequestBody JsonNode cambios) {
+        return inventarioService.modificar(id, cambios);
+    }
+
+    // Aplicar un lote de ajustes de inventario en una sola transacción. Con Idempotency-Key, un
+    // reintento del mismo lote no vuelve a aplicarse
+    @PostMapping("/inventario/ajustes")
+    public ResultadoAjustes aplicarAjustesInventario(
+            @RequestHeader(value = "Idempotency-Key", required = false) String lote,
+            @RequestBody List<@Valid AjusteInventario> ajustes) {
+        return inventarioService.aplicarAjustes(lote, ajustes);
+    }
+
+    // Descontar unidades vendidas. No pasa por InventarioService: el camino de los productos
+    // calientes no debe abrir transacción ni retener conexión (ver DescuentoStock)
+    @PostMapping("/inventario/{id}/descontar")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void descontarInventario(@PathVariable Long id,
+                                    @RequestParam(defaultValue = "1") @Positive Integer cantidad) {
+        descuentoStock.descontar(id, cantidad);
+    }
+
     // Eliminar un inventario por ID
     @DeleteMapping("/inventario/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void eliminarInventario(@PathVariable Long id) {
         inventarioService.eliminar(id);
     }
+
+    // ------------------- CAMBIOS -------------------
+
+    // Obtener los eventos de cambio publicados después de la secuencia 'since' (long-poll:
+    // si no hay cambios la respuesta se retiene hasta que aparezcan o venza el timeout)
+    @GetMapping("/changes")
+    public DeferredResult<List<EventoCambio>> obtenerCambios(@RequestParam(defaultValue = "0") Long since,
+                                                             @RequestParam(defaultValue = "500") Integer limite,
+                                                             @RequestParam(required = false) Long esperaMs) {
+        return publicadorCambios.esperarCambios(since, limite, esperaMs);
+    }
+
+    // Obtener la última secuencia publicada (punto de partida para réplicas que cargan un snapshot)
+    @GetMapping("/changes/ultima-secuencia")
+    public long obtenerUltimaSecuencia() {
+        return publicadorCambios.ultimaSecuencia();
+    }
 }
@@ -1,29 +1,48 @@
 package com.TP6.dataService.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.ArrayList;
 import java.util.List;
 
+// UPDATE sólo de las columnas modificadas (ver Producto)
 @Entity
-@Table(name = "categorias")
+@DynamicUpdate
+@Table(name = "categorias",
+        uniqueConstraints = @UniqueConstraint(name = Categoria.RESTRICCION_NOMBRE, columnNames = "nombre"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Categoria {
+    // Nombre de la restricción única (ver Producto.RESTRICCION_NOMBRE)
+    public static final String RESTRICCION_NOMBRE = "uk_categorias_nombre";
+
+    // Secuencia pooled (ver Producto.id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categorias_seq")
+    @SequenceGenerator(name = "categorias_seq", sequenceName = "categorias_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, length = 100, unique = true)
+    @Column(nullable = false, length = 100)
     private String nombre;
 
     @Column(length = 500)
     private String descripcion;
 
+    // Versión para bloqueo optimista (ver Producto.version)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // RELACIÓN: una categoría -> muchos productos
     // mappedBy apunta al campo 'categoria' en Producto
+    // No se serializa: evita el ciclo Categoria -> Producto -> Categoria y la carga de la colección
+    @JsonIgnore
     @OneToMany(mappedBy = "categoria", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Producto> productos = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.TP6.dataService.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Registro del outbox transaccional: se inserta en la misma transacción que la escritura
+// del catálogo y el publicador le asigna una secuencia cuando lo publica.
+@Entity
+@Table(name = "outbox_eventos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoCambio {
+    // Secuencia pooled (ver Producto.id)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoEntidad entidad;
+
+    @Column(name = "entidad_id", nullable = false)
+    private Long entidadId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoOperacion operacion;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    // Orden de publicación, consecutivo y sin huecos (null mientras el evento está pendiente).
+    // La restricción única evita que dos publicadores concurrentes repitan una secuencia.
+    @Column(unique = true)
+    private Long secuencia;
+
+    @Column(name = "fecha_publicacion")
+    private LocalDateTime fechaPublicacion;
+
+    public EventoCambio(TipoEntidad entidad, Long entidadId, TipoOperacion operacion) {
+        this.entidad = entidad;
+        this.entidadId = entidadId;
+        this.operacion = operacion;
+        this.fechaCreacion = LocalDateTime.now();
+    }
+}
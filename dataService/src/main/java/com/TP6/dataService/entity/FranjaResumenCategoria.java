@@ -0,0 +1,52 @@
+package com.TP6.dataService.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// Parte de los agregados de una categoría: las escrituras suman su diferencia sobre una de las
+// franjas de la categoría en lugar de sobre su fila de categorias_resumen, así no compiten
+// todas por el mismo bloqueo. El resumen es la fila base más la suma de sus franjas.
+@Entity
+@Table(name = "categorias_resumen_franjas")
+@IdClass(FranjaResumenCategoria.Clave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FranjaResumenCategoria {
+    @Id
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Id
+    @Column(name = "franja")
+    private int franja;
+
+    @Column(name = "cantidad_productos", nullable = false)
+    private long cantidadProductos;
+
+    @Column(name = "unidades", nullable = false)
+    private long unidades;
+
+    @Column(name = "valor_inventario", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorInventario;
+
+    @Column(name = "productos_stock_bajo", nullable = false)
+    private long productosStockBajo;
+
+    // Franja vacía (contadores en cero)
+    public FranjaResumenCategoria(Long categoriaId, int franja) {
+        this(categoriaId, franja, 0, 0, BigDecimal.ZERO, 0);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Long categoriaId;
+        private int franja;
+    }
+}
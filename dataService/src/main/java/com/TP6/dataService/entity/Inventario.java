@@ -1,22 +1,32 @@
 package com.TP6.dataService.entity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
+// UPDATE sólo de las columnas modificadas (ver Producto)
 @Entity
-@Table(name = "inventario")
+@DynamicUpdate
+@Table(name = "inventario", indexes = @Index(name = "idx_inventario_stock_bajo", columnList = "stock_bajo"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventario {
+    // Secuencia pooled (ver Producto.id)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventario_seq")
+    @SequenceGenerator(name = "inventario_seq", sequenceName = "inventario_seq", allocationSize = 50)
     private Long id;
 
     // Relación uno a uno con la entidad Producto.
     // Cada producto tiene un inventario asociado.
+    @JsonIgnoreProperties(value = "inventario", allowSetters = true)
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producto_id")
     private Producto producto;
@@ -30,4 +40,34 @@ public class Inventario {
     @Column(name = "fecha_actualizacion")
     @Temporal(TemporalType.TIMESTAMP)
     private LocalDateTime fechaActualizacion;
+
+    // Marca desnormalizada de stock bajo, recalculada en cada INSERT/UPDATE. Está indexada:
+    // el reporte lee sólo las filas marcadas en lugar de evaluar la condición en toda la tabla
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "stock_bajo")
+    private Boolean stockBajo;
+
+    // Unidades reservadas por los contadores en memoria de un producto caliente (DescuentoStock):
+    // siguen contando en cantidad, pero sólo esos contadores pueden venderlas. Sólo la modifican
+    // UPDATE atómicos del repositorio; el guardado de la entidad no la pisa
+    @JsonIgnore
+    @Column(name = "reservado", insertable = false, updatable = false)
+    private Integer reservado;
+
+    // Versión para bloqueo optimista (ver Producto.version)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Criterio de stock bajo: cantidad <= stockMinimo (sin mínimo cuenta como 0)
+    public boolean cumpleStockBajo() {
+        return cantidad != null && cantidad <= (stockMinimo == null ? 0 : stockMinimo);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void marcarStockBajo() {
+        stockBajo = cumpleStockBajo();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.TP6.dataService.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Lote de ajustes de inventario ya aplicado. Se inserta en la misma transacción que los ajustes:
+// un reintento del mismo lote (misma clave) se reconoce y no vuelve a sumar sus variaciones.
+@Entity
+@Table(name = "lotes_ajustes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteAjustes {
+    // Clave que envía el cliente en Idempotency-Key
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Column(name = "fecha_aplicacion", nullable = false)
+    private LocalDateTime fechaAplicacion;
+}
@@ -1,18 +1,31 @@
 package com.TP6.dataService.entity;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
+// Los UPDATE incluyen sólo las columnas modificadas: un PATCH de precio escribe el precio y la
+// versión, no la fila entera
 @Entity
-@Table(name = "productos")
+@DynamicUpdate
+@Table(name = "productos",
+        uniqueConstraints = @UniqueConstraint(name = Producto.RESTRICCION_NOMBRE, columnNames = "nombre"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Producto {
+    // Nombre de la restricción única: el alta inserta directamente y traduce su violación a 409
+    public static final String RESTRICCION_NOMBRE = "uk_productos_nombre";
+
+    // Secuencia con optimizador pooled: reserva bloques de 50 ids por consulta y permite
+    // agrupar los INSERT en batches JDBC (en MySQL Hibernate la emula con una tabla)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+    @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -32,6 +45,15 @@ public class Producto {
 
     // RELACIÓN: un producto -> un inventario
     // mappedBy indica que el dueño es Inventario.producto
+    @JsonIgnoreProperties(value = "producto", allowSetters = true)
     @OneToOne(mappedBy = "producto", cascade = CascadeType.ALL)
     private Inventario inventario;
+
+    // Versión para bloqueo optimista: cada UPDATE la incrementa y exige la leída, así un cliente
+    // que actualiza con una versión vieja recibe 409 en lugar de pisar el cambio ajeno.
+    // En filas anteriores a la columna arranca en 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
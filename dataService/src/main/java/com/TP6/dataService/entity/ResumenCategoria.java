@@ -0,0 +1,40 @@
+package com.TP6.dataService.entity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+// Agregados precalculados por categoría. Se mantienen en la misma transacción que cada
+// escritura de productos e inventarios sumando la diferencia (ver ResumenCategoriaService),
+// así el reporte por categoría no recorre productos ni inventarios. Las diferencias se suman
+// sobre las franjas de la categoría (FranjaResumenCategoria); esta fila guarda la base que fija
+// la reconstrucción y los contadores publicados son la base más la suma de las franjas.
+@Entity
+@Table(name = "categorias_resumen")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCategoria {
+    // Mismo id que la categoría resumida
+    @Id
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Column(nullable = false, length = 100)
+    private String nombre;
+
+    @Column(name = "cantidad_productos", nullable = false)
+    private long cantidadProductos;
+
+    // Suma de las cantidades en inventario de sus productos
+    @Column(name = "unidades", nullable = false)
+    private long unidades;
+
+    // Suma de precio * cantidad de sus productos
+    @Column(name = "valor_inventario", nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorInventario;
+
+    @Column(name = "productos_stock_bajo", nullable = false)
+    private long productosStockBajo;
+}
@@ -0,0 +1,8 @@
+package com.TP6.dataService.entity;
+
+// Entidades del catálogo que generan eventos de cambio
+public enum TipoEntidad {
+    PRODUCTO,
+    CATEGORIA,
+    INVENTARIO
+}
@@ -0,0 +1,8 @@
+package com.TP6.dataService.entity;
+
+// Tipo de operación de escritura registrada en el outbox
+public enum TipoOperacion {
+    CREAR,
+    ACTUALIZAR,
+    ELIMINAR
+}
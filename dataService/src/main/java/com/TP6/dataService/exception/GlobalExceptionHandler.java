@@ -1,5 +1,7 @@
 package com.TP6.dataService.exception;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,19 +12,28 @@ import java.time.LocalDateTime;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Códigos que distinguen las causas de un 409 para quien consume la API
+    public static final String CODIGO_YA_EXISTE = "YA_EXISTE";
+    public static final String CODIGO_STOCK_INSUFICIENTE = "STOCK_INSUFICIENTE";
+    public static final String CODIGO_CONFLICTO_VERSION = "CONFLICTO_VERSION";
+
     // Clase interna para estructurar la respuesta de error
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     static class ErrorResponse {
         private int status;              // Código HTTP de la respuesta
+        private String codigo;           // Causa del error, sólo en los 409
         private String message;          // Mensaje de error
         private LocalDateTime timestamp; // Momento en que ocurrió el error
 
-        public ErrorResponse(int status, String message, LocalDateTime timestamp) {
+        public ErrorResponse(int status, String codigo, String message, LocalDateTime timestamp) {
             this.status = status;
+            this.codigo = codigo;
             this.message = message;
             this.timestamp = timestamp;
         }
 
         public int getStatus() { return status; }
+        public String getCodigo() { return codigo; }
         public String getMessage() { return message; }
         public LocalDateTime getTimestamp() { return timestamp; }
     }
@@ -47,8 +58,34 @@ public class GlobalExceptionHandler {
 
     // Manejo de error: producto o categoría ya existente (409)
     @ExceptionHandler({ProductoYaExisteException.class, CategoriaYaExisteException.class})
-    public ResponseEntity<ErrorResponse> handleConflictos(RuntimeException ex) {
-        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleYaExiste(RuntimeException ex) {
+        return buildResponse(HttpStatus.CONFLICT, CODIGO_YA_EXISTE, ex.getMessage());
+    }
+
+    // Manejo de error: stock insuficiente para el descuento (409)
+    @ExceptionHandler(StockInsuficienteException.class)
+    public ResponseEntity<ErrorResponse> handleStockInsuficiente(StockInsuficienteException ex) {
+        return buildResponse(HttpStatus.CONFLICT, CODIGO_STOCK_INSUFICIENTE, ex.getMessage());
+    }
+
+    // Manejo de error: el cliente envió una versión vieja (409)
+    @ExceptionHandler(ConflictoDeVersionException.class)
+    public ResponseEntity<ErrorResponse> handleConflictoDeVersion(ConflictoDeVersionException ex) {
+        return buildResponse(HttpStatus.CONFLICT, CODIGO_CONFLICTO_VERSION, ex.getMessage());
+    }
+
+    // Manejo de error: cuerpo de un PATCH inválido (campo no modificable, null en un campo
+    // obligatorio o tipo incorrecto) (400)
+    @ExceptionHandler(ParcheInvalidoException.class)
+    public ResponseEntity<ErrorResponse> handleParcheInvalido(ParcheInvalidoException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // Manejo de error: otra transacción modificó la fila entre la lectura y el UPDATE (409)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleModificacionConcurrente(OptimisticLockingFailureException ex) {
+        return buildResponse(HttpStatus.CONFLICT, CODIGO_CONFLICTO_VERSION,
+                "El registro fue modificado por otra operación; vuelva a leerlo");
     }
 
     // Manejo de error genérico (500) → captura cualquier excepción no controlada
@@ -59,8 +96,12 @@ public class GlobalExceptionHandler {
 
     // Método auxiliar para construir la respuesta de error estándar
     private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message) {
+        return buildResponse(status, null, message);
+    }
+
+    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String codigo, String message) {
         return new ResponseEntity<>(
-                new ErrorResponse(status.value(), message, LocalDateTime.now()),
+                new ErrorResponse(status.value(), codigo, message, LocalDateTime.now()),
                 status
         );
     }
@@ -0,0 +1,7 @@
+package com.TP6.dataService.exception;
+
+public class ParcheInvalidoException extends RuntimeException {
+    public ParcheInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,9 @@ package com.TP6.dataService.repository;
 
 import com.TP6.dataService.entity.Categoria;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,7 +15,24 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     // Buscar categoría por nombre exacto
     Optional<Categoria> findByNombre(String nombre);
 
-    // JPQL: categorías que tienen al menos un producto asociado
-    @Query("SELECT c FROM Categoria c WHERE SIZE(c.productos) > 0")
+    // JPQL: categorías que tienen al menos un producto asociado (según el resumen precalculado,
+    // fila base más sus franjas, sin contar los productos de cada categoría)
+    @Query("SELECT c FROM Categoria c JOIN ResumenCategoria r ON r.categoriaId = c.id "
+            + "WHERE r.cantidadProductos + (SELECT COALESCE(SUM(f.cantidadProductos), 0) "
+            + "FROM FranjaResumenCategoria f WHERE f.categoriaId = c.id) > 0 ORDER BY c.id")
     List<Categoria> findCategoriasConProductos();
+
+    // Actualiza en una sola sentencia, verificando existencia y versión a la vez (sin versión
+    // no se verifica). Devuelve 0 si la categoría no existe o cambió desde que se leyó
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Categoria c SET c.nombre = :nombre, c.descripcion = :descripcion, c.version = c.version + 1 "
+            + "WHERE c.id = :id AND (:version IS NULL OR c.version = :version)")
+    int actualizar(@Param("id") Long id, @Param("nombre") String nombre, @Param("descripcion") String descripcion,
+                   @Param("version") Long version);
+
+    // Elimina en una sola sentencia; devuelve 0 si la categoría no existe. Sus productos deben
+    // haberse eliminado antes (ver CategoriaService.eliminar)
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Categoria c WHERE c.id = :id")
+    int eliminar(@Param("id") Long id);
 }
@@ -0,0 +1,34 @@
+package com.TP6.dataService.repository;
+import com.TP6.dataService.entity.EventoCambio;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventoCambioRepository extends JpaRepository<EventoCambio, Long> {
+    // Eventos pendientes de publicar, bloqueados para que otra instancia no los publique dos veces
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EventoCambio e WHERE e.secuencia IS NULL ORDER BY e.id")
+    List<EventoCambio> findPendientes(Pageable pageable);
+
+    // Última secuencia publicada (0 si todavía no hay eventos publicados)
+    @Query("SELECT COALESCE(MAX(e.secuencia), 0) FROM EventoCambio e")
+    long findUltimaSecuencia();
+
+    // Eventos publicados después de una secuencia dada, en orden de publicación
+    List<EventoCambio> findBySecuenciaGreaterThanOrderBySecuenciaAsc(Long secuencia, Pageable pageable);
+
+    // Purga de eventos ya publicados anteriores a una fecha, salvo los de secuencia >= 'conservarDesde'
+    // (el máximo se pasa como parámetro: MySQL no admite una subconsulta sobre la tabla del DELETE)
+    @Modifying
+    @Query("DELETE FROM EventoCambio e WHERE e.secuencia IS NOT NULL AND e.secuencia < :conservarDesde "
+            + "AND e.fechaPublicacion < :limite")
+    int deletePublicadosAntesDe(@Param("limite") LocalDateTime limite, @Param("conservarDesde") long conservarDesde);
+}
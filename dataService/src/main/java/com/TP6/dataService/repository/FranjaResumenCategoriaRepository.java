@@ -0,0 +1,48 @@
+package com.TP6.dataService.repository;
+
+import com.TP6.dataService.entity.FranjaResumenCategoria;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface FranjaResumenCategoriaRepository
+        extends JpaRepository<FranjaResumenCategoria, FranjaResumenCategoria.Clave> {
+
+    // Suma una diferencia sobre una franja del resumen de una categoría en un único UPDATE: la
+    // base serializa sólo las escrituras concurrentes sobre la misma franja
+    @Modifying
+    @Query("UPDATE FranjaResumenCategoria f SET f.cantidadProductos = f.cantidadProductos + :productos, "
+            + "f.unidades = f.unidades + :unidades, "
+            + "f.valorInventario = f.valorInventario + :valor, "
+            + "f.productosStockBajo = f.productosStockBajo + :stockBajo "
+            + "WHERE f.categoriaId = :categoriaId AND f.franja = :franja")
+    int acumular(@Param("categoriaId") Long categoriaId,
+                 @Param("franja") int franja,
+                 @Param("productos") long productos,
+                 @Param("unidades") long unidades,
+                 @Param("valor") BigDecimal valor,
+                 @Param("stockBajo") long stockBajo);
+
+    // Todas las franjas bloqueadas para escritura (reconstrucción del resumen)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FranjaResumenCategoria f")
+    List<FranjaResumenCategoria> findAllParaActualizar();
+
+    // Vuelve a cero las franjas de una categoría
+    @Modifying
+    @Query("UPDATE FranjaResumenCategoria f SET f.cantidadProductos = 0, f.unidades = 0, "
+            + "f.valorInventario = 0, f.productosStockBajo = 0 WHERE f.categoriaId = :categoriaId")
+    int vaciar(@Param("categoriaId") Long categoriaId);
+
+    @Modifying
+    @Query("DELETE FROM FranjaResumenCategoria f WHERE f.categoriaId = :categoriaId")
+    int eliminarDeCategoria(@Param("categoriaId") Long categoriaId);
+}
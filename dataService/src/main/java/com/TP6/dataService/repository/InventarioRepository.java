@@ -1,24 +1,115 @@
 package com.TP6.dataService.repository;
 import com.TP6.dataService.entity.Inventario;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventarioRepository extends JpaRepository<Inventario, Long> {
+    // Las consultas de lectura traen el producto y su categoría en el mismo SELECT
+
+    @Override
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    List<Inventario> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    Optional<Inventario> findById(Long id);
+
+    // Buscar varios inventarios por id en un solo SELECT (lotes de ajustes)
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    List<Inventario> findByIdIn(Collection<Long> ids);
+
     // Buscar inventario por el id del producto
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
     Optional<Inventario> findByProductoId(Long productoId);
 
     // Buscar inventarios por cantidad exacta
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
     List<Inventario> findByCantidad(Integer cantidad);
 
-    // Inventarios con stock bajo (cantidad <= stockMinimo)
-    @Query("SELECT i FROM Inventario i WHERE i.cantidad <= COALESCE(i.stockMinimo, 0)")
+    // Inventarios con stock bajo (cantidad <= stockMinimo), por la marca indexada
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    @Query("SELECT i FROM Inventario i WHERE i.stockBajo = true")
     List<Inventario> findConStockBajo();
 
     // Inventarios con stock alto (cantidad > stockMinimo)
-    @Query("SELECT i FROM Inventario i WHERE i.cantidad > COALESCE(i.stockMinimo, 0)")
+    @EntityGraph(attributePaths = {"producto", "producto.categoria"})
+    @Query("SELECT i FROM Inventario i WHERE i.stockBajo = false")
     List<Inventario> findConStockAlto();
+
+    // Producto de un inventario (para saber si está marcado como caliente)
+    @Query("SELECT i.producto.id FROM Inventario i WHERE i.id = :id")
+    Optional<Long> findProductoIdById(@Param("id") Long id);
+
+    // Unidades libres: las que no están reservadas por contadores en memoria
+    @Query("SELECT i.cantidad - COALESCE(i.reservado, 0) FROM Inventario i WHERE i.id = :id")
+    Optional<Integer> findDisponibleById(@Param("id") Long id);
+
+    // Reserva unidades para los contadores en memoria, sólo si hay suficientes libres
+    @Modifying
+    @Query("UPDATE Inventario i SET i.reservado = COALESCE(i.reservado, 0) + :unidades "
+            + "WHERE i.id = :id AND i.cantidad - COALESCE(i.reservado, 0) >= :unidades")
+    int reservar(@Param("id") Long id, @Param("unidades") int unidades);
+
+    // Descuenta unidades vendidas y libera reservas en un único UPDATE (el bloqueo de fila dura sólo
+    // esta sentencia y su transacción). Con liberadas = 0 exige unidades libres suficientes.
+    // La marca de stock bajo va primero: MySQL evalúa las asignaciones de izquierda a derecha
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Inventario i SET "
+            + "i.stockBajo = CASE WHEN i.cantidad - :vendidas <= COALESCE(i.stockMinimo, 0) THEN true ELSE false END, "
+            + "i.cantidad = i.cantidad - :vendidas, "
+            + "i.reservado = COALESCE(i.reservado, 0) - :liberadas, "
+            + "i.fechaActualizacion = :fecha, i.version = i.version + 1 "
+            + "WHERE i.id = :id AND i.cantidad - COALESCE(i.reservado, 0) + :liberadas >= :vendidas")
+    int descontar(@Param("id") Long id, @Param("vendidas") int vendidas, @Param("liberadas") int liberadas,
+                  @Param("fecha") LocalDateTime fecha);
+
+    // Ids de los productos con stock bajo (carga inicial de ConjuntoStockBajo)
+    @Query("SELECT p.id FROM Inventario i JOIN i.producto p WHERE i.stockBajo = true")
+    List<Long> findProductoIdsConStockBajo();
+
+    // Ids de los productos de los inventarios indicados (sincronización de ConjuntoStockBajo)
+    @Query("SELECT i.producto.id FROM Inventario i WHERE i.id IN :ids AND i.producto IS NOT NULL")
+    List<Long> findProductoIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // De los productos indicados, los que tienen stock bajo
+    @Query("SELECT p.id FROM Inventario i JOIN i.producto p WHERE i.stockBajo = true AND p.id IN :productoIds")
+    List<Long> findProductoIdsConStockBajoIn(@Param("productoIds") Collection<Long> productoIds);
+
+    // Completa la marca de stock bajo en filas anteriores a la columna (ddl-auto: update la agrega nula)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Inventario i SET i.stockBajo = CASE WHEN i.cantidad <= COALESCE(i.stockMinimo, 0) "
+            + "THEN true ELSE false END WHERE i.stockBajo IS NULL")
+    int completarMarcaStockBajo();
+
+    // Inventarios con stock bajo de los productos indicados o de una categoría: los que salen
+    // del reporte cuando se eliminan en bloque
+    @EntityGraph(attributePaths = {"producto"})
+    @Query("SELECT i FROM Inventario i WHERE i.stockBajo = true AND i.producto.id IN :productoIds")
+    List<Inventario> findConStockBajoByProductoIdIn(@Param("productoIds") Collection<Long> productoIds);
+
+    @EntityGraph(attributePaths = {"producto"})
+    @Query("SELECT i FROM Inventario i WHERE i.stockBajo = true AND i.producto.categoria.id = :categoriaId")
+    List<Inventario> findConStockBajoByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    // Elimina los inventarios de los productos de una categoría en una sola sentencia
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Inventario i WHERE i.producto.id IN "
+            + "(SELECT p.id FROM Producto p WHERE p.categoria.id = :categoriaId)")
+    int deleteByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    // Elimina los inventarios de varios productos en una sola sentencia
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Inventario i WHERE i.producto.id IN :productoIds")
+    int deleteByProductoIdIn(@Param("productoIds") Collection<Long> productoIds);
 }
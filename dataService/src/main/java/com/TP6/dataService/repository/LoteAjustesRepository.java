@@ -0,0 +1,18 @@
+package com.TP6.dataService.repository;
+
+import com.TP6.dataService.entity.LoteAjustes;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LoteAjustesRepository extends JpaRepository<LoteAjustes, String> {
+    // Purga de los lotes aplicados antes de una fecha (ya no se esperan reintentos)
+    @Modifying
+    @Query("DELETE FROM LoteAjustes l WHERE l.fechaAplicacion < :limite")
+    int deleteAplicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
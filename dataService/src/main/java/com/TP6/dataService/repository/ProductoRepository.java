@@ -1,23 +1,82 @@
 package com.TP6.dataService.repository;
 import com.TP6.dataService.entity.Producto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
+    // Las consultas de lectura traen categoría e inventario en el mismo SELECT (sin N+1
+    // y sin cargas lazy fuera de la transacción al serializar)
+
+    @Override
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    Optional<Producto> findById(Long id);
+
     // Buscar producto por nombre exacto
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
     Optional<Producto> findByNombre(String nombre);
 
     // Buscar productos por precio exacto (puede haber más de uno con el mismo precio)
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
     List<Producto> findByPrecio(BigDecimal precio);
 
+    // JPQL: productos cuyo inventario tiene la marca de stock bajo
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    @Query("SELECT p FROM Producto p JOIN p.inventario i WHERE i.stockBajo = true ORDER BY p.id")
+    List<Producto> findConStockBajo();
+
+    // Página de productos por clave (keyset): los siguientes a 'id' en orden de id. A diferencia
+    // de OFFSET, el costo no crece con el número de página
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    // Buscar productos por un conjunto de ids (reporte de stock bajo)
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
+    List<Producto> findByIdInOrderByIdAsc(Collection<Long> ids);
+
     // JPQL: Buscar productos por nombre de la categoría
+    @EntityGraph(attributePaths = {"categoria", "inventario"})
     @Query("SELECT p FROM Producto p WHERE p.categoria.nombre = :nombreCategoria")
     List<Producto> findByNombreCategoria(@Param("nombreCategoria") String nombreCategoria);
-}
 
+    // Ids de los productos de una categoría, sin cargar las entidades (eventos de una baja masiva)
+    @Query("SELECT p.id FROM Producto p WHERE p.categoria.id = :categoriaId")
+    List<Long> findIdsByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    // Cuáles de los ids indicados existen (baja masiva por ids)
+    @Query("SELECT p.id FROM Producto p WHERE p.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Elimina los productos de una categoría en una sola sentencia (sus inventarios, antes)
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Producto p WHERE p.categoria.id = :categoriaId")
+    int deleteByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    // Elimina varios productos por id en una sola sentencia (sus inventarios, antes)
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Producto p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Categoría y precio de un producto, sin cargar la entidad (resumen por categoría)
+    @Query("SELECT c.id AS categoriaId, p.precio AS precio FROM Producto p LEFT JOIN p.categoria c WHERE p.id = :id")
+    Optional<CategoriaYPrecio> findCategoriaYPrecioById(@Param("id") Long id);
+
+    interface CategoriaYPrecio {
+        Long getCategoriaId();
+
+        BigDecimal getPrecio();
+    }
+}
@@ -0,0 +1,75 @@
+package com.TP6.dataService.repository;
+
+import com.TP6.dataService.entity.ResumenCategoria;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ResumenCategoriaRepository extends JpaRepository<ResumenCategoria, Long> {
+    // Resumen de todas las categorías ordenado por nombre: cada fila base más la suma de sus franjas
+    @Query("SELECT new com.TP6.dataService.entity.ResumenCategoria(r.categoriaId, r.nombre, "
+            + "r.cantidadProductos + COALESCE(SUM(f.cantidadProductos), 0), "
+            + "r.unidades + COALESCE(SUM(f.unidades), 0), "
+            + "r.valorInventario + COALESCE(SUM(f.valorInventario), 0), "
+            + "r.productosStockBajo + COALESCE(SUM(f.productosStockBajo), 0)) "
+            + "FROM ResumenCategoria r LEFT JOIN FranjaResumenCategoria f ON f.categoriaId = r.categoriaId "
+            + "GROUP BY r.categoriaId, r.nombre, r.cantidadProductos, r.unidades, r.valorInventario, "
+            + "r.productosStockBajo ORDER BY r.nombre")
+    List<ResumenCategoria> findTotalesOrdenadosPorNombre();
+
+    // Resumen de una categoría (fila base más la suma de sus franjas)
+    @Query("SELECT new com.TP6.dataService.entity.ResumenCategoria(r.categoriaId, r.nombre, "
+            + "r.cantidadProductos + COALESCE(SUM(f.cantidadProductos), 0), "
+            + "r.unidades + COALESCE(SUM(f.unidades), 0), "
+            + "r.valorInventario + COALESCE(SUM(f.valorInventario), 0), "
+            + "r.productosStockBajo + COALESCE(SUM(f.productosStockBajo), 0)) "
+            + "FROM ResumenCategoria r LEFT JOIN FranjaResumenCategoria f ON f.categoriaId = r.categoriaId "
+            + "WHERE r.categoriaId = :categoriaId "
+            + "GROUP BY r.categoriaId, r.nombre, r.cantidadProductos, r.unidades, r.valorInventario, "
+            + "r.productosStockBajo")
+    Optional<ResumenCategoria> findTotalById(@Param("categoriaId") Long categoriaId);
+
+    // Todas las filas base bloqueadas para escritura (reconstrucción del resumen)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ResumenCategoria r")
+    List<ResumenCategoria> findAllParaActualizar();
+
+    // Renombra el resumen junto con la categoría
+    @Modifying
+    @Query("UPDATE ResumenCategoria r SET r.nombre = :nombre WHERE r.categoriaId = :categoriaId")
+    int renombrar(@Param("categoriaId") Long categoriaId, @Param("nombre") String nombre);
+
+    // Vuelve a cero la fila base de una categoría que se quedó sin productos
+    @Modifying
+    @Query("UPDATE ResumenCategoria r SET r.cantidadProductos = 0, r.unidades = 0, "
+            + "r.valorInventario = 0, r.productosStockBajo = 0 WHERE r.categoriaId = :categoriaId")
+    int vaciar(@Param("categoriaId") Long categoriaId);
+
+    // Aporte de un conjunto de productos agrupado por categoría (mismas columnas que
+    // calcularDesdeTablas sin el nombre): lo que se descuenta al eliminarlos en bloque
+    @Query("SELECT p.categoria.id, COUNT(p), COALESCE(SUM(i.cantidad), 0), "
+            + "COALESCE(SUM(p.precio * i.cantidad), 0), "
+            + "COALESCE(SUM(CASE WHEN i.cantidad <= COALESCE(i.stockMinimo, 0) THEN 1 ELSE 0 END), 0) "
+            + "FROM Producto p LEFT JOIN p.inventario i "
+            + "WHERE p.id IN :ids AND p.categoria IS NOT NULL GROUP BY p.categoria.id")
+    List<Object[]> calcularAportesDeProductos(@Param("ids") Collection<Long> ids);
+
+    // Agregados calculados desde las tablas (reconstrucción completa del resumen):
+    // id, nombre, productos, unidades, valor y productos con stock bajo por categoría
+    @Query("SELECT c.id, c.nombre, COUNT(p), COALESCE(SUM(i.cantidad), 0), "
+            + "COALESCE(SUM(p.precio * i.cantidad), 0), "
+            + "COALESCE(SUM(CASE WHEN i.cantidad <= COALESCE(i.stockMinimo, 0) THEN 1 ELSE 0 END), 0) "
+            + "FROM Categoria c LEFT JOIN c.productos p LEFT JOIN p.inventario i "
+            + "GROUP BY c.id, c.nombre")
+    List<Object[]> calcularDesdeTablas();
+}
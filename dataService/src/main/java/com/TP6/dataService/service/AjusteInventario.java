@@ -0,0 +1,12 @@
+package com.TP6.dataService.service;
+
+import jakarta.validation.constraints.NotNull;
+
+// Cambio de un inventario dentro de un lote: valores absolutos opcionales (null = sin cambio)
+// seguidos de una variación de la cantidad. Lo envía la escritura diferida del business-service,
+// que acumula varios PUT y ajustes del mismo inventario en una sola entrada.
+public record AjusteInventario(@NotNull Long inventarioId,
+                               Integer cantidad,
+                               Integer stockMinimo,
+                               long delta) {
+}
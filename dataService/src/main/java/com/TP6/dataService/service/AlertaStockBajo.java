@@ -0,0 +1,15 @@
+package com.TP6.dataService.service;
+
+import java.time.LocalDateTime;
+
+// Alerta emitida cuando un inventario cruza su stock mínimo: ENTRA al pasar a
+// cantidad <= stockMinimo, SALE al reponerse o al eliminarse estando en stock bajo.
+public record AlertaStockBajo(Tipo tipo,
+                              Long inventarioId,
+                              Long productoId,
+                              Integer cantidad,
+                              Integer stockMinimo,
+                              LocalDateTime fecha) {
+
+    public enum Tipo { ENTRA, SALE }
+}
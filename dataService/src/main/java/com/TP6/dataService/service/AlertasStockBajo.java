@@ -0,0 +1,133 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Inventario;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Alertas de stock bajo en vivo (Server-Sent Events). Los services de escritura informan el
+// estado anterior y nuevo de cada inventario; si cruzó el mínimo se publica una alerta que
+// se difunde, una vez confirmada la transacción, a todos los suscriptores desde un único hilo.
+// Los suscriptores no generan consultas: sólo reciben lo que detectan las escrituras.
+// No hay reenvío de alertas perdidas: al (re)conectarse, el cliente toma el estado actual
+// de /data/inventario/stock-bajo y desde ahí aplica las alertas.
+@Component
+@Slf4j
+public class AlertasStockBajo {
+
+    static final String EVENTO = "stock-bajo";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final ExecutorService difusor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "alertas-stock-bajo");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public AlertasStockBajo(ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    // Mismo criterio que la marca stock_bajo (ver Inventario.cumpleStockBajo)
+    public static boolean esStockBajo(Inventario inventario) {
+        return inventario != null && inventario.cumpleStockBajo();
+    }
+
+    // Registra el resultado de una escritura sobre un inventario. Publica una alerta sólo si el
+    // inventario cruzó el mínimo; se difunde recién cuando confirma la transacción en curso.
+    public void registrar(Inventario inventario, boolean estabaBajo, boolean quedaBajo) {
+        if (estabaBajo == quedaBajo) {
+            return;
+        }
+        Long productoId = inventario.getProducto() != null ? inventario.getProducto().getId() : null;
+        eventPublisher.publishEvent(new AlertaStockBajo(
+                quedaBajo ? AlertaStockBajo.Tipo.ENTRA : AlertaStockBajo.Tipo.SALE,
+                inventario.getId(), productoId, inventario.getCantidad(), inventario.getStockMinimo(),
+                LocalDateTime.now()));
+    }
+
+    // Alta de un suscriptor; la conexión queda abierta sin timeout (los heartbeats detectan cortes)
+    public SseEmitter suscribir() {
+        SseEmitter emitter = new SseEmitter(0L);
+        agregar(emitter);
+        return emitter;
+    }
+
+    void agregar(SseEmitter emitter) {
+        emitter.onCompletion(() -> suscriptores.remove(emitter));
+        emitter.onTimeout(() -> suscriptores.remove(emitter));
+        emitter.onError(e -> suscriptores.remove(emitter));
+        suscriptores.add(emitter);
+    }
+
+    int cantidadSuscriptores() {
+        return suscriptores.size();
+    }
+
+    // Se ejecuta después del commit: una alerta de una transacción revertida nunca se envía
+    @TransactionalEventListener
+    public void alConfirmar(AlertaStockBajo alerta) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(alerta); // Se serializa una sola vez para todos
+        } catch (JsonProcessingException e) {
+            log.error("No se pudo serializar la alerta de stock bajo {}", alerta, e);
+            return;
+        }
+        // El id se asigna en el hilo difusor: los clientes reciben los ids en orden creciente
+        difusor.execute(() -> {
+            String id = String.valueOf(secuencia.incrementAndGet());
+            enviarATodos(emitter ->
+                    emitter.send(SseEmitter.event().id(id).name(EVENTO).data(json, MediaType.APPLICATION_JSON)));
+        });
+    }
+
+    // Comentario periódico: mantiene viva la conexión a través de proxies y descarta
+    // suscriptores desconectados
+    @Scheduled(fixedDelayString = "${alertas.stock-bajo.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!suscriptores.isEmpty()) {
+            difusor.execute(() -> enviarATodos(emitter -> emitter.send(SseEmitter.event().comment("ping"))));
+        }
+    }
+
+    private void enviarATodos(Envio envio) {
+        for (SseEmitter emitter : suscriptores) {
+            try {
+                envio.enviar(emitter);
+            } catch (IOException | IllegalStateException e) {
+                suscriptores.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        difusor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface Envio {
+        void enviar(SseEmitter emitter) throws IOException;
+    }
+}
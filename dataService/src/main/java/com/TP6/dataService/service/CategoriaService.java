@@ -1,35 +1,61 @@
 package com.TP6.dataService.service;
 
 import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.ResumenCategoria;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
 import com.TP6.dataService.repository.CategoriaRepository;
 import com.TP6.dataService.exception.CategoriaNoEncontradaException;
 import com.TP6.dataService.exception.CategoriaYaExisteException;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
+import com.fasterxml.jackson.databind.JsonNode;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
 public class CategoriaService {
+    // Campos que admite un PATCH de categoría
+    static final Set<String> CAMPOS_PARCHE = Set.of("nombre", "descripcion");
+
     private final CategoriaRepository categoriaRepository;
+    private final ProductoService productoService;
+    private final OutboxService outboxService;
+    private final ResumenCategoriaService resumenCategoriaService;
+    private final ParcheJson parcheJson;
 
-    public CategoriaService(CategoriaRepository categoriaRepository) {
+    public CategoriaService(CategoriaRepository categoriaRepository, ProductoService productoService,
+                            OutboxService outboxService, ResumenCategoriaService resumenCategoriaService,
+                            ParcheJson parcheJson) {
         this.categoriaRepository = categoriaRepository;
+        this.productoService = productoService;
+        this.outboxService = outboxService;
+        this.resumenCategoriaService = resumenCategoriaService;
+        this.parcheJson = parcheJson;
     }
 
     // Guarda una nueva categoría en la base de datos
-    // Valida que no exista previamente por nombre
+    // Inserta directamente: si el nombre ya existe lo rechaza la restricción única (sin consultarlo antes)
     public Categoria guardar(Categoria categoria) {
-        if (categoriaRepository.findByNombre(categoria.getNombre()).isPresent()) {
-            throw new CategoriaYaExisteException("La Categoría " + categoria.getNombre() + " ya existe");
+        Categoria guardada;
+        try {
+            guardada = categoriaRepository.saveAndFlush(categoria);
+        } catch (DataIntegrityViolationException e) {
+            throw traducir(e, categoria.getNombre());
         }
-        return categoriaRepository.save(categoria);
+        outboxService.registrar(TipoEntidad.CATEGORIA, guardada.getId(), TipoOperacion.CREAR);
+        resumenCategoriaService.crear(guardada);
+        return guardada;
     }
 
     // Busca una categoría por su ID
     // Lanza excepción si no la encuentra
+    @Transactional(readOnly = true)
     public Categoria buscarPorId(Long id) {
         return categoriaRepository.findById(id)
                 .orElseThrow(() ->
@@ -38,6 +64,7 @@ public class CategoriaService {
 
     // Busca una categoría por su nombre
     // Lanza excepción si no la encuentra
+    @Transactional(readOnly = true)
     public Categoria buscarPorNombre(String nombre) {
         return categoriaRepository.findByNombre(nombre)
                 .orElseThrow(() ->
@@ -45,31 +72,102 @@ public class CategoriaService {
     }
 
     // Obtiene las categorías junto con sus productos asociados
+    @Transactional(readOnly = true)
     public List<Categoria> buscarCategoriasConProductos() {
         return categoriaRepository.findCategoriasConProductos();
     }
 
+    // Obtiene el resumen precalculado de cada categoría (productos, unidades, valor y stock bajo)
+    @Transactional(readOnly = true)
+    public List<ResumenCategoria> obtenerResumen() {
+        return resumenCategoriaService.obtenerTodos();
+    }
+
+    // Recalcula el resumen desde las tablas (corrección manual)
+    public List<ResumenCategoria> reconstruirResumen() {
+        return resumenCategoriaService.reconstruir();
+    }
+
     // Obtiene todas las categorías de la base de datos
+    @Transactional(readOnly = true)
     public List<Categoria> obtenerTodos() {
         return categoriaRepository.findAll();
     }
 
-    // Actualiza los datos de una categoría existente
-    // Valida que la categoría exista por ID
+    // Actualiza los datos de una categoría existente con un único UPDATE que verifica a la vez
+    // que exista y, si el request trae versión, que nadie la haya modificado desde que se leyó.
+    // Sólo si no se actualizó ninguna fila se consulta cuál de las dos condiciones falló
     public Categoria actualizar(Long id, Categoria categoria) {
-        if (!categoriaRepository.existsById(id)) {
-            throw new CategoriaNoEncontradaException("La Categoría con ID: " + id + " no ha sido encontrada");
+        Long version = categoria.getVersion();
+        int actualizadas;
+        try {
+            actualizadas = categoriaRepository.actualizar(id, categoria.getNombre(), categoria.getDescripcion(), version);
+        } catch (DataIntegrityViolationException e) {
+            throw traducir(e, categoria.getNombre());
+        }
+        if (actualizadas == 0) {
+            if (!categoriaRepository.existsById(id)) {
+                throw new CategoriaNoEncontradaException("La Categoría con ID: " + id + " no ha sido encontrada");
+            }
+            throw new ConflictoDeVersionException("La Categoría con ID: " + id
+                    + " fue modificada por otra operación (versión enviada: " + version + ")");
+        }
+        outboxService.registrar(TipoEntidad.CATEGORIA, id, TipoOperacion.ACTUALIZAR);
+        resumenCategoriaService.renombrar(id, categoria.getNombre());
+        if (version == null) {
+            // Sin versión no se conoce la nueva: se relee la fila
+            return categoriaRepository.findById(id).orElseThrow();
         }
         categoria.setId(id);
-        return categoriaRepository.save(categoria);
+        categoria.setVersion(version + 1);
+        return categoria;
+    }
+
+    // Modifica sólo los campos enviados (JSON Merge Patch): nombre o descripción. El UPDATE
+    // incluye sólo las columnas modificadas y verifica la versión leída
+    public Categoria modificar(Long id, JsonNode parche) {
+        Categoria categoria = categoriaRepository.findById(id)
+                .orElseThrow(() ->
+                        new CategoriaNoEncontradaException("La Categoría con ID: " + id + " no ha sido encontrada"));
+        Long version = parcheJson.version(parche);
+        if (version != null && !version.equals(categoria.getVersion())) {
+            throw new ConflictoDeVersionException("La Categoría con ID: " + id
+                    + " fue modificada por otra operación (versión enviada: " + version + ")");
+        }
+        parcheJson.aplicar(categoria, parche, CAMPOS_PARCHE);
+        parcheJson.requerido(categoria.getNombre(), "nombre");
+        Categoria modificada;
+        try {
+            modificada = categoriaRepository.saveAndFlush(categoria);
+        } catch (DataIntegrityViolationException e) {
+            throw traducir(e, categoria.getNombre());
+        }
+        outboxService.registrar(TipoEntidad.CATEGORIA, id, TipoOperacion.ACTUALIZAR);
+        if (parche.has("nombre")) {
+            resumenCategoriaService.renombrar(id, modificada.getNombre());
+        }
+        return modificada;
     }
 
-    // Elimina una categoría por su ID
+    // Elimina una categoría por su ID junto con sus productos e inventarios: un DELETE por
+    // tabla en orden de dependencias, sin cargar las entidades (ver ProductoService.eliminarDeCategoria).
+    // La cantidad de categorías eliminadas indica si existía (si no, los DELETE previos no afectaron filas)
     // Lanza excepción si la categoría no existe
     public void eliminar(Long id) {
-        if (!categoriaRepository.existsById(id)) {
+        productoService.eliminarDeCategoria(id);
+        if (categoriaRepository.eliminar(id) == 0) {
             throw new CategoriaNoEncontradaException("La Categoría con ID: " + id + " no existe");
         }
-        categoriaRepository.deleteById(id);
+        resumenCategoriaService.eliminar(id);
+        // El evento de la categoría también invalida sus productos
+        outboxService.registrar(TipoEntidad.CATEGORIA, id, TipoOperacion.ELIMINAR);
+    }
+
+    // Un nombre repetido viola la restricción única; cualquier otra violación se propaga
+    private static RuntimeException traducir(DataIntegrityViolationException e, String nombre) {
+        if (RestriccionesUnicas.viola(e, Categoria.RESTRICCION_NOMBRE)) {
+            return new CategoriaYaExisteException("La Categoría " + nombre + " ya existe");
+        }
+        return e;
     }
 }
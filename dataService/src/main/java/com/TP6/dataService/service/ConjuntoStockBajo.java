@@ -0,0 +1,158 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.EventoCambio;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.repository.InventarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Conjunto en memoria, ordenado por id, de los productos con stock bajo. Se carga una vez
+// desde la marca indexada inventario.stock_bajo y luego se mantiene con las alertas de cruce
+// (AlertaStockBajo) de cada escritura confirmada, así el reporte de productos con stock bajo
+// cuesta O(resultado) en lugar de recorrer todo el catálogo.
+// Las alertas son locales a la instancia: las escrituras de otras instancias llegan por el feed
+// del outbox, que se relee cada 'sincronizar-ms' para volver a consultar la marca de los
+// productos afectados. Mientras el conjunto no está cargado (o si el feed se pierde) se consulta
+// la marca directamente.
+@Component
+@Slf4j
+public class ConjuntoStockBajo {
+
+    private final InventarioRepository inventarioRepository;
+    private final OutboxService outboxService;
+    private final NavigableSet<Long> productoIds = new ConcurrentSkipListSet<>();
+    private volatile boolean iniciado;
+    private volatile boolean cargado;
+    private long secuencia; // Último evento del feed ya reflejado en el conjunto
+
+    @Value("${outbox.poller.lote:500}")
+    private int lote;
+
+    public ConjuntoStockBajo(InventarioRepository inventarioRepository, OutboxService outboxService) {
+        this.inventarioRepository = inventarioRepository;
+        this.outboxService = outboxService;
+    }
+
+    // Completa la marca en filas antiguas y carga el conjunto inicial
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        int completadas = inventarioRepository.completarMarcaStockBajo();
+        if (completadas > 0) {
+            log.info("Marca de stock bajo completada en {} inventarios existentes", completadas);
+        }
+        recargar();
+        iniciado = true;
+    }
+
+    // Aplica los cambios publicados desde la última sincronización, incluidos los de otras instancias
+    @Scheduled(fixedDelayString = "${alertas.stock-bajo.sincronizar-ms:1000}")
+    public synchronized void sincronizar() {
+        if (!cargado) {
+            if (iniciado) {
+                recargarSinFallar(); // Se perdió el feed en una sincronización anterior
+            }
+            return;
+        }
+        try {
+            List<EventoCambio> cambios;
+            do {
+                cambios = outboxService.buscarDesde(secuencia, lote);
+                if (!cambios.isEmpty() && cambios.get(0).getSecuencia() > secuencia + 1) {
+                    log.warn("Eventos del outbox purgados antes de sincronizar el conjunto de stock bajo, se recarga");
+                    recargar();
+                    return;
+                }
+                aplicar(cambios);
+            } while (cambios.size() == lote);
+        } catch (RuntimeException e) {
+            // Sin el feed el conjunto puede quedar incompleto: se consulta la marca hasta recargarlo
+            log.warn("No se pudo sincronizar el conjunto de stock bajo: {}", e.getMessage());
+            recargarSinFallar();
+        }
+    }
+
+    // Se aplica después del commit, igual que la difusión de la alerta
+    @TransactionalEventListener
+    public void alConfirmar(AlertaStockBajo alerta) {
+        if (alerta.productoId() == null) {
+            return; // Inventario sin producto: no figura en el reporte de productos
+        }
+        if (alerta.tipo() == AlertaStockBajo.Tipo.ENTRA) {
+            productoIds.add(alerta.productoId());
+        } else {
+            productoIds.remove(alerta.productoId());
+        }
+    }
+
+    // Indica si el conjunto ya refleja la base (hasta entonces se consulta la marca directamente)
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    public NavigableSet<Long> productoIds() {
+        return Collections.unmodifiableNavigableSet(productoIds);
+    }
+
+    // La secuencia se toma antes de leer la marca: los eventos posteriores se vuelven a aplicar
+    // y, como cada uno relee el estado actual, repetirlos no cambia el resultado
+    private synchronized void recargar() {
+        secuencia = outboxService.ultimaSecuencia();
+        List<Long> actuales = inventarioRepository.findProductoIdsConStockBajo();
+        productoIds.retainAll(new HashSet<>(actuales));
+        productoIds.addAll(actuales);
+        cargado = true;
+    }
+
+    private void recargarSinFallar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            cargado = false;
+            log.warn("No se pudo recargar el conjunto de stock bajo, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    // Vuelve a consultar la marca de los productos tocados por los eventos. La baja de una
+    // categoría borra sus productos en bloque y sólo publica el evento de la categoría: como ya no
+    // se puede saber qué productos tenía, se recarga el conjunto (las bajas de categorías son raras)
+    private void aplicar(List<EventoCambio> cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        Set<Long> afectados = new HashSet<>();
+        Set<Long> inventarios = new HashSet<>();
+        for (EventoCambio cambio : cambios) {
+            if (cambio.getEntidad() == TipoEntidad.CATEGORIA && cambio.getOperacion() == TipoOperacion.ELIMINAR) {
+                recargar();
+                return;
+            }
+            if (cambio.getEntidad() == TipoEntidad.PRODUCTO) {
+                afectados.add(cambio.getEntidadId());
+            } else if (cambio.getEntidad() == TipoEntidad.INVENTARIO) {
+                inventarios.add(cambio.getEntidadId());
+            }
+        }
+        if (!inventarios.isEmpty()) {
+            afectados.addAll(inventarioRepository.findProductoIdsByIdIn(inventarios));
+        }
+        if (!afectados.isEmpty()) {
+            List<Long> conStockBajo = inventarioRepository.findProductoIdsConStockBajoIn(afectados);
+            productoIds.removeAll(afectados);
+            productoIds.addAll(conStockBajo);
+        }
+        secuencia = cambios.get(cambios.size() - 1).getSecuencia();
+    }
+}
@@ -0,0 +1,76 @@
+package com.TP6.dataService.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cupo en memoria de un inventario caliente, repartido en franjas que se descuentan con CAS
+// sin bloqueo. Cada franja ocupa su propia línea de caché para que los hilos que venden en
+// franjas distintas no se invaliden entre sí. El cupo sale de unidades reservadas en la base
+// (inventario.reservado): vender de una franja nunca puede exceder lo reservado.
+// Las operaciones de reparto (juntar, depositar) y el campo reservadas se usan bajo el monitor
+// del contador (ver DescuentoStock)
+final class ContadorStock {
+
+    // 8 longs = 64 bytes entre franjas
+    private static final int SEPARACION = 8;
+
+    private final AtomicLongArray celdas;
+    private final int franjas;
+    private final LongAdder vendidas = new LongAdder();
+
+    // Unidades reservadas en la base por este contador y aún no conciliadas
+    // (cupo disponible en las franjas + vendidas sin descontar de la cantidad)
+    long reservadas;
+
+    ContadorStock(int franjas) {
+        this.franjas = Math.max(1, franjas);
+        this.celdas = new AtomicLongArray(this.franjas * SEPARACION);
+    }
+
+    // Intenta tomar unidades del cupo sin bloquear: primero la franja del hilo, luego el resto
+    boolean tomar(int unidades) {
+        int inicio = (int) (Thread.currentThread().threadId() % franjas);
+        for (int i = 0; i < franjas; i++) {
+            int celda = ((inicio + i) % franjas) * SEPARACION;
+            long actual;
+            while ((actual = celdas.get(celda)) >= unidades) {
+                if (celdas.compareAndSet(celda, actual, actual - unidades)) {
+                    vendidas.add(unidades);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Vacía todas las franjas y devuelve el cupo que quedaba
+    long juntar() {
+        long total = 0;
+        for (int i = 0; i < franjas; i++) {
+            total += celdas.getAndSet(i * SEPARACION, 0);
+        }
+        return total;
+    }
+
+    // Reparte cupo en partes iguales entre las franjas
+    void depositar(long unidades) {
+        long parte = unidades / franjas;
+        long resto = unidades % franjas;
+        for (int i = 0; i < franjas; i++) {
+            long suma = parte + (i < resto ? 1 : 0);
+            if (suma > 0) {
+                celdas.addAndGet(i * SEPARACION, suma);
+            }
+        }
+    }
+
+    // Registra una venta cubierta al reponer (juntando franjas y/o con una reserva nueva)
+    void contarVenta(int unidades) {
+        vendidas.add(unidades);
+    }
+
+    // Unidades vendidas desde memoria desde el arranque (métrica; la conciliación usa reservadas)
+    long vendidasTotales() {
+        return vendidas.sum();
+    }
+}
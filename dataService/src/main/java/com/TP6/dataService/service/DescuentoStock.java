@@ -0,0 +1,224 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.exception.InventarioNoEncontradoException;
+import com.TP6.dataService.exception.StockInsuficienteException;
+import com.TP6.dataService.repository.InventarioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Descuento de stock por venta. El camino normal es un único UPDATE condicionado
+// (cantidad libre >= unidades), que bloquea la fila sólo durante esa transacción.
+// Para los productos calientes, donde miles de ventas concurrentes se encolarían en ese
+// bloqueo, las ventas se descuentan de un ContadorStock en memoria: el contador reserva
+// cupos de la base (inventario.reservado) y una tarea periódica concilia lo vendido.
+// Nunca se vende más de lo reservado; si el proceso se cae, lo reservado y no conciliado
+// queda bloqueado hasta que se libere a mano (se vende de menos, nunca de más).
+@Component
+@Slf4j
+public class DescuentoStock {
+
+    private final InventarioRepository inventarioRepository;
+    private final OutboxService outboxService;
+    private final AlertasStockBajo alertasStockBajo;
+    private final ResumenCategoriaService resumenCategoriaService;
+    private final TransactionTemplate transacciones;
+    private final Set<Long> productosCalientes = ConcurrentHashMap.newKeySet();
+    // Por inventario: su contador si es caliente, vacío si usa el bloqueo de fila
+    private final Map<Long, Optional<ContadorStock>> contadores = new ConcurrentHashMap<>();
+    private final int cuota;
+    private final int franjas;
+
+    public DescuentoStock(InventarioRepository inventarioRepository, OutboxService outboxService,
+                          AlertasStockBajo alertasStockBajo, ResumenCategoriaService resumenCategoriaService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${inventario.caliente.productos:}") Set<Long> productosCalientes,
+                          @Value("${inventario.caliente.cuota:100}") int cuota,
+                          @Value("${inventario.caliente.franjas:16}") int franjas) {
+        this.inventarioRepository = inventarioRepository;
+        this.outboxService = outboxService;
+        this.alertasStockBajo = alertasStockBajo;
+        this.resumenCategoriaService = resumenCategoriaService;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.productosCalientes.addAll(productosCalientes);
+        this.cuota = Math.max(1, cuota);
+        this.franjas = franjas;
+    }
+
+    // Marca un producto como caliente: sus próximas ventas pasan por el contador en memoria
+    public void marcarCaliente(Long productoId) {
+        productosCalientes.add(productoId);
+        contadores.values().removeIf(Optional::isEmpty);
+    }
+
+    // Descuenta unidades vendidas. Lanza StockInsuficienteException si no alcanzan
+    public void descontar(Long id, int unidades) {
+        if (unidades <= 0) {
+            throw new IllegalArgumentException("La cantidad a descontar debe ser positiva");
+        }
+        Optional<ContadorStock> contador = contadores.get(id);
+        if (contador == null) {
+            Long productoId = inventarioRepository.findProductoIdById(id)
+                    .orElseThrow(() -> new InventarioNoEncontradoException(
+                            "El Inventario con ID " + id + " no ha sido encontrado"));
+            contador = contadores.computeIfAbsent(id, clave -> productosCalientes.contains(productoId)
+                    ? Optional.of(new ContadorStock(franjas)) : Optional.empty());
+        }
+        if (contador.isEmpty()) {
+            descontarConBloqueo(id, unidades);
+        } else if (!contador.get().tomar(unidades)) {
+            reponerYTomar(id, contador.get(), unidades);
+        }
+    }
+
+    private void descontarConBloqueo(Long id, int unidades) {
+        transacciones.executeWithoutResult(estado -> {
+            if (inventarioRepository.descontar(id, unidades, 0, LocalDateTime.now()) == 0) {
+                if (!inventarioRepository.existsById(id)) {
+                    contadores.remove(id);
+                    throw new InventarioNoEncontradoException("El Inventario con ID " + id + " no ha sido encontrado");
+                }
+                throw new StockInsuficienteException("Stock insuficiente en el Inventario con ID " + id);
+            }
+            publicar(id, unidades);
+        });
+    }
+
+    // El cupo de las franjas no alcanzó: se junta lo que quedaba y, si falta, se reserva
+    // otra cuota en la base. Sólo un hilo por contador repone a la vez
+    private void reponerYTomar(Long id, ContadorStock contador, int unidades) {
+        synchronized (contador) {
+            if (contador.tomar(unidades)) {
+                return; // Otro hilo ya repuso
+            }
+            long juntadas = contador.juntar();
+            long falta = unidades - juntadas;
+            int reservadas = 0;
+            if (falta > 0) {
+                reservadas = transacciones.execute(estado -> {
+                    int disponible = inventarioRepository.findDisponibleById(id).orElse(0);
+                    int pedido = (int) Math.min(Math.max(cuota, falta), disponible);
+                    return pedido >= falta && inventarioRepository.reservar(id, pedido) > 0 ? pedido : 0;
+                });
+                if (reservadas == 0) {
+                    contador.depositar(juntadas);
+                    throw new StockInsuficienteException("Stock insuficiente en el Inventario con ID " + id);
+                }
+                contador.reservadas += reservadas;
+            }
+            contador.depositar(juntadas + reservadas - unidades);
+            contador.contarVenta(unidades);
+        }
+    }
+
+    // Concilia lo vendido en memoria: descuenta de cantidad y de reservado en un UPDATE por
+    // contador. El cupo restante sigue reservado
+    @Scheduled(fixedDelayString = "${inventario.caliente.reconciliar-ms:1000}")
+    public void conciliar() {
+        contadores.forEach((id, contador) -> contador.ifPresent(c -> {
+            try {
+                conciliar(id, c, false);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo conciliar el stock del inventario {}: {}", id, e.getMessage());
+            }
+        }));
+    }
+
+    // Concilia y devuelve a la base todo el cupo reservado del inventario, antes de que
+    // otra escritura fije su cantidad. Si es caliente, las ventas siguientes vuelven a reservar.
+    // Devuelve true si actualizó la fila: el UPDATE vacía el contexto de persistencia y las
+    // entidades leídas antes quedan desasociadas
+    public boolean liberar(Long id) {
+        Optional<ContadorStock> contador = contadores.get(id);
+        return contador != null && contador.isPresent() && conciliar(id, contador.get(), true);
+    }
+
+    // Olvida el contador de un inventario eliminado (su reserva se fue con la fila)
+    public void olvidar(Long id) {
+        contadores.remove(id);
+    }
+
+    // Olvida los contadores de los inventarios que ya no existen, después de una baja en bloque
+    // (no se sabe cuáles de los eliminados eran calientes; los contadores son pocos)
+    public void olvidarEliminados() {
+        contadores.entrySet().removeIf(entrada -> entrada.getValue().isPresent()
+                && !inventarioRepository.existsById(entrada.getKey()));
+    }
+
+    @PreDestroy
+    public void liberarTodo() {
+        contadores.forEach((id, contador) -> contador.ifPresent(c -> {
+            try {
+                conciliar(id, c, true);
+            } catch (RuntimeException e) {
+                log.warn("Reserva del inventario {} sin liberar al detenerse: {}", id, e.getMessage());
+            }
+        }));
+    }
+
+    // Unidades vendidas desde memoria para un inventario (0 si no es caliente)
+    public long vendidasEnMemoria(Long id) {
+        Optional<ContadorStock> contador = contadores.get(id);
+        return contador == null ? 0 : contador.map(ContadorStock::vendidasTotales).orElse(0L);
+    }
+
+    private boolean conciliar(Long id, ContadorStock contador, boolean soltar) {
+        synchronized (contador) {
+            long restantes = contador.juntar();
+            int vendidas = (int) (contador.reservadas - restantes);
+            int liberadas = soltar ? (int) contador.reservadas : vendidas;
+            if (liberadas == 0) {
+                contador.depositar(restantes);
+                return false;
+            }
+            try {
+                transacciones.executeWithoutResult(estado -> {
+                    if (inventarioRepository.descontar(id, vendidas, liberadas, LocalDateTime.now()) == 0) {
+                        throw new IllegalStateException("el inventario no admite el descuento conciliado");
+                    }
+                    if (vendidas > 0) {
+                        publicar(id, vendidas);
+                    }
+                });
+            } catch (RuntimeException e) {
+                contador.depositar(restantes); // La reserva sigue en la base: se reintenta en la próxima
+                if (!inventarioRepository.existsById(id)) {
+                    contadores.remove(id);
+                }
+                throw e;
+            }
+            contador.reservadas -= liberadas;
+            if (!soltar) {
+                contador.depositar(restantes);
+            }
+            return true;
+        }
+    }
+
+    // Los UPDATE masivos no pasan por la entidad: se registran a mano el evento de cambio,
+    // el resumen por categoría y el cruce del stock mínimo
+    private void publicar(Long id, int vendidas) {
+        Inventario actual = inventarioRepository.findById(id).orElseThrow();
+        Inventario anterior = new Inventario();
+        anterior.setProducto(actual.getProducto());
+        anterior.setCantidad(actual.getCantidad() + vendidas);
+        anterior.setStockMinimo(actual.getStockMinimo());
+        outboxService.registrar(TipoEntidad.INVENTARIO, id, TipoOperacion.ACTUALIZAR);
+        resumenCategoriaService.aplicar(resumenCategoriaService.aporteInventario(anterior),
+                resumenCategoriaService.aporteInventario(actual));
+        alertasStockBajo.registrar(actual, AlertasStockBajo.esStockBajo(anterior), AlertasStockBajo.esStockBajo(actual));
+    }
+}
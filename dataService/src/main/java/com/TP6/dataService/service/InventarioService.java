@@ -1,30 +1,79 @@
 package com.TP6.dataService.service;
 
 import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.LoteAjustes;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
 import com.TP6.dataService.exception.InventarioNoEncontradoException;
+import com.TP6.dataService.exception.ProductoNoEncontradoException;
 import com.TP6.dataService.repository.InventarioRepository;
+import com.TP6.dataService.repository.LoteAjustesRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import com.TP6.dataService.service.ResumenCategoriaService.Aporte;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Slf4j
 public class InventarioService {
+    // Campos que admite un PATCH de inventario
+    static final Set<String> CAMPOS_PARCHE = Set.of("cantidad", "stockMinimo", "producto");
+
     private final InventarioRepository inventarioRepository;
+    private final ProductoRepository productoRepository;
+    private final LoteAjustesRepository loteAjustesRepository;
+    private final OutboxService outboxService;
+    private final AlertasStockBajo alertasStockBajo;
+    private final ResumenCategoriaService resumenCategoriaService;
+    private final DescuentoStock descuentoStock;
+    private final ParcheJson parcheJson;
+
+    // Tiempo durante el que se reconoce el reintento de un lote de ajustes ya aplicado
+    @Value("${inventario.ajustes.retencion-horas:168}")
+    private long retencionLotesHoras;
 
-    public InventarioService(InventarioRepository inventarioRepository) {
+    public InventarioService(InventarioRepository inventarioRepository, ProductoRepository productoRepository,
+                             LoteAjustesRepository loteAjustesRepository, OutboxService outboxService,
+                             AlertasStockBajo alertasStockBajo, ResumenCategoriaService resumenCategoriaService,
+                             DescuentoStock descuentoStock, ParcheJson parcheJson) {
         this.inventarioRepository = inventarioRepository;
+        this.productoRepository = productoRepository;
+        this.loteAjustesRepository = loteAjustesRepository;
+        this.outboxService = outboxService;
+        this.alertasStockBajo = alertasStockBajo;
+        this.resumenCategoriaService = resumenCategoriaService;
+        this.descuentoStock = descuentoStock;
+        this.parcheJson = parcheJson;
     }
 
     // Guarda un nuevo inventario en la base de datos
     public Inventario guardar(Inventario inventario) {
-        return inventarioRepository.save(inventario);
+        inventario.setProducto(referenciaProducto(inventario.getProducto()));
+        Inventario guardado = inventarioRepository.save(inventario);
+        outboxService.registrar(TipoEntidad.INVENTARIO, guardado.getId(), TipoOperacion.CREAR);
+        resumenCategoriaService.aplicar(Aporte.NINGUNO, resumenCategoriaService.aporteInventario(guardado));
+        alertasStockBajo.registrar(guardado, false, AlertasStockBajo.esStockBajo(guardado));
+        return guardado;
     }
 
     // Busca un inventario por su ID
     // Lanza excepción si no existe
+    @Transactional(readOnly = true)
     public Inventario buscarPorId(Long id) {
         return inventarioRepository.findById(id)
                 .orElseThrow(() ->
@@ -33,6 +82,7 @@ public class InventarioService {
 
     // Busca el inventario asociado a un producto por su ID
     // Lanza excepción si no se encuentra
+    @Transactional(readOnly = true)
     public Inventario buscarPorProducto(Long productoId) {
         return inventarioRepository.findByProductoId(productoId)
                 .orElseThrow(() ->
@@ -40,42 +90,178 @@ public class InventarioService {
     }
 
     // Devuelve todos los inventarios que tienen una cantidad exacta
+    @Transactional(readOnly = true)
     public List<Inventario> buscarPorCantidad(Integer cantidad) {
         return inventarioRepository.findByCantidad(cantidad);
     }
 
     // Devuelve inventarios con stock menor o igual al stock mínimo configurado
+    @Transactional(readOnly = true)
     public List<Inventario> buscarConStockBajo() {
         return inventarioRepository.findConStockBajo();
     }
 
     // Devuelve inventarios con stock mayor al stock mínimo configurado
+    @Transactional(readOnly = true)
     public List<Inventario> buscarConStockAlto() {
         return inventarioRepository.findConStockAlto();
     }
 
     // Devuelve todos los inventarios registrados
+    @Transactional(readOnly = true)
     public List<Inventario> obtenerTodos() {
         return inventarioRepository.findAll();
     }
 
     // Actualiza un inventario existente
-    // Valida que exista por ID y actualiza la fecha de modificación
+    // Valida que exista por ID, que la versión enviada (si la hay) sea la vigente, y actualiza la
+    // fecha de modificación. Los cambios se copian sobre la entidad leída: el UPDATE verifica la
+    // versión (ver ProductoService.actualizar)
+    // Compara contra el estado anterior para detectar si cruzó el stock mínimo
+    // Si el inventario es caliente, primero concilia y libera lo reservado en memoria
     public Inventario actualizar(Long id, Inventario inventario) {
-        if (!inventarioRepository.existsById(id)) {
-            throw new InventarioNoEncontradoException("El Inventario con ID " + id + " no ha sido encontrado");
+        descuentoStock.liberar(id);
+        Inventario anterior = inventarioRepository.findById(id)
+                .orElseThrow(() ->
+                        new InventarioNoEncontradoException("El Inventario con ID " + id + " no ha sido encontrado"));
+        verificarVersion(anterior, inventario.getVersion());
+        boolean estabaBajo = AlertasStockBajo.esStockBajo(anterior);
+        Aporte aporteAnterior = resumenCategoriaService.aporteInventario(anterior);
+        if (inventario.getProducto() != null) {
+            anterior.setProducto(referenciaProducto(inventario.getProducto()));
         }
-        inventario.setId(id);
+        anterior.setCantidad(inventario.getCantidad());
+        anterior.setStockMinimo(inventario.getStockMinimo());
+        anterior.setFechaActualizacion(LocalDateTime.now());
+        Inventario actualizado = inventarioRepository.save(anterior);
+        outboxService.registrar(TipoEntidad.INVENTARIO, id, TipoOperacion.ACTUALIZAR);
+        resumenCategoriaService.aplicar(aporteAnterior, resumenCategoriaService.aporteInventario(actualizado));
+        alertasStockBajo.registrar(actualizado, estabaBajo, AlertasStockBajo.esStockBajo(actualizado));
+        return actualizado;
+    }
+
+    // Modifica sólo los campos enviados (JSON Merge Patch): cantidad, stock mínimo o producto
+    // ({"id": n} o null). Como actualizar, libera antes lo reservado en memoria y compara
+    // contra el estado anterior; el UPDATE incluye sólo las columnas modificadas y la versión
+    public Inventario modificar(Long id, JsonNode parche) {
+        descuentoStock.liberar(id);
+        Inventario inventario = inventarioRepository.findById(id)
+                .orElseThrow(() ->
+                        new InventarioNoEncontradoException("El Inventario con ID " + id + " no ha sido encontrado"));
+        verificarVersion(inventario, parcheJson.version(parche));
+        boolean estabaBajo = AlertasStockBajo.esStockBajo(inventario);
+        Aporte aporteAnterior = resumenCategoriaService.aporteInventario(inventario);
+        // El producto se resuelve antes de aplicar el parche (ver ProductoService.modificar)
+        Producto producto = inventario.getProducto();
+        if (parche.has("producto")) {
+            Long productoId = parcheJson.idRelacion(parche, "producto");
+            producto = productoId == null ? null : referenciaProducto(productoId);
+        }
+        parcheJson.aplicar(inventario, parche, CAMPOS_PARCHE);
+        parcheJson.requerido(inventario.getCantidad(), "cantidad");
+        inventario.setProducto(producto);
         inventario.setFechaActualizacion(LocalDateTime.now());
-        return inventarioRepository.save(inventario);
+        Inventario modificado = inventarioRepository.save(inventario);
+        outboxService.registrar(TipoEntidad.INVENTARIO, id, TipoOperacion.ACTUALIZAR);
+        resumenCategoriaService.aplicar(aporteAnterior, resumenCategoriaService.aporteInventario(modificado));
+        alertasStockBajo.registrar(modificado, estabaBajo, AlertasStockBajo.esStockBajo(modificado));
+        return modificado;
+    }
+
+    // La versión enviada (si la hay) debe ser la vigente
+    private static void verificarVersion(Inventario inventario, Long version) {
+        if (version != null && !version.equals(inventario.getVersion())) {
+            throw new ConflictoDeVersionException("El Inventario con ID " + inventario.getId()
+                    + " fue modificado por otra operación (versión enviada: " + version + ")");
+        }
+    }
+
+    // El producto suele llegar sólo con su id: referencia a la fila (ver ProductoService.referenciaCategoria)
+    private Producto referenciaProducto(Producto producto) {
+        if (producto == null || producto.getId() == null) {
+            return producto;
+        }
+        return referenciaProducto(producto.getId());
+    }
+
+    // Un id inexistente se informa como 404 en lugar de fallar en el flush (ver ProductoService)
+    private Producto referenciaProducto(Long productoId) {
+        if (!productoRepository.existsById(productoId)) {
+            throw new ProductoNoEncontradoException("El Producto con ID: " + productoId + " no ha sido encontrado");
+        }
+        return productoRepository.getReferenceById(productoId);
+    }
+
+    // Aplica un lote de ajustes en una transacción: un SELECT para todas las filas y UPDATEs
+    // agrupados en batches JDBC al hacer flush. Los inventarios inexistentes se informan sin
+    // abortar el lote. Un ajuste que dejaría la cantidad negativa no se aplica (ni sus valores
+    // absolutos) y se informa en sinStock: recortarlo a 0 perdería unidades sin avisar.
+    // Con clave de lote, el lote se registra en la misma transacción: si ya se había aplicado
+    // (reintento tras un timeout o al recuperar el registro del cliente) no se aplica de nuevo.
+    // Dos envíos simultáneos del mismo lote chocan en la clave primaria y el segundo falla.
+    public ResultadoAjustes aplicarAjustes(String lote, List<AjusteInventario> ajustes) {
+        if (lote != null) {
+            if (loteAjustesRepository.existsById(lote)) {
+                log.info("Lote de ajustes {} ya aplicado, se ignora el reintento", lote);
+                return new ResultadoAjustes(0, List.of(), List.of());
+            }
+            loteAjustesRepository.saveAndFlush(new LoteAjustes(lote, LocalDateTime.now()));
+        }
+        ajustes.forEach(ajuste -> descuentoStock.liberar(ajuste.inventarioId()));
+        Map<Long, Inventario> inventarios = inventarioRepository.findByIdIn(
+                        ajustes.stream().map(AjusteInventario::inventarioId).toList()).stream()
+                .collect(Collectors.toMap(Inventario::getId, Function.identity()));
+        List<Long> noEncontrados = new ArrayList<>();
+        List<Long> sinStock = new ArrayList<>();
+        int aplicados = 0;
+        LocalDateTime ahora = LocalDateTime.now();
+        for (AjusteInventario ajuste : ajustes) {
+            Inventario inventario = inventarios.get(ajuste.inventarioId());
+            if (inventario == null) {
+                noEncontrados.add(ajuste.inventarioId());
+                continue;
+            }
+            long cantidad = (ajuste.cantidad() != null ? ajuste.cantidad() : inventario.getCantidad()) + ajuste.delta();
+            if (cantidad < 0) {
+                sinStock.add(ajuste.inventarioId());
+                continue;
+            }
+            boolean estabaBajo = AlertasStockBajo.esStockBajo(inventario);
+            Aporte aporteAnterior = resumenCategoriaService.aporteInventario(inventario);
+            inventario.setCantidad((int) Math.min(Integer.MAX_VALUE, cantidad));
+            if (ajuste.stockMinimo() != null) {
+                inventario.setStockMinimo(ajuste.stockMinimo());
+            }
+            inventario.setFechaActualizacion(ahora);
+            outboxService.registrar(TipoEntidad.INVENTARIO, inventario.getId(), TipoOperacion.ACTUALIZAR);
+            resumenCategoriaService.aplicar(aporteAnterior, resumenCategoriaService.aporteInventario(inventario));
+            alertasStockBajo.registrar(inventario, estabaBajo, AlertasStockBajo.esStockBajo(inventario));
+            aplicados++;
+        }
+        return new ResultadoAjustes(aplicados, noEncontrados, sinStock);
+    }
+
+    // Purga las claves de los lotes aplicados que superaron la retención
+    @Scheduled(fixedDelayString = "${inventario.ajustes.purga-intervalo-ms:3600000}")
+    public void purgarLotesAplicados() {
+        int eliminados = loteAjustesRepository.deleteAplicadosAntesDe(LocalDateTime.now().minusHours(retencionLotesHoras));
+        if (eliminados > 0) {
+            log.info("Lotes de ajustes purgados: {}", eliminados);
+        }
     }
 
     // Elimina un inventario existente por su ID
     // Lanza excepción si no existe
     public void eliminar(Long id) {
-        if (!inventarioRepository.existsById(id)) {
-            throw new InventarioNoEncontradoException("El Inventario con ID " + id + " no existe");
-        }
-        inventarioRepository.deleteById(id);
+        Inventario anterior = inventarioRepository.findById(id)
+                .orElseThrow(() -> new InventarioNoEncontradoException("El Inventario con ID " + id + " no existe"));
+        boolean estabaBajo = AlertasStockBajo.esStockBajo(anterior);
+        Aporte aporteAnterior = resumenCategoriaService.aporteInventario(anterior);
+        // Se borra la entidad ya leída (deleteById volvería a buscarla)
+        inventarioRepository.delete(anterior);
+        descuentoStock.olvidar(id);
+        outboxService.registrar(TipoEntidad.INVENTARIO, id, TipoOperacion.ELIMINAR);
+        resumenCategoriaService.aplicar(aporteAnterior, Aporte.NINGUNO);
+        alertasStockBajo.registrar(anterior, estabaBajo, false);
     }
 }
@@ -0,0 +1,74 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.EventoCambio;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.repository.EventoCambioRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Transactional
+public class OutboxService {
+    private final EventoCambioRepository eventoCambioRepository;
+
+    public OutboxService(EventoCambioRepository eventoCambioRepository) {
+        this.eventoCambioRepository = eventoCambioRepository;
+    }
+
+    // Registra un evento de cambio en el outbox
+    // Exige una transacción activa: el evento se confirma o se descarta junto con la escritura
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEntidad entidad, Long entidadId, TipoOperacion operacion) {
+        eventoCambioRepository.save(new EventoCambio(entidad, entidadId, operacion));
+    }
+
+    // Registra el mismo cambio para varias entidades (bajas en bloque). Los INSERT se envían
+    // en batches JDBC y los ids salen de la secuencia pooled
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVarios(TipoEntidad entidad, Collection<Long> entidadIds, TipoOperacion operacion) {
+        eventoCambioRepository.saveAll(entidadIds.stream()
+                .map(id -> new EventoCambio(entidad, id, operacion))
+                .toList());
+    }
+
+    // Asigna secuencias consecutivas a los eventos pendientes, en orden de inserción
+    // Devuelve la cantidad de eventos publicados
+    public int publicarPendientes(int lote) {
+        List<EventoCambio> pendientes = eventoCambioRepository.findPendientes(PageRequest.of(0, lote));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        long secuencia = eventoCambioRepository.findUltimaSecuencia();
+        LocalDateTime ahora = LocalDateTime.now();
+        for (EventoCambio evento : pendientes) {
+            evento.setSecuencia(++secuencia);
+            evento.setFechaPublicacion(ahora);
+        }
+        return pendientes.size();
+    }
+
+    // Devuelve los eventos publicados con secuencia mayor a 'desde'
+    // Las lecturas del feed van a la primaria (transacción no readOnly) para no sumar el lag de la réplica
+    public List<EventoCambio> buscarDesde(long desde, int limite) {
+        return eventoCambioRepository.findBySecuenciaGreaterThanOrderBySecuenciaAsc(desde, PageRequest.of(0, limite));
+    }
+
+    // Devuelve la última secuencia publicada
+    public long ultimaSecuencia() {
+        return eventoCambioRepository.findUltimaSecuencia();
+    }
+
+    // Elimina los eventos publicados antes de la fecha indicada, salvo el último: la secuencia
+    // continúa desde el máximo publicado y, si se purgaran todos, volvería a empezar en 1 y un
+    // cliente con 'since' mayor nunca vería los eventos nuevos
+    public int purgarPublicadosAntesDe(LocalDateTime limite) {
+        return eventoCambioRepository.deletePublicadosAntesDe(limite, eventoCambioRepository.findUltimaSecuencia());
+    }
+}
@@ -0,0 +1,79 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.exception.ParcheInvalidoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Aplica un JSON Merge Patch (RFC 7396) sobre una entidad ya leída: cada clave presente
+// reemplaza el valor del campo (null lo borra) y las ausentes lo dejan como está. Las
+// relaciones se envían como {"id": n} y reemplazan la referencia completa. La clave "version"
+// no se copia: es la versión leída por el cliente y se compara contra la vigente.
+@Component
+public class ParcheJson {
+
+    static final String VERSION = "version";
+
+    private final ObjectMapper objectMapper;
+
+    public ParcheJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // Copia los campos del parche sobre la entidad. Sólo se admiten los campos indicados
+    public <T> T aplicar(T entidad, JsonNode parche, Set<String> campos) {
+        if (parche == null || !parche.isObject()) {
+            throw new ParcheInvalidoException("El cuerpo del PATCH debe ser un objeto JSON");
+        }
+        ObjectNode cambios = ((ObjectNode) parche).deepCopy();
+        cambios.remove(VERSION);
+        cambios.fieldNames().forEachRemaining(campo -> {
+            if (!campos.contains(campo)) {
+                throw new ParcheInvalidoException("El campo '" + campo + "' no se puede modificar con PATCH");
+            }
+        });
+        try {
+            return objectMapper.readerForUpdating(entidad).readValue(cambios);
+        } catch (JsonProcessingException e) {
+            throw new ParcheInvalidoException("Valor inválido en el PATCH: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new ParcheInvalidoException("Valor inválido en el PATCH: " + e.getMessage());
+        }
+    }
+
+    // Versión leída que envía el cliente (null si no la envía: no se verifica)
+    public Long version(JsonNode parche) {
+        JsonNode version = parche == null ? null : parche.get(VERSION);
+        if (version == null || version.isNull()) {
+            return null;
+        }
+        if (!version.canConvertToLong()) {
+            throw new ParcheInvalidoException("La versión del PATCH debe ser un número entero");
+        }
+        return version.asLong();
+    }
+
+    // Los campos NOT NULL no se pueden borrar
+    public void requerido(Object valor, String campo) {
+        if (valor == null) {
+            throw new ParcheInvalidoException("El campo '" + campo + "' no puede ser null");
+        }
+    }
+
+    // Una relación reemplazada debe identificar la fila con su id
+    public Long idRelacion(JsonNode parche, String campo) {
+        JsonNode relacion = parche.get(campo);
+        if (relacion == null || relacion.isNull()) {
+            return null;
+        }
+        if (!relacion.path("id").canConvertToLong()) {
+            throw new ParcheInvalidoException("El campo '" + campo + "' debe enviarse como {\"id\": n} o null");
+        }
+        return relacion.get("id").asLong();
+    }
+}
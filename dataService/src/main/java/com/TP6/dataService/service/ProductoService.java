@@ -1,35 +1,87 @@
 package com.TP6.dataService.service;
 
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
 import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.exception.CategoriaNoEncontradaException;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
 import com.TP6.dataService.exception.ProductoNoEncontradoException;
 import com.TP6.dataService.exception.ProductoYaExisteException;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.InventarioRepository;
 import com.TP6.dataService.repository.ProductoRepository;
+import com.TP6.dataService.service.ResumenCategoriaService.Aporte;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ProductoService {
+    // Tamaño máximo de una página de /data/productos/pagina
+    static final int MAX_PAGINA = 5000;
+    // Ids por sentencia en las bajas por ids (acota el IN y los parámetros del statement)
+    static final int LOTE_ELIMINACION = 1000;
+    // Campos que admite un PATCH de producto
+    static final Set<String> CAMPOS_PARCHE = Set.of("nombre", "descripcion", "precio", "categoria");
+
     private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final InventarioRepository inventarioRepository;
+    private final OutboxService outboxService;
+    private final AlertasStockBajo alertasStockBajo;
+    private final ConjuntoStockBajo conjuntoStockBajo;
+    private final ResumenCategoriaService resumenCategoriaService;
+    private final DescuentoStock descuentoStock;
+    private final ParcheJson parcheJson;
 
-    public ProductoService(ProductoRepository productoRepository) {
+    public ProductoService(ProductoRepository productoRepository, CategoriaRepository categoriaRepository,
+                           InventarioRepository inventarioRepository, OutboxService outboxService,
+                           AlertasStockBajo alertasStockBajo, ConjuntoStockBajo conjuntoStockBajo,
+                           ResumenCategoriaService resumenCategoriaService, DescuentoStock descuentoStock,
+                           ParcheJson parcheJson) {
         this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.inventarioRepository = inventarioRepository;
+        this.outboxService = outboxService;
+        this.alertasStockBajo = alertasStockBajo;
+        this.conjuntoStockBajo = conjuntoStockBajo;
+        this.resumenCategoriaService = resumenCategoriaService;
+        this.descuentoStock = descuentoStock;
+        this.parcheJson = parcheJson;
     }
 
     // Guarda un nuevo producto en la base de datos
-    // Valida que no exista previamente por nombre
+    // Inserta directamente: si el nombre ya existe lo rechaza la restricción única (sin consultarlo antes)
     public Producto guardar(Producto producto) {
-        if (productoRepository.findByNombre(producto.getNombre()).isPresent()) {
-            throw new ProductoYaExisteException("El Producto " + producto.getNombre() + " ya existe");
+        producto.setCategoria(referenciaCategoria(producto.getCategoria()));
+        Producto guardado = guardarYVerificarNombre(producto);
+        outboxService.registrar(TipoEntidad.PRODUCTO, guardado.getId(), TipoOperacion.CREAR);
+        resumenCategoriaService.aplicar(Aporte.NINGUNO,
+                resumenCategoriaService.aporteProducto(guardado, guardado.getInventario()));
+        // El inventario puede venir anidado y persistirse en cascada
+        if (guardado.getInventario() != null) {
+            alertasStockBajo.registrar(guardado.getInventario(), false,
+                    AlertasStockBajo.esStockBajo(guardado.getInventario()));
         }
-        return productoRepository.save(producto);
+        return guardado;
     }
 
     // Busca un producto por su ID
     // Lanza excepción si no existe
+    @Transactional(readOnly = true)
     public Producto buscarPorId(Long id) {
         return productoRepository.findById(id)
                 .orElseThrow(() ->
@@ -38,6 +90,7 @@ public class ProductoService {
 
     // Busca un producto por su nombre
     // Lanza excepción si no existe
+    @Transactional(readOnly = true)
     public Producto buscarPorNombre(String nombre) {
         return productoRepository.findByNombre(nombre)
                 .orElseThrow(() ->
@@ -45,36 +98,248 @@ public class ProductoService {
     }
 
     // Devuelve todos los productos que tienen un precio exacto
+    @Transactional(readOnly = true)
     public List<Producto> buscarPorPrecio(BigDecimal precio) {
         return productoRepository.findByPrecio(precio);
     }
 
     // Devuelve los productos que pertenecen a una categoría específica
+    @Transactional(readOnly = true)
     public List<Producto> buscarPorCategoria(String nombreCategoria) {
         return productoRepository.findByNombreCategoria(nombreCategoria);
     }
 
     // Devuelve todos los productos registrados en la base de datos
+    @Transactional(readOnly = true)
     public List<Producto> obtenerTodos() {
         return productoRepository.findAll();
     }
 
+    // Devuelve los productos con stock bajo a partir del conjunto mantenido en memoria:
+    // sólo se leen esos productos. Se vuelve a verificar el criterio para descartar un
+    // cruce confirmado que el conjunto todavía no aplicó.
+    @Transactional(readOnly = true)
+    public List<Producto> buscarConStockBajo() {
+        if (!conjuntoStockBajo.estaCargado()) {
+            return productoRepository.findConStockBajo();
+        }
+        Set<Long> ids = conjuntoStockBajo.productoIds();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return productoRepository.findByIdInOrderByIdAsc(ids).stream()
+                .filter(p -> AlertasStockBajo.esStockBajo(p.getInventario()))
+                .toList();
+    }
+
+    // Devuelve hasta 'limite' productos con id mayor a 'desdeId', ordenados por id.
+    // El cliente pide la siguiente página con el id del último producto recibido.
+    @Transactional(readOnly = true)
+    public List<Producto> buscarPagina(Long desdeId, int limite) {
+        int tamanio = Math.max(1, Math.min(limite, MAX_PAGINA));
+        return productoRepository.findByIdGreaterThanOrderByIdAsc(desdeId == null ? 0L : desdeId, Limit.of(tamanio));
+    }
+
     // Actualiza los datos de un producto existente
-    // Valida que el producto exista por ID
+    // Valida que el producto exista por ID y, si el request trae versión, que sea la vigente.
+    // Los cambios se copian sobre la entidad leída: el UPDATE lleva "AND version = ?", así una
+    // escritura concurrente entre la lectura y el commit termina en 409 y no se pierde
     public Producto actualizar(Long id, Producto producto) {
-        if (!productoRepository.existsById(id)) {
-            throw new ProductoNoEncontradoException("El Producto con ID: " + id + " no ha sido encontrado");
+        Producto anterior = buscarParaActualizar(id);
+        // Como InventarioService.actualizar: si el inventario anidado fija la cantidad de uno
+        // caliente, antes se concilia y libera lo reservado en memoria. La conciliación escribe
+        // la fila y vacía el contexto, así que el producto se vuelve a leer
+        if (producto.getInventario() != null && anterior.getInventario() != null
+                && descuentoStock.liberar(anterior.getInventario().getId())) {
+            anterior = buscarParaActualizar(id);
+        }
+        verificarVersion(anterior, producto.getVersion());
+        // El estado previo se toma antes de copiar los cambios sobre la misma instancia
+        Inventario inventarioAnterior = anterior.getInventario();
+        boolean estabaBajo = AlertasStockBajo.esStockBajo(inventarioAnterior);
+        Aporte aporteAnterior = resumenCategoriaService.aporteProducto(anterior, inventarioAnterior);
+        anterior.setNombre(producto.getNombre());
+        anterior.setDescripcion(producto.getDescripcion());
+        anterior.setPrecio(producto.getPrecio());
+        anterior.setCategoria(referenciaCategoria(producto.getCategoria()));
+        if (producto.getInventario() != null) {
+            copiarInventario(anterior, producto.getInventario());
+        }
+        Producto actualizado = guardarYVerificarNombre(anterior);
+        outboxService.registrar(TipoEntidad.PRODUCTO, id, TipoOperacion.ACTUALIZAR);
+        // Si el request no trae el inventario, la fila de inventario sigue siendo la anterior
+        Inventario inventarioNuevo = producto.getInventario() != null ? actualizado.getInventario() : inventarioAnterior;
+        resumenCategoriaService.aplicar(aporteAnterior, resumenCategoriaService.aporteProducto(actualizado, inventarioNuevo));
+        // Sólo si el request trae el inventario anidado (se actualiza en cascada)
+        if (producto.getInventario() != null && actualizado.getInventario() != null) {
+            alertasStockBajo.registrar(actualizado.getInventario(), estabaBajo,
+                    AlertasStockBajo.esStockBajo(actualizado.getInventario()));
+        }
+        return actualizado;
+    }
+
+    private Producto buscarParaActualizar(Long id) {
+        return productoRepository.findById(id)
+                .orElseThrow(() ->
+                        new ProductoNoEncontradoException("El Producto con ID: " + id + " no ha sido encontrado"));
+    }
+
+    // Modifica sólo los campos enviados (JSON Merge Patch): nombre, descripción, precio o
+    // categoría ({"id": n} o null). El inventario se modifica en su propio recurso, así que
+    // no cambian las alertas. El UPDATE incluye sólo las columnas modificadas y la versión
+    public Producto modificar(Long id, JsonNode parche) {
+        Producto producto = productoRepository.findById(id)
+                .orElseThrow(() ->
+                        new ProductoNoEncontradoException("El Producto con ID: " + id + " no ha sido encontrado"));
+        verificarVersion(producto, parcheJson.version(parche));
+        Aporte aporteAnterior = resumenCategoriaService.aporteProducto(producto, producto.getInventario());
+        // La categoría se resuelve antes de aplicar el parche: la consulta de existencia dispara un
+        // flush, y el parche deja en el producto una categoría sin versión que Hibernate no acepta
+        Categoria categoria = producto.getCategoria();
+        if (parche.has("categoria")) {
+            Long categoriaId = parcheJson.idRelacion(parche, "categoria");
+            categoria = categoriaId == null ? null : referenciaCategoria(categoriaId);
+        }
+        parcheJson.aplicar(producto, parche, CAMPOS_PARCHE);
+        parcheJson.requerido(producto.getNombre(), "nombre");
+        parcheJson.requerido(producto.getPrecio(), "precio");
+        producto.setCategoria(categoria);
+        Producto modificado = guardarYVerificarNombre(producto);
+        outboxService.registrar(TipoEntidad.PRODUCTO, id, TipoOperacion.ACTUALIZAR);
+        resumenCategoriaService.aplicar(aporteAnterior,
+                resumenCategoriaService.aporteProducto(modificado, modificado.getInventario()));
+        return modificado;
+    }
+
+    // La versión enviada (si la hay) debe ser la vigente
+    private static void verificarVersion(Producto producto, Long version) {
+        if (version != null && !version.equals(producto.getVersion())) {
+            throw new ConflictoDeVersionException("El Producto con ID: " + producto.getId()
+                    + " fue modificado por otra operación (versión enviada: " + version + ")");
+        }
+    }
+
+    // La categoría suele llegar sólo con su id (sin versión): se usa una referencia a la fila
+    // para que Hibernate no la tome por una entidad nueva
+    private Categoria referenciaCategoria(Categoria categoria) {
+        if (categoria == null || categoria.getId() == null) {
+            return categoria;
+        }
+        return referenciaCategoria(categoria.getId());
+    }
+
+    // La referencia no consulta la fila: sin este control un id inexistente falla recién en el
+    // flush, como violación de la clave foránea (500)
+    private Categoria referenciaCategoria(Long categoriaId) {
+        if (!categoriaRepository.existsById(categoriaId)) {
+            throw new CategoriaNoEncontradaException("La Categoría con ID: " + categoriaId + " no ha sido encontrada");
         }
-        producto.setId(id);
-        return productoRepository.save(producto);
+        return categoriaRepository.getReferenceById(categoriaId);
+    }
+
+    // Escribe en el momento (flush) para que un nombre repetido se detecte aquí y se informe
+    // como 409; cualquier otra violación de integridad se propaga
+    private Producto guardarYVerificarNombre(Producto producto) {
+        try {
+            return productoRepository.saveAndFlush(producto);
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionesUnicas.viola(e, Producto.RESTRICCION_NOMBRE)) {
+                throw new ProductoYaExisteException("El Producto " + producto.getNombre() + " ya existe");
+            }
+            throw e;
+        }
+    }
+
+    // El inventario anidado actualiza el existente (o se crea si el producto no tenía)
+    private static void copiarInventario(Producto producto, Inventario cambios) {
+        Inventario inventario = producto.getInventario();
+        if (inventario == null) {
+            cambios.setProducto(producto);
+            producto.setInventario(cambios);
+            return;
+        }
+        inventario.setCantidad(cambios.getCantidad());
+        inventario.setStockMinimo(cambios.getStockMinimo());
+        inventario.setFechaActualizacion(LocalDateTime.now());
     }
 
     // Elimina un producto por su ID
     // Lanza excepción si no existe
+    // Su inventario se elimina en cascada: si estaba en stock bajo, sale del reporte
     public void eliminar(Long id) {
-        if (!productoRepository.existsById(id)) {
-            throw new ProductoNoEncontradoException("El Producto con ID: " + id + " no existe");
+        Producto anterior = productoRepository.findById(id)
+                .orElseThrow(() -> new ProductoNoEncontradoException("El Producto con ID: " + id + " no existe"));
+        Inventario inventario = anterior.getInventario();
+        boolean estabaBajo = AlertasStockBajo.esStockBajo(inventario);
+        Aporte aporteAnterior = resumenCategoriaService.aporteProducto(anterior, inventario);
+        // Se borra la entidad ya leída (deleteById volvería a buscarla)
+        productoRepository.delete(anterior);
+        outboxService.registrar(TipoEntidad.PRODUCTO, id, TipoOperacion.ELIMINAR);
+        resumenCategoriaService.aplicar(aporteAnterior, Aporte.NINGUNO);
+        if (inventario != null) {
+            alertasStockBajo.registrar(inventario, estabaBajo, false);
+        }
+    }
+
+    // Elimina varios productos por id con sus inventarios, sin cargar las entidades: por cada
+    // lote de ids, un DELETE por tabla en orden de dependencias. Antes se leen sólo lo que
+    // necesitan los efectos: qué ids existen (eventos), el aporte agregado por categoría
+    // (resumen) y los inventarios con stock bajo (salen del reporte). Los ids que no existen
+    // se ignoran. Devuelve la cantidad de productos eliminados
+    public ResultadoEliminacion eliminarVarios(Collection<Long> ids) {
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> eliminados = new ArrayList<>();
+        for (int desde = 0; desde < distintos.size(); desde += LOTE_ELIMINACION) {
+            List<Long> lote = distintos.subList(desde, Math.min(desde + LOTE_ELIMINACION, distintos.size()));
+            List<Long> existentes = productoRepository.findIdsByIdIn(lote);
+            if (existentes.isEmpty()) {
+                continue;
+            }
+            resumenCategoriaService.descontarProductos(existentes);
+            salirDeStockBajo(inventarioRepository.findConStockBajoByProductoIdIn(existentes));
+            inventarioRepository.deleteByProductoIdIn(existentes);
+            productoRepository.deleteByIdIn(existentes);
+            eliminados.addAll(existentes);
+        }
+        if (eliminados.isEmpty()) {
+            return new ResultadoEliminacion(0);
+        }
+        descuentoStock.olvidarEliminados();
+        // Los eventos van después del último DELETE: cada DELETE limpia la sesión y descartaría
+        // los eventos todavía no enviados a la base
+        outboxService.registrarVarios(TipoEntidad.PRODUCTO, eliminados, TipoOperacion.ELIMINAR);
+        return new ResultadoEliminacion(eliminados.size());
+    }
+
+    // Elimina todos los productos de una categoría (la categoría queda, con su resumen en cero):
+    // un DELETE por tabla filtrado por categoría. Se publica un evento por producto eliminado
+    // Lanza excepción si la categoría no existe
+    public ResultadoEliminacion eliminarPorCategoria(Long categoriaId) {
+        if (!categoriaRepository.existsById(categoriaId)) {
+            throw new CategoriaNoEncontradaException("La Categoría con ID: " + categoriaId + " no existe");
         }
-        productoRepository.deleteById(id);
+        List<Long> ids = productoRepository.findIdsByCategoriaId(categoriaId);
+        int eliminados = eliminarDeCategoria(categoriaId);
+        resumenCategoriaService.vaciar(categoriaId);
+        outboxService.registrarVarios(TipoEntidad.PRODUCTO, ids, TipoOperacion.ELIMINAR);
+        return new ResultadoEliminacion(eliminados);
+    }
+
+    // Elimina los productos de una categoría con sus inventarios, en orden de dependencias.
+    // El resumen y los eventos quedan a cargo del llamador (al eliminar la categoría basta
+    // con el evento y el resumen de la categoría)
+    int eliminarDeCategoria(Long categoriaId) {
+        salirDeStockBajo(inventarioRepository.findConStockBajoByCategoriaId(categoriaId));
+        inventarioRepository.deleteByCategoriaId(categoriaId);
+        int eliminados = productoRepository.deleteByCategoriaId(categoriaId);
+        if (eliminados > 0) {
+            descuentoStock.olvidarEliminados();
+        }
+        return eliminados;
+    }
+
+    // Los inventarios eliminados que estaban en stock bajo salen del reporte y de las alertas
+    private void salirDeStockBajo(List<Inventario> inventarios) {
+        inventarios.forEach(inventario -> alertasStockBajo.registrar(inventario, true, false));
     }
 }
@@ -0,0 +1,106 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.EventoCambio;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Publica periódicamente los eventos del outbox y resuelve las consultas long-poll
+// de /data/changes que están esperando nuevos cambios.
+@Component
+@Slf4j
+public class PublicadorCambios {
+
+    private final OutboxService outboxService;
+    private final Queue<Espera> esperas = new ConcurrentLinkedQueue<>();
+
+    @Value("${outbox.poller.lote:500}")
+    private int lote;
+
+    @Value("${outbox.long-poll.timeout-ms:25000}")
+    private long timeoutMs;
+
+    @Value("${outbox.retencion-horas:24}")
+    private long retencionHoras;
+
+    public PublicadorCambios(OutboxService outboxService) {
+        this.outboxService = outboxService;
+    }
+
+    // Consulta espera registrada por un cliente long-poll
+    private record Espera(long desde, int limite, DeferredResult<List<EventoCambio>> resultado) {
+    }
+
+    // Devuelve los cambios posteriores a 'desde'; si no hay, la respuesta queda en espera
+    // hasta que se publique un cambio o venza el timeout (lista vacía).
+    // El cliente puede pedir una espera menor al timeout configurado.
+    public DeferredResult<List<EventoCambio>> esperarCambios(long desde, int limite, Long esperaMs) {
+        long espera = esperaMs == null ? timeoutMs : Math.max(0, Math.min(esperaMs, timeoutMs));
+        DeferredResult<List<EventoCambio>> resultado = new DeferredResult<>(espera, List.of());
+        List<EventoCambio> disponibles = outboxService.buscarDesde(desde, limite);
+        if (!disponibles.isEmpty() || espera == 0) {
+            resultado.setResult(disponibles);
+            return resultado;
+        }
+        Espera pendiente = new Espera(desde, limite, resultado);
+        resultado.onCompletion(() -> esperas.remove(pendiente));
+        esperas.add(pendiente);
+        return resultado;
+    }
+
+    // Devuelve la última secuencia publicada
+    public long ultimaSecuencia() {
+        return outboxService.ultimaSecuencia();
+    }
+
+    // Publica los eventos pendientes y despierta a los clientes en espera
+    @Scheduled(fixedDelayString = "${outbox.poller.intervalo-ms:500}")
+    public void publicar() {
+        try {
+            int publicados;
+            do {
+                publicados = outboxService.publicarPendientes(lote);
+            } while (publicados == lote);
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia publicó la misma secuencia: se reintenta en el próximo ciclo
+            log.warn("Conflicto de secuencia al publicar eventos del outbox, se reintentará");
+        }
+        if (!esperas.isEmpty()) {
+            despertarEsperas(outboxService.ultimaSecuencia());
+        }
+    }
+
+    // Purga los eventos publicados que superaron la retención configurada
+    @Scheduled(fixedDelayString = "${outbox.purga.intervalo-ms:3600000}")
+    public void purgar() {
+        int eliminados = outboxService.purgarPublicadosAntesDe(LocalDateTime.now().minusHours(retencionHoras));
+        if (eliminados > 0) {
+            log.info("Eventos del outbox purgados: {}", eliminados);
+        }
+    }
+
+    // Resuelve las esperas con cambios disponibles (una consulta por cada 'desde' distinto)
+    private void despertarEsperas(long ultimaSecuencia) {
+        Map<Long, List<EventoCambio>> porDesde = new HashMap<>();
+        for (Espera espera : esperas) {
+            if (espera.desde() >= ultimaSecuencia) {
+                continue;
+            }
+            List<EventoCambio> cambios = porDesde.computeIfAbsent(espera.desde(),
+                    d -> outboxService.buscarDesde(d, lote));
+            espera.resultado().setResult(cambios.size() > espera.limite()
+                    ? cambios.subList(0, espera.limite())
+                    : cambios);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.TP6.dataService.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+// Las altas y renombres no consultan antes si el nombre ya existe: escriben directamente y
+// la restricción única de la tabla decide. Esta clase reconoce cuál restricción se violó para
+// traducirla a la excepción de negocio (409) y dejar pasar cualquier otra violación.
+final class RestriccionesUnicas {
+
+    private RestriccionesUnicas() {
+    }
+
+    // Indica si la violación corresponde a la restricción dada. Hibernate informa el nombre
+    // extraído del mensaje del motor (H2 lo devuelve en mayúsculas y con sufijos del índice)
+    static boolean viola(DataIntegrityViolationException e, String restriccion) {
+        String buscada = restriccion.toLowerCase(Locale.ROOT);
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return violacion.getConstraintName().toLowerCase(Locale.ROOT).contains(buscada);
+            }
+            if (causa.getMessage() != null && causa.getMessage().toLowerCase(Locale.ROOT).contains(buscada)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,8 @@
+package com.TP6.dataService.service;
+
+import java.util.List;
+
+// Resultado de aplicar un lote de ajustes: cuántos se aplicaron, qué inventarios no existen
+// y cuáles se rechazaron porque su cantidad quedaría negativa
+public record ResultadoAjustes(int aplicados, List<Long> noEncontrados, List<Long> sinStock) {
+}
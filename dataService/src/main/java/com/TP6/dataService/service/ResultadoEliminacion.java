@@ -0,0 +1,5 @@
+package com.TP6.dataService.service;
+
+// Resultado de una baja en bloque: cuántos productos se eliminaron
+public record ResultadoEliminacion(int eliminados) {
+}
@@ -0,0 +1,246 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.FranjaResumenCategoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.ResumenCategoria;
+import com.TP6.dataService.repository.FranjaResumenCategoriaRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import com.TP6.dataService.repository.ResumenCategoriaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Mantiene la tabla categorias_resumen. Cada escritura calcula el aporte de la fila antes y
+// después del cambio y suma la diferencia sobre el resumen de la categoría, dentro de la misma
+// transacción: si la escritura se revierte, el resumen también.
+// El UPDATE bloquea la fila que toca hasta el commit. Para que las escrituras de una misma
+// categoría (también cada venta de DescuentoStock) no se serialicen sobre una única fila, la
+// diferencia se suma sobre una de las categorias.resumen.franjas filas de la categoría, elegida
+// por hilo (una transacción usa la misma franja en todas las categorías que toca, como antes una
+// única fila); la consulta suma la fila base y sus franjas.
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+@Slf4j
+public class ResumenCategoriaService {
+
+    private final ResumenCategoriaRepository resumenCategoriaRepository;
+    private final FranjaResumenCategoriaRepository franjaResumenCategoriaRepository;
+    private final ProductoRepository productoRepository;
+    private final int franjas;
+
+    public ResumenCategoriaService(ResumenCategoriaRepository resumenCategoriaRepository,
+                                   FranjaResumenCategoriaRepository franjaResumenCategoriaRepository,
+                                   ProductoRepository productoRepository,
+                                   @Value("${categorias.resumen.franjas:8}") int franjas) {
+        this.resumenCategoriaRepository = resumenCategoriaRepository;
+        this.franjaResumenCategoriaRepository = franjaResumenCategoriaRepository;
+        this.productoRepository = productoRepository;
+        this.franjas = Math.max(1, franjas);
+    }
+
+    // Aporte de una fila al resumen de su categoría
+    public record Aporte(Long categoriaId, long productos, long unidades, BigDecimal valor, long stockBajo) {
+
+        public static final Aporte NINGUNO = new Aporte(null, 0, 0, BigDecimal.ZERO, 0);
+
+        Aporte menos() {
+            return new Aporte(categoriaId, -productos, -unidades, valor.negate(), -stockBajo);
+        }
+
+        Aporte diferencia(Aporte anterior) {
+            return new Aporte(categoriaId, productos - anterior.productos, unidades - anterior.unidades,
+                    valor.subtract(anterior.valor), stockBajo - anterior.stockBajo);
+        }
+
+        boolean esNulo() {
+            return productos == 0 && unidades == 0 && valor.signum() == 0 && stockBajo == 0;
+        }
+    }
+
+    // ------------------- APORTES -------------------
+
+    // Aporte de un producto con su inventario (cuenta como un producto de la categoría)
+    public Aporte aporteProducto(Producto producto, Inventario inventario) {
+        if (producto == null || producto.getCategoria() == null) {
+            return Aporte.NINGUNO;
+        }
+        return aporte(producto.getCategoria().getId(), 1, producto.getPrecio(), inventario);
+    }
+
+    // Aporte de un inventario: sus unidades y valor en la categoría de su producto. El producto
+    // puede venir sólo con el id, por eso la categoría y el precio se leen por proyección.
+    public Aporte aporteInventario(Inventario inventario) {
+        if (inventario == null || inventario.getProducto() == null || inventario.getProducto().getId() == null) {
+            return Aporte.NINGUNO;
+        }
+        return productoRepository.findCategoriaYPrecioById(inventario.getProducto().getId())
+                .filter(p -> p.getCategoriaId() != null)
+                .map(p -> aporte(p.getCategoriaId(), 0, p.getPrecio(), inventario))
+                .orElse(Aporte.NINGUNO);
+    }
+
+    private static Aporte aporte(Long categoriaId, long productos, BigDecimal precio, Inventario inventario) {
+        long unidades = inventario == null || inventario.getCantidad() == null ? 0 : inventario.getCantidad();
+        BigDecimal valor = precio == null ? BigDecimal.ZERO : precio.multiply(BigDecimal.valueOf(unidades));
+        long stockBajo = inventario != null && inventario.cumpleStockBajo() ? 1 : 0;
+        return new Aporte(categoriaId, productos, unidades, valor, stockBajo);
+    }
+
+    // ------------------- ACTUALIZACIÓN -------------------
+
+    // Reemplaza el aporte anterior de una fila por el nuevo (alta: NINGUNO -> aporte,
+    // baja: aporte -> NINGUNO). Si cambió de categoría se descuenta de una y se suma a la otra.
+    public void aplicar(Aporte anterior, Aporte nuevo) {
+        if (anterior.categoriaId() != null && anterior.categoriaId().equals(nuevo.categoriaId())) {
+            acumular(nuevo.diferencia(anterior));
+            return;
+        }
+        if (anterior.categoriaId() != null) {
+            acumular(anterior.menos());
+        }
+        if (nuevo.categoriaId() != null) {
+            acumular(nuevo);
+        }
+    }
+
+    private void acumular(Aporte delta) {
+        if (delta.esNulo()) {
+            return;
+        }
+        franjaResumenCategoriaRepository.acumular(delta.categoriaId(), franjaDelHilo(), delta.productos(),
+                delta.unidades(), delta.valor(), delta.stockBajo());
+    }
+
+    private int franjaDelHilo() {
+        return (int) (Thread.currentThread().threadId() % franjas);
+    }
+
+    // Baja en bloque: descuenta el aporte de los productos indicados (con sus inventarios) con
+    // una consulta agregada por categoría, antes de eliminarlos y sin cargar las entidades
+    public void descontarProductos(Collection<Long> productoIds) {
+        resumenCategoriaRepository.calcularAportesDeProductos(productoIds).forEach(fila -> acumular(new Aporte(
+                (Long) fila[0], ((Number) fila[1]).longValue(), ((Number) fila[2]).longValue(),
+                new BigDecimal(fila[3].toString()), ((Number) fila[4]).longValue()).menos()));
+    }
+
+    // La categoría se quedó sin productos (baja en bloque de todos ellos)
+    public void vaciar(Long categoriaId) {
+        resumenCategoriaRepository.vaciar(categoriaId);
+        franjaResumenCategoriaRepository.vaciar(categoriaId);
+    }
+
+    // Alta del resumen (en cero) de una categoría nueva, con sus franjas
+    public void crear(Categoria categoria) {
+        resumenCategoriaRepository.save(
+                new ResumenCategoria(categoria.getId(), categoria.getNombre(), 0, 0, BigDecimal.ZERO, 0));
+        List<FranjaResumenCategoria> nuevas = new ArrayList<>();
+        for (int franja = 0; franja < franjas; franja++) {
+            nuevas.add(new FranjaResumenCategoria(categoria.getId(), franja));
+        }
+        franjaResumenCategoriaRepository.saveAll(nuevas);
+    }
+
+    public void renombrar(Long categoriaId, String nombre) {
+        resumenCategoriaRepository.renombrar(categoriaId, nombre);
+    }
+
+    public void eliminar(Long categoriaId) {
+        franjaResumenCategoriaRepository.eliminarDeCategoria(categoriaId);
+        resumenCategoriaRepository.deleteById(categoriaId);
+    }
+
+    // ------------------- CONSULTA Y RECONSTRUCCIÓN -------------------
+
+    @Transactional(readOnly = true)
+    public List<ResumenCategoria> obtenerTodos() {
+        return resumenCategoriaRepository.findTotalesOrdenadosPorNombre();
+    }
+
+    // Al arrancar sólo se reconstruye si la tabla está vacía (base nueva o anterior al resumen).
+    // Con datos, otra instancia puede estar escribiendo: la corrección se pide explícitamente.
+    // Sí se crean las franjas que falten (base anterior a las franjas o más franjas configuradas):
+    // una diferencia sumada sobre una franja inexistente se perdería
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void inicializar() {
+        if (resumenCategoriaRepository.count() == 0) {
+            reconstruir();
+            return;
+        }
+        completarFranjas(resumenCategoriaRepository.findAll().stream().map(ResumenCategoria::getCategoriaId).toList());
+    }
+
+    private void completarFranjas(Collection<Long> categoriaIds) {
+        Set<FranjaResumenCategoria.Clave> existentes = franjaResumenCategoriaRepository.findAll().stream()
+                .map(f -> new FranjaResumenCategoria.Clave(f.getCategoriaId(), f.getFranja()))
+                .collect(Collectors.toSet());
+        List<FranjaResumenCategoria> faltantes = new ArrayList<>();
+        for (Long categoriaId : categoriaIds) {
+            for (int franja = 0; franja < franjas; franja++) {
+                if (!existentes.contains(new FranjaResumenCategoria.Clave(categoriaId, franja))) {
+                    faltantes.add(new FranjaResumenCategoria(categoriaId, franja));
+                }
+            }
+        }
+        franjaResumenCategoriaRepository.saveAll(faltantes);
+    }
+
+    // Recalcula todo el resumen desde las tablas (datos cargados por fuera de la aplicación o
+    // corrección manual): fija la fila base y vuelve las franjas a cero. Bloquea primero las
+    // franjas: una escritura que ya sumó su diferencia termina antes de que se lean las tablas,
+    // y una que todavía no la sumó espera y la suma sobre el valor recalculado. Las filas se
+    // actualizan en lugar de borrarse, así ningún incremento concurrente cae sobre una fila inexistente
+    @Transactional
+    public List<ResumenCategoria> reconstruir() {
+        List<FranjaResumenCategoria> franjasActuales = franjaResumenCategoriaRepository.findAllParaActualizar();
+        Map<Long, ResumenCategoria> actuales = resumenCategoriaRepository.findAllParaActualizar().stream()
+                .collect(Collectors.toMap(ResumenCategoria::getCategoriaId, Function.identity()));
+        List<ResumenCategoria> resumenes = new ArrayList<>();
+        for (Object[] fila : resumenCategoriaRepository.calcularDesdeTablas()) {
+            ResumenCategoria resumen = actuales.remove((Long) fila[0]);
+            if (resumen == null) {
+                resumen = new ResumenCategoria();
+                resumen.setCategoriaId((Long) fila[0]);
+            }
+            resumen.setNombre((String) fila[1]);
+            resumen.setCantidadProductos(((Number) fila[2]).longValue());
+            resumen.setUnidades(((Number) fila[3]).longValue());
+            resumen.setValorInventario(new BigDecimal(fila[4].toString()));
+            resumen.setProductosStockBajo(((Number) fila[5]).longValue());
+            resumenes.add(resumen);
+        }
+        List<FranjaResumenCategoria> huerfanas = new ArrayList<>();
+        for (FranjaResumenCategoria franja : franjasActuales) {
+            if (actuales.containsKey(franja.getCategoriaId())) {
+                huerfanas.add(franja);
+                continue;
+            }
+            franja.setCantidadProductos(0);
+            franja.setUnidades(0);
+            franja.setValorInventario(BigDecimal.ZERO);
+            franja.setProductosStockBajo(0);
+        }
+        resumenCategoriaRepository.saveAll(resumenes);
+        // Categorías que ya no existen
+        franjaResumenCategoriaRepository.deleteAll(huerfanas);
+        resumenCategoriaRepository.deleteAll(actuales.values());
+        completarFranjas(resumenes.stream().map(ResumenCategoria::getCategoriaId).toList());
+        log.info("Resumen por categoría reconstruido ({} categorías)", resumenes.size());
+        return resumenes;
+    }
+}
@@ -0,0 +1,149 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.DataServiceApplication;
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.service.CategoriaService;
+import com.TP6.dataService.service.InventarioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Actualizaciones con bloqueo optimista (@Version):
+//  1. sentencias por actualización de categoría: existsById + save() de un objeto desconectado
+//     (como antes) contra el UPDATE único que verifica existencia y versión;
+//  2. contención: HILOS hilos incrementan la cantidad de un mismo inventario con lectura y
+//     escritura. Sin versión gana el último y se pierden incrementos; con versión los conflictos
+//     se reintentan y no se pierde ninguno.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=ActualizacionConcurrenteBenchmarkTest
+@Tag("benchmark")
+class ActualizacionConcurrenteBenchmarkTest {
+
+    private static final int ACTUALIZACIONES = 2_000;
+    private static final int HILOS = 16;
+    private static final int INCREMENTOS_POR_HILO = 50;
+
+    @Test
+    void actualizacionConVersionVsExistsMasSave() throws InterruptedException {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DataServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bench_actualizacion",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "consultas.monitor.habilitado=false")
+                .run()) {
+            CategoriaRepository categoriaRepository = contexto.getBean(CategoriaRepository.class);
+            CategoriaService categoriaService = contexto.getBean(CategoriaService.class);
+            InventarioService inventarioService = contexto.getBean(InventarioService.class);
+            TransactionTemplate transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+            Statistics estadisticas = contexto.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+
+            Categoria categoria = new Categoria();
+            categoria.setNombre("Benchmark");
+            Long id = categoriaService.guardar(categoria).getId();
+
+            // 1. Sentencias por actualización (sólo el acceso a la tabla de categorías)
+            long version = categoriaRepository.findById(id).orElseThrow().getVersion();
+            long sentenciasAntes = 0;
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ACTUALIZACIONES; i++) {
+                Categoria desconectada = new Categoria(id, "Benchmark", "antes " + i, version + i, null);
+                estadisticas.clear();
+                transaccion.executeWithoutResult(status -> {
+                    if (categoriaRepository.existsById(id)) {
+                        categoriaRepository.save(desconectada);
+                    }
+                });
+                sentenciasAntes = estadisticas.getPrepareStatementCount();
+            }
+            long nanosAntes = System.nanoTime() - inicio;
+
+            version += ACTUALIZACIONES;
+            long sentenciasAhora = 0;
+            inicio = System.nanoTime();
+            for (int i = 0; i < ACTUALIZACIONES; i++) {
+                long versionLeida = version + i;
+                String descripcion = "ahora " + i;
+                estadisticas.clear();
+                int filas = transaccion.execute(status ->
+                        categoriaRepository.actualizar(id, "Benchmark", descripcion, versionLeida));
+                sentenciasAhora = estadisticas.getPrepareStatementCount();
+                assertEquals(1, filas);
+            }
+            long nanosAhora = System.nanoTime() - inicio;
+
+            // 2. Contención sobre un mismo inventario
+            int esperados = HILOS * INCREMENTOS_POR_HILO;
+            Resultado sinVersion = incrementar(inventarioService, false);
+            Resultado conVersion = incrementar(inventarioService, true);
+
+            System.out.printf("%n[benchmark] %d actualizaciones de una categoría%n", ACTUALIZACIONES);
+            System.out.printf("[benchmark] existsById + save():        %d sentencias/actualización, %,.0f act/s%n",
+                    sentenciasAntes, ACTUALIZACIONES / (nanosAntes / 1_000_000_000.0));
+            System.out.printf("[benchmark] UPDATE con versión:          %d sentencias/actualización, %,.0f act/s%n",
+                    sentenciasAhora, ACTUALIZACIONES / (nanosAhora / 1_000_000_000.0));
+            System.out.printf("[benchmark] %d hilos x %d incrementos de un inventario (esperado %d)%n",
+                    HILOS, INCREMENTOS_POR_HILO, esperados);
+            System.out.printf("[benchmark] sin versión (último gana):  final %d, %d incrementos perdidos%n",
+                    sinVersion.cantidadFinal(), esperados - sinVersion.cantidadFinal());
+            System.out.printf("[benchmark] con versión + reintento:     final %d, %d conflictos reintentados%n",
+                    conVersion.cantidadFinal(), conVersion.conflictos());
+
+            assertTrue(sentenciasAhora < sentenciasAntes);
+            assertEquals(esperados, conVersion.cantidadFinal());
+        }
+    }
+
+    private record Resultado(int cantidadFinal, int conflictos) {
+    }
+
+    // Cada hilo lee el inventario, suma 1 y lo escribe; con versión reintenta ante un conflicto
+    private Resultado incrementar(InventarioService inventarioService, boolean conVersion) throws InterruptedException {
+        Inventario inventario = new Inventario();
+        inventario.setCantidad(0);
+        inventario.setStockMinimo(0);
+        Long id = inventarioService.guardar(inventario).getId();
+        AtomicInteger conflictos = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        for (int h = 0; h < HILOS; h++) {
+            hilos.execute(() -> {
+                for (int i = 0; i < INCREMENTOS_POR_HILO; i++) {
+                    while (true) {
+                        Inventario leido = inventarioService.buscarPorId(id);
+                        Inventario cambio = new Inventario();
+                        cambio.setCantidad(leido.getCantidad() + 1);
+                        cambio.setStockMinimo(0);
+                        cambio.setVersion(conVersion ? leido.getVersion() : null);
+                        try {
+                            inventarioService.actualizar(id, cambio);
+                            break;
+                        } catch (ConflictoDeVersionException | OptimisticLockingFailureException e) {
+                            conflictos.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(5, TimeUnit.MINUTES));
+        return new Resultado(inventarioService.buscarPorId(id).getCantidad(), conflictos.get());
+    }
+}
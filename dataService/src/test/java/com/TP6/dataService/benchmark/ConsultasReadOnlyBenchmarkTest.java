@@ -0,0 +1,106 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compara asignación de memoria y CPU por request de listado (findAll de productos con categoría
+// e inventario) entre una transacción de lectura/escritura y una readOnly.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=ConsultasReadOnlyBenchmarkTest
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+class ConsultasReadOnlyBenchmarkTest {
+
+    private static final int PRODUCTOS = 5_000;
+    private static final int CALENTAMIENTO = 20;
+    private static final int ITERACIONES = 50;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Resultado de una medición
+    private record Medicion(double bytesPorRequest, double cpuMsPorRequest) {
+    }
+
+    @BeforeAll
+    void cargarDatos() {
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Benchmark");
+        categoria = categoriaRepository.save(categoria);
+
+        List<Producto> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto " + i);
+            producto.setPrecio(BigDecimal.valueOf(100 + i % 50));
+            producto.setCategoria(categoria);
+            Inventario inventario = new Inventario(null, producto, i % 20, 5, LocalDateTime.now(), null, null, null);
+            producto.setInventario(inventario);
+            productos.add(producto);
+        }
+        productoRepository.saveAll(productos);
+    }
+
+    @Test
+    void listadoReadOnlyVsLecturaEscritura() {
+        Medicion lecturaEscritura = medir(false);
+        Medicion soloLectura = medir(true);
+
+        System.out.printf("%n[benchmark] findAll de %d productos, promedio por request (%d iteraciones)%n",
+                PRODUCTOS, ITERACIONES);
+        System.out.printf("[benchmark] lectura/escritura: %,.0f bytes asignados, %.2f ms CPU%n",
+                lecturaEscritura.bytesPorRequest(), lecturaEscritura.cpuMsPorRequest());
+        System.out.printf("[benchmark] readOnly:          %,.0f bytes asignados, %.2f ms CPU%n",
+                soloLectura.bytesPorRequest(), soloLectura.cpuMsPorRequest());
+
+        assertTrue(soloLectura.bytesPorRequest() < lecturaEscritura.bytesPorRequest());
+    }
+
+    private Medicion medir(boolean readOnly) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(readOnly);
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            transaccion.execute(status -> productoRepository.findAll().size());
+        }
+        long hilo = Thread.currentThread().getId();
+        long bytesInicio = threadMXBean.getThreadAllocatedBytes(hilo);
+        long cpuInicio = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            transaccion.execute(status -> productoRepository.findAll().size());
+        }
+        long bytes = threadMXBean.getThreadAllocatedBytes(hilo) - bytesInicio;
+        long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuInicio;
+        return new Medicion((double) bytes / ITERACIONES, cpu / 1_000_000.0 / ITERACIONES);
+    }
+}
@@ -0,0 +1,93 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.DataServiceApplication;
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import com.TP6.dataService.service.CategoriaService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Baja de una categoría con muchos productos: la cascada de JPA (carga la categoría, cada
+// producto y cada inventario y los elimina de a uno) contra los DELETE en bloque de
+// CategoriaService.eliminar (uno por tabla, en orden de dependencias, sin cargar filas).
+// Ejecutar con: mvn test -Pbenchmark -Dtest=EliminacionMasivaBenchmarkTest
+@Tag("benchmark")
+class EliminacionMasivaBenchmarkTest {
+
+    private static final int PRODUCTOS = 20_000;
+    private static final int ITERACIONES = 3;
+
+    @Test
+    void eliminacionEnCascadaVsEnBloque() {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DataServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bench_eliminacion",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false")
+                .run()) {
+            CategoriaRepository categoriaRepository = contexto.getBean(CategoriaRepository.class);
+            ProductoRepository productoRepository = contexto.getBean(ProductoRepository.class);
+            CategoriaService categoriaService = contexto.getBean(CategoriaService.class);
+            TransactionTemplate transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+            long cascada = 0;
+            long enBloque = 0;
+            for (int i = 0; i < ITERACIONES; i++) {
+                Long porCascada = transaccion.execute(status ->
+                        insertar("Cascada " + System.nanoTime(), categoriaRepository, productoRepository));
+                long inicio = System.nanoTime();
+                transaccion.executeWithoutResult(status ->
+                        categoriaRepository.delete(categoriaRepository.findById(porCascada).orElseThrow()));
+                cascada += System.nanoTime() - inicio;
+
+                Long porBloque = transaccion.execute(status ->
+                        insertar("Bloque " + System.nanoTime(), categoriaRepository, productoRepository));
+                inicio = System.nanoTime();
+                categoriaService.eliminar(porBloque);
+                enBloque += System.nanoTime() - inicio;
+            }
+            assertEquals(0, productoRepository.count());
+
+            System.out.printf("%n[benchmark] baja de una categoría con %d productos + inventario (promedio de %d)%n",
+                    PRODUCTOS, ITERACIONES);
+            System.out.printf("[benchmark] cascada JPA (entidad por entidad): %,d ms%n", cascada / ITERACIONES / 1_000_000);
+            System.out.printf("[benchmark] DELETE en bloque por tabla:        %,d ms%n", enBloque / ITERACIONES / 1_000_000);
+
+            assertTrue(enBloque < cascada);
+        }
+    }
+
+    private Long insertar(String nombre, CategoriaRepository categoriaRepository, ProductoRepository productoRepository) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        categoria = categoriaRepository.save(categoria);
+
+        List<Producto> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre(nombre + " producto " + i);
+            producto.setPrecio(BigDecimal.valueOf(100 + i % 50));
+            producto.setCategoria(categoria);
+            producto.setInventario(new Inventario(null, producto, i % 20, 5, LocalDateTime.now(), null, null, null));
+            productos.add(producto);
+        }
+        productoRepository.saveAll(productos);
+        return categoria.getId();
+    }
+}
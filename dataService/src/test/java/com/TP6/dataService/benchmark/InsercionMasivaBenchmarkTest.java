@@ -0,0 +1,92 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.DataServiceApplication;
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Throughput de inserción masiva (productos con su inventario) antes y después de reemplazar
+// IDENTITY por secuencias pooled + batching JDBC. Cada variante levanta su propio contexto
+// con una base H2 independiente; la variante "antes" restaura IDENTITY vía orm-identity.xml.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=InsercionMasivaBenchmarkTest
+@Tag("benchmark")
+class InsercionMasivaBenchmarkTest {
+
+    private static final int PRODUCTOS = 10_000;
+    private static final int CALENTAMIENTO = 2;
+    private static final int ITERACIONES = 5;
+
+    @Test
+    void insercionMasivaIdentityVsSecuenciaPooled() {
+        double identity = medir("bench_identity",
+                "spring.jpa.mapping-resources=benchmark/orm-identity.xml");
+        double pooled = medir("bench_pooled");
+
+        System.out.printf("%n[benchmark] inserción de %d productos + inventario, filas/s (promedio de %d)%n",
+                PRODUCTOS, ITERACIONES);
+        System.out.printf("[benchmark] IDENTITY, sin batching:     %,.0f filas/s%n", identity);
+        System.out.printf("[benchmark] secuencia pooled + batch:   %,.0f filas/s%n", pooled);
+
+        assertTrue(pooled > identity);
+    }
+
+    // Levanta un contexto sin servidor web, inserta varias veces y devuelve filas por segundo
+    private double medir(String baseDeDatos, String... propiedades) {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DataServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:" + baseDeDatos,
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false")
+                .properties(propiedades)
+                .run()) {
+            ProductoRepository productoRepository = contexto.getBean(ProductoRepository.class);
+            CategoriaRepository categoriaRepository = contexto.getBean(CategoriaRepository.class);
+            TransactionTemplate transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+
+            long nanos = 0;
+            for (int i = 0; i < CALENTAMIENTO + ITERACIONES; i++) {
+                String lote = "Lote " + i;
+                long inicio = System.nanoTime();
+                transaccion.executeWithoutResult(status -> insertar(lote, categoriaRepository, productoRepository));
+                if (i >= CALENTAMIENTO) {
+                    nanos += System.nanoTime() - inicio;
+                }
+            }
+            long filas = (long) ITERACIONES * (PRODUCTOS * 2L + 1);
+            return filas / (nanos / 1_000_000_000.0);
+        }
+    }
+
+    private void insertar(String lote, CategoriaRepository categoriaRepository, ProductoRepository productoRepository) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(lote);
+        categoria = categoriaRepository.save(categoria);
+
+        List<Producto> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            Producto producto = new Producto();
+            producto.setNombre(lote + " producto " + i);
+            producto.setPrecio(BigDecimal.valueOf(100 + i % 50));
+            producto.setCategoria(categoria);
+            producto.setInventario(new Inventario(null, producto, i % 20, 5, LocalDateTime.now(), null, null, null));
+            productos.add(producto);
+        }
+        productoRepository.saveAll(productos);
+    }
+}
@@ -0,0 +1,109 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.config.ControladorPoolAdaptativo;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prueba de carga del pool con ráfagas: 32 hilos piden conexiones que retienen 5 ms durante
+// 300 ms, seguidos de 300 ms sin carga, 8 veces. Compara un pool fijo de 5 conexiones contra el
+// mismo pool con ControladorPoolAdaptativo (5..30, evaluando cada 100 ms) e informa la espera
+// media y el p99 para obtener una conexión.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=PoolAdaptativoBenchmarkTest
+@Tag("benchmark")
+class PoolAdaptativoBenchmarkTest {
+
+    private static final int HILOS = 32;
+    private static final int RAFAGAS = 8;
+    private static final long DURACION_RAFAGA_MS = 300;
+    private static final long PAUSA_MS = 300;
+    private static final long RETENCION_MS = 5;
+
+    @Test
+    void poolFijoVsAdaptativo() throws Exception {
+        Resultado fijo = ejecutar(false);
+        Resultado adaptativo = ejecutar(true);
+
+        System.out.printf("%nEspera para obtener conexión (%d hilos, %d ráfagas de %d ms)%n",
+                HILOS, RAFAGAS, DURACION_RAFAGA_MS);
+        System.out.printf("  Pool fijo (5)        : media %7.2f ms | p99 %7.2f ms | %,d conexiones obtenidas%n",
+                fijo.mediaMs(), fijo.p99Ms(), fijo.obtenidas());
+        System.out.printf("  Adaptativo (5..30)   : media %7.2f ms | p99 %7.2f ms | %,d conexiones obtenidas"
+                + " | máximo final %d%n", adaptativo.mediaMs(), adaptativo.p99Ms(), adaptativo.obtenidas(),
+                adaptativo.maximoFinal());
+
+        assertTrue(adaptativo.mediaMs() < fijo.mediaMs(), "El pool adaptativo debería reducir la espera");
+    }
+
+    private record Resultado(double mediaMs, double p99Ms, int obtenidas, int maximoFinal) {
+    }
+
+    private static Resultado ejecutar(boolean conControlador) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setPoolName(conControlador ? "adaptativo" : "fijo");
+            pool.setJdbcUrl("jdbc:h2:mem:carga_" + pool.getPoolName() + ";DB_CLOSE_DELAY=-1");
+            pool.setUsername("sa");
+            pool.setMaximumPoolSize(5);
+            pool.setMinimumIdle(5);
+            pool.setConnectionTimeout(30_000);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pool.getConnection().close();
+
+            if (conControlador) {
+                ControladorPoolAdaptativo controlador =
+                        new ControladorPoolAdaptativo(List.of(pool), meterRegistry, 5, 30, 4, 2, 5);
+                programador.scheduleWithFixedDelay(controlador::ajustar, 100, 100, TimeUnit.MILLISECONDS);
+            }
+
+            List<Long> esperas = Collections.synchronizedList(new ArrayList<>());
+            for (int rafaga = 0; rafaga < RAFAGAS; rafaga++) {
+                long fin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURACION_RAFAGA_MS);
+                List<Future<?>> tareas = new ArrayList<>();
+                for (int i = 0; i < HILOS; i++) {
+                    tareas.add(hilos.submit(() -> {
+                        while (System.nanoTime() < fin) {
+                            long inicio = System.nanoTime();
+                            try (Connection conexion = pool.getConnection();
+                                 Statement sentencia = conexion.createStatement()) {
+                                esperas.add(System.nanoTime() - inicio);
+                                sentencia.execute("SELECT 1");
+                                Thread.sleep(RETENCION_MS); // Simula la duración de la consulta
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> tarea : tareas) {
+                    tarea.get();
+                }
+                Thread.sleep(PAUSA_MS);
+            }
+
+            long[] ordenadas = esperas.stream().mapToLong(Long::longValue).sorted().toArray();
+            double media = esperas.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6;
+            double p99 = ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(ordenadas.length * 0.99))] / 1e6;
+            return new Resultado(media, p99, ordenadas.length, pool.getMaximumPoolSize());
+        } finally {
+            programador.shutdownNow();
+            hilos.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.TP6.dataService.benchmark;
+
+import com.TP6.dataService.DataServiceApplication;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.exception.StockInsuficienteException;
+import com.TP6.dataService.repository.InventarioRepository;
+import com.TP6.dataService.service.DescuentoStock;
+import com.TP6.dataService.service.InventarioService;
+import com.TP6.dataService.service.ProductoService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Ventas concurrentes de un mismo producto: descuento con bloqueo de fila (un UPDATE por venta)
+// contra el contador en memoria de un producto caliente (DescuentoStock). Se intentan más ventas
+// que el stock para verificar que ninguna de las dos variantes vende de más.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=StockCalienteBenchmarkTest
+@Tag("benchmark")
+class StockCalienteBenchmarkTest {
+
+    private static final int HILOS = 500;
+    private static final int VENTAS_POR_HILO = 30;
+    private static final int STOCK = 10_000;
+
+    @Test
+    void descuentoConBloqueoDeFilaVsContadorEnMemoria() throws InterruptedException {
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(DataServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:bench_stock_caliente",
+                        "consultas.monitor.habilitado=false",
+                        "inventario.caliente.reconciliar-ms=200")
+                // Con 500 hilos y 5 conexiones la espera supera los 2 s del perfil dev (argumento para
+                // que prevalezca sobre application-dev.yml)
+                .run("--spring.datasource.hikari.connection-timeout=120000")) {
+            ProductoService productoService = contexto.getBean(ProductoService.class);
+            InventarioService inventarioService = contexto.getBean(InventarioService.class);
+            InventarioRepository inventarioRepository = contexto.getBean(InventarioRepository.class);
+            DescuentoStock descuentoStock = contexto.getBean(DescuentoStock.class);
+
+            Inventario normal = crear("Normal", productoService, inventarioService);
+            Inventario caliente = crear("Caliente", productoService, inventarioService);
+            descuentoStock.marcarCaliente(caliente.getProducto().getId());
+
+            double conBloqueo = vender(descuentoStock, normal.getId());
+            double enMemoria = vender(descuentoStock, caliente.getId());
+            descuentoStock.conciliar();
+
+            System.out.printf("%n[benchmark] %d hilos x %d ventas sobre un stock de %d, ventas/s%n",
+                    HILOS, VENTAS_POR_HILO, STOCK);
+            System.out.printf("[benchmark] bloqueo de fila (UPDATE por venta): %,.0f ventas/s%n", conBloqueo);
+            System.out.printf("[benchmark] contador en memoria por franjas:    %,.0f ventas/s%n", enMemoria);
+
+            assertEquals(0, inventarioRepository.findById(normal.getId()).orElseThrow().getCantidad());
+            Inventario filaCaliente = inventarioRepository.findById(caliente.getId()).orElseThrow();
+            assertEquals(0, filaCaliente.getCantidad());
+            assertEquals(0, filaCaliente.getReservado());
+            assertTrue(enMemoria > conBloqueo);
+        }
+    }
+
+    // Lanza las ventas desde HILOS hilos a la vez y devuelve ventas exitosas por segundo;
+    // exige que se venda exactamente el stock (ni más ni menos)
+    private double vender(DescuentoStock descuentoStock, Long inventarioId) throws InterruptedException {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger vendidas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        for (int i = 0; i < HILOS; i++) {
+            hilos.execute(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < VENTAS_POR_HILO; j++) {
+                    try {
+                        descuentoStock.descontar(inventarioId, 1);
+                        vendidas.incrementAndGet();
+                    } catch (StockInsuficienteException e) {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+            });
+        }
+        long inicio = System.nanoTime();
+        largada.countDown();
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(5, TimeUnit.MINUTES));
+        long nanos = System.nanoTime() - inicio;
+
+        assertEquals(STOCK, vendidas.get());
+        assertEquals(HILOS * VENTAS_POR_HILO - STOCK, rechazadas.get());
+        return vendidas.get() / (nanos / 1_000_000_000.0);
+    }
+
+    private Inventario crear(String nombre, ProductoService productoService, InventarioService inventarioService) {
+        Producto producto = new Producto();
+        producto.setNombre(nombre);
+        producto.setPrecio(BigDecimal.TEN);
+        producto = productoService.guardar(producto);
+
+        Inventario inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(STOCK);
+        inventario.setStockMinimo(10);
+        return inventarioService.guardar(inventario);
+    }
+}
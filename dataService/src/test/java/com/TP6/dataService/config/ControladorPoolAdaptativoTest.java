@@ -0,0 +1,115 @@
+package com.TP6.dataService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ControladorPoolAdaptativoTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HikariDataSource pool;
+    private ControladorPoolAdaptativo controlador;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new HikariDataSource();
+        pool.setPoolName("prueba");
+        pool.setJdbcUrl("jdbc:h2:mem:pool_adaptativo;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        pool.setMinimumIdle(2);
+        pool.setConnectionTimeout(5000);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        // Límites 2..5, de a 2 conexiones, achica tras 2 intervalos en calma
+        controlador = new ControladorPoolAdaptativo(List.of(pool), meterRegistry, 2, 5, 2, 5, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    // Caso exitoso: con hilos esperando conexión el pool crece, sin pasar del máximo
+    @Test
+    void cuandoHayHilosEsperando_entoncesCreceHastaElMaximo() throws Exception {
+        List<Connection> retenidas = new ArrayList<>();
+        retenidas.add(pool.getConnection());
+        retenidas.add(pool.getConnection());
+        CompletableFuture<Connection> esperando = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+            Thread.sleep(1);
+        }
+
+        controlador.ajustar();
+        assertEquals(4, pool.getMaximumPoolSize());
+
+        // El hilo en espera obtiene una de las conexiones nuevas sin que se libere ninguna
+        retenidas.add(esperando.get());
+        retenidas.add(pool.getConnection());
+        CompletableFuture<Connection> otro = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+            Thread.sleep(1);
+        }
+        controlador.ajustar();
+        assertEquals(5, pool.getMaximumPoolSize());
+
+        retenidas.add(otro.get());
+        for (Connection conexion : retenidas) {
+            conexion.close();
+        }
+    }
+
+    // Caso exitoso: sin presión durante los intervalos configurados, achica hasta el mínimo
+    @Test
+    void cuandoPoolOciosoVariosIntervalos_entoncesAchicaHastaElMinimo() throws Exception {
+        pool.getConnection().close(); // Inicia el pool
+        pool.getHikariConfigMXBean().setMaximumPoolSize(5);
+
+        controlador.ajustar();
+        assertEquals(5, pool.getMaximumPoolSize()); // Un intervalo en calma todavía no alcanza
+        controlador.ajustar();
+        assertEquals(3, pool.getMaximumPoolSize());
+        controlador.ajustar();
+        controlador.ajustar();
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertTrue(pool.getMinimumIdle() <= pool.getMaximumPoolSize());
+    }
+
+    // Caso límite: un pool que todavía no se inició no se toca
+    @Test
+    void cuandoPoolNoIniciado_entoncesNoAjusta() {
+        controlador.ajustar();
+
+        assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    // Caso error: límites inconsistentes
+    @Test
+    void cuandoLimitesInvalidos_entoncesLanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ControladorPoolAdaptativo(List.of(pool), meterRegistry, 10, 5, 2, 5, 2));
+    }
+}
@@ -0,0 +1,69 @@
+package com.TP6.dataService.config;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.service.CategoriaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2 en memoria: "primaria" (esquema creado por Hibernate) y "replica" (esquema manual)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa",
+        "datasource.enrutamiento.ventana-lectura-propia-ms=0"
+})
+class DataSourceConfigIntegrationTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    @Qualifier("primariaDataSource")
+    private DataSource primaria;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange → la réplica tiene una categoría que no existe en la primaria
+        JdbcTemplate jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.execute("CREATE TABLE IF NOT EXISTS categorias "
+                + "(id BIGINT PRIMARY KEY, nombre VARCHAR(100), descripcion VARCHAR(500), version BIGINT DEFAULT 0)");
+        jdbcReplica.update("DELETE FROM categorias");
+        jdbcReplica.update("INSERT INTO categorias (id, nombre) VALUES (100, 'Solo en réplica')");
+    }
+
+    // Caso exitoso: una consulta readOnly se resuelve en la réplica
+    @Test
+    void cuandoConsultaReadOnly_entoncesLeeDeLaReplica() {
+        Categoria categoria = categoriaService.buscarPorNombre("Solo en réplica");
+
+        assertEquals(100L, categoria.getId());
+    }
+
+    // Caso exitoso: una escritura se persiste en la primaria y no en la réplica
+    @Test
+    void cuandoGuardar_entoncesEscribeEnLaPrimaria() {
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Escrita en primaria");
+
+        categoriaService.guardar(categoria);
+
+        Integer enPrimaria = new JdbcTemplate(primaria).queryForObject(
+                "SELECT COUNT(*) FROM categorias WHERE nombre = 'Escrita en primaria'", Integer.class);
+        Integer enReplica = new JdbcTemplate(replica).queryForObject(
+                "SELECT COUNT(*) FROM categorias WHERE nombre = 'Escrita en primaria'", Integer.class);
+        assertEquals(1, enPrimaria);
+        assertEquals(0, enReplica);
+    }
+}
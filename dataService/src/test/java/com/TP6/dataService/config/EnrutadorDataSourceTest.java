@@ -0,0 +1,135 @@
+package com.TP6.dataService.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EnrutadorDataSourceTest {
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    // Enrutador sobre dos DataSource simulados cuyas sentencias no hacen nada
+    private EnrutadorDataSource enrutador(long ventanaMs) throws SQLException {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(ventanaMs);
+        enrutador.setTargetDataSources(Map.of(
+                EnrutadorDataSource.Destino.PRIMARIA, dataSource(),
+                EnrutadorDataSource.Destino.REPLICA, dataSource()));
+        enrutador.afterPropertiesSet();
+        return enrutador;
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenAnswer(invocacion -> mock(PreparedStatement.class));
+        return dataSource;
+    }
+
+    // Simula la confirmación de la transacción actual
+    private void confirmar() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    // Transacción de escritura que ejecuta un UPDATE y confirma
+    private void escribir(EnrutadorDataSource enrutador) throws SQLException {
+        try (Connection conexion = enrutador.getConnection()) {
+            conexion.prepareStatement("update inventario set cantidad = ? where id = ?").executeUpdate();
+        }
+        confirmar();
+    }
+
+    // Caso exitoso: una transacción de solo lectura va a la réplica
+    @Test
+    void cuandoTransaccionReadOnly_entoncesUsaReplica() throws SQLException {
+        EnrutadorDataSource enrutador = enrutador(1000);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(EnrutadorDataSource.Destino.REPLICA, enrutador.determineCurrentLookupKey());
+    }
+
+    // Caso exitoso: una transacción de escritura va a la primaria
+    @Test
+    void cuandoTransaccionDeEscritura_entoncesUsaPrimaria() throws SQLException {
+        EnrutadorDataSource enrutador = enrutador(1000);
+
+        assertEquals(EnrutadorDataSource.Destino.PRIMARIA, enrutador.determineCurrentLookupKey());
+    }
+
+    // Caso límite: dentro de la ventana posterior a una escritura, las lecturas van a la primaria
+    @Test
+    void cuandoLecturaDentroDeVentana_entoncesUsaPrimaria() throws SQLException {
+        EnrutadorDataSource enrutador = enrutador(60_000);
+        escribir(enrutador);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(EnrutadorDataSource.Destino.PRIMARIA, enrutador.determineCurrentLookupKey());
+    }
+
+    // Caso límite: una transacción de escritura que sólo consultó no abre la ventana
+    // (publicador del outbox sin eventos, sincronización del conjunto de stock bajo, long-poll)
+    @Test
+    void cuandoTransaccionDeEscrituraSinDml_entoncesLecturaSigueEnReplica() throws SQLException {
+        EnrutadorDataSource enrutador = enrutador(60_000);
+        try (Connection conexion = enrutador.getConnection()) {
+            conexion.prepareStatement("select * from outbox where publicado = false").executeQuery();
+            conexion.prepareStatement("select * from inventario for update").execute();
+        }
+        confirmar();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(EnrutadorDataSource.Destino.REPLICA, enrutador.determineCurrentLookupKey());
+    }
+
+    // Caso límite: una escritura revertida no abre la ventana
+    @Test
+    void cuandoEscrituraSeRevierte_entoncesLecturaSigueEnReplica() throws SQLException {
+        EnrutadorDataSource enrutador = enrutador(60_000);
+        try (Connection conexion = enrutador.getConnection()) {
+            conexion.prepareStatement("insert into producto (nombre) values (?)").executeUpdate();
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(EnrutadorDataSource.Destino.REPLICA, enrutador.determineCurrentLookupKey());
+    }
+
+    // Caso límite: sin ventana, la lectura posterior a una escritura vuelve a la réplica
+    @Test
+    void cuandoVentanaCero_entoncesLecturaVuelveAReplica() throws SQLException, InterruptedException {
+        EnrutadorDataSource enrutador = enrutador(0);
+        escribir(enrutador);
+        Thread.sleep(1);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(EnrutadorDataSource.Destino.REPLICA, enrutador.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,40 @@
+package com.TP6.dataService.config;
+
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.service.ProductoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MonitorConsultasIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ConsultasEndpoint consultasEndpoint;
+
+    // Caso exitoso: las sentencias de Hibernate pasan por el DataSource monitoreado
+    @Test
+    void cuandoHibernateEjecutaSentencias_entoncesAparecenEnElEndpoint() {
+        consultasEndpoint.reiniciar();
+        Producto producto = new Producto();
+        producto.setNombre("Monitoreado " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        Producto guardado = productoService.guardar(producto);
+        productoService.buscarPorId(guardado.getId());
+
+        List<MonitorConsultas.ResumenConsulta> consultas = consultasEndpoint.masLentas(100);
+
+        assertTrue(consultas.stream().anyMatch(c -> c.consulta().startsWith("insert into productos")), consultas::toString);
+        assertTrue(consultas.stream().anyMatch(c -> c.consulta().startsWith("select") && c.consulta().contains("productos")),
+                consultas::toString);
+        assertTrue(consultas.stream().allMatch(c -> c.ejecuciones() > 0 && c.maximoMs() >= c.p50Ms()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.TP6.dataService.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonitorConsultasTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MonitorConsultas monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new MonitorConsultas(meterRegistry, 200, 0, 3);
+    }
+
+    // Caso exitoso: literales, espacios y listas IN no generan formas distintas
+    @Test
+    void cuandoNormalizar_entoncesAgrupaVariantesDeLaMismaConsulta() {
+        assertEquals("select p1_0.id from productos p1_0 where p1_0.id in (?...) and p1_0.nombre=?",
+                MonitorConsultas.normalizar("select p1_0.id\n  from productos p1_0 where p1_0.id in (?, ?, ?)"
+                        + " and p1_0.nombre='O''Brien'"));
+        assertEquals("delete from inventario where id=?", MonitorConsultas.normalizar("delete from inventario where id=42"));
+    }
+
+    // Caso exitoso: el top ordena por p99 y acumula por forma; también alimenta el timer por tipo
+    @Test
+    void cuandoRegistrarEjecuciones_entoncesTopOrdenadoPorP99() {
+        for (int i = 0; i < 10; i++) {
+            monitor.registrar("select * from productos where id=?", TimeUnit.MILLISECONDS.toNanos(2), new Object[]{i});
+        }
+        monitor.registrar("update inventario set cantidad=? where id=?", TimeUnit.MILLISECONDS.toNanos(50), null);
+
+        List<MonitorConsultas.ResumenConsulta> top = monitor.masLentas(10);
+
+        assertEquals(2, top.size());
+        assertTrue(top.get(0).consulta().startsWith("update"));
+        assertEquals(10, top.get(1).ejecuciones());
+        assertTrue(top.get(1).p99Ms() >= 1.5 && top.get(1).p99Ms() <= 2.5, "p99 = " + top.get(1).p99Ms());
+        assertEquals(10, meterRegistry.get("jdbc.sentencias").tag("tipo", "select").timer().count());
+        assertEquals(1, monitor.masLentas(1).size());
+    }
+
+    // Caso límite: superado el máximo de formas, las nuevas se agrupan en una sola
+    @Test
+    void cuandoSuperaMaxFormas_entoncesAgrupaElResto() {
+        for (int i = 0; i < 6; i++) {
+            monitor.registrar("select col" + i + " from t", 1000, null);
+        }
+
+        List<MonitorConsultas.ResumenConsulta> top = monitor.masLentas(10);
+
+        assertEquals(4, top.size()); // 3 formas propias + "(otras formas)"
+        assertTrue(top.stream().anyMatch(r -> r.consulta().equals("(otras formas)") && r.ejecuciones() == 3));
+    }
+}
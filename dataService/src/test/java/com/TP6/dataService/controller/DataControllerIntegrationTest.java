@@ -1,18 +1,27 @@
 package com.TP6.dataService.controller;
 
 import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.EventoCambio;
+import com.TP6.dataService.entity.Inventario;
 import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.TipoEntidad;
 import com.TP6.dataService.service.ProductoService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,6 +58,28 @@ class DataControllerIntegrationTest {
         assertEquals("Producto Test", response.getBody().getNombre());
     }
 
+    // Caso exitoso: la paginación por clave devuelve los productos siguientes al id indicado
+    @Test
+    void cuandoPedirPaginaDeProductos_entoncesRetornaLosSiguientesPorId() {
+        // Arrange → tres productos consecutivos
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Pagina " + i + " " + System.nanoTime());
+            producto.setPrecio(BigDecimal.TEN);
+            ids[i] = restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody().getId();
+        }
+
+        // Act → página de un elemento a partir del primero
+        ResponseEntity<Producto[]> response = restTemplate.getForEntity(
+                "/data/productos/pagina?desdeId=" + ids[0] + "&limite=1", Producto[].class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().length);
+        assertEquals(ids[1], response.getBody()[0].getId());
+    }
+
     // Caso error: buscar producto inexistente devuelve 404
     @Test
     void cuandoBuscarProductoInexistente_entoncesRetorna404() {
@@ -60,6 +91,24 @@ class DataControllerIntegrationTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    // Caso error: crear un producto con un nombre existente devuelve 409 (restricción única)
+    @Test
+    void cuandoCrearProductoDuplicado_entoncesRetorna409() {
+        // Arrange → producto ya creado
+        Producto producto = new Producto();
+        producto.setNombre("Duplicado " + System.nanoTime());
+        producto.setPrecio(BigDecimal.ONE);
+        assertEquals(HttpStatus.CREATED,
+                restTemplate.postForEntity("/data/productos", producto, Producto.class).getStatusCode());
+
+        // Act → segunda alta con el mismo nombre
+        ResponseEntity<String> response = restTemplate.postForEntity("/data/productos", producto, String.class);
+
+        // Assert → el código distingue el duplicado de una versión vieja
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"codigo\":\"YA_EXISTE\""));
+    }
+
     // ------------------- TESTS CATEGORÍAS -------------------
 
     // Caso error: intentar crear categoría duplicada devuelve 409
@@ -83,8 +132,59 @@ class DataControllerIntegrationTest {
         assertEquals(HttpStatus.CONFLICT, response2.getStatusCode());
     }
 
+    // Caso exitoso: eliminar una categoría elimina también sus productos; una segunda baja devuelve 404
+    @Test
+    void cuandoEliminarCategoriaConProductos_entoncesEliminaSusProductos() {
+        // Arrange → categoría con un producto
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Baja " + System.nanoTime());
+        Categoria creada = restTemplate.postForEntity("/data/categorias", categoria, Categoria.class).getBody();
+        Producto producto = new Producto();
+        producto.setNombre("Producto de baja " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setCategoria(creada);
+        Producto productoCreado = restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody();
+
+        // Act
+        ResponseEntity<Void> baja = restTemplate.exchange("/data/categorias/" + creada.getId(),
+                HttpMethod.DELETE, null, Void.class);
+        ResponseEntity<String> segundaBaja = restTemplate.exchange("/data/categorias/" + creada.getId(),
+                HttpMethod.DELETE, null, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, baja.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, segundaBaja.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/data/productos/id/" + productoCreado.getId(), String.class).getStatusCode());
+    }
+
     // ------------------- TESTS INVENTARIO -------------------
 
+    // Caso error: actualizar una categoría con una versión vieja devuelve 409 y no pisa el cambio
+    @Test
+    void cuandoActualizarCategoriaConVersionVieja_entoncesRetorna409() {
+        // Arrange → categoría creada y actualizada una vez con la versión leída
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Versionada " + System.nanoTime());
+        Categoria creada = restTemplate.postForEntity("/data/categorias", categoria, Categoria.class).getBody();
+        creada.setDescripcion("Primer cambio");
+        ResponseEntity<Categoria> primera = restTemplate.exchange("/data/categorias/" + creada.getId(),
+                HttpMethod.PUT, new HttpEntity<>(creada), Categoria.class);
+        assertEquals(HttpStatus.OK, primera.getStatusCode());
+        assertEquals(creada.getVersion() + 1, primera.getBody().getVersion());
+
+        // Act → segundo cambio con la versión ya superada
+        creada.setDescripcion("Cambio perdido");
+        ResponseEntity<String> segunda = restTemplate.exchange("/data/categorias/" + creada.getId(),
+                HttpMethod.PUT, new HttpEntity<>(creada), String.class);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, segunda.getStatusCode());
+        assertTrue(segunda.getBody().contains("\"codigo\":\"CONFLICTO_VERSION\""));
+        assertEquals("Primer cambio", restTemplate.getForEntity("/data/categorias/id/" + creada.getId(),
+                Categoria.class).getBody().getDescripcion());
+    }
+
     // Caso exitoso: consultar stock bajo devuelve lista (vacía o con datos)
     @Test
     void cuandoConsultarStockBajo_entoncesRetornaLista() {
@@ -99,4 +199,246 @@ class DataControllerIntegrationTest {
         // Si la BD está vacía en test, retorna lista vacía
         assertEquals(0, response.getBody().length);
     }
+
+    // ------------------- TESTS PATCH -------------------
+
+    // Caso exitoso: un PATCH sólo con el precio cambia el precio y conserva el resto
+    @Test
+    void cuandoModificarPrecioConPatch_entoncesSoloCambiaElPrecio() {
+        // Arrange → producto con descripción
+        Producto producto = new Producto();
+        producto.setNombre("Parcial " + System.nanoTime());
+        producto.setDescripcion("Se conserva");
+        producto.setPrecio(BigDecimal.TEN);
+        Producto creado = restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody();
+
+        // Act → JSON Merge Patch con el precio y la versión leída
+        ResponseEntity<Producto> response = restTemplate.exchange("/data/productos/" + creado.getId(),
+                HttpMethod.PATCH, parche("{\"precio\": 12.50, \"version\": " + creado.getVersion() + "}"),
+                Producto.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, new BigDecimal("12.50").compareTo(response.getBody().getPrecio()));
+        assertEquals("Se conserva", response.getBody().getDescripcion());
+        assertEquals(creado.getNombre(), response.getBody().getNombre());
+        assertEquals(creado.getVersion() + 1, response.getBody().getVersion());
+    }
+
+    // Caso error: un PATCH con un campo que no se puede modificar devuelve 400
+    @Test
+    void cuandoModificarCategoriaConCampoNoPermitido_entoncesRetorna400() {
+        // Arrange
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Parcial " + System.nanoTime());
+        Categoria creada = restTemplate.postForEntity("/data/categorias", categoria, Categoria.class).getBody();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange("/data/categorias/" + creada.getId(),
+                HttpMethod.PATCH, parche("{\"id\": 999}"), String.class);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    // Caso error: una relación con un id inexistente devuelve 404 en PATCH, POST y PUT (no 500)
+    @Test
+    void cuandoReferenciarCategoriaOProductoInexistente_entoncesRetorna404() {
+        // Arrange
+        Producto producto = new Producto();
+        producto.setNombre("Relación " + System.nanoTime());
+        producto.setPrecio(BigDecimal.ONE);
+        Producto creado = restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody();
+        Long inventarioId = restTemplate.postForEntity("/data/inventario",
+                Map.of("producto", Map.of("id", creado.getId()), "cantidad", 8), Inventario.class).getBody().getId();
+
+        // Act
+        ResponseEntity<String> parcheProducto = restTemplate.exchange("/data/productos/" + creado.getId(),
+                HttpMethod.PATCH, parche("{\"categoria\": {\"id\": 999999}}"), String.class);
+        ResponseEntity<String> parcheInventario = restTemplate.exchange("/data/inventario/" + inventarioId,
+                HttpMethod.PATCH, parche("{\"producto\": {\"id\": 999999}}"), String.class);
+        ResponseEntity<String> alta = restTemplate.postForEntity("/data/productos",
+                Map.of("nombre", "Sin categoría " + System.nanoTime(), "precio", 1, "categoria", Map.of("id", 999999)),
+                String.class);
+        ResponseEntity<String> reemplazo = restTemplate.exchange("/data/productos/" + creado.getId(), HttpMethod.PUT,
+                new HttpEntity<>(Map.of("nombre", creado.getNombre(), "precio", 1, "categoria", Map.of("id", 999999))),
+                String.class);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, parcheProducto.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, parcheInventario.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, alta.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, reemplazo.getStatusCode());
+    }
+
+    // Caso exitoso: el producto de un inventario se puede indicar sólo con su id (sin versión)
+    @Test
+    void cuandoCrearInventarioConProductoSoloPorId_entoncesSePersisteYSeModificaConPatch() {
+        // Arrange → producto existente, referenciado sólo por id
+        Producto producto = new Producto();
+        producto.setNombre("Referencia " + System.nanoTime());
+        producto.setPrecio(BigDecimal.ONE);
+        Long productoId = restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody().getId();
+        ResponseEntity<Inventario> creado = restTemplate.postForEntity("/data/inventario",
+                Map.of("producto", Map.of("id", productoId), "cantidad", 8, "stockMinimo", 1), Inventario.class);
+        assertEquals(HttpStatus.CREATED, creado.getStatusCode());
+
+        // Act → PATCH sólo de la cantidad
+        ResponseEntity<Inventario> modificado = restTemplate.exchange("/data/inventario/" + creado.getBody().getId(),
+                HttpMethod.PATCH, parche("{\"cantidad\": 6}"), Inventario.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, modificado.getStatusCode());
+        assertEquals(6, modificado.getBody().getCantidad());
+        assertEquals(1, modificado.getBody().getStockMinimo());
+    }
+
+    private static HttpEntity<String> parche(String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        return new HttpEntity<>(json, headers);
+    }
+
+    // ------------------- TESTS ELIMINACIÓN EN BLOQUE -------------------
+
+    // Caso exitoso: eliminar varios productos por id elimina también sus inventarios, ignora
+    // los ids inexistentes y descuenta el resumen de la categoría
+    @Test
+    void cuandoEliminarVariosProductos_entoncesEliminaLosExistentes() {
+        // Arrange → categoría con tres productos, dos de ellos con inventario (uno en stock bajo)
+        Categoria categoria = crearCategoria("Bloque " + System.nanoTime());
+        Producto primero = crearProducto(categoria);
+        Producto segundo = crearProducto(categoria);
+        Producto queda = crearProducto(categoria);
+        Inventario inventario = crearInventario(primero, 1, 5);
+        crearInventario(segundo, 10, 2);
+
+        // Act
+        ResponseEntity<Map> response = restTemplate.exchange("/data/productos?ids=" + primero.getId() + ","
+                + segundo.getId() + ",999999", HttpMethod.DELETE, null, Map.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().get("eliminados"));
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/data/productos/id/" + primero.getId(), String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/data/inventario/" + inventario.getId(), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                "/data/productos/id/" + queda.getId(), String.class).getStatusCode());
+        Map<String, Object> resumen = resumenDe(categoria);
+        assertEquals(1, resumen.get("cantidadProductos"));
+        assertEquals(0, resumen.get("unidades"));
+        assertEquals(0, resumen.get("productosStockBajo"));
+    }
+
+    // Caso exitoso: eliminar los productos de una categoría la deja vacía pero existente
+    @Test
+    void cuandoEliminarProductosDeCategoria_entoncesLaCategoriaQuedaVacia() {
+        // Arrange
+        Categoria categoria = crearCategoria("Vaciar " + System.nanoTime());
+        Producto producto = crearProducto(categoria);
+        crearInventario(producto, 3, 5);
+        crearProducto(categoria);
+
+        // Act
+        ResponseEntity<Map> response = restTemplate.exchange("/data/categorias/" + categoria.getId() + "/productos",
+                HttpMethod.DELETE, null, Map.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().get("eliminados"));
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                "/data/categorias/id/" + categoria.getId(), String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity(
+                "/data/productos/id/" + producto.getId(), String.class).getStatusCode());
+        Map<String, Object> resumen = resumenDe(categoria);
+        assertEquals(0, resumen.get("cantidadProductos"));
+        assertEquals(0, resumen.get("productosStockBajo"));
+    }
+
+    // Caso error: eliminar los productos de una categoría inexistente devuelve 404
+    @Test
+    void cuandoEliminarProductosDeCategoriaInexistente_entoncesRetorna404() {
+        ResponseEntity<String> response = restTemplate.exchange("/data/categorias/999999/productos",
+                HttpMethod.DELETE, null, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private Categoria crearCategoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        return restTemplate.postForEntity("/data/categorias", categoria, Categoria.class).getBody();
+    }
+
+    private Producto crearProducto(Categoria categoria) {
+        Producto producto = new Producto();
+        producto.setNombre("Producto " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto.setCategoria(categoria);
+        return restTemplate.postForEntity("/data/productos", producto, Producto.class).getBody();
+    }
+
+    private Inventario crearInventario(Producto producto, int cantidad, int stockMinimo) {
+        Map<String, Object> inventario = Map.of("producto", Map.of("id", producto.getId()),
+                "cantidad", cantidad, "stockMinimo", stockMinimo);
+        return restTemplate.postForEntity("/data/inventario", inventario, Inventario.class).getBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> resumenDe(Categoria categoria) {
+        Map<String, Object>[] resumenes = restTemplate.getForEntity("/data/categorias/resumen", Map[].class).getBody();
+        return Arrays.stream(resumenes)
+                .filter(resumen -> categoria.getId().equals(((Number) resumen.get("categoriaId")).longValue()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // ------------------- TESTS CAMBIOS -------------------
+
+    // Caso exitoso: una escritura aparece publicada en el feed de cambios
+    @Test
+    void cuandoCrearCategoria_entoncesSePublicaEventoDeCambio() {
+        // Arrange → creamos una categoría (registra el evento en el outbox)
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Feed de cambios");
+        ResponseEntity<Categoria> creada = restTemplate.postForEntity(
+                "/data/categorias", categoria, Categoria.class);
+        assertEquals(HttpStatus.CREATED, creada.getStatusCode());
+        Long categoriaId = creada.getBody().getId();
+
+        // Act → long-poll avanzando 'since' hasta encontrar el evento (el publicador es asíncrono)
+        boolean publicado = false;
+        long since = 0;
+        for (int intento = 0; intento < 10 && !publicado; intento++) {
+            ResponseEntity<EventoCambio[]> response = restTemplate.getForEntity(
+                    "/data/changes?since=" + since, EventoCambio[].class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            for (EventoCambio evento : response.getBody()) {
+                since = evento.getSecuencia();
+                publicado |= evento.getEntidad() == TipoEntidad.CATEGORIA
+                        && evento.getEntidadId().equals(categoriaId);
+            }
+        }
+
+        // Assert → el evento de creación fue publicado en el feed
+        assertTrue(publicado);
+    }
+
+    // ------------------- TESTS ACTUATOR -------------------
+
+    // Caso error: el endpoint de consultas lentas se lee, pero no se puede reiniciar por la web
+    @Test
+    void cuandoDeleteConsultasPorActuator_entoncesNoReiniciaLasEstadisticas() {
+        productoService.obtenerTodos(); // Al menos una consulta registrada
+
+        ResponseEntity<String> reinicio = restTemplate.exchange(
+                "/actuator/consultas", HttpMethod.DELETE, null, String.class);
+        ResponseEntity<Map[]> lectura = restTemplate.getForEntity("/actuator/consultas?top=1", Map[].class);
+
+        assertFalse(reinicio.getStatusCode().is2xxSuccessful());
+        assertEquals(HttpStatus.OK, lectura.getStatusCode());
+        assertEquals(1, lectura.getBody().length);
+    }
 }
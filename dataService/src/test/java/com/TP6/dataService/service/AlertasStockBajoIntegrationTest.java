@@ -0,0 +1,119 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "alertas.stock-bajo.heartbeat-ms=600000")
+class AlertasStockBajoIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private AlertasStockBajo alertasStockBajo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Inventario inventario;
+    private EmitterCapturador emitter;
+
+    @BeforeEach
+    void setUp() {
+        Producto producto = new Producto();
+        producto.setNombre("Alerta " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto = productoService.guardar(producto);
+
+        inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(20);
+        inventario.setStockMinimo(5);
+        inventario = inventarioService.guardar(inventario);
+
+        emitter = new EmitterCapturador();
+        alertasStockBajo.agregar(emitter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitter.cerrado = true; // Se da de baja en el próximo envío, como una conexión cortada
+    }
+
+    // Caso exitoso: al confirmar una actualización que cruza el mínimo, el suscriptor recibe la alerta
+    @Test
+    void cuandoActualizarHastaStockBajo_entoncesSuscriptorRecibeAlerta() throws Exception {
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(3));
+
+        String evento = emitter.eventos.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(evento);
+        assertTrue(evento.contains("event:" + AlertasStockBajo.EVENTO));
+        assertTrue(evento.contains("\"tipo\":\"ENTRA\""));
+        assertTrue(evento.contains("\"inventarioId\":" + inventario.getId()));
+    }
+
+    // Caso límite: una actualización que no cruza el mínimo no genera alerta
+    @Test
+    void cuandoActualizarSinCruzarElMinimo_entoncesNoHayAlerta() throws Exception {
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(10));
+
+        assertNull(emitter.eventos.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    // Caso límite: si la transacción se revierte la alerta nunca se envía
+    @Test
+    void cuandoTransaccionSeRevierte_entoncesNoHayAlerta() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventarioService.actualizar(inventario.getId(), copiaConCantidad(1));
+            status.setRollbackOnly();
+        });
+
+        assertNull(emitter.eventos.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    private Inventario copiaConCantidad(int cantidad) {
+        Inventario cambio = new Inventario();
+        cambio.setProducto(inventario.getProducto());
+        cambio.setCantidad(cantidad);
+        cambio.setStockMinimo(inventario.getStockMinimo());
+        return cambio;
+    }
+
+    // Emitter que, en lugar de escribir en una respuesta HTTP, acumula el texto de cada evento
+    private static class EmitterCapturador extends SseEmitter {
+        private final BlockingQueue<String> eventos = new LinkedBlockingQueue<>();
+        private volatile boolean cerrado;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (cerrado) {
+                throw new IOException("Conexión cerrada");
+            }
+            StringBuilder texto = new StringBuilder();
+            builder.build().forEach(parte -> texto.append(parte.getData()));
+            if (!texto.toString().startsWith(":")) { // Ignora los heartbeats
+                eventos.add(texto.toString());
+            }
+        }
+    }
+}
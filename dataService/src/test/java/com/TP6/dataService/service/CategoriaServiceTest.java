@@ -1,15 +1,22 @@
 package com.TP6.dataService.service;
 
 import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
 import com.TP6.dataService.exception.CategoriaNoEncontradaException;
 import com.TP6.dataService.exception.CategoriaYaExisteException;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
 import com.TP6.dataService.repository.CategoriaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +31,20 @@ class CategoriaServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository; // Simulamos el repositorio
 
+    @Mock
+    private ProductoService productoService; // Simulamos la baja de los productos de la categoría
+
+    @Mock
+    private OutboxService outboxService; // Simulamos el registro de eventos de cambio
+
+    @Mock
+    private ResumenCategoriaService resumenCategoriaService; // Simulamos el resumen por categoría
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ParcheJson parcheJson = new ParcheJson(objectMapper); // Real: aplica los PATCH sobre la entidad
+
     @InjectMocks
     private CategoriaService categoriaService; // Service bajo prueba
 
@@ -43,24 +64,26 @@ class CategoriaServiceTest {
     // Caso exitoso: guardar categoría válida
     @Test
     void cuandoGuardarCategoriaValida_entoncesPersiste() {
-        when(categoriaRepository.findByNombre("Bebidas")).thenReturn(Optional.empty());
-        when(categoriaRepository.save(categoria)).thenReturn(categoria);
+        when(categoriaRepository.saveAndFlush(categoria)).thenReturn(categoria);
 
         Categoria resultado = categoriaService.guardar(categoria);
 
         assertNotNull(resultado);
         assertEquals("Bebidas", resultado.getNombre());
-        verify(categoriaRepository).save(categoria);
+        verify(categoriaRepository, never()).findByNombre(any()); // Sin consulta previa por nombre
+        verify(outboxService).registrar(TipoEntidad.CATEGORIA, 1L, TipoOperacion.CREAR);
+        verify(resumenCategoriaService).crear(categoria);
     }
 
-    // Caso error: guardar categoría duplicada lanza excepción
+    // Caso error: guardar categoría duplicada (viola la restricción única) lanza excepción
     @Test
     void cuandoGuardarCategoriaDuplicada_entoncesLanzaExcepcion() {
-        when(categoriaRepository.findByNombre("Bebidas")).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.saveAndFlush(categoria)).thenThrow(
+                new DataIntegrityViolationException("Unique index or primary key violation: UK_CATEGORIAS_NOMBRE"));
 
         assertThrows(CategoriaYaExisteException.class, () -> categoriaService.guardar(categoria));
 
-        verify(categoriaRepository, never()).save(any());
+        verifyNoInteractions(outboxService, resumenCategoriaService);
     }
 
     // ------------------- BUSCAR -------------------
@@ -133,17 +156,31 @@ class CategoriaServiceTest {
 
     // ------------------- ACTUALIZAR -------------------
 
-    // Caso exitoso: actualizar categoría existente
+    // Caso exitoso: actualizar categoría con su versión es un único UPDATE y devuelve la versión siguiente
     @Test
-    void cuandoActualizarCategoriaExistente_entoncesPersiste() {
-        when(categoriaRepository.existsById(1L)).thenReturn(true);
-        when(categoriaRepository.save(categoria)).thenReturn(categoria);
+    void cuandoActualizarCategoriaConVersion_entoncesUnSoloUpdate() {
+        categoria.setVersion(3L);
+        when(categoriaRepository.actualizar(1L, categoria.getNombre(), categoria.getDescripcion(), 3L)).thenReturn(1);
 
         Categoria actualizada = categoriaService.actualizar(1L, categoria);
 
-        assertNotNull(actualizada);
         assertEquals(1L, actualizada.getId());
-        verify(categoriaRepository).save(categoria);
+        assertEquals(4L, actualizada.getVersion());
+        verify(categoriaRepository, never()).existsById(any());
+        verify(categoriaRepository, never()).findById(any());
+        verify(resumenCategoriaService).renombrar(1L, categoria.getNombre());
+    }
+
+    // Caso límite: sin versión no se verifica y se relee la fila para devolver la versión nueva
+    @Test
+    void cuandoActualizarCategoriaSinVersion_entoncesReleeLaFila() {
+        when(categoriaRepository.actualizar(1L, categoria.getNombre(), categoria.getDescripcion(), null)).thenReturn(1);
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+
+        Categoria actualizada = categoriaService.actualizar(1L, categoria);
+
+        assertEquals(1L, actualizada.getId());
+        verify(outboxService).registrar(TipoEntidad.CATEGORIA, 1L, TipoOperacion.ACTUALIZAR);
     }
 
     // Caso error: actualizar categoría inexistente lanza excepción
@@ -154,23 +191,75 @@ class CategoriaServiceTest {
         assertThrows(CategoriaNoEncontradaException.class, () -> categoriaService.actualizar(99L, categoria));
     }
 
+    // Caso error: actualizar con una versión vieja lanza conflicto y no registra el cambio
+    @Test
+    void cuandoActualizarCategoriaConVersionVieja_entoncesLanzaConflicto() {
+        categoria.setVersion(2L);
+        when(categoriaRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ConflictoDeVersionException.class, () -> categoriaService.actualizar(1L, categoria));
+        verifyNoInteractions(outboxService);
+    }
+
+    // Caso error: renombrar con el nombre de otra categoría viola la restricción única
+    @Test
+    void cuandoActualizarCategoriaConNombreExistente_entoncesLanzaExcepcion() {
+        when(categoriaRepository.actualizar(1L, categoria.getNombre(), categoria.getDescripcion(), null)).thenThrow(
+                new DataIntegrityViolationException("Unique index or primary key violation: UK_CATEGORIAS_NOMBRE"));
+
+        assertThrows(CategoriaYaExisteException.class, () -> categoriaService.actualizar(1L, categoria));
+        verifyNoInteractions(outboxService);
+    }
+
+    // ------------------- MODIFICAR (PATCH) -------------------
+
+    // Caso exitoso: un PATCH sólo con la descripción conserva el nombre y no renombra el resumen
+    @Test
+    void cuandoModificarSoloDescripcion_entoncesConservaElNombre() throws Exception {
+        when(categoriaRepository.findById(1L)).thenReturn(Optional.of(categoria));
+        when(categoriaRepository.saveAndFlush(categoria)).thenReturn(categoria);
+
+        Categoria resultado = categoriaService.modificar(1L, objectMapper.readTree("{\"descripcion\": \"Nueva\"}"));
+
+        assertEquals("Bebidas", resultado.getNombre());
+        assertEquals("Nueva", resultado.getDescripcion());
+        verify(outboxService).registrar(TipoEntidad.CATEGORIA, 1L, TipoOperacion.ACTUALIZAR);
+        verifyNoInteractions(resumenCategoriaService);
+    }
+
+    // Caso error: modificar una categoría inexistente lanza excepción
+    @Test
+    void cuandoModificarCategoriaInexistente_entoncesLanzaExcepcion() throws Exception {
+        when(categoriaRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(CategoriaNoEncontradaException.class,
+                () -> categoriaService.modificar(99L, objectMapper.readTree("{\"nombre\": \"Otra\"}")));
+    }
+
     // ------------------- ELIMINAR -------------------
 
     // Caso exitoso: eliminar categoría existente
     @Test
     void cuandoEliminarCategoriaExistente_entoncesElimina() {
-        when(categoriaRepository.existsById(1L)).thenReturn(true);
+        when(categoriaRepository.eliminar(1L)).thenReturn(1);
 
         categoriaService.eliminar(1L);
 
-        verify(categoriaRepository).deleteById(1L);
+        // Primero los productos de la categoría (con sus inventarios), después la categoría
+        InOrder orden = inOrder(productoService, categoriaRepository);
+        orden.verify(productoService).eliminarDeCategoria(1L);
+        orden.verify(categoriaRepository).eliminar(1L);
+        verify(categoriaRepository, never()).existsById(any());
+        verify(outboxService).registrar(TipoEntidad.CATEGORIA, 1L, TipoOperacion.ELIMINAR);
+        verify(resumenCategoriaService).eliminar(1L);
     }
 
     // Caso error: eliminar categoría inexistente lanza excepción
     @Test
     void cuandoEliminarCategoriaInexistente_entoncesLanzaExcepcion() {
-        when(categoriaRepository.existsById(99L)).thenReturn(false);
+        when(categoriaRepository.eliminar(99L)).thenReturn(0);
 
         assertThrows(CategoriaNoEncontradaException.class, () -> categoriaService.eliminar(99L));
+        verifyNoInteractions(outboxService, resumenCategoriaService);
     }
 }
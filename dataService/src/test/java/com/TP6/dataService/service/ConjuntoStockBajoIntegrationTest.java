@@ -0,0 +1,157 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.InventarioRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ConjuntoStockBajoIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ConjuntoStockBajo conjuntoStockBajo;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transacciones;
+
+    private Producto producto;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        transacciones = new TransactionTemplate(transactionManager);
+        producto = new Producto();
+        producto.setNombre("Conjunto " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto = productoService.guardar(producto);
+
+        inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(20);
+        inventario.setStockMinimo(5);
+        inventario = inventarioService.guardar(inventario);
+    }
+
+    // Caso exitoso: la marca persistida y el conjunto siguen cada cruce del mínimo
+    @Test
+    void cuandoInventarioCruzaElMinimo_entoncesConjuntoYMarcaSeActualizan() {
+        assertTrue(conjuntoStockBajo.estaCargado());
+        assertFalse(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        assertEquals(Boolean.FALSE, inventarioRepository.findById(inventario.getId()).orElseThrow().getStockBajo());
+
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(2));
+
+        assertTrue(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        assertEquals(Boolean.TRUE, inventarioRepository.findById(inventario.getId()).orElseThrow().getStockBajo());
+        assertTrue(productoService.buscarConStockBajo().stream().anyMatch(p -> p.getId().equals(producto.getId())));
+        assertTrue(inventarioService.buscarConStockBajo().stream().anyMatch(i -> i.getId().equals(inventario.getId())));
+
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(30));
+
+        assertFalse(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        assertTrue(productoService.buscarConStockBajo().stream().noneMatch(p -> p.getId().equals(producto.getId())));
+    }
+
+    // Caso exitoso: eliminar el producto lo saca del conjunto (su inventario se elimina en cascada)
+    @Test
+    void cuandoEliminarProductoConStockBajo_entoncesSaleDelConjunto() {
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(0));
+        assertTrue(conjuntoStockBajo.productoIds().contains(producto.getId()));
+
+        productoService.eliminar(producto.getId());
+
+        assertFalse(conjuntoStockBajo.productoIds().contains(producto.getId()));
+    }
+
+    // Caso exitoso: un cruce escrito por otra instancia (sin alerta local) llega por el feed del outbox
+    @Test
+    void cuandoOtraInstanciaBajaElStock_entoncesLaSincronizacionLoAgrega() {
+        transacciones.executeWithoutResult(estado -> {
+            inventarioRepository.descontar(inventario.getId(), 18, 0, LocalDateTime.now());
+            outboxService.registrar(TipoEntidad.INVENTARIO, inventario.getId(), TipoOperacion.ACTUALIZAR);
+        });
+        outboxService.publicarPendientes(500);
+
+        conjuntoStockBajo.sincronizar();
+
+        assertTrue(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        assertTrue(productoService.buscarConStockBajo().stream().anyMatch(p -> p.getId().equals(producto.getId())));
+    }
+
+    // Caso exitoso: la baja de una categoría en otra instancia (borra sus productos en bloque y sólo
+    // publica el evento de la categoría) saca sus productos del conjunto al sincronizar
+    @Test
+    void cuandoOtraInstanciaEliminaLaCategoria_entoncesLaSincronizacionSacaSusProductos() {
+        Categoria categoria = new Categoria();
+        categoria.setNombre("Conjunto " + System.nanoTime());
+        categoria = categoriaService.guardar(categoria);
+        Producto modificado = new Producto();
+        modificado.setNombre(producto.getNombre());
+        modificado.setPrecio(producto.getPrecio());
+        modificado.setCategoria(categoria);
+        productoService.actualizar(producto.getId(), modificado);
+        inventarioService.actualizar(inventario.getId(), copiaConCantidad(0));
+        assertTrue(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        outboxService.publicarPendientes(500);
+        conjuntoStockBajo.sincronizar(); // El feed ya reflejó todo lo anterior a la baja
+
+        Long categoriaId = categoria.getId();
+        transacciones.executeWithoutResult(estado -> {
+            inventarioRepository.deleteByCategoriaId(categoriaId);
+            productoRepository.deleteByCategoriaId(categoriaId);
+            categoriaRepository.eliminar(categoriaId);
+            outboxService.registrar(TipoEntidad.CATEGORIA, categoriaId, TipoOperacion.ELIMINAR);
+        });
+        outboxService.publicarPendientes(500);
+        conjuntoStockBajo.sincronizar();
+
+        assertFalse(conjuntoStockBajo.productoIds().contains(producto.getId()));
+        assertTrue(productoService.buscarConStockBajo().stream().noneMatch(p -> p.getId().equals(producto.getId())));
+    }
+
+    private Inventario copiaConCantidad(int cantidad) {
+        Inventario cambio = new Inventario();
+        cambio.setProducto(producto);
+        cambio.setCantidad(cantidad);
+        cambio.setStockMinimo(inventario.getStockMinimo());
+        return cambio;
+    }
+}
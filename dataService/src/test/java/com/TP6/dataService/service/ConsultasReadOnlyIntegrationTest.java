@@ -0,0 +1,76 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Producto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConsultasReadOnlyIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager; // Proxy compartido ligado a la transacción actual
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long productoId;
+
+    @BeforeEach
+    void setUp() {
+        Producto producto = new Producto();
+        producto.setNombre("ReadOnly " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        productoId = productoService.guardar(producto).getId();
+    }
+
+    // Caso exitoso: una consulta readOnly no hace flush al confirmar (FlushMode.MANUAL)
+    @Test
+    void cuandoConsultar_entoncesNoHaceFlush() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long flushesAntes = estadisticas.getFlushCount();
+
+        productoService.buscarPorId(productoId);
+        productoService.obtenerTodos();
+
+        assertEquals(flushesAntes, estadisticas.getFlushCount());
+    }
+
+    // Caso exitoso: dentro de una transacción readOnly las entidades se cargan en modo solo lectura
+    // y los cambios en memoria no se persisten
+    @Test
+    void cuandoModificarEntidadLeidaEnTransaccionReadOnly_entoncesNoSePersiste() {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        soloLectura.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Producto producto = productoService.buscarPorId(productoId);
+
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            assertTrue(session.isReadOnly(producto));
+            producto.setNombre("Modificado");
+        });
+
+        assertNotEquals("Modificado", productoService.buscarPorId(productoId).getNombre());
+    }
+}
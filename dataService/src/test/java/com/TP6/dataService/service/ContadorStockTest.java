@@ -0,0 +1,62 @@
+package com.TP6.dataService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContadorStockTest {
+
+    // Caso exitoso: el cupo depositado se reparte entre las franjas y se puede tomar completo
+    @Test
+    void cuandoTomarTodoElCupo_entoncesNoQuedaNada() {
+        ContadorStock contador = new ContadorStock(4);
+        contador.depositar(10);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(contador.tomar(1));
+        }
+
+        assertFalse(contador.tomar(1));
+        assertEquals(0, contador.juntar());
+        assertEquals(10, contador.vendidasTotales());
+    }
+
+    // Caso límite: varias unidades sólo se toman de una franja que las tenga; juntar las reúne
+    @Test
+    void cuandoNingunaFranjaAlcanza_entoncesNoTomaYJuntarDevuelveElTotal() {
+        ContadorStock contador = new ContadorStock(4);
+        contador.depositar(8); // 2 por franja
+
+        assertFalse(contador.tomar(3));
+        assertEquals(8, contador.juntar());
+        assertEquals(0, contador.vendidasTotales());
+    }
+
+    // Caso límite: con muchos hilos compitiendo nunca se toma más que el cupo
+    @Test
+    void cuandoMuchosHilosTomanALaVez_entoncesNoSeSuperaElCupo() throws InterruptedException {
+        ContadorStock contador = new ContadorStock(8);
+        contador.depositar(1000);
+        AtomicInteger tomadas = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(16);
+
+        for (int i = 0; i < 2000; i++) {
+            hilos.execute(() -> {
+                if (contador.tomar(1)) {
+                    tomadas.incrementAndGet();
+                }
+            });
+        }
+        hilos.shutdown();
+        assertTrue(hilos.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Lo tomado más lo que quedó en las franjas es exactamente lo depositado
+        assertEquals(1000, tomadas.get() + contador.juntar());
+        assertEquals(tomadas.get(), contador.vendidasTotales());
+    }
+}
@@ -0,0 +1,126 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.exception.StockInsuficienteException;
+import com.TP6.dataService.repository.InventarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "inventario.caliente.reconciliar-ms=3600000")
+class DescuentoStockIntegrationTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private DescuentoStock descuentoStock;
+
+    private Producto producto;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        producto = new Producto();
+        producto.setNombre("Descuento " + System.nanoTime());
+        producto.setPrecio(BigDecimal.TEN);
+        producto = productoService.guardar(producto);
+
+        inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(50);
+        inventario.setStockMinimo(5);
+        inventario = inventarioService.guardar(inventario);
+    }
+
+    // Caso exitoso: un producto normal descuenta con un UPDATE condicionado y marca el stock bajo
+    @Test
+    void cuandoDescontarProductoNormal_entoncesActualizaLaFilaAlInstante() {
+        descuentoStock.descontar(inventario.getId(), 46);
+
+        Inventario fila = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        assertEquals(4, fila.getCantidad());
+        assertEquals(Boolean.TRUE, fila.getStockBajo());
+    }
+
+    // Caso error: un producto normal sin unidades suficientes no se descuenta
+    @Test
+    void cuandoDescontarMasQueLaCantidad_entoncesLanzaStockInsuficiente() {
+        assertThrows(StockInsuficienteException.class, () -> descuentoStock.descontar(inventario.getId(), 51));
+
+        assertEquals(50, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+    }
+
+    // Caso exitoso: un producto caliente vende desde la reserva en memoria y la base se
+    // pone al día al conciliar, sin vender nunca más de lo que había
+    @Test
+    void cuandoDescontarProductoCaliente_entoncesReservaYConciliaSinSobreventa() {
+        descuentoStock.marcarCaliente(producto.getId());
+
+        descuentoStock.descontar(inventario.getId(), 30);
+
+        Inventario fila = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        assertEquals(50, fila.getCantidad()); // Aún sin conciliar
+        assertEquals(50, fila.getReservado()); // Cuota acotada a lo disponible
+
+        descuentoStock.conciliar();
+
+        fila = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        assertEquals(20, fila.getCantidad());
+        assertEquals(20, fila.getReservado()); // El cupo restante sigue reservado
+        assertThrows(StockInsuficienteException.class, () -> descuentoStock.descontar(inventario.getId(), 21));
+        descuentoStock.descontar(inventario.getId(), 20);
+        assertEquals(50, descuentoStock.vendidasEnMemoria(inventario.getId()));
+    }
+
+    // Caso límite: actualizar un inventario caliente concilia y libera su reserva antes de fijar la cantidad
+    @Test
+    void cuandoActualizarProductoCaliente_entoncesLiberaLaReserva() {
+        descuentoStock.marcarCaliente(producto.getId());
+        descuentoStock.descontar(inventario.getId(), 10);
+
+        Inventario cambio = new Inventario();
+        cambio.setProducto(producto);
+        cambio.setCantidad(100);
+        cambio.setStockMinimo(5);
+        inventarioService.actualizar(inventario.getId(), cambio);
+
+        Inventario fila = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        assertEquals(100, fila.getCantidad());
+        assertEquals(0, fila.getReservado());
+    }
+
+    // Caso límite: un PUT de producto con inventario anidado también libera la reserva antes de
+    // fijar la cantidad; la conciliación posterior no descuenta lo vendido de la cantidad nueva
+    @Test
+    void cuandoActualizarProductoCalienteConInventarioAnidado_entoncesLiberaLaReserva() {
+        descuentoStock.marcarCaliente(producto.getId());
+        descuentoStock.descontar(inventario.getId(), 10);
+
+        Producto cambio = new Producto();
+        cambio.setNombre(producto.getNombre());
+        cambio.setPrecio(BigDecimal.ONE);
+        Inventario inventarioNuevo = new Inventario();
+        inventarioNuevo.setCantidad(100);
+        inventarioNuevo.setStockMinimo(5);
+        cambio.setInventario(inventarioNuevo);
+        productoService.actualizar(producto.getId(), cambio);
+        descuentoStock.conciliar();
+
+        Inventario fila = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        assertEquals(100, fila.getCantidad());
+        assertEquals(0, fila.getReservado());
+    }
+}
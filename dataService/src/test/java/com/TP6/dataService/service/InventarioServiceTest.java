@@ -1,13 +1,20 @@
 package com.TP6.dataService.service;
 
 import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
 import com.TP6.dataService.exception.InventarioNoEncontradoException;
+import com.TP6.dataService.exception.ParcheInvalidoException;
 import com.TP6.dataService.repository.InventarioRepository;
+import com.TP6.dataService.repository.LoteAjustesRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -24,6 +31,26 @@ class InventarioServiceTest {
     @Mock
     private InventarioRepository inventarioRepository; // Simulamos el repositorio
 
+    @Mock
+    private LoteAjustesRepository loteAjustesRepository; // Simulamos el registro de lotes aplicados
+
+    @Mock
+    private OutboxService outboxService; // Simulamos el registro de eventos de cambio
+
+    @Mock
+    private AlertasStockBajo alertasStockBajo; // Simulamos las alertas de stock bajo
+
+    @Mock
+    private ResumenCategoriaService resumenCategoriaService; // Simulamos el resumen por categoría
+
+    @Mock
+    private DescuentoStock descuentoStock; // Simulamos el descuento de stock por venta
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ParcheJson parcheJson = new ParcheJson(objectMapper); // Real: aplica los PATCH sobre la entidad
+
     @InjectMocks
     private InventarioService inventarioService; // Service bajo prueba
 
@@ -51,6 +78,7 @@ class InventarioServiceTest {
         assertNotNull(resultado);
         assertEquals(10, resultado.getCantidad());
         verify(inventarioRepository).save(inventario);
+        verify(outboxService).registrar(TipoEntidad.INVENTARIO, 1L, TipoOperacion.CREAR);
     }
 
     // ------------------- BUSCAR -------------------
@@ -144,7 +172,7 @@ class InventarioServiceTest {
     // Caso exitoso: actualizar inventario existente
     @Test
     void cuandoActualizarInventarioExistente_entoncesPersiste() {
-        when(inventarioRepository.existsById(1L)).thenReturn(true);
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
         when(inventarioRepository.save(inventario)).thenReturn(inventario);
 
         Inventario resultado = inventarioService.actualizar(1L, inventario);
@@ -152,32 +180,182 @@ class InventarioServiceTest {
         assertNotNull(resultado);
         assertEquals(1L, resultado.getId());
         verify(inventarioRepository).save(inventario);
+        verify(descuentoStock).liberar(1L); // Antes de fijar la cantidad se libera lo reservado en memoria
     }
 
     // Caso error: actualizar inventario inexistente lanza excepción
     @Test
     void cuandoActualizarInventarioNoExistente_entoncesLanzaExcepcion() {
-        when(inventarioRepository.existsById(99L)).thenReturn(false);
+        when(inventarioRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(InventarioNoEncontradoException.class, () -> inventarioService.actualizar(99L, inventario));
     }
 
+    // ------------------- MODIFICAR (PATCH) -------------------
+
+    // Caso exitoso: un PATCH sólo con la cantidad conserva el mínimo e informa el cruce
+    @Test
+    void cuandoModificarSoloCantidad_entoncesConservaElMinimoYRegistraElCruce() throws Exception {
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioRepository.save(inventario)).thenReturn(inventario);
+
+        Inventario resultado = inventarioService.modificar(1L, objectMapper.readTree("{\"cantidad\": 3}"));
+
+        assertEquals(3, resultado.getCantidad());
+        assertEquals(5, resultado.getStockMinimo());
+        verify(descuentoStock).liberar(1L);
+        verify(alertasStockBajo).registrar(inventario, false, true);
+        verify(outboxService).registrar(TipoEntidad.INVENTARIO, 1L, TipoOperacion.ACTUALIZAR);
+    }
+
+    // Caso límite: null en un campo opcional lo borra (semántica de JSON Merge Patch)
+    @Test
+    void cuandoModificarStockMinimoANull_entoncesLoBorra() throws Exception {
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioRepository.save(inventario)).thenReturn(inventario);
+
+        inventarioService.modificar(1L, objectMapper.readTree("{\"stockMinimo\": null}"));
+
+        assertNull(inventario.getStockMinimo());
+        assertEquals(10, inventario.getCantidad());
+    }
+
+    // Caso error: la cantidad es obligatoria y no se puede borrar
+    @Test
+    void cuandoModificarCantidadANull_entoncesLanzaParcheInvalido() throws Exception {
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+
+        assertThrows(ParcheInvalidoException.class,
+                () -> inventarioService.modificar(1L, objectMapper.readTree("{\"cantidad\": null}")));
+        verify(inventarioRepository, never()).save(any());
+    }
+
+    // Caso error: una versión distinta de la vigente lanza conflicto antes de aplicar el parche
+    @Test
+    void cuandoModificarConVersionVieja_entoncesLanzaConflicto() throws Exception {
+        inventario.setVersion(7L);
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+
+        assertThrows(ConflictoDeVersionException.class,
+                () -> inventarioService.modificar(1L, objectMapper.readTree("{\"cantidad\": 1, \"version\": 6}")));
+        assertEquals(10, inventario.getCantidad());
+    }
+
+    // ------------------- ALERTAS DE STOCK BAJO -------------------
+
+    // Caso exitoso: una actualización que baja la cantidad al mínimo informa el cruce
+    @Test
+    void cuandoActualizarCantidadHastaElMinimo_entoncesRegistraEntradaEnStockBajo() {
+        Inventario nuevo = new Inventario();
+        nuevo.setCantidad(5);
+        nuevo.setStockMinimo(5);
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+        when(inventarioRepository.save(inventario)).thenReturn(inventario);
+
+        inventarioService.actualizar(1L, nuevo);
+
+        // Los cambios se copian sobre la entidad leída
+        verify(alertasStockBajo).registrar(inventario, false, true);
+        assertEquals(5, inventario.getCantidad());
+    }
+
+    // Caso exitoso: eliminar un inventario en stock bajo informa su salida del reporte
+    @Test
+    void cuandoEliminarInventarioEnStockBajo_entoncesRegistraSalida() {
+        inventario.setCantidad(2);
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
+
+        inventarioService.eliminar(1L);
+
+        verify(alertasStockBajo).registrar(inventario, true, false);
+    }
+
+    // Caso límite: el criterio coincide con el reporte (cantidad <= mínimo, sin mínimo cuenta como 0)
+    @Test
+    void cuandoEvaluarStockBajo_entoncesUsaElMismoCriterioQueElReporte() {
+        assertFalse(AlertasStockBajo.esStockBajo(inventario));
+        inventario.setCantidad(5);
+        assertTrue(AlertasStockBajo.esStockBajo(inventario));
+        inventario.setStockMinimo(null);
+        assertFalse(AlertasStockBajo.esStockBajo(inventario));
+        inventario.setCantidad(0);
+        assertTrue(AlertasStockBajo.esStockBajo(inventario));
+    }
+
+    // ------------------- LOTE DE AJUSTES -------------------
+
+    // Caso exitoso: aplica valores absolutos y variaciones, e informa los inventarios inexistentes
+    // y los que quedarían con cantidad negativa, sin tocarlos
+    @Test
+    void cuandoAplicarLoteDeAjustes_entoncesActualizaEInformaInexistentesYSinStock() {
+        Inventario otro = new Inventario();
+        otro.setId(2L);
+        otro.setCantidad(3);
+        otro.setStockMinimo(1);
+        when(inventarioRepository.findByIdIn(List.of(1L, 2L, 99L))).thenReturn(List.of(inventario, otro));
+
+        ResultadoAjustes resultado = inventarioService.aplicarAjustes(null, List.of(
+                new AjusteInventario(1L, 20, null, -4),
+                new AjusteInventario(2L, null, 2, -10),
+                new AjusteInventario(99L, null, null, 1)));
+
+        assertEquals(1, resultado.aplicados());
+        assertEquals(List.of(99L), resultado.noEncontrados());
+        assertEquals(List.of(2L), resultado.sinStock());
+        assertEquals(16, inventario.getCantidad());
+        assertEquals(5, inventario.getStockMinimo());
+        assertEquals(3, otro.getCantidad()); // El ajuste rechazado no se aplica
+        assertEquals(1, otro.getStockMinimo());
+        verify(outboxService).registrar(TipoEntidad.INVENTARIO, 1L, TipoOperacion.ACTUALIZAR);
+        verify(outboxService, never()).registrar(TipoEntidad.INVENTARIO, 2L, TipoOperacion.ACTUALIZAR);
+        verify(alertasStockBajo, never()).registrar(eq(otro), anyBoolean(), anyBoolean());
+    }
+
+    // Caso exitoso: un lote con clave nueva se registra y se aplica
+    @Test
+    void cuandoAplicarLoteConClaveNueva_entoncesLoRegistraYAplica() {
+        when(loteAjustesRepository.existsById("lote-1")).thenReturn(false);
+        when(inventarioRepository.findByIdIn(List.of(1L))).thenReturn(List.of(inventario));
+
+        ResultadoAjustes resultado = inventarioService.aplicarAjustes("lote-1",
+                List.of(new AjusteInventario(1L, null, null, -4)));
+
+        assertEquals(1, resultado.aplicados());
+        assertEquals(6, inventario.getCantidad());
+        verify(loteAjustesRepository).saveAndFlush(argThat(l -> "lote-1".equals(l.getId())));
+    }
+
+    // Caso límite: el reintento de un lote ya aplicado no vuelve a aplicar las variaciones
+    @Test
+    void cuandoReintentarLoteYaAplicado_entoncesNoLoAplicaDosVeces() {
+        when(loteAjustesRepository.existsById("lote-1")).thenReturn(true);
+
+        ResultadoAjustes resultado = inventarioService.aplicarAjustes("lote-1",
+                List.of(new AjusteInventario(1L, null, null, -4)));
+
+        assertEquals(0, resultado.aplicados());
+        assertEquals(10, inventario.getCantidad());
+        verify(loteAjustesRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(inventarioRepository, descuentoStock, outboxService);
+    }
+
     // ------------------- ELIMINAR -------------------
 
     // Caso exitoso: eliminar inventario existente
     @Test
     void cuandoEliminarInventarioExistente_entoncesElimina() {
-        when(inventarioRepository.existsById(1L)).thenReturn(true);
+        when(inventarioRepository.findById(1L)).thenReturn(Optional.of(inventario));
 
         inventarioService.eliminar(1L);
 
-        verify(inventarioRepository).deleteById(1L);
+        verify(inventarioRepository).delete(inventario);
+        verify(outboxService).registrar(TipoEntidad.INVENTARIO, 1L, TipoOperacion.ELIMINAR);
     }
 
     // Caso error: eliminar inventario inexistente lanza excepción
     @Test
     void cuandoEliminarInventarioNoExistente_entoncesLanzaExcepcion() {
-        when(inventarioRepository.existsById(99L)).thenReturn(false);
+        when(inventarioRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(InventarioNoEncontradoException.class, () -> inventarioService.eliminar(99L));
     }
@@ -0,0 +1,50 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.EventoCambio;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OutboxIntegrationTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Caso límite: después de purgar todo lo publicado, el siguiente evento continúa la
+    // secuencia y lo ve un cliente que ya había leído hasta la última
+    @Test
+    void cuandoPurgarTodoYVolverAEscribir_entoncesLaSecuenciaNoRetrocede() {
+        registrarYPublicar(System.nanoTime());
+        long leidoHasta = outboxService.ultimaSecuencia();
+        assertTrue(leidoHasta > 0);
+
+        outboxService.purgarPublicadosAntesDe(LocalDateTime.now().plusHours(1));
+        assertEquals(leidoHasta, outboxService.ultimaSecuencia());
+
+        long entidadId = System.nanoTime();
+        registrarYPublicar(entidadId);
+
+        List<EventoCambio> nuevos = outboxService.buscarDesde(leidoHasta, 100);
+        assertTrue(nuevos.stream().anyMatch(evento -> evento.getEntidadId() == entidadId));
+        assertTrue(nuevos.stream().allMatch(evento -> evento.getSecuencia() > leidoHasta));
+    }
+
+    private void registrarYPublicar(long entidadId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado ->
+                outboxService.registrar(TipoEntidad.PRODUCTO, entidadId, TipoOperacion.CREAR));
+        outboxService.publicarPendientes(500);
+    }
+}
@@ -0,0 +1,86 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.EventoCambio;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.repository.EventoCambioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private EventoCambioRepository eventoCambioRepository; // Simulamos el repositorio
+
+    @InjectMocks
+    private OutboxService outboxService; // Service bajo prueba
+
+    // ------------------- REGISTRAR -------------------
+
+    // Caso exitoso: registrar guarda un evento pendiente (sin secuencia)
+    @Test
+    void cuandoRegistrarEvento_entoncesGuardaPendiente() {
+        outboxService.registrar(TipoEntidad.PRODUCTO, 1L, TipoOperacion.CREAR);
+
+        ArgumentCaptor<EventoCambio> captor = ArgumentCaptor.forClass(EventoCambio.class);
+        verify(eventoCambioRepository).save(captor.capture());
+        assertEquals(TipoEntidad.PRODUCTO, captor.getValue().getEntidad());
+        assertEquals(1L, captor.getValue().getEntidadId());
+        assertEquals(TipoOperacion.CREAR, captor.getValue().getOperacion());
+        assertNull(captor.getValue().getSecuencia());
+    }
+
+    // ------------------- PUBLICAR -------------------
+
+    // Caso exitoso: los pendientes reciben secuencias consecutivas a partir de la última publicada
+    @Test
+    void cuandoPublicarPendientes_entoncesAsignaSecuenciasConsecutivas() {
+        EventoCambio primero = new EventoCambio(TipoEntidad.CATEGORIA, 1L, TipoOperacion.CREAR);
+        EventoCambio segundo = new EventoCambio(TipoEntidad.PRODUCTO, 2L, TipoOperacion.ACTUALIZAR);
+        when(eventoCambioRepository.findPendientes(any(Pageable.class))).thenReturn(Arrays.asList(primero, segundo));
+        when(eventoCambioRepository.findUltimaSecuencia()).thenReturn(7L);
+
+        int publicados = outboxService.publicarPendientes(100);
+
+        assertEquals(2, publicados);
+        assertEquals(8L, primero.getSecuencia());
+        assertEquals(9L, segundo.getSecuencia());
+        assertNotNull(primero.getFechaPublicacion());
+    }
+
+    // Caso sin pendientes: no consulta la última secuencia
+    @Test
+    void cuandoNoHayPendientes_entoncesNoPublicaNada() {
+        when(eventoCambioRepository.findPendientes(any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, outboxService.publicarPendientes(100));
+        verify(eventoCambioRepository, never()).findUltimaSecuencia();
+    }
+
+    // ------------------- PURGAR -------------------
+
+    // Caso límite: la purga conserva el último evento publicado (de él continúa la secuencia)
+    @Test
+    void cuandoPurgar_entoncesConservaElUltimoPublicado() {
+        LocalDateTime limite = LocalDateTime.now();
+        when(eventoCambioRepository.findUltimaSecuencia()).thenReturn(42L);
+
+        outboxService.purgarPublicadosAntesDe(limite);
+
+        verify(eventoCambioRepository).deletePublicadosAntesDe(limite, 42L);
+    }
+}
@@ -1,20 +1,36 @@
 package com.TP6.dataService.service;
 
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
 import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.TipoEntidad;
+import com.TP6.dataService.entity.TipoOperacion;
+import com.TP6.dataService.exception.CategoriaNoEncontradaException;
+import com.TP6.dataService.exception.ConflictoDeVersionException;
+import com.TP6.dataService.exception.ParcheInvalidoException;
 import com.TP6.dataService.exception.ProductoNoEncontradoException;
 import com.TP6.dataService.exception.ProductoYaExisteException;
+import com.TP6.dataService.repository.CategoriaRepository;
+import com.TP6.dataService.repository.InventarioRepository;
 import com.TP6.dataService.repository.ProductoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +41,32 @@ class ProductoServiceTest {
     @Mock
     private ProductoRepository productoRepository; // Simulamos el repositorio
 
+    @Mock
+    private OutboxService outboxService; // Simulamos el registro de eventos de cambio
+
+    @Mock
+    private AlertasStockBajo alertasStockBajo; // Simulamos las alertas de stock bajo
+
+    @Mock
+    private ConjuntoStockBajo conjuntoStockBajo; // Simulamos el conjunto de productos con stock bajo
+
+    @Mock
+    private ResumenCategoriaService resumenCategoriaService; // Simulamos el resumen por categoría
+
+    @Mock
+    private CategoriaRepository categoriaRepository; // Simulamos las referencias a categorías
+
+    @Mock
+    private InventarioRepository inventarioRepository; // Simulamos las bajas en bloque de inventarios
+
+    @Mock
+    private DescuentoStock descuentoStock; // Simulamos los contadores de productos calientes
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ParcheJson parcheJson = new ParcheJson(objectMapper); // Real: aplica los PATCH sobre la entidad
+
     @InjectMocks
     private ProductoService productoService; // Service bajo prueba
 
@@ -45,24 +87,36 @@ class ProductoServiceTest {
     // Caso exitoso: guardar producto válido
     @Test
     void cuandoGuardarProductoValido_entoncesPersiste() {
-        when(productoRepository.findByNombre("Coca Cola")).thenReturn(Optional.empty());
-        when(productoRepository.save(producto)).thenReturn(producto);
+        when(productoRepository.saveAndFlush(producto)).thenReturn(producto);
 
         Producto resultado = productoService.guardar(producto);
 
         assertNotNull(resultado);
         assertEquals("Coca Cola", resultado.getNombre());
-        verify(productoRepository).save(producto);
+        verify(productoRepository, never()).findByNombre(any()); // Sin consulta previa por nombre
+        verify(outboxService).registrar(TipoEntidad.PRODUCTO, 1L, TipoOperacion.CREAR);
     }
 
-    // Caso error: guardar producto duplicado lanza excepción
+    // Caso error: guardar producto duplicado (viola la restricción única) lanza excepción
     @Test
     void cuandoGuardarProductoDuplicado_entoncesLanzaExcepcion() {
-        when(productoRepository.findByNombre("Coca Cola")).thenReturn(Optional.of(producto));
+        when(productoRepository.saveAndFlush(producto)).thenThrow(
+                new DataIntegrityViolationException("Unique index or primary key violation: UK_PRODUCTOS_NOMBRE"));
 
         assertThrows(ProductoYaExisteException.class, () -> productoService.guardar(producto));
 
-        verify(productoRepository, never()).save(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    // Caso error: otra violación de integridad no se confunde con un nombre repetido
+    @Test
+    void cuandoGuardarProductoViolaOtraRestriccion_entoncesPropagaLaViolacion() {
+        when(productoRepository.saveAndFlush(producto)).thenThrow(
+                new DataIntegrityViolationException("Referential integrity constraint violation: FK_CATEGORIA"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> productoService.guardar(producto));
+
+        verifyNoInteractions(outboxService);
     }
 
     // ------------------- BUSCAR -------------------
@@ -146,46 +200,265 @@ class ProductoServiceTest {
         assertEquals("Coca Cola", resultado.get(0).getNombre());
     }
 
+    // Caso exitoso: una página pide los productos siguientes al id indicado
+    @Test
+    void cuandoBuscarPagina_entoncesConsultaPorClave() {
+        when(productoRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(100))).thenReturn(List.of(producto));
+
+        List<Producto> resultado = productoService.buscarPagina(10L, 100);
+
+        assertEquals(1, resultado.size());
+    }
+
+    // Caso límite: el tamaño de página se acota al máximo permitido
+    @Test
+    void cuandoBuscarPaginaDemasiadoGrande_entoncesAcotaElLimite() {
+        productoService.buscarPagina(0L, 1_000_000);
+
+        verify(productoRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(ProductoService.MAX_PAGINA));
+    }
+
+    // ------------------- STOCK BAJO -------------------
+
+    // Caso exitoso: el reporte lee sólo los productos del conjunto y descarta los que ya no cumplen
+    @Test
+    void cuandoBuscarConStockBajo_entoncesLeeSoloLosDelConjunto() {
+        Inventario bajo = new Inventario();
+        bajo.setCantidad(1);
+        bajo.setStockMinimo(5);
+        producto.setInventario(bajo);
+        Producto repuesto = new Producto();
+        repuesto.setId(2L);
+        Inventario alto = new Inventario();
+        alto.setCantidad(50);
+        alto.setStockMinimo(5);
+        repuesto.setInventario(alto);
+        TreeSet<Long> ids = new TreeSet<>(List.of(1L, 2L));
+        when(conjuntoStockBajo.estaCargado()).thenReturn(true);
+        when(conjuntoStockBajo.productoIds()).thenReturn(ids);
+        when(productoRepository.findByIdInOrderByIdAsc(ids)).thenReturn(List.of(producto, repuesto));
+
+        List<Producto> resultado = productoService.buscarConStockBajo();
+
+        assertEquals(List.of(producto), resultado);
+        verify(productoRepository, never()).findAll();
+    }
+
+    // Caso límite: antes de cargar el conjunto se consulta la marca indexada
+    @Test
+    void cuandoBuscarConStockBajoSinConjuntoCargado_entoncesConsultaLaMarca() {
+        when(conjuntoStockBajo.estaCargado()).thenReturn(false);
+        when(productoRepository.findConStockBajo()).thenReturn(List.of(producto));
+
+        List<Producto> resultado = productoService.buscarConStockBajo();
+
+        assertEquals(1, resultado.size());
+        verify(productoRepository, never()).findByIdInOrderByIdAsc(any());
+    }
+
     // ------------------- ACTUALIZAR -------------------
 
     // Caso exitoso: actualizar producto existente
     @Test
     void cuandoActualizarProductoExistente_entoncesPersiste() {
-        when(productoRepository.existsById(1L)).thenReturn(true);
-        when(productoRepository.save(producto)).thenReturn(producto);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.saveAndFlush(producto)).thenReturn(producto);
 
         Producto actualizado = productoService.actualizar(1L, producto);
 
         assertNotNull(actualizado);
         assertEquals(1L, actualizado.getId());
-        verify(productoRepository).save(producto);
+        verify(productoRepository).saveAndFlush(producto);
+    }
+
+    // Caso error: actualizar con una versión distinta de la leída lanza conflicto sin guardar
+    @Test
+    void cuandoActualizarProductoConVersionVieja_entoncesLanzaConflicto() {
+        producto.setVersion(5L);
+        Producto cambio = new Producto();
+        cambio.setNombre("Otro nombre");
+        cambio.setPrecio(BigDecimal.ONE);
+        cambio.setVersion(4L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        assertThrows(ConflictoDeVersionException.class, () -> productoService.actualizar(1L, cambio));
+        verify(productoRepository, never()).saveAndFlush(any());
+        assertNotEquals("Otro nombre", producto.getNombre());
     }
 
     // Caso error: actualizar producto inexistente lanza excepción
     @Test
     void cuandoActualizarProductoInexistente_entoncesLanzaExcepcion() {
-        when(productoRepository.existsById(99L)).thenReturn(false);
+        when(productoRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ProductoNoEncontradoException.class, () -> productoService.actualizar(99L, producto));
     }
 
+    // ------------------- MODIFICAR (PATCH) -------------------
+
+    // Caso exitoso: un PATCH sólo con el precio conserva el resto y actualiza el resumen
+    @Test
+    void cuandoModificarSoloPrecio_entoncesConservaElRestoDeLosCampos() throws Exception {
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.saveAndFlush(producto)).thenReturn(producto);
+
+        Producto resultado = productoService.modificar(1L, objectMapper.readTree("{\"precio\": 150}"));
+
+        assertEquals(0, BigDecimal.valueOf(150).compareTo(resultado.getPrecio()));
+        assertEquals("Coca Cola", resultado.getNombre());
+        assertEquals("Bebida gaseosa", resultado.getDescripcion());
+        verify(resumenCategoriaService, times(2)).aporteProducto(eq(producto), any());
+        verify(outboxService).registrar(TipoEntidad.PRODUCTO, 1L, TipoOperacion.ACTUALIZAR);
+        verifyNoInteractions(categoriaRepository, alertasStockBajo);
+    }
+
+    // Caso exitoso: la categoría se reemplaza por una referencia a la fila indicada por id
+    @Test
+    void cuandoModificarCategoria_entoncesUsaReferenciaPorId() throws Exception {
+        Categoria categoria = new Categoria();
+        categoria.setId(4L);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(categoriaRepository.getReferenceById(4L)).thenReturn(categoria);
+        when(categoriaRepository.existsById(4L)).thenReturn(true);
+        when(productoRepository.saveAndFlush(producto)).thenReturn(producto);
+
+        productoService.modificar(1L, objectMapper.readTree("{\"categoria\": {\"id\": 4}}"));
+
+        assertSame(categoria, producto.getCategoria());
+    }
+
+    // Caso error: el inventario no se modifica desde el PATCH de producto
+    @Test
+    void cuandoModificarConCampoNoPermitido_entoncesLanzaParcheInvalido() throws Exception {
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        assertThrows(ParcheInvalidoException.class, () -> productoService.modificar(1L,
+                objectMapper.readTree("{\"inventario\": {\"cantidad\": 3}}")));
+        verify(productoRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    // Caso error: modificar un producto inexistente lanza excepción
+    @Test
+    void cuandoModificarProductoInexistente_entoncesLanzaExcepcion() throws Exception {
+        when(productoRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ProductoNoEncontradoException.class,
+                () -> productoService.modificar(99L, objectMapper.readTree("{\"precio\": 1}")));
+    }
+
     // ------------------- ELIMINAR -------------------
 
     // Caso exitoso: eliminar producto existente
     @Test
     void cuandoEliminarProductoExistente_entoncesElimina() {
-        when(productoRepository.existsById(1L)).thenReturn(true);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
 
         productoService.eliminar(1L);
 
-        verify(productoRepository).deleteById(1L);
+        verify(productoRepository).delete(producto);
+        verify(outboxService).registrar(TipoEntidad.PRODUCTO, 1L, TipoOperacion.ELIMINAR);
+        verifyNoInteractions(alertasStockBajo); // Sin inventario no hay nada que informar
+    }
+
+    // Caso exitoso: eliminar un producto cuyo inventario estaba en stock bajo informa su salida
+    @Test
+    void cuandoEliminarProductoConStockBajo_entoncesRegistraSalida() {
+        Inventario inventario = new Inventario();
+        inventario.setCantidad(1);
+        inventario.setStockMinimo(5);
+        producto.setInventario(inventario);
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+
+        productoService.eliminar(1L);
+
+        verify(alertasStockBajo).registrar(inventario, true, false);
     }
 
     // Caso error: eliminar producto inexistente lanza excepción
     @Test
     void cuandoEliminarProductoInexistente_entoncesLanzaExcepcion() {
-        when(productoRepository.existsById(99L)).thenReturn(false);
+        when(productoRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ProductoNoEncontradoException.class, () -> productoService.eliminar(99L));
     }
+
+    // ------------------- ELIMINAR EN BLOQUE -------------------
+
+    // Caso exitoso: eliminar varios productos descuenta el resumen, informa los que salen de
+    // stock bajo y borra inventarios y productos con un DELETE por tabla
+    @Test
+    void cuandoEliminarVariosProductos_entoncesEliminaEnBloque() {
+        Inventario bajo = new Inventario();
+        bajo.setCantidad(1);
+        bajo.setStockMinimo(5);
+        when(productoRepository.findIdsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 2L));
+        when(inventarioRepository.findConStockBajoByProductoIdIn(List.of(1L, 2L))).thenReturn(List.of(bajo));
+
+        ResultadoEliminacion resultado = productoService.eliminarVarios(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(2, resultado.eliminados()); // El 3 no existe y el 2 repetido cuenta una vez
+        InOrder orden = inOrder(resumenCategoriaService, inventarioRepository, productoRepository, outboxService);
+        orden.verify(resumenCategoriaService).descontarProductos(List.of(1L, 2L));
+        orden.verify(inventarioRepository).deleteByProductoIdIn(List.of(1L, 2L));
+        orden.verify(productoRepository).deleteByIdIn(List.of(1L, 2L));
+        orden.verify(outboxService).registrarVarios(TipoEntidad.PRODUCTO, List.of(1L, 2L), TipoOperacion.ELIMINAR);
+        verify(alertasStockBajo).registrar(bajo, true, false);
+        verify(descuentoStock).olvidarEliminados();
+        verify(productoRepository, never()).findById(any()); // No se cargan las entidades
+    }
+
+    // Caso límite: más ids que el lote se eliminan en varias sentencias, con un solo registro de eventos
+    @Test
+    void cuandoEliminarMasIdsQueElLote_entoncesDivideEnLotes() {
+        List<Long> ids = LongStream.rangeClosed(1, ProductoService.LOTE_ELIMINACION + 1).boxed().toList();
+        when(productoRepository.findIdsByIdIn(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        ResultadoEliminacion resultado = productoService.eliminarVarios(ids);
+
+        assertEquals(ids.size(), resultado.eliminados());
+        verify(productoRepository, times(2)).deleteByIdIn(any());
+        verify(outboxService).registrarVarios(TipoEntidad.PRODUCTO, ids, TipoOperacion.ELIMINAR);
+    }
+
+    // Caso límite: si ninguno de los ids existe no se elimina ni se registra nada
+    @Test
+    void cuandoEliminarVariosInexistentes_entoncesNoEliminaNada() {
+        when(productoRepository.findIdsByIdIn(List.of(98L, 99L))).thenReturn(List.of());
+
+        ResultadoEliminacion resultado = productoService.eliminarVarios(List.of(98L, 99L));
+
+        assertEquals(0, resultado.eliminados());
+        verify(productoRepository, never()).deleteByIdIn(any());
+        verifyNoInteractions(outboxService, resumenCategoriaService, descuentoStock);
+    }
+
+    // Caso exitoso: eliminar los productos de una categoría filtra por categoría, deja su
+    // resumen en cero y registra un evento por producto
+    @Test
+    void cuandoEliminarProductosDeCategoria_entoncesEliminaPorCategoria() {
+        when(categoriaRepository.existsById(7L)).thenReturn(true);
+        when(productoRepository.findIdsByCategoriaId(7L)).thenReturn(List.of(1L, 2L));
+        when(productoRepository.deleteByCategoriaId(7L)).thenReturn(2);
+
+        ResultadoEliminacion resultado = productoService.eliminarPorCategoria(7L);
+
+        assertEquals(2, resultado.eliminados());
+        InOrder orden = inOrder(inventarioRepository, productoRepository);
+        orden.verify(inventarioRepository).deleteByCategoriaId(7L);
+        orden.verify(productoRepository).deleteByCategoriaId(7L);
+        verify(resumenCategoriaService).vaciar(7L);
+        verify(outboxService).registrarVarios(TipoEntidad.PRODUCTO, List.of(1L, 2L), TipoOperacion.ELIMINAR);
+        verify(descuentoStock).olvidarEliminados();
+    }
+
+    // Caso error: eliminar los productos de una categoría inexistente lanza excepción
+    @Test
+    void cuandoEliminarProductosDeCategoriaInexistente_entoncesLanzaExcepcion() {
+        when(categoriaRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(CategoriaNoEncontradaException.class, () -> productoService.eliminarPorCategoria(99L));
+        verify(productoRepository, never()).deleteByCategoriaId(any());
+        verifyNoInteractions(outboxService);
+    }
 }
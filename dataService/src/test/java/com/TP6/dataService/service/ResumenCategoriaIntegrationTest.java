@@ -0,0 +1,179 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.entity.ResumenCategoria;
+import com.TP6.dataService.repository.FranjaResumenCategoriaRepository;
+import com.TP6.dataService.repository.ResumenCategoriaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ResumenCategoriaIntegrationTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private ResumenCategoriaRepository resumenCategoriaRepository;
+
+    @Autowired
+    private FranjaResumenCategoriaRepository franjaResumenCategoriaRepository;
+
+    // Caso exitoso: después de altas, cambios, mudanzas de categoría y bajas, el resumen
+    // mantenido incrementalmente coincide con el calculado desde las tablas
+    @Test
+    void cuandoSeSucedenEscrituras_entoncesResumenCoincideConLasTablas() {
+        Categoria bebidas = crearCategoria("Bebidas ");
+        Categoria snacks = crearCategoria("Snacks ");
+
+        Producto agua = crearProducto("Agua ", "1.50", bebidas);
+        Producto jugo = crearProducto("Jugo ", "3.00", bebidas);
+        Inventario stockAgua = crearInventario(agua, 10, 5);
+        crearInventario(jugo, 2, 5);
+
+        ResumenCategoria resumen = resumenCategoriaRepository.findTotalById(bebidas.getId()).orElseThrow();
+        assertEquals(2, resumen.getCantidadProductos());
+        assertEquals(12, resumen.getUnidades());
+        assertEquals(0, new BigDecimal("21.00").compareTo(resumen.getValorInventario()));
+        assertEquals(1, resumen.getProductosStockBajo());
+
+        // Baja el stock del agua por debajo del mínimo
+        Inventario cambio = new Inventario();
+        cambio.setProducto(agua);
+        cambio.setCantidad(3);
+        cambio.setStockMinimo(5);
+        inventarioService.actualizar(stockAgua.getId(), cambio);
+
+        // El jugo cambia de precio y pasa a otra categoría (sin tocar su inventario)
+        Producto jugoModificado = new Producto();
+        jugoModificado.setNombre(jugo.getNombre());
+        jugoModificado.setPrecio(new BigDecimal("4.00"));
+        jugoModificado.setCategoria(snacks);
+        productoService.actualizar(jugo.getId(), jugoModificado);
+
+        Producto mani = crearProducto("Mani ", "2.00", snacks);
+        crearInventario(mani, 50, 10);
+        productoService.eliminar(mani.getId());
+
+        assertIgualAlCalculado(bebidas.getId());
+        assertIgualAlCalculado(snacks.getId());
+        ResumenCategoria resumenSnacks = resumenCategoriaRepository.findTotalById(snacks.getId()).orElseThrow();
+        assertEquals(1, resumenSnacks.getCantidadProductos());
+        assertEquals(2, resumenSnacks.getUnidades());
+        assertEquals(0, new BigDecimal("8.00").compareTo(resumenSnacks.getValorInventario()));
+        assertTrue(categoriaService.buscarCategoriasConProductos().stream()
+                .anyMatch(c -> c.getId().equals(snacks.getId())));
+    }
+
+    // Caso exitoso: eliminar la categoría elimina su resumen
+    @Test
+    void cuandoEliminarCategoria_entoncesEliminaSuResumen() {
+        Categoria categoria = crearCategoria("Temporal ");
+        assertTrue(resumenCategoriaRepository.existsById(categoria.getId()));
+
+        categoriaService.eliminar(categoria.getId());
+
+        assertFalse(resumenCategoriaRepository.existsById(categoria.getId()));
+        assertTrue(franjaResumenCategoriaRepository.findAll().stream()
+                .noneMatch(f -> f.getCategoriaId().equals(categoria.getId())));
+    }
+
+    // Caso exitoso: las escrituras concurrentes de una misma categoría se reparten entre sus
+    // franjas y el resumen sigue coincidiendo con las tablas
+    @Test
+    void cuandoEscriturasConcurrentesEnUnaCategoria_entoncesSeRepartenEnFranjas() throws Exception {
+        Categoria categoria = crearCategoria("Concurrida ");
+        List<Inventario> inventarios = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            inventarios.add(crearInventario(crearProducto("Concurrido ", "1.00", categoria), 100, 0));
+        }
+
+        try (ExecutorService hilos = Executors.newFixedThreadPool(8)) {
+            // Cada hilo ajusta su propio inventario: sólo comparten el resumen de la categoría
+            List<Future<?>> escrituras = new ArrayList<>();
+            for (Inventario inventario : inventarios) {
+                escrituras.add(hilos.submit(() -> {
+                    for (int vuelta = 0; vuelta < 5; vuelta++) {
+                        inventarioService.aplicarAjustes(null,
+                                List.of(new AjusteInventario(inventario.getId(), null, null, -1)));
+                    }
+                }));
+            }
+            for (Future<?> escritura : escrituras) {
+                escritura.get();
+            }
+        }
+
+        assertIgualAlCalculado(categoria.getId());
+        assertEquals(760, resumenCategoriaRepository.findTotalById(categoria.getId()).orElseThrow().getUnidades());
+        assertTrue(franjaResumenCategoriaRepository.findAll().stream()
+                .filter(f -> f.getCategoriaId().equals(categoria.getId()) && f.getUnidades() != 0)
+                .count() > 1);
+    }
+
+    // Caso exitoso: la reconstrucción corrige un resumen desfasado sin borrar las filas
+    @Test
+    void cuandoReconstruir_entoncesCorrigeElResumenDesfasado() {
+        Categoria categoria = crearCategoria("Desfasada ");
+        crearProducto("Desfasado ", "10", categoria);
+        ResumenCategoria resumen = resumenCategoriaRepository.findById(categoria.getId()).orElseThrow();
+        resumen.setUnidades(999);
+        resumenCategoriaRepository.save(resumen);
+
+        categoriaService.reconstruirResumen();
+
+        assertIgualAlCalculado(categoria.getId());
+    }
+
+    private void assertIgualAlCalculado(Long categoriaId) {
+        ResumenCategoria mantenido = resumenCategoriaRepository.findTotalById(categoriaId).orElseThrow();
+        Object[] calculado = resumenCategoriaRepository.calcularDesdeTablas().stream()
+                .filter(fila -> fila[0].equals(categoriaId))
+                .findFirst().orElseThrow();
+        assertEquals(((Number) calculado[2]).longValue(), mantenido.getCantidadProductos(), Arrays.toString(calculado));
+        assertEquals(((Number) calculado[3]).longValue(), mantenido.getUnidades());
+        assertEquals(0, new BigDecimal(calculado[4].toString()).compareTo(mantenido.getValorInventario()));
+        assertEquals(((Number) calculado[5]).longValue(), mantenido.getProductosStockBajo());
+    }
+
+    private Categoria crearCategoria(String prefijo) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(prefijo + System.nanoTime());
+        return categoriaService.guardar(categoria);
+    }
+
+    private Producto crearProducto(String prefijo, String precio, Categoria categoria) {
+        Producto producto = new Producto();
+        producto.setNombre(prefijo + System.nanoTime());
+        producto.setPrecio(new BigDecimal(precio));
+        producto.setCategoria(categoria);
+        return productoService.guardar(producto);
+    }
+
+    private Inventario crearInventario(Producto producto, int cantidad, int stockMinimo) {
+        Inventario inventario = new Inventario();
+        inventario.setProducto(producto);
+        inventario.setCantidad(cantidad);
+        inventario.setStockMinimo(stockMinimo);
+        return inventarioService.guardar(inventario);
+    }
+}
@@ -0,0 +1,111 @@
+package com.TP6.dataService.service;
+
+import com.TP6.dataService.entity.Categoria;
+import com.TP6.dataService.entity.Inventario;
+import com.TP6.dataService.entity.Producto;
+import com.TP6.dataService.repository.FranjaResumenCategoriaRepository;
+import com.TP6.dataService.repository.ProductoRepository;
+import com.TP6.dataService.repository.ResumenCategoriaRepository;
+import com.TP6.dataService.service.ResumenCategoriaService.Aporte;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResumenCategoriaServiceTest {
+
+    @Mock
+    private ResumenCategoriaRepository resumenCategoriaRepository; // Simulamos el repositorio del resumen
+
+    @Mock
+    private FranjaResumenCategoriaRepository franjaResumenCategoriaRepository; // Simulamos las franjas del resumen
+
+    @Mock
+    private ProductoRepository productoRepository; // Simulamos el repositorio de productos
+
+    private ResumenCategoriaService resumenCategoriaService; // Service bajo prueba (una sola franja)
+
+    private Producto producto;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        resumenCategoriaService = new ResumenCategoriaService(resumenCategoriaRepository,
+                franjaResumenCategoriaRepository, productoRepository, 1);
+        Categoria bebidas = new Categoria();
+        bebidas.setId(1L);
+        producto = new Producto();
+        producto.setId(10L);
+        producto.setPrecio(new BigDecimal("2.50"));
+        producto.setCategoria(bebidas);
+        inventario = new Inventario(5L, producto, 4, 5, LocalDateTime.now(), null, null, null);
+    }
+
+    // ------------------- APORTES -------------------
+
+    // Caso exitoso: un producto aporta una unidad de conteo, su stock y su valor
+    @Test
+    void cuandoCalcularAporteProducto_entoncesIncluyeInventario() {
+        Aporte aporte = resumenCategoriaService.aporteProducto(producto, inventario);
+
+        assertEquals(new Aporte(1L, 1, 4, new BigDecimal("10.00"), 1), aporte);
+    }
+
+    // Caso límite: un producto sin categoría no aporta a ningún resumen
+    @Test
+    void cuandoProductoSinCategoria_entoncesNoAporta() {
+        producto.setCategoria(null);
+
+        assertSame(Aporte.NINGUNO, resumenCategoriaService.aporteProducto(producto, inventario));
+    }
+
+    // ------------------- APLICAR -------------------
+
+    // Caso exitoso: en la misma categoría se suma sólo la diferencia en un único UPDATE de una franja
+    @Test
+    void cuandoCambiaElStockEnLaMismaCategoria_entoncesAcumulaLaDiferencia() {
+        Aporte anterior = resumenCategoriaService.aporteProducto(producto, inventario);
+        inventario.setCantidad(10);
+        Aporte nuevo = resumenCategoriaService.aporteProducto(producto, inventario);
+
+        resumenCategoriaService.aplicar(anterior, nuevo);
+
+        verify(franjaResumenCategoriaRepository).acumular(1L, 0, 0, 6, new BigDecimal("15.00"), -1);
+        verifyNoMoreInteractions(franjaResumenCategoriaRepository);
+        verifyNoInteractions(resumenCategoriaRepository);
+    }
+
+    // Caso exitoso: al cambiar de categoría se descuenta de la anterior y se suma a la nueva
+    @Test
+    void cuandoCambiaDeCategoria_entoncesDescuentaYSuma() {
+        Aporte anterior = resumenCategoriaService.aporteProducto(producto, inventario);
+        Categoria snacks = new Categoria();
+        snacks.setId(2L);
+        producto.setCategoria(snacks);
+        Aporte nuevo = resumenCategoriaService.aporteProducto(producto, inventario);
+
+        resumenCategoriaService.aplicar(anterior, nuevo);
+
+        verify(franjaResumenCategoriaRepository).acumular(1L, 0, -1, -4, new BigDecimal("-10.00"), -1);
+        verify(franjaResumenCategoriaRepository).acumular(2L, 0, 1, 4, new BigDecimal("10.00"), 1);
+    }
+
+    // Caso límite: una escritura que no cambia el aporte no genera UPDATE
+    @Test
+    void cuandoElAporteNoCambia_entoncesNoActualiza() {
+        Aporte aporte = resumenCategoriaService.aporteProducto(producto, inventario);
+
+        resumenCategoriaService.aplicar(aporte, aporte);
+
+        verify(franjaResumenCategoriaRepository, never()).acumular(anyLong(), anyInt(), anyLong(), anyLong(), any(), anyLong());
+    }
+}
@@ -0,0 +1,13 @@
+package com.TP6.dataServiceReactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class DataServiceReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(DataServiceReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.TP6.dataServiceReactive.controller;
+
+import com.TP6.dataServiceReactive.entity.Categoria;
+import com.TP6.dataServiceReactive.entity.Inventario;
+import com.TP6.dataServiceReactive.entity.Producto;
+import com.TP6.dataServiceReactive.service.CategoriaService;
+import com.TP6.dataServiceReactive.service.InventarioService;
+import com.TP6.dataServiceReactive.service.ProductoService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+// Endpoints de lectura del contrato /data/* del data-service. Los listados aceptan
+// application/json (arreglo) o application/x-ndjson (un elemento por línea): con NDJSON las
+// filas se envían a medida que el cliente las consume, con backpressure hasta el driver R2DBC.
+@RestController
+@RequestMapping("/data")
+public class DataController {
+
+    private static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    private static final String NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final ProductoService productoService;
+    private final CategoriaService categoriaService;
+    private final InventarioService inventarioService;
+
+    public DataController(ProductoService productoService,
+                          CategoriaService categoriaService,
+                          InventarioService inventarioService) {
+        this.productoService = productoService;
+        this.categoriaService = categoriaService;
+        this.inventarioService = inventarioService;
+    }
+
+    // ------------------- PRODUCTOS -------------------
+
+    // Obtener todos los productos
+    @GetMapping(value = "/productos", produces = {JSON, NDJSON})
+    public Flux<Producto> obtenerTodosLosProductos() {
+        return productoService.obtenerTodos();
+    }
+
+    // Obtener producto por ID
+    @GetMapping("/productos/id/{id}")
+    public Mono<Producto> obtenerProductoPorId(@PathVariable Long id) {
+        return productoService.buscarPorId(id);
+    }
+
+    // Obtener producto por nombre
+    @GetMapping("/productos/nombre/{nombre}")
+    public Mono<Producto> obtenerProductoPorNombre(@PathVariable String nombre) {
+        return productoService.buscarPorNombre(nombre);
+    }
+
+    // Obtener productos por precio exacto
+    @GetMapping(value = "/productos/precio/{precio}", produces = {JSON, NDJSON})
+    public Flux<Producto> obtenerProductoPorPrecio(@PathVariable BigDecimal precio) {
+        return productoService.buscarPorPrecio(precio);
+    }
+
+    // Obtener productos de una categoría por nombre de categoría
+    @GetMapping(value = "/productos/categoria/{nombre}", produces = {JSON, NDJSON})
+    public Flux<Producto> obtenerProductosPorCategoria(@PathVariable String nombre) {
+        return productoService.buscarPorCategoria(nombre);
+    }
+
+    // Obtener productos con stock bajo (comparación contra stock mínimo)
+    @GetMapping(value = "/productos/stock-bajo", produces = {JSON, NDJSON})
+    public Flux<Producto> obtenerProductosConStockBajo() {
+        return productoService.buscarConStockBajo();
+    }
+
+    // ------------------- CATEGORÍAS -------------------
+
+    // Obtener todas las categorías
+    @GetMapping(value = "/categorias", produces = {JSON, NDJSON})
+    public Flux<Categoria> obtenerTodasLasCategorias() {
+        return categoriaService.obtenerTodos();
+    }
+
+    // Obtener categoría por ID
+    @GetMapping("/categorias/id/{id}")
+    public Mono<Categoria> obtenerCategoriaPorId(@PathVariable Long id) {
+        return categoriaService.buscarPorId(id);
+    }
+
+    // Obtener categoría por nombre
+    @GetMapping("/categorias/nombre/{nombre}")
+    public Mono<Categoria> obtenerCategoriaPorNombre(@PathVariable String nombre) {
+        return categoriaService.buscarPorNombre(nombre);
+    }
+
+    // Obtener categorías que tienen productos asociados
+    @GetMapping(value = "/categorias/con-productos", produces = {JSON, NDJSON})
+    public Flux<Categoria> obtenerCategoriasConProductos() {
+        return categoriaService.buscarCategoriasConProductos();
+    }
+
+    // ------------------- INVENTARIO -------------------
+
+    // Obtener todos los inventarios
+    @GetMapping(value = "/inventario", produces = {JSON, NDJSON})
+    public Flux<Inventario> obtenerTodosLosInventarios() {
+        return inventarioService.obtenerTodos();
+    }
+
+    // Obtener inventario por ID
+    @GetMapping("/inventario/{id}")
+    public Mono<Inventario> obtenerInventarioPorId(@PathVariable Long id) {
+        return inventarioService.buscarPorId(id);
+    }
+
+    // Obtener inventario asociado a un producto por ID de producto
+    @GetMapping("/inventario/producto/{productoId}")
+    public Mono<Inventario> obtenerInventarioPorProducto(@PathVariable Long productoId) {
+        return inventarioService.buscarPorProducto(productoId);
+    }
+
+    // Obtener inventarios con una cantidad exacta
+    @GetMapping(value = "/inventario/cantidad/{cantidad}", produces = {JSON, NDJSON})
+    public Flux<Inventario> obtenerInventariosPorCantidad(@PathVariable Integer cantidad) {
+        return inventarioService.buscarPorCantidad(cantidad);
+    }
+
+    // Obtener inventarios con stock bajo
+    @GetMapping(value = "/inventario/stock-bajo", produces = {JSON, NDJSON})
+    public Flux<Inventario> obtenerInventariosConStockBajo() {
+        return inventarioService.buscarConStockBajo();
+    }
+
+    // Obtener inventarios con stock alto
+    @GetMapping(value = "/inventario/stock-alto", produces = {JSON, NDJSON})
+    public Flux<Inventario> obtenerInventariosConStockAlto() {
+        return inventarioService.buscarConStockAlto();
+    }
+}
@@ -0,0 +1,14 @@
+package com.TP6.dataServiceReactive.entity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fila de la tabla 'categorias' (creada por el data-service)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Categoria {
+    private Long id;
+    private String nombre;
+    private String descripcion;
+}
@@ -0,0 +1,22 @@
+package com.TP6.dataServiceReactive.entity;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Fila de la tabla 'inventario' con su producto (y la categoría del producto) unidos por JOIN.
+// Serializa igual que Inventario del data-service.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Inventario {
+    private Long id;
+
+    @JsonIgnoreProperties("inventario")
+    private Producto producto;
+
+    private Integer cantidad;
+    private Integer stockMinimo;
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,22 @@
+package com.TP6.dataServiceReactive.entity;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+// Fila de la tabla 'productos' con su categoría e inventario ya unidos por JOIN.
+// Serializa igual que Producto del data-service.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Producto {
+    private Long id;
+    private String nombre;
+    private String descripcion;
+    private BigDecimal precio;
+    private Categoria categoria;
+
+    @JsonIgnoreProperties("producto")
+    private Inventario inventario;
+}
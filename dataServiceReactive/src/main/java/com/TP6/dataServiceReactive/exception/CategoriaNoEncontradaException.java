@@ -0,0 +1,7 @@
+package com.TP6.dataServiceReactive.exception;
+
+public class CategoriaNoEncontradaException extends RuntimeException {
+    public CategoriaNoEncontradaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.TP6.dataServiceReactive.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Clase interna para estructurar la respuesta de error (mismo formato que el data-service)
+    static class ErrorResponse {
+        private int status;              // Código HTTP de la respuesta
+        private String message;          // Mensaje de error
+        private LocalDateTime timestamp; // Momento en que ocurrió el error
+
+        public ErrorResponse(int status, String message, LocalDateTime timestamp) {
+            this.status = status;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+
+        public int getStatus() { return status; }
+        public String getMessage() { return message; }
+        public LocalDateTime getTimestamp() { return timestamp; }
+    }
+
+    // Manejo de error: producto no encontrado (404)
+    @ExceptionHandler(ProductoNoEncontradoException.class)
+    public ResponseEntity<ErrorResponse> handleProductoNoEncontrado(ProductoNoEncontradoException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Manejo de error: categoría no encontrada (404)
+    @ExceptionHandler(CategoriaNoEncontradaException.class)
+    public ResponseEntity<ErrorResponse> handleCategoriaNoEncontrada(CategoriaNoEncontradaException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Manejo de error: inventario no encontrado (404)
+    @ExceptionHandler(InventarioNoEncontradoException.class)
+    public ResponseEntity<ErrorResponse> handleInventarioNoEncontrado(InventarioNoEncontradoException ex) {
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Método auxiliar para construir la respuesta de error estándar
+    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message) {
+        return new ResponseEntity<>(
+                new ErrorResponse(status.value(), message, LocalDateTime.now()),
+                status
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.TP6.dataServiceReactive.exception;
+
+public class InventarioNoEncontradoException extends RuntimeException {
+    public InventarioNoEncontradoException(String message) {
+        super(message);
+    }
+}
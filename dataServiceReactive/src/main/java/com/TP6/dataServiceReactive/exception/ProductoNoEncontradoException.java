@@ -0,0 +1,7 @@
+package com.TP6.dataServiceReactive.exception;
+
+public class ProductoNoEncontradoException extends RuntimeException {
+    public ProductoNoEncontradoException(String message) {
+        super(message);
+    }
+}
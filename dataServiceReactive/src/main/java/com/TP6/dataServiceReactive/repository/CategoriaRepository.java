@@ -0,0 +1,50 @@
+package com.TP6.dataServiceReactive.repository;
+
+import com.TP6.dataServiceReactive.entity.Categoria;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.TP6.dataServiceReactive.repository.FilasCatalogo.SELECT_CATEGORIAS;
+
+@Repository
+public class CategoriaRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public CategoriaRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Todas las categorías, en orden de ID
+    public Flux<Categoria> findAll() {
+        return databaseClient.sql(SELECT_CATEGORIAS + "ORDER BY c.id")
+                .map(FilasCatalogo::categoria)
+                .all();
+    }
+
+    // Buscar categoría por ID
+    public Mono<Categoria> findById(Long id) {
+        return databaseClient.sql(SELECT_CATEGORIAS + "WHERE c.id = :id")
+                .bind("id", id)
+                .map(FilasCatalogo::categoria)
+                .one();
+    }
+
+    // Buscar categoría por nombre exacto
+    public Mono<Categoria> findByNombre(String nombre) {
+        return databaseClient.sql(SELECT_CATEGORIAS + "WHERE c.nombre = :nombre")
+                .bind("nombre", nombre)
+                .map(FilasCatalogo::categoria)
+                .one();
+    }
+
+    // Categorías que tienen al menos un producto asociado
+    public Flux<Categoria> findCategoriasConProductos() {
+        return databaseClient.sql(SELECT_CATEGORIAS
+                        + "WHERE EXISTS (SELECT 1 FROM productos p WHERE p.categoria_id = c.id) ORDER BY c.id")
+                .map(FilasCatalogo::categoria)
+                .all();
+    }
+}
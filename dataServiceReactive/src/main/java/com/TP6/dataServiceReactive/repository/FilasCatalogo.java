@@ -0,0 +1,78 @@
+package com.TP6.dataServiceReactive.repository;
+
+import com.TP6.dataServiceReactive.entity.Categoria;
+import com.TP6.dataServiceReactive.entity.Inventario;
+import com.TP6.dataServiceReactive.entity.Producto;
+import io.r2dbc.spi.Readable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Consultas base y mapeo de filas compartidos por los repositorios. Productos e inventarios
+// se leen con un único SELECT (JOIN a categoría e inventario/producto) y con los mismos alias
+// de columna, así el mismo mapeo sirve para ambos.
+final class FilasCatalogo {
+
+    private static final String COLUMNAS = """
+            SELECT p.id AS producto_id, p.nombre AS producto_nombre, p.descripcion AS producto_descripcion, p.precio,
+                   c.id AS categoria_id, c.nombre AS categoria_nombre, c.descripcion AS categoria_descripcion,
+                   i.id AS inventario_id, i.cantidad, i.stock_minimo, i.fecha_actualizacion
+            """;
+
+    static final String SELECT_PRODUCTOS = COLUMNAS + """
+            FROM productos p
+            LEFT JOIN categorias c ON c.id = p.categoria_id
+            LEFT JOIN inventario i ON i.producto_id = p.id
+            """;
+
+    static final String SELECT_INVENTARIOS = COLUMNAS + """
+            FROM inventario i
+            LEFT JOIN productos p ON p.id = i.producto_id
+            LEFT JOIN categorias c ON c.id = p.categoria_id
+            """;
+
+    static final String SELECT_CATEGORIAS = """
+            SELECT c.id AS categoria_id, c.nombre AS categoria_nombre, c.descripcion AS categoria_descripcion
+            FROM categorias c
+            """;
+
+    private FilasCatalogo() {
+    }
+
+    // Producto con su categoría y su inventario (sin referencia de vuelta al producto)
+    static Producto producto(Readable fila) {
+        Producto producto = new Producto(
+                fila.get("producto_id", Long.class),
+                fila.get("producto_nombre", String.class),
+                fila.get("producto_descripcion", String.class),
+                fila.get("precio", BigDecimal.class),
+                categoria(fila),
+                null);
+        Long inventarioId = fila.get("inventario_id", Long.class);
+        if (inventarioId != null) {
+            producto.setInventario(new Inventario(inventarioId, null,
+                    fila.get("cantidad", Integer.class),
+                    fila.get("stock_minimo", Integer.class),
+                    fila.get("fecha_actualizacion", LocalDateTime.class)));
+        }
+        return producto;
+    }
+
+    // Inventario con su producto (y la categoría del producto)
+    static Inventario inventario(Readable fila) {
+        Producto producto = producto(fila);
+        Inventario inventario = producto.getInventario();
+        producto.setInventario(null);
+        inventario.setProducto(producto.getId() != null ? producto : null);
+        return inventario;
+    }
+
+    // Categoría de la fila, o null si la fila no tiene (LEFT JOIN sin coincidencia)
+    static Categoria categoria(Readable fila) {
+        Long id = fila.get("categoria_id", Long.class);
+        if (id == null) {
+            return null;
+        }
+        return new Categoria(id, fila.get("categoria_nombre", String.class), fila.get("categoria_descripcion", String.class));
+    }
+}
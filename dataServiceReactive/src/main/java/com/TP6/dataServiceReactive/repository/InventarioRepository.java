@@ -0,0 +1,64 @@
+package com.TP6.dataServiceReactive.repository;
+
+import com.TP6.dataServiceReactive.entity.Inventario;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.TP6.dataServiceReactive.repository.FilasCatalogo.SELECT_INVENTARIOS;
+
+@Repository
+public class InventarioRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public InventarioRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Todos los inventarios, en orden de ID
+    public Flux<Inventario> findAll() {
+        return databaseClient.sql(SELECT_INVENTARIOS + "ORDER BY i.id")
+                .map(FilasCatalogo::inventario)
+                .all();
+    }
+
+    // Buscar inventario por ID
+    public Mono<Inventario> findById(Long id) {
+        return databaseClient.sql(SELECT_INVENTARIOS + "WHERE i.id = :id")
+                .bind("id", id)
+                .map(FilasCatalogo::inventario)
+                .one();
+    }
+
+    // Buscar inventario por el id del producto
+    public Mono<Inventario> findByProductoId(Long productoId) {
+        return databaseClient.sql(SELECT_INVENTARIOS + "WHERE i.producto_id = :productoId")
+                .bind("productoId", productoId)
+                .map(FilasCatalogo::inventario)
+                .one();
+    }
+
+    // Buscar inventarios por cantidad exacta
+    public Flux<Inventario> findByCantidad(Integer cantidad) {
+        return databaseClient.sql(SELECT_INVENTARIOS + "WHERE i.cantidad = :cantidad ORDER BY i.id")
+                .bind("cantidad", cantidad)
+                .map(FilasCatalogo::inventario)
+                .all();
+    }
+
+    // Inventarios con stock bajo (cantidad <= stockMinimo)
+    public Flux<Inventario> findConStockBajo() {
+        return databaseClient.sql(SELECT_INVENTARIOS + "WHERE i.cantidad <= COALESCE(i.stock_minimo, 0) ORDER BY i.id")
+                .map(FilasCatalogo::inventario)
+                .all();
+    }
+
+    // Inventarios con stock alto (cantidad > stockMinimo)
+    public Flux<Inventario> findConStockAlto() {
+        return databaseClient.sql(SELECT_INVENTARIOS + "WHERE i.cantidad > COALESCE(i.stock_minimo, 0) ORDER BY i.id")
+                .map(FilasCatalogo::inventario)
+                .all();
+    }
+}
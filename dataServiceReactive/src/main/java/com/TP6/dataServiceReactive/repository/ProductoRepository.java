@@ -0,0 +1,67 @@
+package com.TP6.dataServiceReactive.repository;
+
+import com.TP6.dataServiceReactive.entity.Producto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+import static com.TP6.dataServiceReactive.repository.FilasCatalogo.SELECT_PRODUCTOS;
+
+@Repository
+public class ProductoRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ProductoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // Todos los productos, en orden de ID
+    public Flux<Producto> findAll() {
+        return databaseClient.sql(SELECT_PRODUCTOS + "ORDER BY p.id")
+                .map(FilasCatalogo::producto)
+                .all();
+    }
+
+    // Buscar producto por ID
+    public Mono<Producto> findById(Long id) {
+        return databaseClient.sql(SELECT_PRODUCTOS + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(FilasCatalogo::producto)
+                .one();
+    }
+
+    // Buscar producto por nombre exacto
+    public Mono<Producto> findByNombre(String nombre) {
+        return databaseClient.sql(SELECT_PRODUCTOS + "WHERE p.nombre = :nombre")
+                .bind("nombre", nombre)
+                .map(FilasCatalogo::producto)
+                .one();
+    }
+
+    // Buscar productos por precio exacto
+    public Flux<Producto> findByPrecio(BigDecimal precio) {
+        return databaseClient.sql(SELECT_PRODUCTOS + "WHERE p.precio = :precio ORDER BY p.id")
+                .bind("precio", precio)
+                .map(FilasCatalogo::producto)
+                .all();
+    }
+
+    // Buscar productos por nombre de la categoría
+    public Flux<Producto> findByNombreCategoria(String nombreCategoria) {
+        return databaseClient.sql(SELECT_PRODUCTOS + "WHERE c.nombre = :nombreCategoria ORDER BY p.id")
+                .bind("nombreCategoria", nombreCategoria)
+                .map(FilasCatalogo::producto)
+                .all();
+    }
+
+    // Productos con stock bajo (cantidad <= stockMinimo)
+    public Flux<Producto> findConStockBajo() {
+        return databaseClient.sql(SELECT_PRODUCTOS + "WHERE i.cantidad <= COALESCE(i.stock_minimo, 0) ORDER BY p.id")
+                .map(FilasCatalogo::producto)
+                .all();
+    }
+}
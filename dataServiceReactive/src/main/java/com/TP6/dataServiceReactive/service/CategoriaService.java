@@ -0,0 +1,44 @@
+package com.TP6.dataServiceReactive.service;
+
+import com.TP6.dataServiceReactive.entity.Categoria;
+import com.TP6.dataServiceReactive.exception.CategoriaNoEncontradaException;
+import com.TP6.dataServiceReactive.repository.CategoriaRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class CategoriaService {
+
+    private final CategoriaRepository categoriaRepository;
+
+    public CategoriaService(CategoriaRepository categoriaRepository) {
+        this.categoriaRepository = categoriaRepository;
+    }
+
+    // Devuelve todas las categorías
+    public Flux<Categoria> obtenerTodos() {
+        return categoriaRepository.findAll();
+    }
+
+    // Busca una categoría por su ID
+    // Emite error si no la encuentra
+    public Mono<Categoria> buscarPorId(Long id) {
+        return categoriaRepository.findById(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new CategoriaNoEncontradaException("La Categoría con ID " + id + " no ha sido encontrada")));
+    }
+
+    // Busca una categoría por su nombre
+    // Emite error si no la encuentra
+    public Mono<Categoria> buscarPorNombre(String nombre) {
+        return categoriaRepository.findByNombre(nombre)
+                .switchIfEmpty(Mono.error(() ->
+                        new CategoriaNoEncontradaException("La Categoría '" + nombre + "' no ha sido encontrada")));
+    }
+
+    // Devuelve las categorías que tienen productos asociados
+    public Flux<Categoria> buscarCategoriasConProductos() {
+        return categoriaRepository.findCategoriasConProductos();
+    }
+}
@@ -0,0 +1,54 @@
+package com.TP6.dataServiceReactive.service;
+
+import com.TP6.dataServiceReactive.entity.Inventario;
+import com.TP6.dataServiceReactive.exception.InventarioNoEncontradoException;
+import com.TP6.dataServiceReactive.repository.InventarioRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class InventarioService {
+
+    private final InventarioRepository inventarioRepository;
+
+    public InventarioService(InventarioRepository inventarioRepository) {
+        this.inventarioRepository = inventarioRepository;
+    }
+
+    // Devuelve todos los inventarios
+    public Flux<Inventario> obtenerTodos() {
+        return inventarioRepository.findAll();
+    }
+
+    // Busca un inventario por su ID
+    // Emite error si no existe
+    public Mono<Inventario> buscarPorId(Long id) {
+        return inventarioRepository.findById(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new InventarioNoEncontradoException("El Inventario con ID " + id + " no ha sido encontrado")));
+    }
+
+    // Busca el inventario asociado a un producto por su ID
+    // Emite error si no se encuentra
+    public Mono<Inventario> buscarPorProducto(Long productoId) {
+        return inventarioRepository.findByProductoId(productoId)
+                .switchIfEmpty(Mono.error(() ->
+                        new InventarioNoEncontradoException("Inventario no encontrado para el producto con ID " + productoId)));
+    }
+
+    // Devuelve todos los inventarios que tienen una cantidad exacta
+    public Flux<Inventario> buscarPorCantidad(Integer cantidad) {
+        return inventarioRepository.findByCantidad(cantidad);
+    }
+
+    // Devuelve los inventarios con stock bajo
+    public Flux<Inventario> buscarConStockBajo() {
+        return inventarioRepository.findConStockBajo();
+    }
+
+    // Devuelve los inventarios con stock alto
+    public Flux<Inventario> buscarConStockAlto() {
+        return inventarioRepository.findConStockAlto();
+    }
+}
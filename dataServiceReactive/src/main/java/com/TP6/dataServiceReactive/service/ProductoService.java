@@ -0,0 +1,56 @@
+package com.TP6.dataServiceReactive.service;
+
+import com.TP6.dataServiceReactive.entity.Producto;
+import com.TP6.dataServiceReactive.exception.ProductoNoEncontradoException;
+import com.TP6.dataServiceReactive.repository.ProductoRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+@Service
+public class ProductoService {
+
+    private final ProductoRepository productoRepository;
+
+    public ProductoService(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    // Devuelve todos los productos (se emiten a medida que llegan de la base)
+    public Flux<Producto> obtenerTodos() {
+        return productoRepository.findAll();
+    }
+
+    // Busca un producto por su ID
+    // Emite error si no existe
+    public Mono<Producto> buscarPorId(Long id) {
+        return productoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() ->
+                        new ProductoNoEncontradoException("El Producto con ID " + id + " no ha sido encontrado")));
+    }
+
+    // Busca un producto por su nombre
+    // Emite error si no existe
+    public Mono<Producto> buscarPorNombre(String nombre) {
+        return productoRepository.findByNombre(nombre)
+                .switchIfEmpty(Mono.error(() ->
+                        new ProductoNoEncontradoException("El Producto '" + nombre + "' no ha sido encontrado")));
+    }
+
+    // Devuelve todos los productos que tienen un precio exacto
+    public Flux<Producto> buscarPorPrecio(BigDecimal precio) {
+        return productoRepository.findByPrecio(precio);
+    }
+
+    // Devuelve los productos de una categoría por su nombre
+    public Flux<Producto> buscarPorCategoria(String nombreCategoria) {
+        return productoRepository.findByNombreCategoria(nombreCategoria);
+    }
+
+    // Devuelve los productos cuyo stock es menor o igual al mínimo
+    public Flux<Producto> buscarConStockBajo() {
+        return productoRepository.findConStockBajo();
+    }
+}
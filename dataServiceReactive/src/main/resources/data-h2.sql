@@ -0,0 +1,16 @@
+-- Datos de ejemplo para el perfil dev
+MERGE INTO categorias (id, nombre, descripcion) KEY (id) VALUES
+    (1, 'Bebidas', 'Gaseosas y jugos'),
+    (2, 'Almacén', 'Productos secos'),
+    (3, 'Limpieza', 'Sin productos asociados');
+
+MERGE INTO productos (id, nombre, descripcion, precio, categoria_id) KEY (id) VALUES
+    (1, 'Coca Cola', 'Botella 1.5L', 1500.00, 1),
+    (2, 'Jugo de naranja', 'Caja 1L', 900.00, 1),
+    (3, 'Arroz', 'Paquete 1kg', 1200.00, 2),
+    (4, 'Fideos', 'Paquete 500g', 800.00, NULL);
+
+MERGE INTO inventario (id, producto_id, cantidad, stock_minimo, fecha_actualizacion) KEY (id) VALUES
+    (1, 1, 20, 5, TIMESTAMP '2025-01-01 10:00:00'),
+    (2, 2, 3, 5, TIMESTAMP '2025-01-01 10:00:00'),
+    (3, 3, 5, 5, TIMESTAMP '2025-01-01 10:00:00');
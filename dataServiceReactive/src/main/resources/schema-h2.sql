@@ -0,0 +1,22 @@
+-- Esquema de las tablas del catálogo tal como las crea el data-service (JPA)
+CREATE TABLE IF NOT EXISTS categorias (
+    id          BIGINT PRIMARY KEY,
+    nombre      VARCHAR(100) NOT NULL UNIQUE,
+    descripcion VARCHAR(500)
+);
+
+CREATE TABLE IF NOT EXISTS productos (
+    id           BIGINT PRIMARY KEY,
+    nombre       VARCHAR(100)   NOT NULL,
+    descripcion  VARCHAR(500),
+    precio       NUMERIC(10, 2) NOT NULL,
+    categoria_id BIGINT REFERENCES categorias (id)
+);
+
+CREATE TABLE IF NOT EXISTS inventario (
+    id                  BIGINT PRIMARY KEY,
+    producto_id         BIGINT UNIQUE REFERENCES productos (id),
+    cantidad            INTEGER NOT NULL,
+    stock_minimo        INTEGER,
+    fecha_actualizacion TIMESTAMP
+);
@@ -0,0 +1,108 @@
+package com.TP6.dataServiceReactive.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Prueba de carga de lecturas: muchos clientes concurrentes (un hilo virtual cada uno)
+// pidiendo productos por ID y el listado completo. Siempre mide esta variante reactiva
+// (perfil dev, datos de data-h2.sql); si se indica -Dcarga.url.mvc=http://host:8081 mide
+// también el data-service MVC, que debe tener cargados los mismos productos 1..4.
+// Ejecutar con: mvn test -Pbenchmark -Dtest=CargaConcurrenteBenchmarkTest [-Dcarga.clientes=2000]
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CargaConcurrenteBenchmarkTest {
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 1000);
+    private static final int PETICIONES_POR_CLIENTE = Integer.getInteger("carga.peticiones", 20);
+
+    @LocalServerPort
+    private int puerto;
+
+    // Resultado de una corrida
+    private record Resultado(double peticionesPorSegundo, double p50Ms, double p99Ms, int errores) {
+    }
+
+    @Test
+    void cargaConcurrenteDeLecturas() throws Exception {
+        List<String> destinos = new ArrayList<>();
+        destinos.add("http://localhost:" + puerto);
+        String urlMvc = System.getProperty("carga.url.mvc");
+        if (urlMvc != null) {
+            destinos.add(urlMvc);
+        }
+
+        System.out.printf("%n[benchmark] %d clientes concurrentes x %d peticiones%n", CLIENTES, PETICIONES_POR_CLIENTE);
+        for (String destino : destinos) {
+            medir(destino); // calentamiento
+            Resultado resultado = medir(destino);
+            System.out.printf("[benchmark] %-28s %,8.0f pet/s   p50 %7.1f ms   p99 %7.1f ms   errores %d%n",
+                    destino, resultado.peticionesPorSegundo(), resultado.p50Ms(), resultado.p99Ms(), resultado.errores());
+            assertEquals(0, resultado.errores());
+        }
+    }
+
+    private Resultado medir(String base) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long[] latencias = new long[CLIENTES * PETICIONES_POR_CLIENTE];
+        AtomicInteger indice = new AtomicInteger();
+        AtomicInteger errores = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tareas = new ArrayList<>(CLIENTES);
+            for (int c = 0; c < CLIENTES; c++) {
+                int cliente = c;
+                tareas.add(clientes.submit(() -> {
+                    for (int i = 0; i < PETICIONES_POR_CLIENTE; i++) {
+                        // Una de cada diez peticiones es el listado completo
+                        String ruta = i % 10 == 0 ? "/data/productos" : "/data/productos/id/" + (1 + (cliente + i) % 4);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + ruta))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        latencias[indice.getAndIncrement()] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        Arrays.sort(latencias);
+        return new Resultado(latencias.length / segundos,
+                latencias[latencias.length / 2] / 1_000_000.0,
+                latencias[(int) (latencias.length * 0.99)] / 1_000_000.0,
+                errores.get());
+    }
+}
@@ -0,0 +1,113 @@
+package com.TP6.dataServiceReactive.controller;
+
+import com.TP6.dataServiceReactive.entity.Producto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+// Usa el perfil dev: H2 en memoria con schema-h2.sql y los datos de ejemplo de data-h2.sql
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DataControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    // ------------------- PRODUCTOS -------------------
+
+    // Caso exitoso: los productos se serializan con categoría e inventario como en el data-service
+    @Test
+    void cuandoObtenerTodosLosProductos_entoncesIncluyeCategoriaEInventario() {
+        webTestClient.get().uri("/data/productos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(4)
+                .jsonPath("$[0].nombre").isEqualTo("Coca Cola")
+                .jsonPath("$[0].categoria.nombre").isEqualTo("Bebidas")
+                .jsonPath("$[0].inventario.cantidad").isEqualTo(20)
+                .jsonPath("$[0].inventario.producto").doesNotExist()
+                .jsonPath("$[3].categoria").isEmpty()
+                .jsonPath("$[3].inventario").isEmpty();
+    }
+
+    // Caso exitoso: con NDJSON se emite un producto por línea, consumidos de a uno
+    @Test
+    void cuandoPedirProductosComoNdjson_entoncesSeEmitenDeAUno() {
+        Flux<Producto> productos = webTestClient.get().uri("/data/productos")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Producto.class)
+                .getResponseBody();
+
+        StepVerifier.create(productos, 1)
+                .expectNextMatches(p -> p.getNombre().equals("Coca Cola"))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    // Caso error: producto inexistente devuelve 404 con el mensaje del data-service
+    @Test
+    void cuandoObtenerProductoInexistente_entoncesRetorna404() {
+        webTestClient.get().uri("/data/productos/id/999")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("El Producto con ID 999 no ha sido encontrado");
+    }
+
+    // Caso exitoso: productos con stock bajo (cantidad <= stock mínimo)
+    @Test
+    void cuandoObtenerProductosConStockBajo_entoncesFiltraPorStockMinimo() {
+        webTestClient.get().uri("/data/productos/stock-bajo")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].nombre").isEqualTo("Jugo de naranja")
+                .jsonPath("$[1].nombre").isEqualTo("Arroz");
+    }
+
+    // ------------------- CATEGORÍAS -------------------
+
+    // Caso exitoso: sólo categorías con productos asociados
+    @Test
+    void cuandoObtenerCategoriasConProductos_entoncesExcluyeVacias() {
+        webTestClient.get().uri("/data/categorias/con-productos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].nombre").isEqualTo("Almacén");
+    }
+
+    // ------------------- INVENTARIO -------------------
+
+    // Caso exitoso: el inventario incluye su producto y la categoría del producto
+    @Test
+    void cuandoObtenerInventarioPorProducto_entoncesIncluyeProductoYCategoria() {
+        webTestClient.get().uri("/data/inventario/producto/3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.cantidad").isEqualTo(5)
+                .jsonPath("$.stockMinimo").isEqualTo(5)
+                .jsonPath("$.producto.nombre").isEqualTo("Arroz")
+                .jsonPath("$.producto.categoria.nombre").isEqualTo("Almacén")
+                .jsonPath("$.producto.inventario").doesNotExist();
+    }
+
+    // Caso error: producto sin inventario devuelve 404
+    @Test
+    void cuandoObtenerInventarioDeProductoSinInventario_entoncesRetorna404() {
+        webTestClient.get().uri("/data/inventario/producto/4")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}